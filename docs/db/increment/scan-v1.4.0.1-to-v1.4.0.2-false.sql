@@ -0,0 +1,67 @@
+USE `scan_platon`;
+
+-- token持有者余额由agent按转账事件增量记账，记录已应用的最后一笔事件位置保证幂等
+ALTER TABLE `token_holder` ADD COLUMN `ledger_bn` bigint(20) NOT NULL DEFAULT '0' COMMENT '余额账本已应用的最后一笔转账事件所在区块';
+ALTER TABLE `token_holder` ADD COLUMN `ledger_seq` bigint(20) NOT NULL DEFAULT '0' COMMENT '余额账本已应用的最后一笔转账事件序号';
+ALTER TABLE `token_1155_holder` ADD COLUMN `ledger_bn` bigint(20) NOT NULL DEFAULT '0' COMMENT '余额账本已应用的最后一笔转账事件所在区块';
+ALTER TABLE `token_1155_holder` ADD COLUMN `ledger_seq` bigint(20) NOT NULL DEFAULT '0' COMMENT '余额账本已应用的最后一笔转账事件序号';
+-- 升级步骤：先停止job的持有者余额更新任务，再停止agent，然后执行本脚本
+-- 已有记录的余额由job按链上最新块轮询，视为agent已采集块高(network_stat.cur_number)的余额：账本位置初始化为该块高，序号取最大值，该块及之前的转账事件不再记账，agent重启后只对之后的事件记账
+-- 停止job与停止agent之间相差的少量块造成的余额差异，由job抽样核对余额账本时以链上余额修正
+UPDATE `token_holder` SET `ledger_bn` = (SELECT `cur_number` FROM `network_stat` LIMIT 1), `ledger_seq` = 9223372036854775807;
+UPDATE `token_1155_holder` SET `ledger_bn` = (SELECT `cur_number` FROM `network_stat` LIMIT 1), `ledger_seq` = 9223372036854775807;
+
+DROP TABLE IF EXISTS `token_balance_polling`;
+CREATE TABLE `token_balance_polling`
+(
+    `token_address` varchar(64) NOT NULL COMMENT '合约地址',
+    `reason`        varchar(255)         DEFAULT NULL COMMENT '标记原因',
+    `create_time`   timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`token_address`)
+) COMMENT '转账事件不能完整反映余额变动的非标准token，余额由定时任务轮询链上更新';
+
+-- erc721合约持有者tokenId数量聚合，agent随库存变更维护，持有者列表按数量分页
+DROP TABLE IF EXISTS `token_721_owner`;
+CREATE TABLE `token_721_owner`
+(
+    `token_address` varchar(64) NOT NULL COMMENT '合约地址',
+    `owner`         varchar(64) NOT NULL COMMENT '持有者地址',
+    `quantity`      bigint(20)  NOT NULL DEFAULT '0' COMMENT '持有的tokenId数量',
+    PRIMARY KEY (`token_address`, `owner`),
+    KEY `idx_token_quantity` (`token_address`, `quantity`)
+) COMMENT 'erc721合约持有者tokenId数量';
+
+INSERT INTO `token_721_owner` (`token_address`, `owner`, `quantity`)
+SELECT `token_address`, `owner`, count(1) FROM `token_inventory` WHERE `owner` IS NOT NULL GROUP BY `token_address`, `owner`;
+
+-- 流通量组成按结算周期由agent快照，历史块高的流通量按相邻快照插值计算
+DROP TABLE IF EXISTS `supply_snapshot`;
+CREATE TABLE `supply_snapshot`
+(
+    `settle_epoch`            int(11)        NOT NULL COMMENT '结算周期轮数',
+    `block_number`            bigint(20)     NOT NULL COMMENT '快照块高，结算周期的第一个块',
+    `year_num`                int(11)        NOT NULL COMMENT '增发年份',
+    `issue_value`             decimal(65, 0) NOT NULL COMMENT '总发行量(von)',
+    `restricting_value`       decimal(65, 0) NOT NULL COMMENT '锁仓未到期的金额(von)',
+    `incite_value`            decimal(65, 0) NOT NULL COMMENT '激励池余额(von)',
+    `foundation_value`        decimal(65, 0) NOT NULL COMMENT '参与计算的基金会账户余额(von)',
+    `foundation_remain_value` decimal(65, 0) NOT NULL COMMENT '基金会在锁仓合约中的剩余金额(von)',
+    `create_time`             timestamp      NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`settle_epoch`),
+    UNIQUE KEY `uk_block_number` (`block_number`)
+) COMMENT '结算周期流通量组成快照';
+
+-- 节点KeyBase用户信息缓存，job按有效期刷新，未查到的用户同样缓存
+DROP TABLE IF EXISTS `keybase_profile`;
+CREATE TABLE `keybase_profile`
+(
+    `external_id` varchar(255) NOT NULL COMMENT 'KeyBase id',
+    `user_name`   varchar(128)          DEFAULT NULL COMMENT 'KeyBase用户名',
+    `icon`        varchar(255)          DEFAULT NULL COMMENT 'KeyBase头像',
+    `found`       tinyint(1)   NOT NULL DEFAULT '0' COMMENT '是否查到用户信息:0-否,1-是',
+    `fetch_time`  timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '请求KeyBase的时间',
+    PRIMARY KEY (`external_id`)
+) COMMENT '节点KeyBase用户信息缓存';
+
+-- agent追块时按节点合并出块数和奖励，未入库的变化量随区块号一起记录，重启后继续累计
+ALTER TABLE `network_stat` ADD COLUMN `pending_new_block` text COMMENT '未入库的新区块出块数和奖励变化量(json)';
@@ -0,0 +1,7 @@
+#
+# XXL-JOB v2.3.1-SNAPSHOT
+# Copyright (c) 2015-present, xuxueli.
+use `xxl_job`;
+
+INSERT INTO `xxl_job_info`(`job_group`, `job_desc`, `add_time`, `update_time`, `author`, `alarm_email`, `schedule_type`, `schedule_conf`, `misfire_strategy`, `executor_route_strategy`, `executor_handler`, `executor_param`, `executor_block_strategy`, `executor_timeout`, `executor_fail_retry_count`, `glue_type`, `glue_source`, `glue_remark`, `glue_updatetime`, `child_jobid`, `trigger_status`, `trigger_last_time`, `trigger_next_time`)
+VALUES (2, '节点有效委托地址数对账', '2026-10-19 10:00:00', '2026-10-19 10:00:00', 'admin', '', 'CRON', '0 0 * * * ?', 'DO_NOTHING', 'FIRST', 'validDelegatorReconcileJobHandler', '', 'SERIAL_EXECUTION', 0, 0, 'BEAN', '', 'GLUE代码初始化', '2026-10-19 10:00:00', '', 0, 0, 0);
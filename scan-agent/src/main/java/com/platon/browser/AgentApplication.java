@@ -9,6 +9,7 @@ import com.platon.browser.client.RetryableClient;
 import com.platon.browser.enums.AppStatus;
 import com.platon.browser.publisher.BlockEventPublisher;
 import com.platon.browser.service.block.BlockService;
+import com.platon.browser.service.epoch.EpochPrefetchService;
 import com.platon.browser.service.epoch.EpochService;
 import com.platon.browser.service.receipt.ReceiptService;
 import com.platon.browser.utils.AppStatusUtil;
@@ -61,6 +62,12 @@ public class AgentApplication implements ApplicationRunner {
     @Resource
     private EpochService epochService;
 
+    /**
+     * 周期切换数据预取服务
+     */
+    @Resource
+    private EpochPrefetchService epochPrefetchService;
+
     /**
      * 启动一致性检查服务
      */
@@ -111,6 +118,8 @@ public class AgentApplication implements ApplicationRunner {
                 CompletableFuture<PlatonBlock> blockCF = blockService.getBlockAsync(collectedNumber);
                 // 异步获取交易回执
                 CompletableFuture<ReceiptResult> receiptCF = receiptService.getReceiptAsync(collectedNumber);
+                // 异步预取之后的结算、共识、选举区块需要的链上数据
+                epochPrefetchService.prefetch(collectedNumber, blockService.getLatestBlockNumber());
                 // 获取周期切换消息
                 EpochMessage epochMessage = epochService.getEpochMessage(collectedNumber);
                 blockEventPublisher.publish(blockCF, receiptCF, epochMessage, traceId);
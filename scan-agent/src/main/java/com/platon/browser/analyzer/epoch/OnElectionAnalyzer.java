@@ -17,6 +17,7 @@ import com.platon.browser.dao.param.epoch.Election;
 import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
 import com.platon.browser.exception.BusinessException;
+import com.platon.browser.service.epoch.EpochPrefetchService;
 import com.platon.browser.service.ppos.StakeEpochService;
 import com.platon.browser.utils.EpochUtil;
 import com.platon.browser.utils.HexUtil;
@@ -58,13 +59,20 @@ public class OnElectionAnalyzer {
     @Resource
     private StakeEpochService stakeEpochService;
 
+    @Resource
+    private EpochPrefetchService epochPrefetchService;
+
     public List<NodeOpt> analyze(CollectionEvent event, Block block) {
         long startTime = System.currentTimeMillis();
         // 操作日志列表
         List<NodeOpt> nodeOpts = new ArrayList<>();
         try {
-            Web3j web3j = platOnClient.getWeb3jWrapper().getWeb3j();
-            List<HistoryLowRateSlash> slashList = specialApi.getHistoryLowRateSlashList(web3j, BigInteger.valueOf(block.getNum()));
+            // 优先使用采集主流程提前预取的低出块处罚列表
+            List<HistoryLowRateSlash> slashList = epochPrefetchService.takeLowRateSlashList(block.getNum());
+            if (slashList == null) {
+                Web3j web3j = platOnClient.getWeb3jWrapper().getWeb3j();
+                slashList = specialApi.getHistoryLowRateSlashList(web3j, BigInteger.valueOf(block.getNum()));
+            }
             if (!slashList.isEmpty()) {
                 List<String> slashNodeIdList = new ArrayList<>();
                 // 统一节点ID格式： 0x开头
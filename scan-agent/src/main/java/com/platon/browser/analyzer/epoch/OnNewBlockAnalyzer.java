@@ -18,12 +18,12 @@ import com.platon.browser.v0150.V0150Config;
 import com.platon.browser.dao.entity.Config;
 import com.platon.browser.dao.entity.Proposal;
 import com.platon.browser.dao.entity.ProposalExample;
-import com.platon.browser.dao.custommapper.NewBlockMapper;
 import com.platon.browser.dao.mapper.ProposalMapper;
 import com.platon.browser.dao.param.epoch.NewBlock;
 import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.exception.BusinessException;
 import com.platon.browser.exception.NoSuchBeanException;
+import com.platon.browser.service.block.NewBlockAccumulator;
 import com.platon.browser.service.govern.ParameterService;
 import com.platon.browser.service.proposal.ProposalService;
 import com.platon.browser.v0150.bean.AdjustParam;
@@ -44,7 +44,7 @@ public class OnNewBlockAnalyzer {
     private NodeCache nodeCache;
 
     @Resource
-    private NewBlockMapper newBlockMapper;
+    private NewBlockAccumulator newBlockAccumulator;
 
     @Resource
     private NetworkStatCache networkStatCache;
@@ -96,7 +96,8 @@ public class OnNewBlockAnalyzer {
                                     .predictStakingReward(event.getEpochMessage().getStakeReward())
                                     .build();
 
-        newBlockMapper.newBlock(newBlock);
+        // 追块时按节点合并后批量入库
+        newBlockAccumulator.add(newBlock);
         log.info("块高[{}]节点[{}]的手续费为[{}]出块奖励为[{}]",
                  event.getBlock().getNum(),
                  newBlock.getNodeId(),
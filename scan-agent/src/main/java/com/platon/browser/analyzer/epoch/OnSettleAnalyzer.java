@@ -10,12 +10,12 @@ import com.platon.browser.dao.entity.GasEstimate;
 import com.platon.browser.dao.entity.GasEstimateLog;
 import com.platon.browser.dao.entity.Staking;
 import com.platon.browser.dao.entity.StakingExample;
-import com.platon.browser.dao.mapper.GasEstimateLogMapper;
 import com.platon.browser.dao.mapper.StakingMapper;
 import com.platon.browser.dao.param.epoch.Settle;
 import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
 import com.platon.browser.exception.BusinessException;
+import com.platon.browser.publisher.GasEstimateEventPublisher;
 import com.platon.browser.utils.CalculateUtils;
 import com.platon.browser.v0150.service.RestrictingMinimumReleaseParamService;
 import com.platon.contracts.ppos.dto.resp.Node;
@@ -46,7 +46,7 @@ public class OnSettleAnalyzer {
     private CustomGasEstimateLogMapper customGasEstimateLogMapper;
 
     @Resource
-    private GasEstimateLogMapper gasEstimateLogMapper;
+    private GasEstimateEventPublisher gasEstimateEventPublisher;
 
     @Resource
     private RestrictingMinimumReleaseParamService restrictingMinimumReleaseParamService;
@@ -171,19 +171,17 @@ public class OnSettleAnalyzer {
             gasEstimates.add(ge);
         });
 
-        // 1、把周期数需要自增1的节点质押先入mysql数据库
-        Long seq = block.getNum() * 10000;
-        List<GasEstimateLog> gasEstimateLogs = new ArrayList<>();
-        GasEstimateLog gasEstimateLog = new GasEstimateLog();
-        gasEstimateLog.setSeq(seq);
-        gasEstimateLog.setJson(JSON.toJSONString(gasEstimates));
-        gasEstimateLogs.add(gasEstimateLog);
-        customGasEstimateLogMapper.batchInsertOrUpdateSelective(gasEstimateLogs, GasEstimateLog.Column.values());
-
+        // 把周期数需要自增1的节点质押记录到mysql数据库，与区块在同一事务中提交，由GasEstimateEventHandler异步批量累加
         if (CollUtil.isNotEmpty(gasEstimates)) {
-            epochBusinessMapper.updateGasEstimate(gasEstimates);
+            Long seq = block.getNum() * 10000;
+            List<GasEstimateLog> gasEstimateLogs = new ArrayList<>();
+            GasEstimateLog gasEstimateLog = new GasEstimateLog();
+            gasEstimateLog.setSeq(seq);
+            gasEstimateLog.setJson(JSON.toJSONString(gasEstimates));
+            gasEstimateLogs.add(gasEstimateLog);
+            customGasEstimateLogMapper.batchInsertOrUpdateSelective(gasEstimateLogs, GasEstimateLog.Column.values());
+            gasEstimateEventPublisher.publish(seq, gasEstimates, event.getTraceId());
         }
-        gasEstimateLogMapper.deleteByPrimaryKey(seq);
 
         log.debug("处理耗时:{} ms", System.currentTimeMillis() - startTime);
 
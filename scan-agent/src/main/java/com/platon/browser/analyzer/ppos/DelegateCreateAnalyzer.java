@@ -2,18 +2,15 @@ package com.platon.browser.analyzer.ppos;
 
 import com.platon.browser.bean.CollectionEvent;
 import com.platon.browser.dao.entity.GasEstimate;
-import com.platon.browser.dao.custommapper.CustomGasEstimateMapper;
-import com.platon.browser.dao.custommapper.DelegateBusinessMapper;
 import com.platon.browser.dao.param.ppos.DelegateCreate;
 import com.platon.browser.elasticsearch.dto.Transaction;
 import com.platon.browser.param.DelegateCreateParam;
+import com.platon.browser.service.ppos.PPOSMutationBuffer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * @description: 委托业务参数转换器
@@ -25,10 +22,7 @@ import java.util.List;
 public class DelegateCreateAnalyzer extends PPOSAnalyzer<DelegateCreate> {
 
     @Resource
-    private DelegateBusinessMapper delegateBusinessMapper;
-
-    @Resource
-    private CustomGasEstimateMapper customGasEstimateMapper;
+    private PPOSMutationBuffer pposMutationBuffer;
 
     /**
      * 发起委托(委托)
@@ -59,17 +53,16 @@ public class DelegateCreateAnalyzer extends PPOSAnalyzer<DelegateCreate> {
                 .stakingBlockNumber(txParam.getStakingBlockNum())
                 .build();
 
-        delegateBusinessMapper.create(businessParam);
+        // 区块内合并后统一入库
+        pposMutationBuffer.delegate(businessParam);
 
-        // 1. 新增 估算gas委托未计算周期 epoch = 0: 直接入库到mysql数据库
-        List<GasEstimate> estimates = new ArrayList<>();
+        // 1. 新增 估算gas委托未计算周期 epoch = 0: 区块内合并后入库到mysql数据库
         GasEstimate estimate = new GasEstimate();
         estimate.setNodeId(txParam.getNodeId());
         estimate.setSbn(txParam.getStakingBlockNum().longValue());
         estimate.setAddr(tx.getFrom());
         estimate.setEpoch(0L);
-        estimates.add(estimate);
-        customGasEstimateMapper.batchInsertOrUpdateSelective(estimates, GasEstimate.Column.values());
+        pposMutationBuffer.gasEstimate(estimate);
 
         log.debug("处理耗时:{} ms", System.currentTimeMillis() - startTime);
         return businessParam;
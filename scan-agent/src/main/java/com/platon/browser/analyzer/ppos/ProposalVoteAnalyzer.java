@@ -3,13 +3,13 @@ package com.platon.browser.analyzer.ppos;
 import cn.hutool.core.util.StrUtil;
 import com.platon.browser.bean.CollectionEvent;
 import com.platon.browser.bean.ComplementNodeOpt;
-import com.platon.browser.dao.custommapper.ProposalBusinessMapper;
 import com.platon.browser.dao.entity.Proposal;
 import com.platon.browser.dao.mapper.ProposalMapper;
 import com.platon.browser.dao.param.ppos.ProposalVote;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
 import com.platon.browser.elasticsearch.dto.Transaction;
 import com.platon.browser.param.ProposalVoteParam;
+import com.platon.browser.service.ppos.PPOSMutationBuffer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,7 +28,7 @@ import java.util.Date;
 public class ProposalVoteAnalyzer extends PPOSAnalyzer<NodeOpt> {
 
     @Resource
-    private ProposalBusinessMapper proposalBusinessMapper;
+    private PPOSMutationBuffer pposMutationBuffer;
 
     @Resource
     private ProposalMapper proposalMapper;
@@ -89,7 +89,8 @@ public class ProposalVoteAnalyzer extends PPOSAnalyzer<NodeOpt> {
                                                  .voteOption(Integer.valueOf(txParam.getOption()))
                                                  .build();
 
-        proposalBusinessMapper.vote(businessParam);
+        // 区块内合并后统一入库
+        pposMutationBuffer.vote(businessParam);
 
         String desc = NodeOpt.TypeEnum.VOTE.getTpl()
                                            .replace("ID", proposal.getPipId())
@@ -3,11 +3,11 @@ package com.platon.browser.analyzer.ppos;
 import com.platon.browser.cache.NetworkStatCache;
 import com.platon.browser.bean.ComplementNodeOpt;
 import com.platon.browser.bean.CollectionEvent;
-import com.platon.browser.dao.custommapper.StakeBusinessMapper;
 import com.platon.browser.dao.param.ppos.StakeIncrease;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
 import com.platon.browser.elasticsearch.dto.Transaction;
 import com.platon.browser.param.StakeIncreaseParam;
+import com.platon.browser.service.ppos.PPOSMutationBuffer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -23,7 +23,7 @@ import javax.annotation.Resource;
 public class StakeIncreaseAnalyzer extends PPOSAnalyzer<NodeOpt> {
 
     @Resource
-    private StakeBusinessMapper stakeBusinessMapper;
+    private PPOSMutationBuffer pposMutationBuffer;
 
     @Resource
     private NetworkStatCache networkStatCache;
@@ -55,7 +55,8 @@ public class StakeIncreaseAnalyzer extends PPOSAnalyzer<NodeOpt> {
                 .stakingBlockNum(txParam.getStakingBlockNum())
                 .build();
 
-        stakeBusinessMapper.increase(businessParam);
+        // 区块内合并后统一入库
+        pposMutationBuffer.increase(businessParam);
 
         log.debug("处理耗时:{} ms", System.currentTimeMillis() - startTime);
 
@@ -46,6 +46,9 @@ public class StatisticsNetworkAnalyzer {
     @Resource
     private PlatOnClient platOnClient;
 
+    @Resource
+    private SupplySnapshotAnalyzer supplySnapshotAnalyzer;
+
     /**
      * 年份
      */
@@ -93,6 +96,8 @@ public class StatisticsNetworkAnalyzer {
                 totalIssueValue = getTotalIssueValue(yearNum);
                 networkStat.setYearNum(yearNum);
                 networkStat.setIssueValue(totalIssueValue);
+                // 记录本结算周期的流通量组成快照
+                supplySnapshotAnalyzer.analyze(curBlockNum, settleEpochRound.intValue(), yearNum, totalIssueValue);
             } else {
                 // 非结算周期的区块则取本地内存中的值，如果值校验不对则重新获取
                 if (yearNum < 1 || ObjectUtil.isNull(totalIssueValue) || totalIssueValue.compareTo(BigDecimal.ZERO) <= 0) {
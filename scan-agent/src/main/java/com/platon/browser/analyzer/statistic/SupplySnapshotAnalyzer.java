@@ -0,0 +1,95 @@
+package com.platon.browser.analyzer.statistic;
+
+import cn.hutool.core.collection.CollUtil;
+import com.platon.browser.bean.RestrictingBalance;
+import com.platon.browser.bean.SupplySnapshot;
+import com.platon.browser.client.PlatOnClient;
+import com.platon.browser.client.SpecialApi;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.dao.custommapper.CustomInternalAddressMapper;
+import com.platon.browser.dao.custommapper.CustomRpPlanMapper;
+import com.platon.browser.dao.custommapper.CustomSupplySnapshotMapper;
+import com.platon.browser.service.account.AccountService;
+import com.platon.browser.utils.CalculateUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 结算周期流通量组成快照
+ * 每个结算周期的第一个块记录一次流通量的各组成部分，供接口按块高查询历史流通量，避免每次查询都访问节点的历史状态
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Service
+public class SupplySnapshotAnalyzer {
+
+    @Resource
+    private BlockChainConfig chainConfig;
+
+    @Resource
+    private CustomRpPlanMapper customRpPlanMapper;
+
+    @Resource
+    private CustomInternalAddressMapper customInternalAddressMapper;
+
+    @Resource
+    private CustomSupplySnapshotMapper customSupplySnapshotMapper;
+
+    @Resource
+    private AccountService accountService;
+
+    @Resource
+    private SpecialApi specialApi;
+
+    @Resource
+    private PlatOnClient platOnClient;
+
+    /**
+     * 记录结算周期的流通量组成，失败时只记录日志，接口对缺少快照的结算周期实时计算
+     *
+     * @param blockNumber 结算周期的第一个块高
+     * @param settleEpoch 结算周期轮数
+     * @param yearNum     增发年份
+     * @param issueValue  总发行量(von)
+     * @return void
+     * @date 2026/10/19
+     */
+    public void analyze(long blockNumber, int settleEpoch, int yearNum, BigDecimal issueValue) {
+        try {
+            SupplySnapshot snapshot = new SupplySnapshot();
+            snapshot.setSettleEpoch(settleEpoch);
+            snapshot.setBlockNumber(blockNumber);
+            snapshot.setYearNum(yearNum);
+            snapshot.setIssueValue(issueValue);
+            BigDecimal rpNotExpiredValue = customRpPlanMapper.getRPNotExpiredValue(chainConfig.getSettlePeriodBlockCount().longValue(), blockNumber);
+            snapshot.setRestrictingValue(Optional.ofNullable(rpNotExpiredValue).orElse(BigDecimal.ZERO));
+            snapshot.setInciteValue(accountService.getInciteBalance(BigInteger.valueOf(blockNumber)));
+            snapshot.setFoundationValue(getFoundationValue(blockNumber));
+            snapshot.setFoundationRemainValue(CalculateUtils.getRemainingOfFoundationInRestricting(chainConfig, yearNum));
+            customSupplySnapshotMapper.insertOrUpdate(snapshot);
+            log.info("第[{}]结算周期块高[{}]流通量组成快照：{}", settleEpoch, blockNumber, snapshot);
+        } catch (Exception e) {
+            log.error("第[{}]结算周期块高[{}]记录流通量组成快照异常", settleEpoch, blockNumber, e);
+        }
+    }
+
+    /**
+     * 参与计算的基金会账户余额
+     */
+    private BigDecimal getFoundationValue(long blockNumber) throws Exception {
+        List<String> addressList = customInternalAddressMapper.listCalculableFoundationAddress();
+        if (CollUtil.isEmpty(addressList)) {
+            return BigDecimal.ZERO;
+        }
+        List<RestrictingBalance> balanceList = specialApi.getRestrictingBalance(platOnClient.getWeb3jWrapper().getWeb3j(), String.join(";", addressList), blockNumber);
+        return new BigDecimal(balanceList.stream().map(RestrictingBalance::getDlFreeBalance).reduce(BigInteger.ZERO, BigInteger::add));
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.platon.browser.bean;
+
+import com.platon.contracts.ppos.dto.resp.Node;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 周期切换区块的链上数据预取结果
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class EpochPrefetch {
+
+    /**
+     * 前一周期的验证人(历史接口)
+     */
+    private List<Node> preNodes;
+
+    /**
+     * 当前周期的验证人(历史接口)，预取时链上最新块还未进入下一周期则为null，由周期切换时查询实时接口
+     */
+    private List<Node> curNodes;
+
+    /**
+     * 前一结算周期最后一个块的周期信息，仅结算周期切换有值
+     */
+    private EpochInfo epochInfo;
+
+}
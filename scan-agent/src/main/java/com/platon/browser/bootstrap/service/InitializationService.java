@@ -1,6 +1,5 @@
 package com.platon.browser.bootstrap.service;
 
-import com.alibaba.fastjson.JSON;
 import com.platon.browser.bean.*;
 import com.platon.browser.bootstrap.bean.InitializationResult;
 import com.platon.browser.cache.AddressCache;
@@ -13,9 +12,9 @@ import com.platon.browser.dao.mapper.*;
 import com.platon.browser.enums.AddressTypeEnum;
 import com.platon.browser.exception.BlockNumberException;
 import com.platon.browser.exception.BusinessException;
-import com.platon.browser.publisher.GasEstimateEventPublisher;
 import com.platon.browser.service.elasticsearch.*;
 import com.platon.browser.service.epoch.EpochRetryService;
+import com.platon.browser.service.epoch.GasEstimateService;
 import com.platon.browser.service.govern.ParameterService;
 import com.platon.browser.service.ppos.StakeEpochService;
 import com.platon.browser.utils.EpochUtil;
@@ -76,10 +75,7 @@ public class InitializationService {
     private ProposalCache proposalCache;
 
     @Resource
-    private GasEstimateLogMapper gasEstimateLogMapper;
-
-    @Resource
-    private GasEstimateEventPublisher gasEstimateEventPublisher;
+    private GasEstimateService gasEstimateService;
 
     @Resource
     private StakeEpochService stakeEpochService;
@@ -191,16 +187,9 @@ public class InitializationService {
         epochRetryService.settlementChange(BigInteger.valueOf(networkStat.getCurNumber()));
         epochRetryService.consensusChange(BigInteger.valueOf(networkStat.getCurNumber()));
 
-        // 检查gas price估算数据表
-        GasEstimateLogExample condition = new GasEstimateLogExample();
-        condition.setOrderByClause("seq asc");
-        List<GasEstimateLog> gasEstimateLogs = gasEstimateLogMapper.selectByExample(condition);
-        gasEstimateLogs.forEach(e -> {
-            List<GasEstimate> estimates = JSON.parseArray(e.getJson(), GasEstimate.class);
-            if (estimates != null && !estimates.isEmpty()) {
-                gasEstimateEventPublisher.publish(e.getSeq(), estimates, traceId);
-            }
-        });
+        // 检查gas price估算数据表，未处理的日志一次性批量处理
+        int gasEstimateLogCount = gasEstimateService.applyPending();
+        log.info("启动时处理gas price估算日志[{}]个", gasEstimateLogCount);
 
         return initialResult;
     }
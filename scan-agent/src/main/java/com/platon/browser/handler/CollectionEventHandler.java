@@ -15,6 +15,7 @@ import com.platon.browser.dao.mapper.NodeMapper;
 import com.platon.browser.elasticsearch.dto.*;
 import com.platon.browser.publisher.ComplementEventPublisher;
 import com.platon.browser.service.block.BlockService;
+import com.platon.browser.service.block.NewBlockAccumulator;
 import com.platon.browser.service.ppos.PPOSService;
 import com.platon.browser.service.statistic.StatisticService;
 import com.platon.browser.utils.CommonUtil;
@@ -81,6 +82,9 @@ public class CollectionEventHandler implements EventHandler<CollectionEvent> {
     @Resource
     private CustomTxDelegationRewardBakMapper customTxDelegationRewardBakMapper;
 
+    @Resource
+    private NewBlockAccumulator newBlockAccumulator;
+
     /**
      * 重试次数
      */
@@ -163,6 +167,8 @@ public class CollectionEventHandler implements EventHandler<CollectionEvent> {
                 // 依赖于数据库的自增id
                 customNOptBakMapper.batchInsertOrUpdateSelective(nodeOpts1);
             }
+            // 未入库的出块数和奖励与块高在同一事务中记录
+            newBlockAccumulator.checkpoint();
             // 统计业务参数，以MySQL数据库块高为准，所以必须保证块高是最后入库
             statisticService.analyze(copyEvent);
             // TODO 此分割线以上代码异常重试属于正常逻辑，如果是以下代码发生异常，可能区块相关交易已经发送到ComplementEventHandler进行处理，则该区块会被重复处理多次
@@ -201,6 +207,8 @@ public class CollectionEventHandler implements EventHandler<CollectionEvent> {
         copyEvent.setTraceId(event.getTraceId());
         if (retryCount.incrementAndGet() > 1) {
             initNodeCache();
+            // 上次处理的事务已回滚，从数据库重新加载未入库的出块数和奖励
+            newBlockAccumulator.reload();
             List<String> txHashList = CollUtil.newArrayList();
             if (CollUtil.isNotEmpty(event.getBlock().getOriginTransactions())) {
                 txHashList = event.getBlock().getOriginTransactions().stream().map(com.platon.protocol.core.methods.response.Transaction::getHash).collect(Collectors.toList());
@@ -4,9 +4,7 @@ import cn.hutool.json.JSONUtil;
 import com.lmax.disruptor.EventHandler;
 import com.platon.browser.bean.CommonConstant;
 import com.platon.browser.bean.GasEstimateEvent;
-import com.platon.browser.dao.custommapper.EpochBusinessMapper;
-import com.platon.browser.dao.entity.GasEstimate;
-import com.platon.browser.dao.mapper.GasEstimateLogMapper;
+import com.platon.browser.service.epoch.GasEstimateService;
 import com.platon.browser.utils.CommonUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.retry.annotation.Recover;
@@ -14,23 +12,30 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 区块事件处理器
+ * gas price估算事件处理器
+ * 同一批次的事件合并处理，以日志是否存在判断序号是否已处理
  */
 @Slf4j
 @Component
 public class GasEstimateEventHandler implements EventHandler<GasEstimateEvent> {
 
-    @Resource
-    private GasEstimateLogMapper gasEstimateLogMapper;
+    /**
+     * 单次合并处理的最大事件数
+     */
+    private static final int BATCH_SIZE = 100;
 
     @Resource
-    private EpochBusinessMapper epochBusinessMapper;
+    private GasEstimateService gasEstimateService;
 
-    private Long prevSeq = 0L;
+    /**
+     * 当前批次待处理的序号
+     */
+    private final List<Long> seqs = new ArrayList<>();
 
     /**
      * 重试次数
@@ -56,6 +61,16 @@ public class GasEstimateEventHandler implements EventHandler<GasEstimateEvent> {
         log.error("重试完成还是业务失败，请联系管理员处理");
     }
 
+    /**
+     * 当前批次已接收未处理的事件数
+     *
+     * @return int
+     * @date 2026/10/19
+     */
+    public int getPendingSize() {
+        return seqs.size();
+    }
+
     private void surroundExec(GasEstimateEvent event, long sequence, boolean endOfBatch) {
         CommonUtil.putTraceId(event.getTraceId());
         long startTime = System.currentTimeMillis();
@@ -67,24 +82,22 @@ public class GasEstimateEventHandler implements EventHandler<GasEstimateEvent> {
     private void exec(GasEstimateEvent event, long sequence, boolean endOfBatch) {
         try {
             if (retryCount.incrementAndGet() > 1) {
-                log.error("重试次数[{}],该seq[{}]重复处理，可能会引起数据重复统计，event对象数据为[{}]", retryCount.get(), event.getSeq(), JSONUtil.toJsonStr(event));
+                log.warn("重试次数[{}],该seq[{}]重新处理，已处理的序号会自动跳过，event对象数据为[{}]", retryCount.get(), event.getSeq(), JSONUtil.toJsonStr(event));
             }
-            if (prevSeq.equals(event.getSeq())) {
-                // 如果当前序列号等于前一次的序列号，证明消息已经处理过
-                retryCount.set(0);
-                return;
+            if (!seqs.contains(event.getSeq())) {
+                seqs.add(event.getSeq());
             }
-            List<GasEstimate> estimateList = event.getEstimateList();
-            if (estimateList != null && !estimateList.isEmpty()) {
-                epochBusinessMapper.updateGasEstimate(estimateList);
+            if (endOfBatch || seqs.size() >= BATCH_SIZE) {
+                int count = gasEstimateService.apply(new ArrayList<>(seqs));
+                log.debug("gas price估算事件[{}]个,实际处理日志[{}]个", seqs.size(), count);
+                seqs.clear();
             }
-            // es入库完成后删除mysql中的日志记录
-            gasEstimateLogMapper.deleteByPrimaryKey(event.getSeq());
-            prevSeq = event.getSeq();
             retryCount.set(0);
         } catch (Exception e) {
+            // 未处理的日志仍保留在数据库中，由下次启动或委托相关交易入库前重新处理
+            seqs.clear();
             log.error("", e);
         }
     }
 
-}
\ No newline at end of file
+}
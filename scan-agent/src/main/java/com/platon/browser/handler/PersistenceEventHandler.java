@@ -1,7 +1,6 @@
 package com.platon.browser.handler;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.json.JSONUtil;
 import com.lmax.disruptor.EventHandler;
 import com.platon.browser.bean.CommonConstant;
 import com.platon.browser.bean.PersistenceEvent;
@@ -102,13 +101,9 @@ public class PersistenceEventHandler implements EventHandler<PersistenceEvent> {
                 }
             }
             delegationRewardStage.addAll(event.getDelegationRewards());
-            List<Long> blockNums = CollUtil.newArrayList();
             if (retryCount.incrementAndGet() > 1) {
-                if (CollUtil.isNotEmpty(blockStage)) {
-                    blockNums = blockStage.stream().map(Block::getNum).sorted().collect(Collectors.toList());
-                }
                 // ES的id是用hash做key，重复入库会覆盖
-                log.error("相关区块[{}]的数据重复入库，可能引起数据重复入库，重试次数[{}]", JSONUtil.toJsonStr(blockNums), retryCount.get());
+                log.error("相关区块[{}]的数据重复入库，可能引起数据重复入库，重试次数[{}]", Arrays.toString(stageBlockNums()), retryCount.get());
             }
 
             // 把区块的交易列表属性置为null,防止把交易信息存储到区块信息中
@@ -120,8 +115,7 @@ public class PersistenceEventHandler implements EventHandler<PersistenceEvent> {
                 retryCount.set(0);
                 return;
             } else {
-                blockNums = blockStage.stream().map(Block::getNum).sorted().collect(Collectors.toList());
-                log.info("相关区块[{}]达到入库标准", JSONUtil.toJsonStr(blockNums));
+                log.info("相关区块[{}]达到入库标准", Arrays.toString(stageBlockNums()));
             }
 
             statisticsLog();
@@ -146,6 +140,22 @@ public class PersistenceEventHandler implements EventHandler<PersistenceEvent> {
         }
     }
 
+    /**
+     * 暂存区的区块号，升序排列
+     *
+     * @return long[]
+     * @date 2026/10/19
+     */
+    private long[] stageBlockNums() {
+        long[] blockNums = new long[blockStage.size()];
+        int i = 0;
+        for (Block block : blockStage) {
+            blockNums[i++] = block.getNum();
+        }
+        Arrays.sort(blockNums);
+        return blockNums;
+    }
+
     /**
      * 打印统计信息
      *
@@ -51,4 +51,19 @@ public class GasEstimateEventPublisher extends AbstractPublisher<GasEstimateEven
         ringBuffer.publishEvent(TRANSLATOR, seq, estimateList, traceId);
     }
 
+    /**
+     * 待处理的事件数：环形缓冲区中未消费的事件数+处理器当前批次已接收未处理的事件数
+     *
+     * @return long
+     * @date 2026/10/19
+     */
+    public long getQueueDepth() {
+        return getRingBufferSize() - ringBuffer.remainingCapacity() + gasEstimateEventHandler.getPendingSize();
+    }
+
+    @Override
+    public String info() {
+        return String.format("%s,QueueDepth(%s)", super.info(), getQueueDepth());
+    }
+
 }
@@ -27,6 +27,16 @@ public class BlockRetryService {
 
     private BigInteger latestBlockNumber;
 
+    /**
+     * 最近一次检查区块号时记录的链上最新区块号
+     *
+     * @return java.math.BigInteger 还未检查过区块号时返回null
+     * @date 2026/10/19
+     */
+    BigInteger getLatestBlockNumber() {
+        return latestBlockNumber;
+    }
+
     /**
      * 根据区块号获取区块信息
      *
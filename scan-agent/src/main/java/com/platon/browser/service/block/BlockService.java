@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +47,9 @@ public class BlockService {
     @Resource
     private OnSettleAnalyzer onSettleAnalyzer;
 
+    @Resource
+    private NewBlockAccumulator newBlockAccumulator;
+
     /**
      * 异步获取区块
      */
@@ -60,6 +64,17 @@ public class BlockService {
         });
     }
 
+    /**
+     * 最近一次检查区块号时记录的链上最新区块号，不查询链上
+     *
+     * @return long 还未检查过区块号时返回0
+     * @date 2026/10/19
+     */
+    public long getLatestBlockNumber() {
+        BigInteger latestBlockNumber = retryService.getLatestBlockNumber();
+        return latestBlockNumber == null ? 0L : latestBlockNumber.longValue();
+    }
+
     public void checkBlockNumber(Long blockNumber) {
         try {
             retryService.checkBlockNumber(blockNumber);
@@ -87,6 +102,7 @@ public class BlockService {
         if ((block.getNum() + chainConfig.getElectionBackwardBlockCount().longValue()) % chainConfig.getConsensusPeriodBlockCount().longValue() == 0
                 && event.getEpochMessage().getConsensusEpochRound().longValue() > 1) {
             // 共识轮数等于大于1的时候才进来
+            newBlockAccumulator.flush();
             log.info("在块高[{}]选举验证人", block.getNum());
             List<NodeOpt> nodeOpt = onElectionAnalyzer.analyze(event, block);
             nodeOptList.addAll(nodeOpt);
@@ -95,6 +111,8 @@ public class BlockService {
         // 新共识周期事件
         if ((block.getNum() - 1) % chainConfig.getConsensusPeriodBlockCount().longValue() == 0) {
             log.info("在块高[{}]切换共识周期,当前所处共识周期轮数为[{}]", block.getNum(), event.getEpochMessage().getConsensusEpochRound());
+            // 切换共识周期会重置当前共识周期出块数，需先把累计的出块数入库
+            newBlockAccumulator.flush();
             Optional<List<NodeOpt>> nodeOpt = onConsensusAnalyzer.analyze(event, block);
             nodeOpt.ifPresent(nodeOptList::addAll);
         }
@@ -102,6 +120,7 @@ public class BlockService {
         // 新结算周期事件
         if ((block.getNum() - 1) % chainConfig.getSettlePeriodBlockCount().longValue() == 0) {
             log.info("在块高[{}]切换结算周期,当前所处结算周期轮数为[{}]", block.getNum(), event.getEpochMessage().getSettleEpochRound());
+            newBlockAccumulator.flush();
             List<NodeOpt> nodeOpt = onSettleAnalyzer.analyze(event, block);
             nodeOptList.addAll(nodeOpt);
         }
@@ -0,0 +1,183 @@
+package com.platon.browser.service.block;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson.JSON;
+import com.platon.browser.config.TaskConfig;
+import com.platon.browser.dao.custommapper.NewBlockMapper;
+import com.platon.browser.dao.param.epoch.NewBlock;
+import com.platon.browser.dao.param.epoch.NewBlockDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 新区块出块数和奖励累计器
+ * 1、已追上链时每个区块直接入库；未追上链时按节点id+质押块高在内存中合并，达到区块数或时间阈值时批量入库
+ * 2、共识、结算、选举周期切换及会读取质押、节点的PPOS交易分析前由调用方先入库，保证读到的是准确值
+ * 3、未入库的变化量在区块处理结束时记录到network_stat，与区块号在同一事务中提交，重启或重试时从数据库重新加载
+ * 4、只在区块事件处理线程中使用，非线程安全
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Component
+public class NewBlockAccumulator {
+
+    @Resource
+    private NewBlockMapper newBlockMapper;
+
+    @Resource
+    private TaskConfig taskConfig;
+
+    /**
+     * 质押变化量，key:节点id+质押块高，按最后更新的顺序排列
+     */
+    private final Map<String, NewBlockDelta> deltas = new LinkedHashMap<>();
+
+    /**
+     * 累计的区块数
+     */
+    private long pendingBlocks;
+
+    /**
+     * 开始累计的时间
+     */
+    private long firstPendingTime;
+
+    /**
+     * 是否已从数据库加载未入库的变化量
+     */
+    private boolean loaded;
+
+    /**
+     * 数据库中是否记录了未入库的变化量
+     */
+    private boolean journaled;
+
+    /**
+     * 是否正在追块，由BatchSizeAdjustTask按与链上块高的差距设置
+     */
+    private volatile boolean catchingUp;
+
+    /**
+     * 累计新区块的出块数和奖励
+     *
+     * @param newBlock 新区块参数
+     * @return void
+     * @date 2026/10/19
+     */
+    public void add(NewBlock newBlock) {
+        load();
+        String key = newBlock.getNodeId() + ":" + newBlock.getStakingBlockNum();
+        NewBlockDelta delta = deltas.remove(key);
+        if (delta == null) {
+            delta = new NewBlockDelta();
+            delta.setNodeId(newBlock.getNodeId());
+            delta.setStakingBlockNum(newBlock.getStakingBlockNum());
+        }
+        delta.setBlockQty(delta.getBlockQty() + 1);
+        delta.setBlockRewardValue(delta.getBlockRewardValue().add(newBlock.getBlockRewardValue()));
+        delta.setFeeRewardValue(delta.getFeeRewardValue().add(newBlock.getFeeRewardValue()));
+        delta.setPredictStakingReward(newBlock.getPredictStakingReward());
+        deltas.put(key, delta);
+        if (pendingBlocks == 0) {
+            firstPendingTime = System.currentTimeMillis();
+        }
+        pendingBlocks++;
+        if (!catchingUp
+                || pendingBlocks >= taskConfig.getNewBlockFlushBlocks()
+                || System.currentTimeMillis() - firstPendingTime >= taskConfig.getNewBlockFlushSeconds() * 1000L) {
+            flush();
+        }
+    }
+
+    /**
+     * 累计的变化量入库
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void flush() {
+        load();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<NewBlockDelta> stakings = new ArrayList<>(deltas.values());
+        // 同一节点只有一条质押，按节点合并仅为防御，预计质押奖励取最后更新的值
+        Map<String, NewBlockDelta> nodes = new LinkedHashMap<>();
+        for (NewBlockDelta staking : stakings) {
+            NewBlockDelta node = nodes.get(staking.getNodeId());
+            if (node == null) {
+                node = new NewBlockDelta();
+                node.setNodeId(staking.getNodeId());
+                nodes.put(staking.getNodeId(), node);
+            }
+            node.setBlockQty(node.getBlockQty() + staking.getBlockQty());
+            node.setBlockRewardValue(node.getBlockRewardValue().add(staking.getBlockRewardValue()));
+            node.setFeeRewardValue(node.getFeeRewardValue().add(staking.getFeeRewardValue()));
+            node.setPredictStakingReward(staking.getPredictStakingReward());
+        }
+        newBlockMapper.batchNewBlock(stakings, new ArrayList<>(nodes.values()));
+        log.debug("新区块出块数和奖励入库:区块数[{}],节点数[{}]", pendingBlocks, nodes.size());
+        deltas.clear();
+        pendingBlocks = 0;
+    }
+
+    /**
+     * 区块处理结束时记录未入库的变化量，需在区块号入库的事务中调用
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void checkpoint() {
+        if (!loaded) {
+            return;
+        }
+        if (!deltas.isEmpty()) {
+            newBlockMapper.updatePendingNewBlock(JSON.toJSONString(deltas.values()));
+            journaled = true;
+        } else if (journaled) {
+            newBlockMapper.updatePendingNewBlock(null);
+            journaled = false;
+        }
+    }
+
+    /**
+     * 区块处理失败重试时调用，丢弃内存中的变化量，下次使用时从数据库重新加载
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void reload() {
+        loaded = false;
+    }
+
+    public void setCatchingUp(boolean catchingUp) {
+        this.catchingUp = catchingUp;
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        deltas.clear();
+        pendingBlocks = 0;
+        String pending = newBlockMapper.selectPendingNewBlock();
+        journaled = StrUtil.isNotBlank(pending);
+        if (journaled) {
+            for (NewBlockDelta delta : JSON.parseArray(pending, NewBlockDelta.class)) {
+                deltas.put(delta.getNodeId() + ":" + delta.getStakingBlockNum(), delta);
+                pendingBlocks += delta.getBlockQty();
+            }
+            firstPendingTime = System.currentTimeMillis();
+            log.info("加载未入库的新区块出块数和奖励:区块数[{}],质押数[{}]", pendingBlocks, deltas.size());
+        }
+        loaded = true;
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.platon.browser.service.epoch;
+
+import com.platon.browser.bean.EpochPrefetch;
+import com.platon.browser.bean.HistoryLowRateSlash;
+import com.platon.browser.client.PlatOnClient;
+import com.platon.browser.client.SpecialApi;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.utils.EpochUtil;
+import com.platon.browser.utils.HexUtil;
+import com.platon.contracts.ppos.dto.resp.Node;
+import com.platon.protocol.Web3j;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 周期切换数据预取服务
+ * 1、采集主流程在到达结算、共识、选举区块之前，异步预取这些区块需要的历史验证人列表、周期信息及低出块处罚列表，三类周期的预取互不依赖，并行执行
+ * 2、只预取链上已经产生的区块的历史数据，结果与周期切换时查询的数据一致；链上最新块还未到达的数据不预取，由周期切换时按原逻辑查询，实时同步时基本不会预取
+ * 3、周期切换时按区块号取出预取结果，预取未完成则等待，预取失败或没有预取则返回null，由调用方按原逻辑查询，周期切换的执行顺序和入库事务不变
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Service
+public class EpochPrefetchService {
+
+    /**
+     * 提前预取的区块数
+     */
+    private static final long PREFETCH_BLOCK_COUNT = 100L;
+
+    @Resource
+    private BlockChainConfig chainConfig;
+
+    @Resource
+    private PlatOnClient platOnClient;
+
+    @Resource
+    private SpecialApi specialApi;
+
+    // <结算周期切换区块号,预取结果>
+    private final Map<Long, CompletableFuture<EpochPrefetch>> settlementPrefetches = new ConcurrentHashMap<>();
+
+    // <共识周期切换区块号,预取结果>
+    private final Map<Long, CompletableFuture<EpochPrefetch>> consensusPrefetches = new ConcurrentHashMap<>();
+
+    // <选举区块号,低出块处罚列表>
+    private final Map<Long, CompletableFuture<List<HistoryLowRateSlash>>> electionPrefetches = new ConcurrentHashMap<>();
+
+    /**
+     * 按当前采集的区块号预取之后的周期切换数据
+     *
+     * @param blockNumber       当前采集的区块号
+     * @param latestBlockNumber 链上最新块号
+     * @return void
+     * @date 2026/10/19
+     */
+    public void prefetch(long blockNumber, long latestBlockNumber) {
+        if (blockNumber <= 0) {
+            return;
+        }
+        long settlePeriod = chainConfig.getSettlePeriodBlockCount().longValue();
+        long consensusPeriod = chainConfig.getConsensusPeriodBlockCount().longValue();
+        long backward = chainConfig.getElectionBackwardBlockCount().longValue();
+        // 清理已经过去但没有被取出的预取结果，结算和共识周期切换在采集主流程中取出
+        // 选举区块在区块处理线程中取出，处理线程可能落后采集主流程上千个块，由取出时清理
+        settlementPrefetches.keySet().removeIf(number -> number < blockNumber);
+        consensusPrefetches.keySet().removeIf(number -> number < blockNumber);
+
+        // 下一个结算周期切换区块：(块号-1)%结算周期块数==0，需要前一周期最后一个块已上链
+        long settleBlockNumber = ((blockNumber - 1) / settlePeriod + 1) * settlePeriod + 1;
+        if (settleBlockNumber - blockNumber <= PREFETCH_BLOCK_COUNT && latestBlockNumber >= settleBlockNumber - 1) {
+            settlementPrefetches.computeIfAbsent(settleBlockNumber, number -> CompletableFuture.supplyAsync(() -> fetchSettlement(number, latestBlockNumber)));
+        }
+        // 下一个共识周期切换区块：(块号-1)%共识周期块数==0，需要前一周期最后一个块已上链
+        long consensusBlockNumber = ((blockNumber - 1) / consensusPeriod + 1) * consensusPeriod + 1;
+        if (consensusBlockNumber - blockNumber <= PREFETCH_BLOCK_COUNT && latestBlockNumber >= consensusBlockNumber - 1) {
+            consensusPrefetches.computeIfAbsent(consensusBlockNumber, number -> CompletableFuture.supplyAsync(() -> fetchConsensus(number, latestBlockNumber)));
+        }
+        // 下一个选举区块：(块号+选举回退块数)%共识周期块数==0，需要选举区块已上链
+        long electionBlockNumber = ((blockNumber + backward) / consensusPeriod + 1) * consensusPeriod - backward;
+        if (electionBlockNumber - blockNumber <= PREFETCH_BLOCK_COUNT && latestBlockNumber >= electionBlockNumber) {
+            electionPrefetches.computeIfAbsent(electionBlockNumber, number -> CompletableFuture.supplyAsync(() -> fetchElection(number)));
+        }
+    }
+
+    /**
+     * 取出结算周期切换区块的预取结果
+     *
+     * @param blockNumber 结算周期切换区块号
+     * @return com.platon.browser.bean.EpochPrefetch 没有可用的预取结果时返回null
+     * @date 2026/10/19
+     */
+    public EpochPrefetch takeSettlement(BigInteger blockNumber) {
+        return take(settlementPrefetches.remove(blockNumber.longValue()));
+    }
+
+    /**
+     * 取出共识周期切换区块的预取结果
+     *
+     * @param blockNumber 共识周期切换区块号
+     * @return com.platon.browser.bean.EpochPrefetch 没有可用的预取结果时返回null
+     * @date 2026/10/19
+     */
+    public EpochPrefetch takeConsensus(BigInteger blockNumber) {
+        return take(consensusPrefetches.remove(blockNumber.longValue()));
+    }
+
+    /**
+     * 取出选举区块的低出块处罚列表，并清理之前没有被取出的选举区块(共识轮数不大于1时不处理选举)
+     *
+     * @param blockNumber 选举区块号
+     * @return java.util.List<com.platon.browser.bean.HistoryLowRateSlash> 没有可用的预取结果时返回null
+     * @date 2026/10/19
+     */
+    public List<HistoryLowRateSlash> takeLowRateSlashList(Long blockNumber) {
+        electionPrefetches.keySet().removeIf(number -> number < blockNumber);
+        return take(electionPrefetches.remove(blockNumber));
+    }
+
+    private <T> T take(CompletableFuture<T> future) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("周期切换数据预取结果获取失败,将重新查询:{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private EpochPrefetch fetchSettlement(long blockNumber, long latestBlockNumber) {
+        try {
+            BigInteger currentBlockNumber = BigInteger.valueOf(blockNumber);
+            BigInteger preEpochLastBlockNumber = currentBlockNumber.subtract(BigInteger.ONE);
+            Web3j web3j = platOnClient.getWeb3jWrapper().getWeb3j();
+            EpochPrefetch prefetch = new EpochPrefetch();
+            prefetch.setPreNodes(prefix(specialApi.getHistoryVerifierList(web3j, preEpochLastBlockNumber)));
+            prefetch.setEpochInfo(specialApi.getEpochInfo(web3j, preEpochLastBlockNumber));
+            BigInteger period = chainConfig.getSettlePeriodBlockCount();
+            // 链上最新块已进入下一周期时，周期切换会查询历史接口，一并预取
+            if (EpochUtil.getEpoch(BigInteger.valueOf(latestBlockNumber), period).compareTo(EpochUtil.getEpoch(currentBlockNumber, period)) > 0) {
+                prefetch.setCurNodes(prefix(specialApi.getHistoryVerifierList(web3j, targetBlockNumber(preEpochLastBlockNumber))));
+            }
+            log.info("预取结算周期切换区块[{}]的验证人列表及周期信息完成", blockNumber);
+            return prefetch;
+        } catch (Exception e) {
+            log.warn("预取结算周期切换区块[{}]的数据失败:{}", blockNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    private EpochPrefetch fetchConsensus(long blockNumber, long latestBlockNumber) {
+        try {
+            BigInteger currentBlockNumber = BigInteger.valueOf(blockNumber);
+            BigInteger preEpochLastBlockNumber = currentBlockNumber.subtract(BigInteger.ONE);
+            Web3j web3j = platOnClient.getWeb3jWrapper().getWeb3j();
+            EpochPrefetch prefetch = new EpochPrefetch();
+            prefetch.setPreNodes(prefix(specialApi.getHistoryValidatorList(web3j, preEpochLastBlockNumber)));
+            BigInteger period = chainConfig.getConsensusPeriodBlockCount();
+            // 链上最新块已进入下一周期时，周期切换会查询历史接口，一并预取
+            if (EpochUtil.getEpoch(BigInteger.valueOf(latestBlockNumber), period).compareTo(EpochUtil.getEpoch(currentBlockNumber, period)) > 0) {
+                prefetch.setCurNodes(prefix(specialApi.getHistoryValidatorList(web3j, targetBlockNumber(preEpochLastBlockNumber))));
+            }
+            log.debug("预取共识周期切换区块[{}]的验证人列表完成", blockNumber);
+            return prefetch;
+        } catch (Exception e) {
+            log.warn("预取共识周期切换区块[{}]的数据失败:{}", blockNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<HistoryLowRateSlash> fetchElection(long blockNumber) {
+        try {
+            List<HistoryLowRateSlash> slashList = specialApi.getHistoryLowRateSlashList(platOnClient.getWeb3jWrapper().getWeb3j(), BigInteger.valueOf(blockNumber));
+            log.debug("预取选举区块[{}]的低出块处罚列表完成", blockNumber);
+            return slashList;
+        } catch (Exception e) {
+            log.warn("预取选举区块[{}]的数据失败:{}", blockNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 当前周期验证人的查询块号，前一个周期的最后一个块是0时查第0块
+     */
+    private static BigInteger targetBlockNumber(BigInteger preEpochLastBlockNumber) {
+        return preEpochLastBlockNumber.compareTo(BigInteger.ZERO) == 0 ? BigInteger.ZERO : preEpochLastBlockNumber.add(BigInteger.ONE);
+    }
+
+    private static List<Node> prefix(List<Node> nodes) {
+        nodes.forEach(n -> n.setNodeId(HexUtil.prefix(n.getNodeId())));
+        return nodes;
+    }
+
+}
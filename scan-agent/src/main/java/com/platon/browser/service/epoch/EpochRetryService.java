@@ -3,6 +3,7 @@ package com.platon.browser.service.epoch;
 import com.platon.browser.bean.CommonConstant;
 import com.platon.browser.bean.ConfigChange;
 import com.platon.browser.bean.EpochInfo;
+import com.platon.browser.bean.EpochPrefetch;
 import com.platon.browser.cache.NetworkStatCache;
 import com.platon.browser.client.PlatOnClient;
 import com.platon.browser.client.SpecialApi;
@@ -93,6 +94,9 @@ public class EpochRetryService {
     @Resource
     private NetworkStatCache networkStatCache;
 
+    @Resource
+    private EpochPrefetchService epochPrefetchService;
+
     /**
      * 增发周期变更:
      * 必然伴随着结算周期和共识周期的变更
@@ -137,8 +141,11 @@ public class EpochRetryService {
             // 上一个周期的最后一个块号
             BigInteger preEpochLastBlockNumber = EpochUtil.getPreEpochLastBlockNumber(currentBlockNumber, chainConfig.getConsensusPeriodBlockCount());
 
+            // 采集主流程提前预取的历史数据
+            EpochPrefetch prefetch = epochPrefetchService.takeConsensus(currentBlockNumber);
+
             // 前一周期的验证人
-            List<Node> preNodes = specialApi.getHistoryValidatorList(web3j, preEpochLastBlockNumber);
+            List<Node> preNodes = prefetch != null ? prefetch.getPreNodes() : specialApi.getHistoryValidatorList(web3j, preEpochLastBlockNumber);
             preNodes.forEach(n -> n.setNodeId(HexUtil.prefix(n.getNodeId())));
             preValidators.clear();
             preValidators.addAll(preNodes);
@@ -149,7 +156,7 @@ public class EpochRetryService {
                 // >>>>如果链上最新块所在周期>当前块所处周期, 则查询特殊节点历史接口
                 // 如果前一个周期的最后一个块是0，则查第0块时的验证人作为当前验证人
                 BigInteger targetBlockNumber = preEpochLastBlockNumber.compareTo(BigInteger.ZERO) == 0 ? BigInteger.ZERO : preEpochLastBlockNumber.add(BigInteger.ONE);
-                curNodes = specialApi.getHistoryValidatorList(web3j, targetBlockNumber);
+                curNodes = prefetch != null && prefetch.getCurNodes() != null ? prefetch.getCurNodes() : specialApi.getHistoryValidatorList(web3j, targetBlockNumber);
             }
             if (latestEpoch.compareTo(currentEpoch) == 0) {
                 // >>>>如果链上最新块所在周期==当前块所处周期, 则查询实时接口
@@ -190,8 +197,11 @@ public class EpochRetryService {
             // 上一个周期的最后一个块号
             BigInteger preEpochLastBlockNumber = EpochUtil.getPreEpochLastBlockNumber(currentBlockNumber, chainConfig.getSettlePeriodBlockCount());
 
+            // 采集主流程提前预取的历史数据
+            EpochPrefetch prefetch = epochPrefetchService.takeSettlement(currentBlockNumber);
+
             // 前一周期的验证人
-            List<Node> preNodes = specialApi.getHistoryVerifierList(web3j, preEpochLastBlockNumber);
+            List<Node> preNodes = prefetch != null ? prefetch.getPreNodes() : specialApi.getHistoryVerifierList(web3j, preEpochLastBlockNumber);
             preNodes.forEach(n -> n.setNodeId(HexUtil.prefix(n.getNodeId())));
             preVerifiers.clear();
             preVerifiers.addAll(preNodes);
@@ -202,7 +212,7 @@ public class EpochRetryService {
                 // >>>>如果链上最新块所在周期>当前块所处周期, 则查询特殊节点历史接口
                 // 如果前一个周期的最后一个块是0，则查第0块时的验证人作为当前验证人
                 BigInteger targetBlockNumber = preEpochLastBlockNumber.compareTo(BigInteger.ZERO) == 0 ? BigInteger.ZERO : preEpochLastBlockNumber.add(BigInteger.ONE);
-                curNodes = specialApi.getHistoryVerifierList(web3j, targetBlockNumber);
+                curNodes = prefetch != null && prefetch.getCurNodes() != null ? prefetch.getCurNodes() : specialApi.getHistoryVerifierList(web3j, targetBlockNumber);
             }
             if (latestEpoch.compareTo(currentEpoch) == 0) {
                 // >>>>如果链上最新块所在周期==当前块所处周期, 则查询实时接口
@@ -215,7 +225,7 @@ public class EpochRetryService {
             // 上一结算周期最后一个块号
             BigInteger preSettleEpochLastBlockNumber = EpochUtil.getPreEpochLastBlockNumber(currentBlockNumber, chainConfig.getSettlePeriodBlockCount());
             // 从特殊接口获取
-            EpochInfo epochInfo = specialApi.getEpochInfo(platOnClient.getWeb3jWrapper().getWeb3j(), preSettleEpochLastBlockNumber);
+            EpochInfo epochInfo = prefetch != null ? prefetch.getEpochInfo() : specialApi.getEpochInfo(platOnClient.getWeb3jWrapper().getWeb3j(), preSettleEpochLastBlockNumber);
             // 区块奖励
             blockReward = epochInfo.getPackageReward();
             // 当前增发周期内每个结算周期的质押奖励
@@ -223,7 +233,7 @@ public class EpochRetryService {
             // 前一结算周期质押奖励轮换
             preStakeReward = stakeReward;
             // 计算当前结算周期内每个验证人的质押奖励
-            stakeReward = handleStakeReward(preSettleEpochLastBlockNumber, currentEpoch.subtract(BigInteger.ONE), epochInfo.getCurStakingReward());
+            stakeReward = handleStakeReward(preSettleEpochLastBlockNumber, currentEpoch.subtract(BigInteger.ONE), epochInfo.getCurStakingReward(), preNodes);
             ConfigChange configChange = new ConfigChange();
             configChange.setAvgPackTime(epochInfo.getAvgPackTime());
             configChange.setBlockReward(epochInfo.getNextPackageReward());
@@ -248,11 +258,11 @@ public class EpochRetryService {
      * @param preSettleEpochLastBlockNumber 上一个结算周期的最后一个块号
      * @param preEpoch                      上一个结算周期
      * @param preStakingReward              上一个结算周期的总质押奖励
+     * @param lastNodes                     上一个结算周期最后一个块的验证人，即前一周期的验证人
      * @return: java.math.BigDecimal
      * @date: 2022/3/7
      */
-    private BigDecimal handleStakeReward(BigInteger preSettleEpochLastBlockNumber, BigInteger preEpoch, BigDecimal preStakingReward) throws Exception {
-        List<Node> lastNodes = specialApi.getHistoryVerifierList(platOnClient.getWeb3jWrapper().getWeb3j(), preSettleEpochLastBlockNumber);
+    private BigDecimal handleStakeReward(BigInteger preSettleEpochLastBlockNumber, BigInteger preEpoch, BigDecimal preStakingReward, List<Node> lastNodes) {
         BigDecimal stakeReward = preStakingReward.divide(BigDecimal.valueOf(lastNodes.size()), 0, BigDecimal.ROUND_DOWN);
         log.info("块高[{}]第[{}]个结算周期，质押奖励[{}]=总质押奖励[{}]/验证人数量[{}]", preSettleEpochLastBlockNumber, preEpoch, stakeReward.toPlainString(), preStakingReward.toPlainString(), lastNodes.size());
         return stakeReward;
@@ -2,10 +2,11 @@ package com.platon.browser.service.epoch;
 
 import com.platon.contracts.ppos.dto.resp.Node;
 import com.platon.browser.bean.EpochMessage;
+import com.platon.browser.cache.NodeCache;
 import com.platon.browser.config.BlockChainConfig;
 import com.platon.browser.dao.entity.BlockNode;
 import com.platon.browser.dao.custommapper.CustomBlockNodeMapper;
-import com.platon.browser.dao.mapper.NodeMapper;
+import com.platon.browser.dao.custommapper.CustomNodeMapper;
 import com.platon.browser.exception.BlockNumberException;
 import com.platon.browser.utils.EpochUtil;
 import lombok.Getter;
@@ -17,6 +18,9 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 此类非线程安全
@@ -35,7 +39,9 @@ public class EpochService {
     @Resource
     private CustomBlockNodeMapper customBlockNodeMapper;
     @Resource
-    private NodeMapper nodeMapper;
+    private CustomNodeMapper customNodeMapper;
+    @Resource
+    private NodeCache nodeCache;
 
     @Getter
     private BigInteger currentBlockNumber; // 当前区块号
@@ -102,16 +108,11 @@ public class EpochService {
                     max++;
                     List<BlockNode> blockNodes = new ArrayList<>(32);
                     Date date = new Date();
+                    Map<String, String> nodeNames = getNodeNames(nodes);
                     nodes.forEach(node -> {
                         BlockNode blockNode = new BlockNode();
                         blockNode.setNodeId(node.getNodeId());
-                        blockNode.setNodeName("");
-                        com.platon.browser.dao.entity.Node nodeT = nodeMapper.selectByPrimaryKey(node.getNodeId());
-                        if (nodeT == null) {
-                            blockNode.setNodeName("");
-                        } else {
-                            blockNode.setNodeName(nodeT.getNodeName());
-                        }
+                        blockNode.setNodeName(nodeNames.getOrDefault(node.getNodeId(), ""));
                         blockNode.setStakingConsensusEpoch(max);
                         blockNode.setCreateTime(date);
                         blockNode.setUpdateTime(date);
@@ -127,4 +128,22 @@ public class EpochService {
             .updateWithEpochRetryService(epochRetryService);
     }
 
-}
\ No newline at end of file
+    /**
+     * 获取验证人节点名称
+     * 优先从节点缓存获取(节点缓存随质押、修改质押信息交易更新)，缓存未命中的节点再一次性批量查库
+     *
+     * @param nodes 验证人列表
+     * @return java.util.Map<java.lang.String, java.lang.String> 节点ID->节点名称
+     * @date 2026/10/19
+     */
+    private Map<String, String> getNodeNames(List<Node> nodes) {
+        List<String> nodeIds = nodes.stream().map(Node::getNodeId).collect(Collectors.toList());
+        Map<String, String> nodeNames = nodeCache.getNodeNames(nodeIds);
+        Set<String> missNodeIds = nodeIds.stream().filter(nodeId -> !nodeNames.containsKey(nodeId)).collect(Collectors.toSet());
+        if (!missNodeIds.isEmpty()) {
+            customNodeMapper.batchFindNodeNameByNodeId(missNodeIds).forEach(node -> nodeNames.put(node.getNodeId(), node.getNodeName()));
+        }
+        return nodeNames;
+    }
+
+}
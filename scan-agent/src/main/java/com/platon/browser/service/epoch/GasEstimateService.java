@@ -0,0 +1,100 @@
+package com.platon.browser.service.epoch;
+
+import cn.hutool.core.collection.CollUtil;
+import com.alibaba.fastjson.JSON;
+import com.platon.browser.dao.custommapper.CustomGasEstimateLogMapper;
+import com.platon.browser.dao.custommapper.CustomGasEstimateMapper;
+import com.platon.browser.dao.entity.GasEstimate;
+import com.platon.browser.dao.entity.GasEstimateLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * gas price估算的委托未计算周期更新
+ * 1、结算周期切换时只记录gas_estimate_log，由GasEstimateEventHandler异步批量处理
+ * 2、日志存在即表示该序号未处理，处理时先锁定日志，周期累加和日志删除在同一事务中提交，重复处理同一序号不会重复累加
+ * 3、区块中有委托相关交易时，由区块处理线程先把未处理的日志在区块事务中处理完，保证新写入的估算记录不会被之前的结算周期累加
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Service
+public class GasEstimateService {
+
+    /**
+     * 单条语句最多关联的节点质押数
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    @Resource
+    private CustomGasEstimateLogMapper customGasEstimateLogMapper;
+
+    @Resource
+    private CustomGasEstimateMapper customGasEstimateMapper;
+
+    /**
+     * 批量处理指定序号的日志，已处理的序号自动跳过
+     *
+     * @param seqs 序号
+     * @return int 实际处理的日志数
+     * @date 2026/10/19
+     */
+    @Transactional(rollbackFor = {Exception.class, Error.class})
+    public int apply(List<Long> seqs) {
+        if (CollUtil.isEmpty(seqs)) {
+            return 0;
+        }
+        return apply(customGasEstimateLogMapper.selectForUpdate(seqs));
+    }
+
+    /**
+     * 处理所有未处理的日志，用于启动时重放及委托相关交易入库前
+     *
+     * @return int 实际处理的日志数
+     * @date 2026/10/19
+     */
+    @Transactional(rollbackFor = {Exception.class, Error.class})
+    public int applyPending() {
+        return apply(customGasEstimateLogMapper.selectForUpdate(null));
+    }
+
+    private int apply(List<GasEstimateLog> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        // 多个结算周期按节点质押合并累加的周期数
+        Map<String, GasEstimate> increaseMap = new LinkedHashMap<>();
+        for (GasEstimateLog gasEstimateLog : logs) {
+            List<GasEstimate> estimates = JSON.parseArray(gasEstimateLog.getJson(), GasEstimate.class);
+            if (estimates == null) {
+                continue;
+            }
+            for (GasEstimate estimate : estimates) {
+                GasEstimate increase = increaseMap.computeIfAbsent(estimate.getNodeId() + ":" + estimate.getSbn(), key -> {
+                    GasEstimate ge = new GasEstimate();
+                    ge.setNodeId(estimate.getNodeId());
+                    ge.setSbn(estimate.getSbn());
+                    ge.setEpoch(0L);
+                    return ge;
+                });
+                increase.setEpoch(increase.getEpoch() + 1);
+            }
+        }
+        for (List<GasEstimate> chunk : CollUtil.split(new ArrayList<>(increaseMap.values()), CHUNK_SIZE)) {
+            customGasEstimateMapper.batchIncreaseEpoch(chunk);
+        }
+        List<Long> seqs = logs.stream().map(GasEstimateLog::getSeq).collect(Collectors.toList());
+        customGasEstimateLogMapper.batchDelete(seqs);
+        log.info("gas price估算日志处理完成:日志{},节点质押数[{}]", seqs, increaseMap.size());
+        return logs.size();
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.platon.browser.service.ppos;
+
+import com.platon.browser.dao.custommapper.CustomGasEstimateMapper;
+import com.platon.browser.dao.custommapper.PPOSBatchBusinessMapper;
+import com.platon.browser.dao.entity.GasEstimate;
+import com.platon.browser.dao.param.ppos.DelegateCreate;
+import com.platon.browser.dao.param.ppos.NodeDelta;
+import com.platon.browser.dao.param.ppos.ProposalVote;
+import com.platon.browser.dao.param.ppos.ProposalVoteDelta;
+import com.platon.browser.dao.param.ppos.StakeIncrease;
+import com.platon.browser.dao.param.ppos.StakingDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 区块内PPOS业务写入缓冲
+ * 1、发起委托、增持质押、提案投票及委托对应的gas估算记录先在内存中按主键合并
+ * 2、由PPOSService在其他PPOS交易分析前及区块分析结束时统一入库，保证与逐笔入库的结果和顺序一致
+ * 3、只在区块事件处理线程中使用，非线程安全
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Component
+public class PPOSMutationBuffer {
+
+    @Resource
+    private PPOSBatchBusinessMapper pposBatchBusinessMapper;
+
+    @Resource
+    private CustomGasEstimateMapper customGasEstimateMapper;
+
+    /**
+     * 委托，key:委托地址+节点id+质押块高
+     */
+    private final Map<String, DelegateCreate> delegations = new LinkedHashMap<>();
+
+    /**
+     * 质押变化量，key:节点id+质押块高
+     */
+    private final Map<String, StakingDelta> stakings = new LinkedHashMap<>();
+
+    /**
+     * 节点变化量，key:节点id
+     */
+    private final Map<String, NodeDelta> nodes = new LinkedHashMap<>();
+
+    /**
+     * gas估算记录，key:节点id+质押块高+委托地址
+     */
+    private final Map<String, GasEstimate> gasEstimates = new LinkedHashMap<>();
+
+    /**
+     * 投票
+     */
+    private final List<ProposalVote> votes = new ArrayList<>();
+
+    /**
+     * 提案投票数，key:提案hash
+     */
+    private final Map<String, ProposalVoteDelta> proposalVotes = new LinkedHashMap<>();
+
+    /**
+     * 发起委托
+     *
+     * @param param 委托参数
+     * @return void
+     * @date 2026/10/19
+     */
+    public void delegate(DelegateCreate param) {
+        String delegationKey = param.getTxFrom() + ":" + param.getNodeId() + ":" + param.getStakingBlockNumber();
+        DelegateCreate delegation = delegations.get(delegationKey);
+        if (delegation == null) {
+            delegations.put(delegationKey,
+                            DelegateCreate.builder()
+                                          .nodeId(param.getNodeId())
+                                          .amount(param.getAmount())
+                                          .blockNumber(param.getBlockNumber())
+                                          .txFrom(param.getTxFrom())
+                                          .sequence(param.getSequence())
+                                          .stakingBlockNumber(param.getStakingBlockNumber())
+                                          .build());
+        } else {
+            delegation.setAmount(delegation.getAmount().add(param.getAmount())).setBlockNumber(param.getBlockNumber());
+        }
+        StakingDelta staking = getStaking(param.getNodeId(), param.getStakingBlockNumber());
+        staking.setStatDelegateHes(staking.getStatDelegateHes().add(param.getAmount()));
+        NodeDelta node = getNode(param.getNodeId());
+        node.setTotalValue(node.getTotalValue().add(param.getAmount()));
+        node.setStatDelegateValue(node.getStatDelegateValue().add(param.getAmount()));
+    }
+
+    /**
+     * 增持质押
+     *
+     * @param param 增持参数
+     * @return void
+     * @date 2026/10/19
+     */
+    public void increase(StakeIncrease param) {
+        StakingDelta staking = getStaking(param.getNodeId(), param.getStakingBlockNum());
+        staking.setStakingHes(staking.getStakingHes().add(param.getAmount()));
+        NodeDelta node = getNode(param.getNodeId());
+        node.setTotalValue(node.getTotalValue().add(param.getAmount()));
+        node.setStakingHes(node.getStakingHes().add(param.getAmount()));
+    }
+
+    /**
+     * 新增或覆盖gas估算记录
+     *
+     * @param estimate gas估算记录
+     * @return void
+     * @date 2026/10/19
+     */
+    public void gasEstimate(GasEstimate estimate) {
+        String key = estimate.getNodeId() + ":" + estimate.getSbn() + ":" + estimate.getAddr();
+        // 与replace into一致，后写入的覆盖先写入的
+        gasEstimates.remove(key);
+        gasEstimates.put(key, estimate);
+    }
+
+    /**
+     * 提案投票，投票选项:1支持,2反对,其余按3弃权处理
+     *
+     * @param param 投票参数
+     * @return void
+     * @date 2026/10/19
+     */
+    public void vote(ProposalVote param) {
+        votes.add(param);
+        ProposalVoteDelta delta = proposalVotes.computeIfAbsent(param.getProposalHash(), hash -> {
+            ProposalVoteDelta d = new ProposalVoteDelta();
+            d.setProposalHash(hash);
+            return d;
+        });
+        if (param.getVoteOption() == 1) {
+            delta.setYeas(delta.getYeas() + 1);
+        } else if (param.getVoteOption() == 2) {
+            delta.setNays(delta.getNays() + 1);
+        } else {
+            delta.setAbstentions(delta.getAbstentions() + 1);
+        }
+    }
+
+    /**
+     * 缓冲的变化量入库，节点须先于委托入库，新增的有效委托地址数按入库前的委托表计算
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void flush() {
+        if (isEmpty()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            List<DelegateCreate> delegationList = new ArrayList<>(delegations.values());
+            if (!stakings.isEmpty()) {
+                pposBatchBusinessMapper.batchUpdateStaking(new ArrayList<>(stakings.values()));
+            }
+            if (!nodes.isEmpty()) {
+                pposBatchBusinessMapper.batchUpdateNode(new ArrayList<>(nodes.values()), delegationList);
+            }
+            if (!delegationList.isEmpty()) {
+                pposBatchBusinessMapper.batchUpsertDelegation(delegationList);
+            }
+            if (!gasEstimates.isEmpty()) {
+                customGasEstimateMapper.batchInsertOrUpdateSelective(new ArrayList<>(gasEstimates.values()), GasEstimate.Column.values());
+            }
+            if (!votes.isEmpty()) {
+                pposBatchBusinessMapper.batchInsertVote(votes);
+                pposBatchBusinessMapper.batchUpdateProposalVote(new ArrayList<>(proposalVotes.values()));
+            }
+            log.debug("PPOS缓冲入库:委托[{}]质押[{}]节点[{}]gas估算[{}]投票[{}],耗时:{} ms",
+                      delegations.size(),
+                      stakings.size(),
+                      nodes.size(),
+                      gasEstimates.size(),
+                      votes.size(),
+                      System.currentTimeMillis() - startTime);
+        } finally {
+            // 入库异常时由区块事件的事务回滚并重试，缓冲同样需要清空
+            clear();
+        }
+    }
+
+    /**
+     * 清空缓冲
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void clear() {
+        delegations.clear();
+        stakings.clear();
+        nodes.clear();
+        gasEstimates.clear();
+        votes.clear();
+        proposalVotes.clear();
+    }
+
+    private boolean isEmpty() {
+        return delegations.isEmpty() && stakings.isEmpty() && nodes.isEmpty() && gasEstimates.isEmpty() && votes.isEmpty();
+    }
+
+    private StakingDelta getStaking(String nodeId, BigInteger stakingBlockNum) {
+        return stakings.computeIfAbsent(nodeId + ":" + stakingBlockNum, key -> {
+            StakingDelta delta = new StakingDelta();
+            delta.setNodeId(nodeId);
+            delta.setStakingBlockNum(stakingBlockNum);
+            return delta;
+        });
+    }
+
+    private NodeDelta getNode(String nodeId) {
+        return nodes.computeIfAbsent(nodeId, key -> {
+            NodeDelta delta = new NodeDelta();
+            delta.setNodeId(nodeId);
+            return delta;
+        });
+    }
+
+}
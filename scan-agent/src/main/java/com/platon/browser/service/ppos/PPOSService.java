@@ -24,6 +24,8 @@ import com.platon.browser.elasticsearch.dto.Transaction;
 import com.platon.browser.exception.BlockNumberException;
 import com.platon.browser.exception.BusinessException;
 import com.platon.browser.exception.NoSuchBeanException;
+import com.platon.browser.service.block.NewBlockAccumulator;
+import com.platon.browser.service.epoch.GasEstimateService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -89,6 +91,18 @@ public class PPOSService {
     @Resource
     private AddressCache addressCache;
 
+    @Resource
+    private PPOSMutationBuffer pposMutationBuffer;
+
+    @Resource
+    private NewBlockAccumulator newBlockAccumulator;
+
+    @Resource
+    private GasEstimateService gasEstimateService;
+
+    // 当前区块是否已处理完gas price估算日志
+    private boolean gasEstimateSynced = false;
+
     // 前一个区块号
     private long preBlockNumber = 0L;
 
@@ -109,6 +123,10 @@ public class PPOSService {
             return tar;
         }
 
+        // 丢弃上次处理失败时残留的缓冲
+        this.pposMutationBuffer.clear();
+        this.gasEstimateSynced = false;
+
         // 普通交易和虚拟PPOS交易统一设置seq排序序号： 区块号*100000+自增号(allTxCount)
         int allTxCount = 0;
         for (Transaction tx : transactions) {
@@ -146,6 +164,9 @@ public class PPOSService {
             }
         }
 
+        // 区块内缓冲的业务数据入库
+        this.pposMutationBuffer.flush();
+
         Block block = event.getBlock();
         // 如果当前区块号与前一个一样，证明这是重复处理的块(例如:某部分业务处理失败，由于重试机制进来此处)
         // 防止重复计算
@@ -173,6 +194,13 @@ public class PPOSService {
             // 调用交易分析引擎分析交易，以补充相关数据
             NodeOpt nodeOpt = null;
             DelegationReward delegationReward = null;
+            if (needFlush(tx)) {
+                // 先把缓冲入库，保证与逐笔入库的顺序一致
+                this.pposMutationBuffer.flush();
+                // 质押、节点相关交易会读取或覆盖出块数和奖励，需先把累计的变化量入库
+                this.newBlockAccumulator.flush();
+            }
+            syncGasEstimate(tx);
             switch (tx.getTypeEnum()) {
                 case STAKE_CREATE:
                     nodeOpt = this.stakeCreateAnalyzer.analyze(event, tx);
@@ -246,4 +274,54 @@ public class PPOSService {
         }
     }
 
+    /**
+     * 委托相关交易会写入gas price估算记录，写入前先在区块事务中处理完之前结算周期的日志，每个区块只处理一次
+     *
+     * @param tx 交易
+     * @return void
+     * @date 2026/10/19
+     */
+    private void syncGasEstimate(Transaction tx) {
+        if (this.gasEstimateSynced) {
+            return;
+        }
+        switch (tx.getTypeEnum()) {
+            case DELEGATE_CREATE:
+            case DELEGATE_EXIT:
+            case CLAIM_REWARDS:
+                this.gasEstimateService.applyPending();
+                this.gasEstimateSynced = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 是否需要先把缓冲入库，除缓冲的业务外，其他PPOS业务都可能读写缓冲涉及的数据
+     *
+     * @param tx 交易
+     * @return boolean
+     * @date 2026/10/19
+     */
+    private boolean needFlush(Transaction tx) {
+        switch (tx.getTypeEnum()) {
+            case STAKE_CREATE:
+            case STAKE_MODIFY:
+            case STAKE_EXIT:
+            case DELEGATE_EXIT:
+            case PROPOSAL_TEXT:
+            case PROPOSAL_UPGRADE:
+            case PROPOSAL_PARAMETER:
+            case PROPOSAL_CANCEL:
+            case VERSION_DECLARE:
+            case REPORT:
+            case RESTRICTING_CREATE:
+            case CLAIM_REWARDS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.platon.browser.task;
+
+import com.platon.browser.utils.AppStatusUtil;
+import com.platon.browser.v0152.analyzer.ErcCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 余额轮询token同步任务
+ * job抽样核对余额账本不一致时只写入token_balance_polling表，agent定时同步到缓存，之后该token不再按转账事件记账
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Component
+public class BalancePollingSyncTask {
+
+    @Resource
+    private ErcCache ercCache;
+
+    @Scheduled(cron = "0/10 * * * * ?")
+    public void balancePollingSync() {
+        // 只有程序正常运行才执行任务
+        if (AppStatusUtil.isRunning()) start();
+    }
+
+    protected void start() {
+        try {
+            ercCache.refreshBalancePolling();
+        } catch (Exception e) {
+            log.error("同步余额轮询token异常", e);
+        }
+    }
+
+}
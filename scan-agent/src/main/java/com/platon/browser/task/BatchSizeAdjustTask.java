@@ -4,6 +4,7 @@ import com.platon.browser.client.PlatOnClient;
 import com.platon.browser.config.DisruptorConfig;
 import com.platon.browser.config.TaskConfig;
 import com.platon.browser.handler.PersistenceEventHandler;
+import com.platon.browser.service.block.NewBlockAccumulator;
 import com.platon.browser.utils.AppStatusUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -32,6 +33,9 @@ public class BatchSizeAdjustTask {
     @Resource
     private TaskConfig taskConfig;
 
+    @Resource
+    private NewBlockAccumulator newBlockAccumulator;
+
     @Scheduled(cron = "0/30 * * * * ?")
     public void batchSizeAdjust() {
         // 只有程序正常运行才执行任务
@@ -46,9 +50,11 @@ public class BatchSizeAdjustTask {
             if (chainBlockNumber - appBlockNumber < taskConfig.getGapForAdjust()) {
                 log.info("---------------已追上链,调整批量大小为{}---------------", taskConfig.getEsRedisCatchupBatchSize());
                 disruptorConfig.setPersistenceBatchSize(taskConfig.getEsRedisCatchupBatchSize());
+                newBlockAccumulator.setCatchingUp(false);
             } else {
                 log.info("---------------未追上链,调整批量大小为{}---------------", taskConfig.getEsRedisNotCatchupBatchSize());
                 disruptorConfig.setPersistenceBatchSize(taskConfig.getEsRedisNotCatchupBatchSize());
+                newBlockAccumulator.setCatchingUp(true);
             }
         } catch (Exception e) {
             log.error("批次处理相关变量动态调整出错:", e);
@@ -1,7 +1,5 @@
 package com.platon.browser.utils;
 
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
 /**
  * @description: 备份数据删除工具
  * @author: chendongming@matrixelements.com
@@ -9,44 +7,23 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  **/
 public class BakDataDeleteUtil {
     private BakDataDeleteUtil(){}
-    private static final ReentrantReadWriteLock N_OPT_BAK_LOCK = new ReentrantReadWriteLock();
-    private static final ReentrantReadWriteLock TX_BAK_LOK = new ReentrantReadWriteLock();
+    // 单个long的读写由volatile保证可见性和原子性，不加锁也不装箱
     private static volatile long nOptBakMaxId = 0L;
     private static volatile long txBakMaxId = 0L;
 
-    public static void updateNOptBakMaxId(Long maxId){
-        N_OPT_BAK_LOCK.writeLock().lock();
-        try {
-            nOptBakMaxId = maxId;
-        }finally {
-            N_OPT_BAK_LOCK.writeLock().unlock();
-        }
+    public static void updateNOptBakMaxId(long maxId){
+        nOptBakMaxId = maxId;
     }
 
-    public static Long getNOptBakMaxId(){
-        N_OPT_BAK_LOCK.readLock().lock();
-        try {
-            return nOptBakMaxId;
-        }finally {
-            N_OPT_BAK_LOCK.readLock().unlock();
-        }
+    public static long getNOptBakMaxId(){
+        return nOptBakMaxId;
     }
 
-    public static void updateTxBakMaxId(Long maxId){
-        TX_BAK_LOK.writeLock().lock();
-        try {
-            txBakMaxId = maxId;
-        }finally {
-            TX_BAK_LOK.writeLock().unlock();
-        }
+    public static void updateTxBakMaxId(long maxId){
+        txBakMaxId = maxId;
     }
 
-    public static Long getTxBakMaxId(){
-        TX_BAK_LOK.readLock().lock();
-        try {
-            return txBakMaxId;
-        }finally {
-            TX_BAK_LOK.readLock().unlock();
-        }
+    public static long getTxBakMaxId(){
+        return txBakMaxId;
     }
 }
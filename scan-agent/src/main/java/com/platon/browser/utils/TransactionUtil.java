@@ -1,7 +1,6 @@
 package com.platon.browser.utils;
 
 import com.alibaba.fastjson.JSON;
-import com.platon.bech32.Bech32;
 import com.platon.browser.bean.*;
 import com.platon.browser.cache.AddressCache;
 import com.platon.browser.cache.PPosInvokeContractInputCache;
@@ -63,7 +62,7 @@ public class TransactionUtil {
             return transactionList;
         }
         // 如果是vrf内置合约则跳过
-        if (Bech32.addressDecodeHex(invokeContractInput.getTo()).equalsIgnoreCase(VRF_ADDRESS)) {
+        if (AddressUtil.toHex(invokeContractInput.getTo()).equalsIgnoreCase(VRF_ADDRESS)) {
             return transactionList;
         }
         List<TransData> trans = invokeContractInput.getTransDatas();
@@ -368,32 +367,31 @@ public class TransactionUtil {
             ci.setMethod(ContractDescEnum.getMap().get(toAddress).getContractName());
             return;
         }
-        if (addressCache.isEvmContractAddress(toAddress)) {
-            ci.setToType(Transaction.ToTypeEnum.EVM_CONTRACT.getCode());
-            ci.setContractType(ContractTypeEnum.EVM.getCode());
-            return;
-        }
-        if (addressCache.isWasmContractAddress(toAddress)) {
-            ci.setToType(Transaction.ToTypeEnum.WASM_CONTRACT.getCode());
-            ci.setContractType(ContractTypeEnum.WASM.getCode());
-            return;
-        }
-        if (addressCache.isErc20ContractAddress(toAddress)) {
-            ci.setToType(Transaction.ToTypeEnum.ERC20_CONTRACT.getCode());
-            ci.setContractType(ContractTypeEnum.ERC20_EVM.getCode());
-            return;
-        }
-        if (addressCache.isErc721ContractAddress(toAddress)) {
-            ci.setToType(Transaction.ToTypeEnum.ERC721_CONTRACT.getCode());
-            ci.setContractType(ContractTypeEnum.ERC721_EVM.getCode());
+        // 大部分普通交易的to地址是普通账户，通过合约地址分类索引一次判断
+        Transaction.ToTypeEnum toType = addressCache.getContractType(toAddress);
+        if (toType == null) {
+            ci.setToType(Transaction.ToTypeEnum.ACCOUNT.getCode());
             return;
         }
-        if (addressCache.isErc1155ContractAddress(toAddress)) {
-            ci.setToType(Transaction.ToTypeEnum.ERC1155_CONTRACT.getCode());
-            ci.setContractType(ContractTypeEnum.ERC1155_EVM.getCode());
-            return;
+        ci.setToType(toType.getCode());
+        switch (toType) {
+            case EVM_CONTRACT:
+                ci.setContractType(ContractTypeEnum.EVM.getCode());
+                break;
+            case WASM_CONTRACT:
+                ci.setContractType(ContractTypeEnum.WASM.getCode());
+                break;
+            case ERC20_CONTRACT:
+                ci.setContractType(ContractTypeEnum.ERC20_EVM.getCode());
+                break;
+            case ERC721_CONTRACT:
+                ci.setContractType(ContractTypeEnum.ERC721_EVM.getCode());
+                break;
+            case ERC1155_CONTRACT:
+                ci.setContractType(ContractTypeEnum.ERC1155_EVM.getCode());
+                break;
+            default:
         }
-        ci.setToType(Transaction.ToTypeEnum.ACCOUNT.getCode());
     }
 
 }
@@ -21,7 +21,6 @@ import org.springframework.beans.BeanUtils;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.Executors;
 
 /**
  * @description: 测试数据
@@ -133,11 +132,7 @@ public class AgentTestData {
                     case "receipts":
                         receiptResultList = JSON.parseArray(content, ReceiptResult.class);
                         receiptResultList.forEach(rr -> {
-                            try {
-                                rr.resolve(rr.getResult().get(0).getBlockNumber(), Executors.newFixedThreadPool(10));
-                            } catch (InterruptedException e) {
-                                e.printStackTrace();
-                            }
+                            rr.resolve(rr.getResult().get(0).getBlockNumber());
                             receiptResultMap.put(rr.getResult().get(0).getBlockNumber(), rr);
                         });
                         break;
@@ -16,6 +16,7 @@ import com.platon.browser.dao.mapper.StakingMapper;
 import com.platon.browser.bean.CustomStaking.StatusEnum;
 import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.exception.BlockNumberException;
+import com.platon.browser.service.epoch.EpochPrefetchService;
 import com.platon.browser.service.ppos.StakeEpochService;
 import org.junit.Before;
 import org.junit.Test;
@@ -51,6 +52,8 @@ public class OnElectionAnalyzerTest extends AgentTestBase {
     @Mock
     private StakeEpochService stakeEpochService;
     @Mock
+    private EpochPrefetchService epochPrefetchService;
+    @Mock
     private BlockChainConfig chainConfig;
     @InjectMocks
     @Spy
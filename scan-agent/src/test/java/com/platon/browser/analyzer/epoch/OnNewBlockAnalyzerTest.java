@@ -9,11 +9,11 @@ import com.platon.browser.cache.ProposalCache;
 import com.platon.browser.bean.NodeItem;
 import com.platon.browser.bean.CollectionEvent;
 import com.platon.browser.service.proposal.ProposalService;
-import com.platon.browser.dao.custommapper.NewBlockMapper;
 import com.platon.browser.dao.entity.NetworkStat;
 import com.platon.browser.dao.entity.Proposal;
 import com.platon.browser.dao.mapper.ProposalMapper;
 import com.platon.browser.elasticsearch.dto.Block;
+import com.platon.browser.service.block.NewBlockAccumulator;
 import com.platon.browser.service.govern.ParameterService;
 import com.platon.browser.service.statistic.StatisticService;
 import com.platon.contracts.ppos.dto.resp.GovernParam;
@@ -46,7 +46,7 @@ public class OnNewBlockAnalyzerTest extends AgentTestBase {
     private NodeCache nodeCache;
 
     @Mock
-    private NewBlockMapper newBlockMapper;
+    private NewBlockAccumulator newBlockAccumulator;
 
     @Mock
     private NetworkStatCache networkStatCache;
@@ -5,9 +5,8 @@ import com.platon.browser.bean.CollectionTransaction;
 import com.platon.browser.cache.NodeCache;
 import com.platon.browser.bean.NodeItem;
 import com.platon.browser.bean.CollectionEvent;
-import com.platon.browser.dao.custommapper.DelegateBusinessMapper;
-import com.platon.browser.dao.custommapper.CustomGasEstimateMapper;
 import com.platon.browser.elasticsearch.dto.Transaction;
+import com.platon.browser.service.ppos.PPOSMutationBuffer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,13 +30,11 @@ import static org.mockito.Mockito.when;
 public class DelegateCreateAnalyzerTest extends AgentTestBase {
 
     @Mock
-    private DelegateBusinessMapper delegateBusinessMapper;
+    private PPOSMutationBuffer pposMutationBuffer;
     @Mock
     private CollectionEvent collectionEvent;
     @Mock
     private NodeCache nodeCache;
-    @Mock
-    private CustomGasEstimateMapper customGasEstimateMapper;
     @InjectMocks
     @Spy
     private DelegateCreateAnalyzer target;
@@ -6,10 +6,10 @@ import com.platon.browser.cache.NetworkStatCache;
 import com.platon.browser.cache.NodeCache;
 import com.platon.browser.bean.NodeItem;
 import com.platon.browser.bean.CollectionEvent;
-import com.platon.browser.dao.custommapper.ProposalBusinessMapper;
 import com.platon.browser.dao.mapper.ProposalMapper;
 import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.elasticsearch.dto.Transaction;
+import com.platon.browser.service.ppos.PPOSMutationBuffer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,7 +33,7 @@ import static org.mockito.Mockito.when;
 public class ProposalVoteConverterTest extends AgentTestBase {
 
     @Mock
-    private ProposalBusinessMapper proposalBusinessMapper;
+    private PPOSMutationBuffer pposMutationBuffer;
     @Mock
     private NetworkStatCache networkStatCache;
     @Mock
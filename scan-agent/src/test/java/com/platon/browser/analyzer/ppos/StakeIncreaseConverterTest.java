@@ -6,8 +6,8 @@ import com.platon.browser.cache.NetworkStatCache;
 import com.platon.browser.cache.NodeCache;
 import com.platon.browser.bean.NodeItem;
 import com.platon.browser.bean.CollectionEvent;
-import com.platon.browser.dao.custommapper.StakeBusinessMapper;
 import com.platon.browser.elasticsearch.dto.Transaction;
+import com.platon.browser.service.ppos.PPOSMutationBuffer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,7 +30,7 @@ import static org.mockito.Mockito.when;
 public class StakeIncreaseConverterTest extends AgentTestBase {
 
     @Mock
-    private StakeBusinessMapper stakeBusinessMapper;
+    private PPOSMutationBuffer pposMutationBuffer;
     @Mock
     private NodeCache nodeCache;
     @Mock
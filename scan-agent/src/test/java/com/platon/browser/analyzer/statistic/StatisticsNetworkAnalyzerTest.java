@@ -52,6 +52,8 @@ public class StatisticsNetworkAnalyzerTest extends AgentTestBase {
     private SpecialApi specialApi;
     @Mock
     private PlatOnClient platOnClient;
+    @Mock
+    private SupplySnapshotAnalyzer supplySnapshotAnalyzer;
     @Before
     public void setup()throws Exception{
         NetworkStat networkStat = new NetworkStat();
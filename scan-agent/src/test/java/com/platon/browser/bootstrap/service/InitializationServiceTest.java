@@ -8,7 +8,7 @@ import com.platon.browser.cache.AddressCache;
 import com.platon.browser.cache.NetworkStatCache;
 import com.platon.browser.cache.NodeCache;
 import com.platon.browser.cache.ProposalCache;
-import com.platon.browser.publisher.GasEstimateEventPublisher;
+import com.platon.browser.service.epoch.GasEstimateService;
 import com.platon.browser.service.elasticsearch.*;
 import com.platon.browser.service.epoch.EpochRetryService;
 import com.platon.browser.config.BlockChainConfig;
@@ -37,6 +37,7 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -87,7 +88,7 @@ public class InitializationServiceTest extends AgentTestBase {
     private GasEstimateLogMapper gasEstimateLogMapper;
 
     @Mock
-    private GasEstimateEventPublisher gasEstimateEventPublisher;
+    private GasEstimateService gasEstimateService;
 
     @Mock
     private StakeEpochService stakeEpochService;
@@ -170,6 +171,8 @@ public class InitializationServiceTest extends AgentTestBase {
         when(nodeMapper.selectByExample(any())).thenReturn(page);
         result = target.init(CommonUtil.createTraceId());
         assertEquals(7000L, result.getCollectedBlockNumber().longValue());
+        // 启动时处理未处理的gas price估算日志
+        verify(gasEstimateService).applyPending();
     }
 
 }
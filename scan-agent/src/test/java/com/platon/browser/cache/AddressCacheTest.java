@@ -1,6 +1,10 @@
 package com.platon.browser.cache;
 
+import cn.hutool.core.collection.ConcurrentHashSet;
 import com.platon.browser.AgentTestBase;
+import com.platon.browser.dao.entity.Address;
+import com.platon.browser.enums.AddressTypeEnum;
+import com.platon.browser.enums.ContractTypeEnum;
 import com.platon.browser.elasticsearch.dto.Transaction;
 import com.platon.browser.enums.InnerContractAddrEnum;
 import com.platon.browser.v0152.analyzer.ErcCache;
@@ -9,10 +13,16 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class AddressCacheTest extends AgentTestBase {
@@ -68,4 +78,38 @@ public class AddressCacheTest extends AgentTestBase {
         assertTrue(true);
     }
 
+    @Test
+    public void contractTypeIndex() {
+        Set<String> erc20 = new ConcurrentHashSet<>();
+        erc20.add("lat1erc20");
+        erc20.add("lat1evm");
+        Set<String> erc721 = new ConcurrentHashSet<>();
+        when(ercCache.getErc20AddressCache()).thenReturn(erc20);
+        when(ercCache.getErc721AddressCache()).thenReturn(erc721);
+        when(ercCache.getErc1155AddressCache()).thenReturn(new ConcurrentHashSet<>());
+        ReflectionTestUtils.setField(this.addressCache, "ercCache", ercCache);
+
+        Address evm = new Address();
+        evm.setAddress("lat1evm");
+        evm.setType(AddressTypeEnum.EVM_CONTRACT.getCode());
+        this.addressCache.initEvmContractAddressCache(Collections.singletonList(evm));
+        this.addressCache.initWasmContractAddressCache(new ArrayList<>());
+
+        assertEquals(Transaction.ToTypeEnum.INNER_CONTRACT.getCode(), this.addressCache.getTypeData(InnerContractAddrEnum.RESTRICTING_PLAN_CONTRACT.getAddress()));
+        // 同时在EVM和ERC20缓存中的地址按原判断顺序取EVM
+        assertEquals(Transaction.ToTypeEnum.EVM_CONTRACT, this.addressCache.getContractType("lat1evm"));
+        assertEquals(Transaction.ToTypeEnum.ERC20_CONTRACT, this.addressCache.getContractType("lat1erc20"));
+        assertNull(this.addressCache.getContractType("lat1account"));
+        assertEquals(Transaction.ToTypeEnum.ACCOUNT.getCode(), this.addressCache.getTypeData("lat1account"));
+
+        // 索引建立后的新增合约
+        erc721.add("lat1erc721");
+        this.addressCache.indexContract("lat1erc721");
+        assertEquals(Transaction.ToTypeEnum.ERC721_CONTRACT, this.addressCache.getContractType("lat1erc721"));
+
+        // EVM合约转为token合约
+        this.addressCache.changeEvmAddress2TokenAddress("lat1evm", ContractTypeEnum.ERC20_EVM);
+        assertEquals(Transaction.ToTypeEnum.ERC20_CONTRACT, this.addressCache.getContractType("lat1evm"));
+    }
+
 }
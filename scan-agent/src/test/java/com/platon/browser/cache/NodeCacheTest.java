@@ -10,6 +10,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 
@@ -29,5 +31,8 @@ public class NodeCacheTest extends AgentTestBase {
         nodeCache.addNode(nodeItem);
         nodeCache.getNode("0xsfsf233r");
         assertEquals(nodeCache.getNode("0xsfsf233r"),nodeItem);
+        Map<String, String> nodeNames = nodeCache.getNodeNames(Arrays.asList("0xsfsf233r", "0xnotexist"));
+        assertEquals(1, nodeNames.size());
+        assertEquals("3r3", nodeNames.get("0xsfsf233r"));
     }
 }
@@ -13,6 +13,7 @@ import com.platon.browser.dao.mapper.NOptBakMapper;
 import com.platon.browser.dao.mapper.TxBakMapper;
 import com.platon.browser.publisher.ComplementEventPublisher;
 import com.platon.browser.service.block.BlockService;
+import com.platon.browser.service.block.NewBlockAccumulator;
 import com.platon.browser.service.ppos.PPOSService;
 import com.platon.browser.service.statistic.StatisticService;
 import org.junit.Before;
@@ -64,6 +65,9 @@ public class CollectionEventHandlerTest extends AgentTestBase {
     @Mock
     private CustomNOptBakMapper customNOptBakMapper;
 
+    @Mock
+    private NewBlockAccumulator newBlockAccumulator;
+
     @InjectMocks
     @Spy
     private CollectionEventHandler target;
@@ -2,9 +2,8 @@ package com.platon.browser.handler;
 
 import com.platon.browser.AgentTestBase;
 import com.platon.browser.bean.GasEstimateEvent;
-import com.platon.browser.dao.custommapper.EpochBusinessMapper;
 import com.platon.browser.dao.entity.GasEstimate;
-import com.platon.browser.dao.mapper.GasEstimateLogMapper;
+import com.platon.browser.service.epoch.GasEstimateService;
 import com.platon.browser.exception.BeanCreateOrUpdateException;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,16 +16,18 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.verify;
+
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class GasEstimateEventHandlerTest extends AgentTestBase {
 
 	@Mock
-	private GasEstimateLogMapper gasEstimateLogMapper;
-	@Mock
-	private EpochBusinessMapper epochBusinessMapper;
+	private GasEstimateService gasEstimateService;
 	@InjectMocks
 	@Spy
 	private GasEstimateEventHandler target;
@@ -47,8 +48,12 @@ public class GasEstimateEventHandlerTest extends AgentTestBase {
 		 target.onEvent(gasEstimateEvent, 1, false);
 		 gasEstimateEvent.getEstimateList();
 		 gasEstimateEvent.getSeq();
-		 ReflectionTestUtils.setField(target, "epochBusinessMapper", null);
-		 target.onEvent(gasEstimateEvent, 1, false);
+		 target.onEvent(gasEstimateEvent, 1, true);
+		 // 同一批次的重复序号只处理一次
+		 verify(gasEstimateService).apply(Collections.singletonList(1L));
+		 ReflectionTestUtils.setField(target, "gasEstimateService", null);
+		 target.onEvent(gasEstimateEvent, 1, true);
+		 assertEquals(0, target.getPendingSize());
 	 }
 	
 }
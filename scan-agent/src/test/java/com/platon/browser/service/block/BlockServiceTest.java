@@ -45,6 +45,8 @@ public class BlockServiceTest extends AgentTestBase {
     private OnConsensusAnalyzer onConsensusAnalyzer;
     @Mock
     private OnSettleAnalyzer onSettleAnalyzer;
+    @Mock
+    private NewBlockAccumulator newBlockAccumulator;
     @InjectMocks
     @Spy
     private BlockService target;
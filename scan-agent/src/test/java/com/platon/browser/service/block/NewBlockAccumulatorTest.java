@@ -0,0 +1,109 @@
+package com.platon.browser.service.block;
+
+import com.platon.browser.config.TaskConfig;
+import com.platon.browser.dao.custommapper.NewBlockMapper;
+import com.platon.browser.dao.param.epoch.NewBlock;
+import com.platon.browser.dao.param.epoch.NewBlockDelta;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class NewBlockAccumulatorTest {
+
+    @Mock
+    private NewBlockMapper newBlockMapper;
+
+    @Mock
+    private TaskConfig taskConfig;
+
+    @InjectMocks
+    private NewBlockAccumulator target;
+
+    @Before
+    public void setup() {
+        when(taskConfig.getNewBlockFlushBlocks()).thenReturn(3);
+        when(taskConfig.getNewBlockFlushSeconds()).thenReturn(60);
+    }
+
+    private NewBlock newBlock(String nodeId, long predict) {
+        return NewBlock.builder()
+                       .nodeId(nodeId)
+                       .stakingBlockNum(BigInteger.ONE)
+                       .blockRewardValue(BigDecimal.TEN)
+                       .feeRewardValue(BigDecimal.ONE)
+                       .predictStakingReward(BigDecimal.valueOf(predict))
+                       .build();
+    }
+
+    @Test
+    public void flushEveryBlockWhenCaughtUp() {
+        target.add(newBlock("node1", 1));
+        target.add(newBlock("node1", 2));
+        verify(newBlockMapper, times(2)).batchNewBlock(anyList(), anyList());
+        target.checkpoint();
+        verify(newBlockMapper, never()).updatePendingNewBlock(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void coalesceWhenCatchingUp() {
+        target.setCatchingUp(true);
+        target.add(newBlock("node1", 1));
+        target.add(newBlock("node2", 2));
+        verify(newBlockMapper, never()).batchNewBlock(anyList(), anyList());
+        target.checkpoint();
+        verify(newBlockMapper).updatePendingNewBlock(anyString());
+
+        target.add(newBlock("node1", 3));
+        ArgumentCaptor<List> stakings = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> nodes = ArgumentCaptor.forClass(List.class);
+        verify(newBlockMapper).batchNewBlock(stakings.capture(), nodes.capture());
+        assertEquals(2, stakings.getValue().size());
+        NewBlockDelta node1 = (NewBlockDelta) nodes.getValue().get(1);
+        assertEquals("node1", node1.getNodeId());
+        assertEquals(2, node1.getBlockQty());
+        assertEquals(BigDecimal.valueOf(20), node1.getBlockRewardValue());
+        assertEquals(BigDecimal.valueOf(2), node1.getFeeRewardValue());
+        assertEquals(BigDecimal.valueOf(3), node1.getPredictStakingReward());
+
+        // 全部入库后清空数据库中的记录
+        target.checkpoint();
+        verify(newBlockMapper).updatePendingNewBlock(isNull());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void reload() {
+        when(newBlockMapper.selectPendingNewBlock())
+                .thenReturn("[{\"nodeId\":\"node1\",\"stakingBlockNum\":1,\"blockQty\":2,\"blockRewardValue\":20,\"feeRewardValue\":2,\"predictStakingReward\":5}]");
+        target.setCatchingUp(true);
+        target.add(newBlock("node1", 6));
+        ArgumentCaptor<List> stakings = ArgumentCaptor.forClass(List.class);
+        verify(newBlockMapper).batchNewBlock(stakings.capture(), anyList());
+        NewBlockDelta staking = (NewBlockDelta) stakings.getValue().get(0);
+        assertEquals(3, staking.getBlockQty());
+        assertTrue(BigDecimal.valueOf(30).compareTo(staking.getBlockRewardValue()) == 0);
+        assertEquals(BigDecimal.valueOf(6), staking.getPredictStakingReward());
+    }
+
+}
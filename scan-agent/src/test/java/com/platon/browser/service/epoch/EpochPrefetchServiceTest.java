@@ -0,0 +1,110 @@
+package com.platon.browser.service.epoch;
+
+import com.platon.browser.AgentTestBase;
+import com.platon.browser.bean.EpochInfo;
+import com.platon.browser.bean.EpochPrefetch;
+import com.platon.browser.bean.HistoryLowRateSlash;
+import com.platon.browser.client.PlatOnClient;
+import com.platon.browser.client.SpecialApi;
+import com.platon.browser.client.Web3jWrapper;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.protocol.Web3j;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class EpochPrefetchServiceTest extends AgentTestBase {
+
+    @Mock
+    private BlockChainConfig chainConfig;
+
+    @Mock
+    private PlatOnClient platOnClient;
+
+    @Mock
+    private SpecialApi specialApi;
+
+    @InjectMocks
+    private EpochPrefetchService target;
+
+    private final EpochInfo epochInfo = new EpochInfo();
+
+    private final List<HistoryLowRateSlash> slashList = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        when(chainConfig.getSettlePeriodBlockCount()).thenReturn(BigInteger.valueOf(50));
+        when(chainConfig.getConsensusPeriodBlockCount()).thenReturn(BigInteger.valueOf(10));
+        when(chainConfig.getElectionBackwardBlockCount()).thenReturn(BigInteger.valueOf(2));
+        Web3jWrapper web3jWrapper = mock(Web3jWrapper.class);
+        when(platOnClient.getWeb3jWrapper()).thenReturn(web3jWrapper);
+        when(web3jWrapper.getWeb3j()).thenReturn(mock(Web3j.class));
+        when(specialApi.getHistoryVerifierList(any(), any())).thenReturn(verifierList);
+        when(specialApi.getHistoryValidatorList(any(), any())).thenReturn(validatorList);
+        when(specialApi.getEpochInfo(any(), any())).thenReturn(epochInfo);
+        when(specialApi.getHistoryLowRateSlashList(any(), any())).thenReturn(slashList);
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+        // 结算、共识周期切换区块51，选举区块48
+        target.prefetch(45L, 61L);
+        EpochPrefetch settlement = target.takeSettlement(BigInteger.valueOf(51));
+        assertNotNull(settlement);
+        assertSame(epochInfo, settlement.getEpochInfo());
+        assertEquals(verifierList.size(), settlement.getPreNodes().size());
+        // 链上最新块还未进入下一结算周期，当前周期验证人由周期切换时查询实时接口
+        assertNull(settlement.getCurNodes());
+        verify(specialApi).getHistoryVerifierList(any(), eq(BigInteger.valueOf(50)));
+
+        EpochPrefetch consensus = target.takeConsensus(BigInteger.valueOf(51));
+        assertNotNull(consensus);
+        // 链上最新块已进入下一共识周期
+        assertNotNull(consensus.getCurNodes());
+        verify(specialApi).getHistoryValidatorList(any(), eq(BigInteger.valueOf(51)));
+
+        assertSame(slashList, target.takeLowRateSlashList(48L));
+        // 取出后不再重复使用
+        assertNull(target.takeSettlement(BigInteger.valueOf(51)));
+    }
+
+    @Test
+    public void electionBehindCollector() throws Exception {
+        // 区块处理线程落后于采集主流程，采集主流程越过选举区块后预取结果仍然保留
+        target.prefetch(45L, 61L);
+        target.prefetch(49L, 61L);
+        target.prefetch(60L, 61L);
+        assertSame(slashList, target.takeLowRateSlashList(48L));
+        verify(specialApi).getHistoryLowRateSlashList(any(), eq(BigInteger.valueOf(48)));
+    }
+
+    @Test
+    public void notOnChain() throws Exception {
+        // 周期切换需要的区块还未上链，不预取
+        target.prefetch(45L, 47L);
+        assertNull(target.takeSettlement(BigInteger.valueOf(51)));
+        assertNull(target.takeConsensus(BigInteger.valueOf(51)));
+        assertNull(target.takeLowRateSlashList(48L));
+        verify(specialApi, never()).getHistoryVerifierList(any(), any());
+    }
+
+}
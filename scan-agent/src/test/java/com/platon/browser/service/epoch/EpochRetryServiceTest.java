@@ -39,6 +39,8 @@ public class EpochRetryServiceTest extends AgentTestBase {
     @Mock List<Node> curVerifiers;
     @Mock
     private NetworkStatCache networkStatCache;
+    @Mock
+    private EpochPrefetchService epochPrefetchService;
     @InjectMocks
     @Spy
     private EpochRetryService target;
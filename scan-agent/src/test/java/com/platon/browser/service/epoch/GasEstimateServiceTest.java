@@ -0,0 +1,73 @@
+package com.platon.browser.service.epoch;
+
+import com.platon.browser.dao.custommapper.CustomGasEstimateLogMapper;
+import com.platon.browser.dao.custommapper.CustomGasEstimateMapper;
+import com.platon.browser.dao.entity.GasEstimate;
+import com.platon.browser.dao.entity.GasEstimateLog;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class GasEstimateServiceTest {
+
+    @Mock
+    private CustomGasEstimateLogMapper customGasEstimateLogMapper;
+
+    @Mock
+    private CustomGasEstimateMapper customGasEstimateMapper;
+
+    @InjectMocks
+    private GasEstimateService target;
+
+    private GasEstimateLog gasEstimateLog(long seq, String json) {
+        GasEstimateLog gasEstimateLog = new GasEstimateLog();
+        gasEstimateLog.setSeq(seq);
+        gasEstimateLog.setJson(json);
+        return gasEstimateLog;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void apply() {
+        when(customGasEstimateLogMapper.selectForUpdate(any())).thenReturn(Arrays.asList(gasEstimateLog(10000L, "[{\"nodeId\":\"node1\",\"sbn\":1},{\"nodeId\":\"node2\",\"sbn\":2}]"),
+                                                                                          gasEstimateLog(20000L, "[{\"nodeId\":\"node1\",\"sbn\":1}]")));
+        int count = target.apply(Arrays.asList(10000L, 20000L, 30000L));
+        assertEquals(2, count);
+
+        ArgumentCaptor<List> increases = ArgumentCaptor.forClass(List.class);
+        verify(customGasEstimateMapper).batchIncreaseEpoch(increases.capture());
+        List<GasEstimate> list = increases.getValue();
+        assertEquals(2, list.size());
+        assertEquals("node1", list.get(0).getNodeId());
+        assertEquals(Long.valueOf(2), list.get(0).getEpoch());
+        assertEquals(Long.valueOf(1), list.get(1).getEpoch());
+        verify(customGasEstimateLogMapper).batchDelete(Arrays.asList(10000L, 20000L));
+    }
+
+    @Test
+    public void applyProcessed() {
+        // 日志已被删除，说明序号已处理，不再累加
+        when(customGasEstimateLogMapper.selectForUpdate(any())).thenReturn(new ArrayList<>());
+        assertEquals(0, target.apply(Collections.singletonList(10000L)));
+        assertEquals(0, target.applyPending());
+        verify(customGasEstimateMapper, never()).batchIncreaseEpoch(anyList());
+        verify(customGasEstimateLogMapper, never()).batchDelete(anyList());
+    }
+
+}
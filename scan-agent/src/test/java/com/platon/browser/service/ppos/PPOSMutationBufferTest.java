@@ -0,0 +1,115 @@
+package com.platon.browser.service.ppos;
+
+import com.platon.browser.dao.custommapper.CustomGasEstimateMapper;
+import com.platon.browser.dao.custommapper.PPOSBatchBusinessMapper;
+import com.platon.browser.dao.entity.GasEstimate;
+import com.platon.browser.dao.param.ppos.DelegateCreate;
+import com.platon.browser.dao.param.ppos.NodeDelta;
+import com.platon.browser.dao.param.ppos.ProposalVote;
+import com.platon.browser.dao.param.ppos.ProposalVoteDelta;
+import com.platon.browser.dao.param.ppos.StakeIncrease;
+import com.platon.browser.dao.param.ppos.StakingDelta;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PPOSMutationBufferTest {
+
+    @Mock
+    private PPOSBatchBusinessMapper pposBatchBusinessMapper;
+
+    @Mock
+    private CustomGasEstimateMapper customGasEstimateMapper;
+
+    @InjectMocks
+    private PPOSMutationBuffer target;
+
+    private DelegateCreate delegate(String from, long amount, long seq) {
+        return DelegateCreate.builder()
+                             .nodeId("node1")
+                             .amount(BigDecimal.valueOf(amount))
+                             .blockNumber(BigInteger.TEN)
+                             .txFrom(from)
+                             .sequence(BigInteger.valueOf(seq))
+                             .stakingBlockNumber(BigInteger.ONE)
+                             .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void flush() {
+        target.delegate(delegate("addr1", 10, 1));
+        target.delegate(delegate("addr2", 20, 2));
+        target.delegate(delegate("addr1", 30, 3));
+        target.increase(StakeIncrease.builder().nodeId("node1").amount(BigDecimal.valueOf(5)).stakingBlockNum(BigInteger.ONE).build());
+        GasEstimate estimate = new GasEstimate();
+        estimate.setNodeId("node1");
+        estimate.setSbn(1L);
+        estimate.setAddr("addr1");
+        estimate.setEpoch(0L);
+        target.gasEstimate(estimate);
+        target.gasEstimate(estimate);
+        target.vote(ProposalVote.builder().proposalHash("p1").voteOption(1).build());
+        target.vote(ProposalVote.builder().proposalHash("p1").voteOption(3).build());
+        target.flush();
+
+        ArgumentCaptor<List> delegations = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> stakings = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> nodes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> proposals = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> estimates = ArgumentCaptor.forClass(List.class);
+        // 节点须先于委托入库
+        InOrder inOrder = inOrder(pposBatchBusinessMapper);
+        inOrder.verify(pposBatchBusinessMapper).batchUpdateNode(nodes.capture(), anyList());
+        inOrder.verify(pposBatchBusinessMapper).batchUpsertDelegation(delegations.capture());
+        verify(pposBatchBusinessMapper).batchUpdateStaking(stakings.capture());
+        verify(pposBatchBusinessMapper).batchInsertVote(anyList());
+        verify(pposBatchBusinessMapper).batchUpdateProposalVote(proposals.capture());
+        verify(customGasEstimateMapper).batchInsertOrUpdateSelective(estimates.capture(), any());
+
+        List<DelegateCreate> delegationList = delegations.getValue();
+        assertEquals(2, delegationList.size());
+        assertEquals(BigDecimal.valueOf(40), delegationList.get(0).getAmount());
+        assertEquals(BigInteger.ONE, delegationList.get(0).getSequence());
+
+        StakingDelta staking = (StakingDelta) stakings.getValue().get(0);
+        assertEquals(BigDecimal.valueOf(60), staking.getStatDelegateHes());
+        assertEquals(BigDecimal.valueOf(5), staking.getStakingHes());
+
+        NodeDelta node = (NodeDelta) nodes.getValue().get(0);
+        assertEquals(BigDecimal.valueOf(65), node.getTotalValue());
+        assertEquals(BigDecimal.valueOf(60), node.getStatDelegateValue());
+
+        ProposalVoteDelta proposal = (ProposalVoteDelta) proposals.getValue().get(0);
+        assertEquals(1, proposal.getYeas());
+        assertEquals(0, proposal.getNays());
+        assertEquals(1, proposal.getAbstentions());
+
+        assertEquals(1, estimates.getValue().size());
+    }
+
+    @Test
+    public void clear() {
+        target.delegate(delegate("addr1", 10, 1));
+        target.clear();
+        target.flush();
+        verifyNoInteractions(pposBatchBusinessMapper, customGasEstimateMapper);
+    }
+
+}
@@ -16,6 +16,8 @@ import com.platon.browser.analyzer.ppos.StakeModifyAnalyzer;
 import com.platon.browser.elasticsearch.dto.DelegationReward;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
 import com.platon.browser.elasticsearch.dto.Transaction;
+import com.platon.browser.service.block.NewBlockAccumulator;
+import com.platon.browser.service.epoch.GasEstimateService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -70,6 +72,12 @@ public class PPOSServiceTest extends AgentTestBase {
     private NetworkStatCache networkStatCache;
     @Mock
     private AddressCache addressCache;
+    @Mock
+    private PPOSMutationBuffer pposMutationBuffer;
+    @Mock
+    private NewBlockAccumulator newBlockAccumulator;
+    @Mock
+    private GasEstimateService gasEstimateService;
     @InjectMocks
     @Spy
     private PPOSService target;
@@ -5,6 +5,7 @@ import com.platon.browser.client.PlatOnClient;
 import com.platon.browser.enums.AppStatus;
 import com.platon.browser.utils.AppStatusUtil;
 import com.platon.browser.handler.PersistenceEventHandler;
+import com.platon.browser.service.block.NewBlockAccumulator;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,6 +30,8 @@ public class BatchSizeAdjustTaskTest extends AgentTestData {
     private PlatOnClient platOnClient;
     @Mock
     private PersistenceEventHandler persistenceEventHandler;
+    @Mock
+    private NewBlockAccumulator newBlockAccumulator;
     @InjectMocks
     @Spy
     private BatchSizeAdjustTask target;
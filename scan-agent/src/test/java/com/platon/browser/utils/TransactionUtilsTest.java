@@ -114,9 +114,9 @@ public class TransactionUtilsTest extends AgentTestData {
         TransactionUtil.resolveGeneralTransferTxComplementInfo(collectionTransaction, ci, this.addressCache);
         collectionTransaction.setTo("123");
         TransactionUtil.resolveGeneralTransferTxComplementInfo(collectionTransaction, ci, this.addressCache);
-        when(this.addressCache.isWasmContractAddress(any())).thenReturn(true);
+        when(this.addressCache.getContractType(any())).thenReturn(Transaction.ToTypeEnum.WASM_CONTRACT);
         TransactionUtil.resolveGeneralTransferTxComplementInfo(collectionTransaction, ci, this.addressCache);
-        when(this.addressCache.isEvmContractAddress(any())).thenReturn(true);
+        when(this.addressCache.getContractType(any())).thenReturn(Transaction.ToTypeEnum.EVM_CONTRACT);
         TransactionUtil.resolveGeneralTransferTxComplementInfo(collectionTransaction, ci, this.addressCache);
         Assert.assertTrue(true);
     }
@@ -202,6 +202,11 @@ public class QueryDetailResp {
      */
     private String lockBalance;
 
+    /**
+     * 链上数据是否为旧数据(节点响应超时或失败时返回)
+     */
+    private boolean chainDataStale = false;
+
     public Integer getType() {
         return this.type;
     }
@@ -509,4 +514,12 @@ public class QueryDetailResp {
         this.internalTransferQty = internalTransferQty;
     }
 
+    public boolean isChainDataStale() {
+        return chainDataStale;
+    }
+
+    public void setChainDataStale(boolean chainDataStale) {
+        this.chainDataStale = chainDataStale;
+    }
+
 }
@@ -12,6 +12,10 @@ import java.util.List;
 public class StakingListNewResp {
 	private Boolean isRefresh;
 	private List<StakingListResp> dataList;
+	/**
+	 * 数据版本，版本不变时列表数据不变
+	 */
+	private Long version;
 	public Boolean getIsRefresh() {
 		return isRefresh;
 	}
@@ -24,5 +28,11 @@ public class StakingListNewResp {
 	public void setDataList(List<StakingListResp> dataList) {
 		this.dataList = dataList;
 	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 	
 }
@@ -17,7 +17,6 @@ import com.platon.browser.dao.entity.NetworkStat;
 import com.platon.browser.dao.entity.RpPlan;
 import com.platon.browser.dao.entity.RpPlanExample;
 import com.platon.browser.dao.mapper.RpPlanMapper;
-import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.enums.AddressTypeEnum;
 import com.platon.browser.enums.I18nEnum;
 import com.platon.browser.enums.TokenTypeEnum;
@@ -27,7 +26,6 @@ import com.platon.browser.request.address.QueryRPPlanDetailRequest;
 import com.platon.browser.response.address.DetailsRPPlanResp;
 import com.platon.browser.response.address.QueryDetailResp;
 import com.platon.browser.response.address.QueryRPPlanDetailResp;
-import com.platon.browser.service.elasticsearch.EsBlockRepository;
 import com.platon.browser.utils.ConvertUtil;
 import com.platon.browser.utils.I18nUtil;
 import com.platon.contracts.ppos.RestrictingPlanContract;
@@ -46,7 +44,10 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 地址具体逻辑实现方法
@@ -80,7 +81,10 @@ public class AddressService {
     private BlockChainConfig blockChainConfig;
 
     @Resource
-    private EsBlockRepository esBlockRepository;
+    private BlockHeaderService blockHeaderService;
+
+    @Resource
+    private ChainReadGateway chainReadGateway;
 
     @Resource
     private SpecialApi specialApi;
@@ -127,23 +131,17 @@ public class AddressService {
 
             if (resp.getType() > AddressTypeEnum.INNER_CONTRACT.getCode()){
                 try {
-                    resp.setContractBin(platOnClient.getAddressCode(req.getAddress()));
+                    resp.setContractBin(readChain(ChainReadGateway.ADDRESS_CODE, req.getAddress(), () -> platOnClient.getAddressCode(req.getAddress()), resp));
                 } catch (Exception e) {
                     logger.warn("getAddressCode error", e);
                 }
             }
         }
-        /** 特殊账户余额直接查询链  */
+        /** 特殊账户余额直接查询链，失败时由网关切换节点重试  */
         try {
             this.getAddressInfo(req, resp);
         } catch (Exception e) {
             logger.error("getBalance error", e);
-            platonClient.updateCurrentWeb3jWrapper();
-            try {
-                this.getAddressInfo(req, resp);
-            } catch (Exception e1) {
-                logger.error("getBalance error again", e);
-            }
         }
         RpPlanExample rpPlanExample = new RpPlanExample();
         RpPlanExample.Criteria criteria = rpPlanExample.createCriteria();
@@ -155,7 +153,7 @@ public class AddressService {
         }
         List<LockDelegate> lockDelegateList = new ArrayList<>();
         try {
-            List<RestrictingBalance> restrictingBalances = specialApi.getRestrictingBalance(platonClient.getWeb3jWrapper().getWeb3j(), req.getAddress());
+            List<RestrictingBalance> restrictingBalances = readChain(ChainReadGateway.RESTRICTING_BALANCE, req.getAddress(), () -> getRestrictingBalance(req.getAddress()), resp);
             // 已解冻的委托金额/待提取委托
             BigDecimal unLockBalance = BigDecimal.ZERO;
             // 未解冻的委托金额/待赎回委托
@@ -165,9 +163,9 @@ public class AddressService {
                 unLockBalance = ConvertUtil.convertByFactor(unLockBalance, 18);
                 if (CollUtil.isNotEmpty(restrictingBalances.get(0).getDlLocks())) {
                     NetworkStat networkStat = statisticCacheService.getNetworkStatCache();
-                    Block block = null;
+                    Long curBlockTime = null;
                     try {
-                        block = esBlockRepository.get(String.valueOf(networkStat.getCurNumber()), Block.class);
+                        curBlockTime = blockHeaderService.getCurrentBlockTime(networkStat.getCurNumber());
                     } catch (Exception e) {
                         logger.error("获取区块错误。", e);
                     }
@@ -178,13 +176,8 @@ public class AddressService {
                         LockDelegate lockDelegate = new LockDelegate();
                         lockDelegate.setBlockNum(dlLock.getEpoch().multiply(blockChainConfig.getSettlePeriodBlockCount()));
                         // 预计时间：预计块高减去当前块高乘以出块时间再加上区块时间
-                        BigDecimal diff = new BigDecimal(lockDelegate.getBlockNum().subtract(BigInteger.valueOf(networkStat.getCurNumber())));
-                        if (block != null) {
-                            if (diff.compareTo(BigDecimal.ZERO) > 0) {
-                                lockDelegate.setDate(new BigDecimal(networkStat.getAvgPackTime()).multiply(diff).add(BigDecimal.valueOf(block.getTime().getTime())).longValue());
-                            } else {
-                                lockDelegate.setDate(block.getTime().getTime());
-                            }
+                        if (curBlockTime != null) {
+                            lockDelegate.setDate(blockHeaderService.estimateTime(lockDelegate.getBlockNum().longValue(), networkStat.getCurNumber(), curBlockTime));
                         }
                         lockDelegate.setLock(accLockBalance.toPlainString());
                         lockDelegateList.add(lockDelegate);
@@ -211,7 +204,7 @@ public class AddressService {
         QueryRPPlanDetailResp queryRPPlanDetailResp = new QueryRPPlanDetailResp();
         try {
             // 锁仓可用余额查询特殊节点接口
-            List<RestrictingBalance> restrictingBalances = specialApi.getRestrictingBalance(platonClient.getWeb3jWrapper().getWeb3j(), req.getAddress());
+            List<RestrictingBalance> restrictingBalances = chainReadGateway.read(ChainReadGateway.RESTRICTING_BALANCE, req.getAddress(), () -> getRestrictingBalance(req.getAddress())).getValue();
             if (restrictingBalances != null && !restrictingBalances.isEmpty()) {
                 /**
                  * 可用余额为balance减去质押金额
@@ -238,6 +231,13 @@ public class AddressService {
         List<DetailsRPPlanResp> detailsRPPlanResps = new ArrayList<>();
         PageHelper.startPage(req.getPageNo(), req.getPageSize());
         Page<RpPlan> rpPlans = rpPlanMapper.selectByExample(rpPlanExample);
+        /** 本页锁仓计划所在区块的时间一次查询 */
+        Map<Long, Long> blockTimeMap = new HashMap<>();
+        try {
+            blockTimeMap = blockHeaderService.getBlockTimes(rpPlans.stream().map(RpPlan::getNumber).collect(Collectors.toSet()));
+        } catch (IOException e) {
+            logger.error("获取区块错误。", e);
+        }
         for (RpPlan rPlan : rpPlans) {
             DetailsRPPlanResp detailsRPPlanResp = new DetailsRPPlanResp();
             BeanUtils.copyProperties(rPlan, detailsRPPlanResp);
@@ -257,21 +257,7 @@ public class AddressService {
 
             detailsRPPlanResp.setBlockNumber(number.toString());
             /** 预计时间：预计块高减去当前块高乘以出块时间再加上区块时间 */
-            Block block = null;
-            try {
-                block = esBlockRepository.get(String.valueOf(rPlan.getNumber()), Block.class);
-            } catch (IOException e) {
-                logger.error("获取区块错误。", e);
-            }
-            BigDecimal diff = new BigDecimal(number.subtract(BigInteger.valueOf(rPlan.getNumber())));
-            if (block != null) {
-                if (diff.compareTo(BigDecimal.ZERO) > 0) {
-                    NetworkStat networkStat = statisticCacheService.getNetworkStatCache();
-                    detailsRPPlanResp.setEstimateTime(new BigDecimal(networkStat.getAvgPackTime()).multiply(diff).add(BigDecimal.valueOf(block.getTime().getTime())).longValue());
-                } else {
-                    detailsRPPlanResp.setEstimateTime(block.getTime().getTime());
-                }
-            }
+            detailsRPPlanResp.setEstimateTime(blockHeaderService.estimateTime(number.longValue(), rPlan.getNumber(), blockTimeMap.get(rPlan.getNumber())));
             detailsRPPlanResps.add(detailsRPPlanResp);
         }
         queryRPPlanDetailResp.setRpPlans(detailsRPPlanResps);
@@ -298,21 +284,20 @@ public class AddressService {
      * @date 2021/6/7
      */
     private QueryDetailResp getAddressInfo(QueryDetailRequest req, QueryDetailResp resp) throws Exception {
-        List<RestrictingBalance> restrictingBalances = specialApi.getRestrictingBalance(platonClient.getWeb3jWrapper().getWeb3j(), req.getAddress());
+        List<RestrictingBalance> restrictingBalances = readChain(ChainReadGateway.RESTRICTING_BALANCE, req.getAddress(), () -> getRestrictingBalance(req.getAddress()), resp);
         if (restrictingBalances != null && !restrictingBalances.isEmpty()) {
             resp.setBalance(new BigDecimal(restrictingBalances.get(0).getFreeBalance()));
             resp.setRestrictingBalance(new BigDecimal(restrictingBalances.get(0).getLockBalance().subtract(restrictingBalances.get(0).getPledgeBalance())));
         }
         /** 特殊账户余额直接查询链  */
         if (resp.getBalance().compareTo(BigDecimal.valueOf(10000000000L)) > 0) {
-            BigInteger balance = platonClient.getWeb3jWrapper().getWeb3j().platonGetBalance(req.getAddress(), DefaultBlockParameterName.LATEST).send().getBalance();
+            BigInteger balance = readChain(ChainReadGateway.BALANCE, req.getAddress(), () -> platonClient.getWeb3jWrapper().getWeb3j().platonGetBalance(req.getAddress(), DefaultBlockParameterName.LATEST).send().getBalance(), resp);
             resp.setBalance(new BigDecimal(balance));
         }
         /**
          * 查询所有的交易金额进行汇总
          */
-        List<String> nodes = new ArrayList<>();
-        List<Reward> rewards = platonClient.getRewardContract().getDelegateReward(req.getAddress(), nodes).send().getData();
+        List<Reward> rewards = readChain(ChainReadGateway.DELEGATE_REWARD, req.getAddress(), () -> platonClient.getRewardContract().getDelegateReward(req.getAddress(), new ArrayList<>()).send().getData(), resp);
         /**
          * 当奖励为空时直接return
          */
@@ -327,4 +312,19 @@ public class AddressService {
         return resp;
     }
 
+    private List<RestrictingBalance> getRestrictingBalance(String address) throws Exception {
+        return specialApi.getRestrictingBalance(platonClient.getWeb3jWrapper().getWeb3j(), address);
+    }
+
+    /**
+     * 通过网关查询链上数据，返回旧数据时标记地址详情
+     */
+    private <T> T readChain(String endpoint, String address, ChainReadGateway.Reader<T> reader, QueryDetailResp resp) throws Exception {
+        ChainReadGateway.Result<T> result = chainReadGateway.read(endpoint, address, reader);
+        if (result.isStale()) {
+            resp.setChainDataStale(true);
+        }
+        return result.getValue();
+    }
+
 }
@@ -0,0 +1,162 @@
+package com.platon.browser.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.platon.browser.dao.entity.NetworkStat;
+import com.platon.browser.elasticsearch.dto.Block;
+import com.platon.browser.service.elasticsearch.EsBlockRepository;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 区块头查询
+ * 1、区块时间不可变，最近及常用的区块时间缓存在有界的内存缓存中
+ * 2、缓存未命中的区块一次请求批量获取
+ * 3、当前块高与最近查询过的区块相差不大时，按出块间隔推算当前区块时间，不再查询ES
+ *
+ * @date 2026/10/19
+ */
+@Service
+public class BlockHeaderService {
+
+    /**
+     * 缓存的区块时间的最大数量
+     */
+    private static final long MAX_CACHE_SIZE = 10000;
+
+    /**
+     * 按出块间隔推算当前区块时间时，与已知区块的最大块高差
+     */
+    private static final long MAX_ESTIMATE_DISTANCE = 100;
+
+    @Resource
+    private EsBlockRepository esBlockRepository;
+
+    @Resource
+    private StatisticCacheService statisticCacheService;
+
+    /**
+     * key:块高，value:区块时间戳
+     */
+    private final Cache<Long, Long> blockTimeCache = Caffeine.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+
+    /**
+     * 已查询过的最高区块，作为推算当前区块时间的基准
+     */
+    private volatile BlockTime latestBlockTime;
+
+    /**
+     * 批量获取区块时间
+     *
+     * @param blockNumbers 块高
+     * @return java.util.Map<java.lang.Long, java.lang.Long> key:块高，value:区块时间戳，不存在的区块不返回
+     * @throws IOException
+     */
+    public Map<Long, Long> getBlockTimes(Collection<Long> blockNumbers) throws IOException {
+        Map<Long, Long> result = new HashMap<>();
+        Set<String> missIds = new LinkedHashSet<>();
+        for (Long blockNumber : blockNumbers) {
+            Long time = blockTimeCache.getIfPresent(blockNumber);
+            if (time != null) {
+                result.put(blockNumber, time);
+            } else {
+                missIds.add(String.valueOf(blockNumber));
+            }
+        }
+        if (missIds.isEmpty()) {
+            return result;
+        }
+        Map<String, Block> blocks = esBlockRepository.multiGet(missIds, Block.class, "time");
+        blocks.forEach((id, block) -> {
+            if (block.getTime() == null) {
+                return;
+            }
+            long blockNumber = Long.parseLong(id);
+            long time = block.getTime().getTime();
+            blockTimeCache.put(blockNumber, time);
+            result.put(blockNumber, time);
+            BlockTime latest = latestBlockTime;
+            if (latest == null || blockNumber > latest.number) {
+                latestBlockTime = new BlockTime(blockNumber, time);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取区块时间
+     *
+     * @param blockNumber 块高
+     * @return java.lang.Long 区块时间戳，区块不存在时返回null
+     * @throws IOException
+     */
+    public Long getBlockTime(long blockNumber) throws IOException {
+        Long time = blockTimeCache.getIfPresent(blockNumber);
+        if (time != null) {
+            return time;
+        }
+        Set<Long> blockNumbers = new LinkedHashSet<>();
+        blockNumbers.add(blockNumber);
+        return getBlockTimes(blockNumbers).get(blockNumber);
+    }
+
+    /**
+     * 获取当前区块时间，与已查询过的最高区块相差不大时按出块间隔推算
+     *
+     * @param curNumber 当前块高
+     * @return java.lang.Long 区块时间戳，区块不存在时返回null
+     * @throws IOException
+     */
+    public Long getCurrentBlockTime(long curNumber) throws IOException {
+        Long time = blockTimeCache.getIfPresent(curNumber);
+        if (time != null) {
+            return time;
+        }
+        BlockTime latest = latestBlockTime;
+        if (latest != null && curNumber >= latest.number && curNumber - latest.number <= MAX_ESTIMATE_DISTANCE) {
+            return estimateTime(curNumber, latest.number, latest.time);
+        }
+        return getBlockTime(curNumber);
+    }
+
+    /**
+     * 预计时间：预计块高减去基准块高乘以出块时间再加上基准区块时间，预计块高不大于基准块高时为基准区块时间
+     *
+     * @param blockNumber 预计块高
+     * @param baseNumber  基准块高
+     * @param baseTime    基准区块时间戳
+     * @return java.lang.Long 基准区块时间为空时返回null
+     */
+    public Long estimateTime(long blockNumber, long baseNumber, Long baseTime) {
+        if (baseTime == null) {
+            return null;
+        }
+        long diff = blockNumber - baseNumber;
+        if (diff <= 0) {
+            return baseTime;
+        }
+        NetworkStat networkStat = statisticCacheService.getNetworkStatCache();
+        return networkStat.getAvgPackTime() * diff + baseTime;
+    }
+
+    private static class BlockTime {
+
+        private final long number;
+
+        private final long time;
+
+        BlockTime(long number, long time) {
+            this.number = number;
+            this.time = time;
+        }
+
+    }
+
+}
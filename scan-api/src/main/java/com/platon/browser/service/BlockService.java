@@ -80,6 +80,11 @@ public class BlockService {
 
     private static final String ERROR_TIPS = "获取区块错误。";
 
+    /**
+     * 节点出块列表展示的最大总数
+     */
+    private static final int BLOCK_LIST_BY_NODE_MAX_TOTAL = 5000;
+
     public RespPage<BlockListResp> blockList(PageReq req) {
         long startTime = System.currentTimeMillis();
         RespPage<BlockListResp> respPage = new RespPage<>();
@@ -172,7 +177,8 @@ public class BlockService {
         constructor.setResult(new String[]{"num", "time", "txQty", "reward"});
         ESResult<Block> blocks = new ESResult<>();
         try {
-            blocks = esBlockRepository.search(constructor, Block.class, req.getPageNo(), req.getPageSize());
+            // 总数最多展示到BLOCK_LIST_BY_NODE_MAX_TOTAL，统计到该上限即可
+            blocks = esBlockRepository.searchWithTotal(constructor, Block.class, req.getPageNo(), req.getPageSize(), BLOCK_LIST_BY_NODE_MAX_TOTAL);
         } catch (Exception e) {
             logger.error(ERROR_TIPS, e);
             return respPage;
@@ -190,12 +196,9 @@ public class BlockService {
         }
         /** 设置返回的分页数据 */
         Page<?> page = new Page<>(req.getPageNo(), req.getPageSize());
-        if (blocks.getTotal() > 5000) {
-            page.setTotal(5000);
-        } else {
-            page.setTotal(blocks.getTotal());
-        }
+        page.setTotal(Math.min(blocks.getTotal(), BLOCK_LIST_BY_NODE_MAX_TOTAL));
         respPage.init(page, lists);
+        respPage.setTotalAccurate(!Boolean.FALSE.equals(blocks.getTotalAccurate()));
         return respPage;
     }
 
@@ -0,0 +1,231 @@
+package com.platon.browser.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.platon.browser.client.PlatOnClient;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.dao.entity.NetworkStat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 浏览器接口链上查询网关
+ * 1、同一地址同一类查询的并发请求合并为一次链上调用
+ * 2、查询结果按(地址,块高)缓存，出新块前直接返回缓存
+ * 3、每类查询使用独立线程池，限制对节点的并发调用数
+ * 4、调用失败时切换节点重试一次，节点响应超时或失败时返回旧数据并标记，没有旧数据时按查询失败处理
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Component
+public class ChainReadGateway {
+
+    /**
+     * 锁仓及委托锁定余额
+     */
+    public static final String RESTRICTING_BALANCE = "restrictingBalance";
+
+    /**
+     * 账户余额
+     */
+    public static final String BALANCE = "balance";
+
+    /**
+     * 委托奖励
+     */
+    public static final String DELEGATE_REWARD = "delegateReward";
+
+    /**
+     * 合约代码
+     */
+    public static final String ADDRESS_CODE = "addressCode";
+
+    /**
+     * 缓存的查询结果的最大数量
+     */
+    private static final long MAX_CACHE_SIZE = 20000;
+
+    @Resource
+    private BlockChainConfig blockChainConfig;
+
+    @Resource
+    private StatisticCacheService statisticCacheService;
+
+    @Resource
+    private PlatOnClient platOnClient;
+
+    /**
+     * key:查询类型:地址
+     */
+    private Cache<String, Snapshot<?>> snapshotCache;
+
+    /**
+     * 在途的链上调用，key:查询类型:地址
+     */
+    private final ConcurrentMap<String, CompletableFuture<Snapshot<?>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 每类查询的线程池，key:查询类型
+     */
+    private final ConcurrentMap<String, ExecutorService> executors = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        snapshotCache = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHE_SIZE)
+                .expireAfterWrite(blockChainConfig.getChainReadStaleSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executors.values().forEach(ExecutorService::shutdown);
+    }
+
+    /**
+     * 查询链上数据
+     *
+     * @param endpoint 查询类型
+     * @param address  地址
+     * @param reader   链上查询
+     * @return com.platon.browser.service.ChainReadGateway.Result<T>
+     * @throws Exception 链上查询失败或超时且没有旧数据时抛出，超时的调用继续执行，结果缓存给之后的查询
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> read(String endpoint, String address, Reader<T> reader) throws Exception {
+        String key = endpoint + ":" + address;
+        long blockNumber = getCurBlockNumber();
+        Snapshot<T> cached = (Snapshot<T>) snapshotCache.getIfPresent(key);
+        if (cached != null && cached.blockNumber >= blockNumber) {
+            return new Result<>(cached.value, false);
+        }
+        CompletableFuture<Snapshot<?>> future = submit(endpoint, key, blockNumber, reader);
+        try {
+            return new Result<>((T) future.get(blockChainConfig.getChainReadTimeout(), TimeUnit.MILLISECONDS).value, false);
+        } catch (TimeoutException e) {
+            if (cached == null) {
+                log.warn("链上查询[{}]超时，没有旧数据", key);
+                throw e;
+            }
+            log.warn("链上查询[{}]超时，返回块高[{}]的旧数据", key, cached.blockNumber);
+            return new Result<>(cached.value, true);
+        } catch (ExecutionException e) {
+            if (cached == null) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            log.warn("链上查询[{}]失败，返回块高[{}]的旧数据:{}", key, cached.blockNumber, e.getCause().getMessage());
+            return new Result<>(cached.value, true);
+        }
+    }
+
+    /**
+     * 提交链上调用，已有在途调用时复用
+     */
+    private <T> CompletableFuture<Snapshot<?>> submit(String endpoint, String key, long blockNumber, Reader<T> reader) {
+        CompletableFuture<Snapshot<?>> created = new CompletableFuture<>();
+        CompletableFuture<Snapshot<?>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            getExecutor(endpoint).execute(() -> {
+                try {
+                    Snapshot<T> snapshot = new Snapshot<>(blockNumber, call(key, reader));
+                    snapshotCache.put(key, snapshot);
+                    inFlight.remove(key, created);
+                    created.complete(snapshot);
+                } catch (Throwable e) {
+                    inFlight.remove(key, created);
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (Exception e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * 调用失败时切换节点重试一次
+     */
+    private <T> T call(String key, Reader<T> reader) throws Exception {
+        try {
+            return reader.read();
+        } catch (Exception e) {
+            log.warn("链上查询[{}]失败，切换节点重试:{}", key, e.getMessage());
+            platOnClient.updateCurrentWeb3jWrapper();
+            return reader.read();
+        }
+    }
+
+    private ExecutorService getExecutor(String endpoint) {
+        return executors.computeIfAbsent(endpoint, k -> Executors.newFixedThreadPool(Math.max(1, blockChainConfig.getChainReadConcurrency())));
+    }
+
+    private long getCurBlockNumber() {
+        NetworkStat networkStat = statisticCacheService.getNetworkStatCache();
+        return networkStat == null || networkStat.getCurNumber() == null ? 0 : networkStat.getCurNumber();
+    }
+
+    @FunctionalInterface
+    public interface Reader<T> {
+
+        T read() throws Exception;
+
+    }
+
+    /**
+     * 查询结果
+     */
+    public static class Result<T> {
+
+        private final T value;
+
+        /**
+         * 是否为旧数据
+         */
+        private final boolean stale;
+
+        Result(T value, boolean stale) {
+            this.value = value;
+            this.stale = stale;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isStale() {
+            return stale;
+        }
+
+    }
+
+    private static class Snapshot<T> {
+
+        private final long blockNumber;
+
+        private final T value;
+
+        Snapshot(long blockNumber, T value) {
+            this.blockNumber = blockNumber;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -5,17 +5,19 @@ import com.platon.browser.bean.CountBalance;
 import com.platon.browser.bean.EpochInfo;
 import com.platon.browser.bean.RestrictingBalance;
 import com.platon.browser.bean.StakingBO;
+import com.platon.browser.bean.SupplySnapshot;
 import com.platon.browser.client.PlatOnClient;
 import com.platon.browser.client.SpecialApi;
 import com.platon.browser.config.BlockChainConfig;
 import com.platon.browser.dao.custommapper.CustomInternalAddressMapper;
 import com.platon.browser.dao.custommapper.CustomNodeMapper;
 import com.platon.browser.dao.custommapper.CustomRpPlanMapper;
+import com.platon.browser.dao.custommapper.CustomSupplySnapshotMapper;
 import com.platon.browser.dao.entity.NetworkStat;
 import com.platon.browser.service.account.AccountService;
+import com.platon.browser.utils.CalculateUtils;
 import com.platon.browser.utils.CommonUtil;
 import com.platon.browser.utils.EpochUtil;
-import com.platon.utils.Convert;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,7 @@ import org.springframework.util.CollectionUtils;
 import javax.annotation.Resource;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +54,9 @@ public class CommonService {
     @Resource
     private CustomRpPlanMapper customRpPlanMapper;
 
+    @Resource
+    private CustomSupplySnapshotMapper customSupplySnapshotMapper;
+
     @Resource
     private StatisticCacheService statisticCacheService;
 
@@ -107,64 +113,116 @@ public class CommonService {
     /**
      * 返回当前区块的总流通量（单位：von）
      * 流通量 = 总发行量 - 总锁仓合约未释放余额 - 激励池合约余额 - 参与计算的基金会账户余额
+     * 已结束的结算周期按agent记录的相邻快照插值计算，只有当前结算周期实时计算
      * @param blockNumber
      * @return
      */
     public BigDecimal getCirculationValue(Long blockNumber) {
         if (blockNumber==null) {
            return getCirculationValue();
-        }else{
-            BigDecimal issueValue = BigDecimal.ZERO;
-            BigDecimal restrictingValue = BigDecimal.ZERO;
-            BigDecimal inciteValue = BigDecimal.ZERO;
-            BigDecimal foundationValue = BigDecimal.ZERO;
-            BigDecimal remainingOfFoundationInRestricting = BigDecimal.ZERO;
-
-            int chainAge = 0;
-            try {
-                chainAge = this.getYearNum(blockNumber);
-            } catch (Exception e) {
-                log.error("根据块高计算链的年龄出错", e);
-                return BigDecimal.ZERO;
+        }
+        BigDecimal circulationValue = getCirculationValueFromSnapshot(blockNumber);
+        if (circulationValue != null) {
+            return circulationValue;
+        }
+        return computeCirculationValue(blockNumber);
+    }
+
+    /**
+     * 按相邻的结算周期快照计算区块的流通量（单位：von）
+     * 总发行量和基金会剩余金额在结算周期内不变，取区块所在结算周期的快照；其余组成按块高在相邻快照间线性插值
+     *
+     * @param blockNumber 块高
+     * @return java.math.BigDecimal 区块处于当前结算周期或缺少相邻快照时返回null
+     * @date 2026/10/19
+     */
+    private BigDecimal getCirculationValueFromSnapshot(Long blockNumber) {
+        List<SupplySnapshot> snapshots = customSupplySnapshotMapper.selectAround(blockNumber);
+        if (CollectionUtils.isEmpty(snapshots) || snapshots.get(0).getBlockNumber() > blockNumber) {
+            return null;
+        }
+        SupplySnapshot floor = snapshots.get(0);
+        BigDecimal restrictingValue = floor.getRestrictingValue();
+        BigDecimal inciteValue = floor.getInciteValue();
+        BigDecimal foundationValue = floor.getFoundationValue();
+        if (floor.getBlockNumber() < blockNumber) {
+            if (snapshots.size() < 2 || snapshots.get(1).getSettleEpoch() != floor.getSettleEpoch() + 1) {
+                return null;
             }
-            //计算流通量 = 总发行量 - 总锁仓 -  激励池余额 - 基金会账户余额 - 基金会在锁仓合约中的剩余金额
-            //总发行量
+            SupplySnapshot ceiling = snapshots.get(1);
+            BigDecimal ratio = BigDecimal.valueOf(blockNumber - floor.getBlockNumber())
+                                         .divide(BigDecimal.valueOf(ceiling.getBlockNumber() - floor.getBlockNumber()), 18, RoundingMode.HALF_UP);
+            restrictingValue = interpolate(floor.getRestrictingValue(), ceiling.getRestrictingValue(), ratio);
+            inciteValue = interpolate(floor.getInciteValue(), ceiling.getInciteValue(), ratio);
+            foundationValue = interpolate(floor.getFoundationValue(), ceiling.getFoundationValue(), ratio);
+        }
+        BigDecimal circulationValue = floor.getIssueValue().subtract(restrictingValue).subtract(inciteValue).subtract(foundationValue).subtract(floor.getFoundationRemainValue());
+        log.debug("区块：{}上按第{}结算周期快照计算的流通量(von)：{}", blockNumber, floor.getSettleEpoch(), circulationValue.toPlainString());
+        return circulationValue;
+    }
+
+    private BigDecimal interpolate(BigDecimal from, BigDecimal to, BigDecimal ratio) {
+        return from.add(to.subtract(from).multiply(ratio)).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 实时计算区块的流通量（单位：von）
+     *
+     * @param blockNumber 块高
+     * @return java.math.BigDecimal
+     */
+    private BigDecimal computeCirculationValue(Long blockNumber) {
+        BigDecimal issueValue = BigDecimal.ZERO;
+        BigDecimal restrictingValue = BigDecimal.ZERO;
+        BigDecimal inciteValue = BigDecimal.ZERO;
+        BigDecimal foundationValue = BigDecimal.ZERO;
+        BigDecimal remainingOfFoundationInRestricting = BigDecimal.ZERO;
+
+        int chainAge = 0;
+        try {
+            chainAge = this.getYearNum(blockNumber);
+        } catch (Exception e) {
+            log.error("根据块高计算链的年龄出错", e);
+            return BigDecimal.ZERO;
+        }
+        //计算流通量 = 总发行量 - 总锁仓 -  激励池余额 - 基金会账户余额 - 基金会在锁仓合约中的剩余金额
+        //总发行量
+        try {
+            issueValue = getCurrentBlockIssueValue(chainAge);
+        } catch (Exception e) {
+            log.error("获取取总发行量异常", e);
+            return BigDecimal.ZERO;
+        }
+
+        //总锁仓
+        BigDecimal rpNotExpiredValue = customRpPlanMapper.getRPNotExpiredValue(blockChainConfig.getSettlePeriodBlockCount().longValue(), blockNumber);
+        restrictingValue = Optional.ofNullable(rpNotExpiredValue).orElse(BigDecimal.ZERO);
+
+        //激励池余额
+        inciteValue = accountService.getInciteBalance(BigInteger.valueOf(blockNumber));
+
+        // 基金会账户余额
+        List<String> addressList = customInternalAddressMapper.listCalculableFoundationAddress();
+        if (!CollectionUtils.isEmpty(addressList)){
+            String addressParamStr = String.join(";", addressList);
             try {
-                issueValue = getCurrentBlockIssueValue(chainAge);
+                List<RestrictingBalance> balanceList = specialApi.getRestrictingBalance(platOnClient.getWeb3jWrapper().getWeb3j(), addressParamStr, blockNumber);
+                BigInteger value = balanceList.stream().map(RestrictingBalance::getDlFreeBalance).reduce(BigInteger.ZERO, BigInteger::add);
+                foundationValue = new BigDecimal(value);
             } catch (Exception e) {
-                log.error("获取取总发行量异常", e);
+                log.error("获取基金会余额异常", e);
                 return BigDecimal.ZERO;
             }
+        }
 
-            //总锁仓
-            BigDecimal rpNotExpiredValue = customRpPlanMapper.getRPNotExpiredValue(blockChainConfig.getSettlePeriodBlockCount().longValue(), blockNumber);
-            restrictingValue = Optional.ofNullable(rpNotExpiredValue).orElse(BigDecimal.ZERO);
-
-            //激励池余额
-            inciteValue = accountService.getInciteBalance(BigInteger.valueOf(blockNumber));
-
-            // 基金会账户余额
-            List<String> addressList = customInternalAddressMapper.listCalculableFoundationAddress();
-            if (!CollectionUtils.isEmpty(addressList)){
-                String addressParamStr = String.join(";", addressList);
-                try {
-                    List<RestrictingBalance> balanceList = specialApi.getRestrictingBalance(platOnClient.getWeb3jWrapper().getWeb3j(), addressParamStr, blockNumber);
-                    BigInteger value = balanceList.stream().map(RestrictingBalance::getDlFreeBalance).reduce(BigInteger.ZERO, BigInteger::add);
-                    foundationValue = new BigDecimal(value);
-                } catch (Exception e) {
-                    log.error("获取基金会余额异常", e);
-                    return BigDecimal.ZERO;
-                }
-            }
-
-            // 基金会在锁仓合约中的剩余金额
-            remainingOfFoundationInRestricting = this.getRemainingOfFoundationInRestricting(chainAge);
+        // 基金会在锁仓合约中的剩余金额
+        remainingOfFoundationInRestricting = this.getRemainingOfFoundationInRestricting(chainAge);
 
-            BigDecimal circulationValue = issueValue.subtract(restrictingValue).subtract(inciteValue).subtract(foundationValue).subtract(remainingOfFoundationInRestricting);
-            log.debug("区块：{}上的流通量(von)：{}", blockNumber, circulationValue.toPlainString());
-            return circulationValue;
-        }
+        BigDecimal circulationValue = issueValue.subtract(restrictingValue).subtract(inciteValue).subtract(foundationValue).subtract(remainingOfFoundationInRestricting);
+        log.debug("区块：{}上的流通量(von)：{}", blockNumber, circulationValue.toPlainString());
+        return circulationValue;
     }
+
     /**
      * 查询统计的余额
      *
@@ -227,16 +285,7 @@ public class CommonService {
      * @return
      */
     public BigDecimal getRemainingOfFoundationInRestricting(int chainAge){
-        BigDecimal remain = BigDecimal.ZERO;
-        for (Integer key: blockChainConfig.getFoundationSubsidies().keySet()){
-            if(key.compareTo(chainAge) > 0){
-                remain = remain.add(blockChainConfig.getFoundationSubsidies().get(key));
-            }
-        }
-        if (remain.compareTo(BigDecimal.ZERO) > 0 ){
-            remain = Convert.toVon(remain, Convert.Unit.KPVON);
-        }
-        return remain;
+        return CalculateUtils.getRemainingOfFoundationInRestricting(blockChainConfig, chainAge);
     }
     /**
      * 返回当前链龄的总发行量：整数（单位：von）
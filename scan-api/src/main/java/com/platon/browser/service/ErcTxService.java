@@ -10,13 +10,14 @@ import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import com.platon.browser.bean.CustomTokenHolder;
 import com.platon.browser.bean.Token1155HolderListBean;
+import com.platon.browser.bean.Token721OwnerCount;
 import com.platon.browser.cache.TokenTransferRecordCacheDto;
 import com.platon.browser.config.DownFileCommon;
 import com.platon.browser.dao.custommapper.CustomToken1155HolderMapper;
+import com.platon.browser.dao.custommapper.CustomToken721OwnerMapper;
 import com.platon.browser.dao.custommapper.CustomTokenHolderMapper;
 import com.platon.browser.dao.entity.*;
 import com.platon.browser.dao.mapper.AddressMapper;
-import com.platon.browser.dao.mapper.TokenInventoryMapper;
 import com.platon.browser.dao.mapper.TokenMapper;
 import com.platon.browser.elasticsearch.dto.ErcTx;
 import com.platon.browser.enums.ErcTypeEnum;
@@ -88,13 +89,13 @@ public class ErcTxService {
     private CustomToken1155HolderMapper customToken1155HolderMapper;
 
     @Resource
-    private DownFileCommon downFileCommon;
+    private CustomToken721OwnerMapper customToken721OwnerMapper;
 
     @Resource
-    private AddressMapper addressMapper;
+    private DownFileCommon downFileCommon;
 
     @Resource
-    private TokenInventoryMapper token721InventoryMapper;
+    private AddressMapper addressMapper;
 
     @Resource
     private TokenMapper tokenMapper;
@@ -131,6 +132,7 @@ public class ErcTxService {
         List<ErcTx> records;
         long totalCount = 0;
         long displayTotalCount = 0;
+        boolean totalAccurate = true;
         if (StringUtils.isEmpty(req.getContract()) && StringUtils.isEmpty(req.getAddress()) && StringUtils.isEmpty(req.getTokenId())) {
             // 仅分页查询，直接走缓存
             TokenTransferRecordCacheDto tokenTransferRecordCacheDto = statisticCacheService.getTokenTransferCache(req.getPageNo(), req.getPageSize(), typeEnum);
@@ -160,19 +162,12 @@ public class ErcTxService {
             // response filed to show.
             constructor.setResult(new String[]{"seq", "hash", "bn", "from", "contract", "to", "tokenId", "value", "decimal", "name", "symbol", "result", "bTime"});
 
-            ESQueryBuilderConstructor count = new ESQueryBuilderConstructor();
-            if (StringUtils.isNotEmpty(req.getContract())) {
-                count.must(new ESQueryBuilders().terms("contract", Collections.singletonList(req.getContract())));
-            }
-            if (StringUtils.isNotEmpty(req.getAddress())) {
-                count.buildMust(new BoolQueryBuilder().should(QueryBuilders.termQuery("from", req.getAddress())).should(QueryBuilders.termQuery("to", req.getAddress())));
-            }
-
             try {
-                queryResultFromES = repository.search(constructor, ErcTx.class, req.getPageNo(), req.getPageSize());
-                ESResult<?> res = repository.Count(count);
-                totalCount = res.getTotal();
-                displayTotalCount = res.getTotal();
+                // 列表和总数一次查询返回
+                queryResultFromES = repository.searchWithTotal(constructor, ErcTx.class, req.getPageNo(), req.getPageSize());
+                totalCount = queryResultFromES.getTotal();
+                displayTotalCount = queryResultFromES.getTotal();
+                totalAccurate = !Boolean.FALSE.equals(queryResultFromES.getTotalAccurate());
             } catch (Exception e) {
                 log.error("检索代币交易列表失败", e);
                 return result;
@@ -190,6 +185,7 @@ public class ErcTxService {
                                                                        .map(p -> this.toQueryTokenTransferRecordListResp(req.getAddress(), p, typeEnum))
                                                                        .collect(Collectors.toList());
         result.init(recordListResp, totalCount, displayTotalCount, totalCount / req.getPageSize() + 1);
+        result.setTotalAccurate(totalAccurate);
         return result;
     }
 
@@ -400,6 +396,10 @@ public class ErcTxService {
         if (log.isDebugEnabled()) {
             log.debug("~ tokenHolderList, params: " + JSON.toJSONString(req));
         }
+        Token token = tokenMapper.selectByPrimaryKey(req.getContract());
+        if (token != null && ErcTypeEnum.ERC721.getDesc().equalsIgnoreCase(token.getType())) {
+            return token721HolderList(req);
+        }
         RespPage<QueryTokenHolderListResp> result = new RespPage<>();
         PageHelper.startPage(req.getPageNo(), req.getPageSize());
         Page<CustomTokenHolder> ids = this.customTokenHolderMapper.selectListByParams(req.getContract(), null, null);
@@ -407,10 +407,6 @@ public class ErcTxService {
             return result;
         }
         List<QueryTokenHolderListResp> respList = new ArrayList<>();
-        TokenInventoryExample token721Example = new TokenInventoryExample();
-        token721Example.createCriteria().andTokenAddressEqualTo(req.getContract());
-        Page<TokenInventory> totalTokenInventory = token721InventoryMapper.selectByExample(token721Example);
-        Map<String, Long> map = totalTokenInventory.getResult().stream().collect(Collectors.groupingBy(TokenInventory::getOwner, Collectors.counting()));
         ids.getResult().forEach(tokenHolder -> {
             QueryTokenHolderListResp resp = new QueryTokenHolderListResp();
             resp.setAddress(tokenHolder.getAddress());
@@ -437,16 +433,6 @@ public class ErcTxService {
                                                .stripTrailingZeros()
                                                .toPlainString() + "%");
                     }
-                } else if (ErcTypeEnum.ERC721.getDesc().equalsIgnoreCase(tokenHolder.getType())) {
-                    //erc721
-                    int holderNum = map.get(tokenHolder.getAddress()).intValue();
-                    long total = totalTokenInventory.size();
-                    String percent = new BigDecimal(holderNum).divide(new BigDecimal(total), decimal, RoundingMode.HALF_UP)
-                                                              .multiply(BigDecimal.valueOf(100))
-                                                              .setScale(decimal, RoundingMode.HALF_UP)
-                                                              .stripTrailingZeros()
-                                                              .toPlainString() + "%";
-                    resp.setPercent(percent);
                 }
             } else {
                 resp.setBalance(originBalance);
@@ -454,18 +440,48 @@ public class ErcTxService {
             }
             respList.add(resp);
         });
-        Token token = tokenMapper.selectByPrimaryKey(req.getContract());
-        if (ErcTypeEnum.ERC721.getDesc().equalsIgnoreCase(token.getType())) {
-            respList.sort((v1, v2) -> {
-                BigDecimal value1 = new BigDecimal(StrUtil.removeAll(v1.getPercent(), '%'));
-                BigDecimal value2 = new BigDecimal(StrUtil.removeAll(v2.getPercent(), '%'));
-                return value2.subtract(value1).compareTo(BigDecimal.ZERO);
-            });
-        }
         result.init(ids, respList);
         return result;
     }
 
+    /**
+     * erc721持有者列表，按持有的tokenId数量分页
+     *
+     * @param req
+     * @return com.platon.browser.response.RespPage<com.platon.browser.response.token.QueryTokenHolderListResp>
+     * @date 2026/10/19
+     */
+    public RespPage<QueryTokenHolderListResp> token721HolderList(QueryTokenHolderListReq req) {
+        RespPage<QueryTokenHolderListResp> result = new RespPage<>();
+        PageHelper.startPage(req.getPageNo(), req.getPageSize());
+        Page<Token721OwnerCount> ownerList = customToken721OwnerMapper.findOwnerList(req.getContract());
+        if (CollUtil.isEmpty(ownerList)) {
+            return result;
+        }
+        long total = customToken721OwnerMapper.sumQuantity(req.getContract());
+        List<QueryTokenHolderListResp> respList = new ArrayList<>();
+        ownerList.forEach(ownerCount -> {
+            QueryTokenHolderListResp resp = new QueryTokenHolderListResp();
+            resp.setAddress(ownerCount.getOwner());
+            resp.setBalance(BigDecimal.valueOf(ownerCount.getQuantity()));
+            resp.setPercent(get721Percent(ownerCount.getQuantity(), total));
+            respList.add(resp);
+        });
+        result.init(ownerList, respList);
+        return result;
+    }
+
+    private String get721Percent(long quantity, long total) {
+        if (total <= 0) {
+            return "0.0000%";
+        }
+        return new BigDecimal(quantity).divide(new BigDecimal(total), decimal, RoundingMode.HALF_UP)
+                                       .multiply(BigDecimal.valueOf(100))
+                                       .setScale(decimal, RoundingMode.HALF_UP)
+                                       .stripTrailingZeros()
+                                       .toPlainString() + "%";
+    }
+
     public RespPage<QueryTokenHolderListResp> token1155HolderList(QueryTokenHolderListReq req) {
         RespPage<QueryTokenHolderListResp> result = new RespPage<>();
         PageHelper.startPage(req.getPageNo(), req.getPageSize());
@@ -592,13 +608,13 @@ public class ErcTxService {
     }
 
     public AccountDownload exportErc20And721TokenHolderList(String contract, String local, String timeZone) {
+        Token token = tokenMapper.selectByPrimaryKey(contract);
+        if (token != null && ErcTypeEnum.ERC721.getDesc().equalsIgnoreCase(token.getType())) {
+            return exportErc721TokenHolderList(contract, local);
+        }
         PageHelper.startPage(1, 30000);
         Page<CustomTokenHolder> rs = this.customTokenHolderMapper.selectListByParams(contract, null, null);
         List<Object[]> rows = new ArrayList<>();
-        TokenInventoryExample example = new TokenInventoryExample();
-        example.createCriteria().andTokenAddressEqualTo(contract);
-        Page<TokenInventory> totalTokenInventory = token721InventoryMapper.selectByExample(example);
-        Map<String, Long> maps = totalTokenInventory.getResult().stream().collect(Collectors.groupingBy(TokenInventory::getOwner, Collectors.counting()));
         String[] headers = new String[0];
         for (CustomTokenHolder customTokenHolder : rs) {
             BigDecimal balance = this.getAddressBalance(customTokenHolder);
@@ -617,13 +633,6 @@ public class ErcTxService {
                 }
                 headers = new String[]{this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_ADDRESS, local), this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_BALANCE,
                                                                                                                local), this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_PERCENT, local)};
-            } else {
-                //erc721 erc1155
-                int holderNum = maps.get(customTokenHolder.getAddress()).intValue();
-                long total = totalTokenInventory.size();
-                percent = new BigDecimal(holderNum).divide(new BigDecimal(total), decimal, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).stripTrailingZeros().toPlainString() + "%";
-                headers = new String[]{this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_ADDRESS, local), this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_AMOUNT,
-                                                                                                               local), this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_PERCENT, local)};
             }
             Object[] row = {customTokenHolder.getAddress(), HexUtil.append(ConvertUtil.convertByFactor(balance, customTokenHolder.getDecimal()).toString()), percent};
             rows.add(row);
@@ -637,6 +646,32 @@ public class ErcTxService {
         return this.downFileCommon.writeDate("TokenHolder-" + contract + "-" + System.currentTimeMillis() + ".CSV", rows, headers);
     }
 
+    /**
+     * 导出erc721持有者列表，按持有的tokenId数量排序
+     *
+     * @param contract
+     * @param local
+     * @return com.platon.browser.response.account.AccountDownload
+     * @date 2026/10/19
+     */
+    public AccountDownload exportErc721TokenHolderList(String contract, String local) {
+        PageHelper.startPage(1, 30000);
+        Page<Token721OwnerCount> ownerList = customToken721OwnerMapper.findOwnerList(contract);
+        long total = CollUtil.isEmpty(ownerList) ? 0 : customToken721OwnerMapper.sumQuantity(contract);
+        List<Object[]> rows = new ArrayList<>();
+        ownerList.forEach(ownerCount -> {
+            Object[] row = {ownerCount.getOwner(), HexUtil.append(String.valueOf(ownerCount.getQuantity())), get721Percent(ownerCount.getQuantity(), total)};
+            rows.add(row);
+        });
+        if (CollUtil.isEmpty(rows)) {
+            Object[] row = {"", "", ""};
+            rows.add(row);
+        }
+        String[] headers = new String[]{this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_ADDRESS, local), this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_AMOUNT,
+                                                                                                                local), this.i18n.i(I18nEnum.DOWNLOAD_CONTRACT_CSV_PERCENT, local)};
+        return this.downFileCommon.writeDate("TokenHolder-" + contract + "-" + System.currentTimeMillis() + ".CSV", rows, headers);
+    }
+
     public AccountDownload exportHolderTokenList(String address, String local, String timeZone, String type) {
 
         PageHelper.startPage(1, 30000);
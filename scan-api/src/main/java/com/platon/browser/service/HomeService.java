@@ -1,6 +1,5 @@
 package com.platon.browser.service;
 
-import com.platon.browser.bean.CustomStaking;
 import com.platon.browser.bean.StakingBO;
 import com.platon.browser.config.BlockChainConfig;
 import com.platon.browser.dao.custommapper.CustomNodeMapper;
@@ -73,6 +72,9 @@ public class HomeService {
     @Resource
     private NetworkParams networkParams;
 
+    @Resource
+    private StakingListSnapshotService stakingListSnapshotService;
+
     private final static String BLOCK_ERR_TIPS = "获取区块错误。";
 
     /**
@@ -324,32 +326,10 @@ public class HomeService {
             stakingListNewResp.setIsRefresh(true);
             consensusNum = num.intValue();
         }
-        /* 只查询活跃的节点，并倒序返回 */
-        NodeExample nodeExample = new NodeExample();
-        NodeExample.Criteria criteria = nodeExample.createCriteria();
-        criteria.andStatusEqualTo(CustomStaking.StatusEnum.CANDIDATE.getCode()).andIsConsensusEqualTo(CustomStaking.YesNoEnum.YES.getCode());
-        nodeExample.setOrderByClause(" big_version desc,total_value desc,staking_block_num asc ,staking_tx_index asc");
-        List<Node> nodes = nodeMapper.selectByExample(nodeExample);
-
-        List<StakingListResp> lists = new LinkedList<>();
-        for (int i = 0; i < nodes.size(); i++) {
-            StakingListResp stakingListResp = new StakingListResp();
-            BeanUtils.copyProperties(nodes.get(i), stakingListResp);
-            stakingListResp.setIsInit(nodes.get(i).getIsInit() == 1);
-            stakingListResp.setStakingIcon(nodes.get(i).getNodeIcon());
-            /* 只有不是内置节点才计算年化率  */
-            if (CustomStaking.YesNoEnum.YES.getCode() != nodes.get(i).getIsInit()) {
-                stakingListResp.setExpectedIncome(nodes.get(i).getAnnualizedRate().toString() + "%");
-            } else {
-                stakingListResp.setExpectedIncome("");
-            }
-            /* 质押总数=有效的质押+委托 */
-            BigDecimal totalValue = nodes.get(i).getStakingHes().add(nodes.get(i).getStakingLocked()).add(nodes.get(i).getStatDelegateValue());
-            stakingListResp.setTotalValue(totalValue);
-            stakingListResp.setRanking(i + 1);
-            lists.add(stakingListResp);
-        }
-        stakingListNewResp.setDataList(lists);
+        /* 只返回共识中的节点，列表由快照预先计算 */
+        StakingListSnapshotService.Snapshot snapshot = stakingListSnapshotService.getSnapshot();
+        stakingListNewResp.setDataList(snapshot.getConsensus());
+        stakingListNewResp.setVersion(snapshot.getVersion());
         return stakingListNewResp;
     }
 
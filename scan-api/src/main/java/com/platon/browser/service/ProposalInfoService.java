@@ -11,8 +11,6 @@ import com.platon.browser.dao.entity.NetworkStat;
 import com.platon.browser.dao.entity.Proposal;
 import com.platon.browser.dao.entity.ProposalExample;
 import com.platon.browser.dao.mapper.ProposalMapper;
-import com.platon.browser.service.elasticsearch.EsBlockRepository;
-import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.enums.ErrorCodeEnum;
 import com.platon.browser.enums.I18nEnum;
 import com.platon.browser.enums.RetEnum;
@@ -68,7 +66,7 @@ public class ProposalInfoService {
     private BlockChainConfig blockChainConfig;
 
     @Resource
-    private EsBlockRepository ESBlockRepository;
+    private BlockHeaderService blockHeaderService;
 
     @Resource
     private NetworkParams networkParams;
@@ -199,20 +197,18 @@ public class ProposalInfoService {
          * 如果结束区块跟当前区块差值大于0则按照区块时间进行计算，否则直接获取已结束区块的时间
          */
         BigDecimal diff = new BigDecimal(proposalDetailsResp.getEndVotingBlock()).subtract(new BigDecimal(proposalDetailsResp.getCurBlock()));
-        Block block;
+        long endVotingBlock = Long.parseLong(proposalDetailsResp.getEndVotingBlock());
         if (diff.compareTo(BigDecimal.ZERO) > 0) {
             /** 结束时间预估：（生效区块-当前区块）*出块间隔 + 区块现有时间 */
             try {
-                block = ESBlockRepository.get(proposalDetailsResp.getCurBlock(), Block.class);
-                BigDecimal endTime = diff.multiply(new BigDecimal(networkStat.getAvgPackTime())).add(new BigDecimal(block.getTime().getTime()));
-                proposalDetailsResp.setEndVotingBlockTime(endTime.longValue());
+                long curBlock = Long.parseLong(proposalDetailsResp.getCurBlock());
+                proposalDetailsResp.setEndVotingBlockTime(blockHeaderService.estimateTime(endVotingBlock, curBlock, blockHeaderService.getCurrentBlockTime(curBlock)));
             } catch (IOException e) {
                 logger.error("获取区块错误。", e);
             }
         } else {
             try {
-                block = ESBlockRepository.get(proposalDetailsResp.getEndVotingBlock(), Block.class);
-                proposalDetailsResp.setEndVotingBlockTime(block.getTime().getTime());
+                proposalDetailsResp.setEndVotingBlockTime(blockHeaderService.getBlockTime(endVotingBlock));
             } catch (IOException e) {
                 logger.error("获取区块错误。", e);
             }
@@ -0,0 +1,366 @@
+package com.platon.browser.service;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.fastjson.JSON;
+import com.platon.browser.bean.CustomStaking;
+import com.platon.browser.bean.NodeSettleStatis;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.constant.Browser;
+import com.platon.browser.dao.custommapper.CustomNodeMapper;
+import com.platon.browser.dao.entity.NetworkStat;
+import com.platon.browser.dao.entity.Node;
+import com.platon.browser.dao.entity.NodeExample;
+import com.platon.browser.dao.mapper.NodeMapper;
+import com.platon.browser.enums.StakingStatusEnum;
+import com.platon.browser.response.home.StakingListResp;
+import com.platon.browser.response.staking.AliveStakingListResp;
+import com.platon.browser.response.staking.HistoryStakingListResp;
+import com.platon.browser.response.staking.LockedStakingListResp;
+import com.platon.browser.utils.ChainVersionUtil;
+import com.platon.browser.utils.EpochUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 验证人列表快照
+ * 1、节点数据只在出新块时变化，出新块后后台重新查询节点并计算好各列表的返回对象
+ * 2、列表查询直接在内存快照中过滤分页，不再查询数据库
+ * 3、列表内容变化时更新版本号，版本号不变则列表数据不变
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Service
+public class StakingListSnapshotService {
+
+    @Resource
+    private NodeMapper nodeMapper;
+
+    @Resource
+    private CustomNodeMapper customNodeMapper;
+
+    @Resource
+    private StatisticCacheService statisticCacheService;
+
+    @Resource
+    private BlockChainConfig blockChainConfig;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 获取快照，还没有快照时同步生成
+     *
+     * @return com.platon.browser.service.StakingListSnapshotService.Snapshot
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 出新块后重新生成快照，内容不变时沿用原版本号
+     */
+    public synchronized void refresh() {
+        NetworkStat networkStat = statisticCacheService.getNetworkStatCache();
+        long curNumber = networkStat.getCurNumber() == null ? 0 : networkStat.getCurNumber();
+        Snapshot current = snapshot;
+        if (current != null && current.blockNumber == curNumber) {
+            return;
+        }
+        BigInteger settleEpochRound = EpochUtil.getEpoch(BigInteger.valueOf(curNumber), blockChainConfig.getSettlePeriodBlockCount());
+
+        List<Item<AliveStakingListResp>> alive = new ArrayList<>();
+        List<StakingListResp> consensus = new ArrayList<>();
+        for (Node node : nullToEmpty(nodeMapper.selectByExampleWithBLOBs(aliveExample()))) {
+            alive.add(new Item<>(node, toAliveResp(node, settleEpochRound)));
+            if (node.getStatus() == CustomStaking.StatusEnum.CANDIDATE.getCode() && node.getIsConsensus() == CustomStaking.YesNoEnum.YES.getCode()) {
+                consensus.add(toStakingListResp(node, consensus.size() + 1));
+            }
+        }
+        List<Item<HistoryStakingListResp>> history = new ArrayList<>();
+        for (Node node : nullToEmpty(customNodeMapper.selectListByExample(historyExample()))) {
+            history.add(new Item<>(node, toHistoryResp(node)));
+        }
+        List<Item<LockedStakingListResp>> locked = new ArrayList<>();
+        for (Node node : nullToEmpty(customNodeMapper.selectListByExample(lockedExample()))) {
+            locked.add(new Item<>(node, toLockedResp(node)));
+        }
+
+        String digest = DigestUtil.md5Hex(JSON.toJSONString(Arrays.asList(toResps(alive), toResps(history), toResps(locked), consensus)));
+        long version = curNumber;
+        if (current != null) {
+            if (current.digest.equals(digest)) {
+                version = current.version;
+            } else if (version <= current.version) {
+                version = current.version + 1;
+            }
+        }
+        snapshot = new Snapshot(version, curNumber, digest, alive, history, locked, consensus);
+        log.debug("验证人列表快照已更新，块高[{}]，版本[{}]", curNumber, version);
+    }
+
+    /**
+     * 活跃节点：候选中，或退出中且在结算周期
+     */
+    private NodeExample aliveExample() {
+        NodeExample nodeExample = new NodeExample();
+        nodeExample.setOrderByClause(" big_version desc, total_value desc,staking_block_num asc, staking_tx_index asc");
+        nodeExample.createCriteria().andStatusEqualTo(CustomStaking.StatusEnum.CANDIDATE.getCode());
+        nodeExample.or(nodeExample.createCriteria()
+                .andStatusEqualTo(CustomStaking.StatusEnum.EXITING.getCode())
+                .andIsSettleEqualTo(CustomStaking.YesNoEnum.YES.getCode()));
+        return nodeExample;
+    }
+
+    /**
+     * 历史节点：退出中和已退出，不在结算周期
+     */
+    private NodeExample historyExample() {
+        NodeExample nodeExample = new NodeExample();
+        nodeExample.setOrderByClause(" leave_time desc");
+        nodeExample.createCriteria()
+                .andStatusIn(Arrays.asList(CustomStaking.StatusEnum.EXITING.getCode(), CustomStaking.StatusEnum.EXITED.getCode()))
+                .andIsSettleEqualTo(CustomStaking.YesNoEnum.NO.getCode());
+        return nodeExample;
+    }
+
+    /**
+     * 锁定节点
+     */
+    private NodeExample lockedExample() {
+        NodeExample nodeExample = new NodeExample();
+        nodeExample.setOrderByClause(" leave_time desc");
+        nodeExample.createCriteria().andStatusEqualTo(CustomStaking.StatusEnum.LOCKED.getCode());
+        return nodeExample;
+    }
+
+    /**
+     * 活跃节点返回对象，排行及出块中状态在查询时设置
+     */
+    private AliveStakingListResp toAliveResp(Node staking, BigInteger settleEpochRound) {
+        AliveStakingListResp aliveStakingListResp = new AliveStakingListResp();
+        BeanUtils.copyProperties(staking, aliveStakingListResp);
+        aliveStakingListResp.setBlockQty(staking.getStatBlockQty());
+        aliveStakingListResp.setDelegateQty(staking.getStatValidAddrs());
+        aliveStakingListResp.setExpectedIncome(staking.getAnnualizedRate().toString());
+        /** 委托总金额数=委托交易总金额(犹豫期金额)+委托交易总金额(锁定期金额) */
+        aliveStakingListResp.setDelegateValue(staking.getStatDelegateValue().toString());
+        aliveStakingListResp.setIsInit(staking.getIsInit() == 1);
+        aliveStakingListResp.setStakingIcon(staking.getNodeIcon());
+        if (staking.getIsRecommend() != null) {
+            aliveStakingListResp.setIsRecommend(CustomStaking.YesNoEnum.YES.getCode() == staking.getIsRecommend());
+        }
+        aliveStakingListResp.setSlashLowQty(staking.getStatSlashLowQty());
+        aliveStakingListResp.setSlashMultiQty(staking.getStatSlashMultiQty());
+        aliveStakingListResp.setStatus(StakingStatusEnum.getCodeByStatus(staking.getStatus(), staking.getIsConsensus(), staking.getIsSettle()));
+        /** 质押总数=有效的质押+委托 */
+        aliveStakingListResp.setTotalValue(staking.getTotalValue().toString());
+        aliveStakingListResp.setDeleAnnualizedRate(staking.getDeleAnnualizedRate().toString());
+        try {
+            NodeSettleStatis nodeSettleStatis = NodeSettleStatis.jsonToBean(staking.getNodeSettleStatisInfo());
+            aliveStakingListResp.setGenBlocksRate(nodeSettleStatis.computeGenBlocksRate(settleEpochRound));
+        } catch (Exception e) {
+            log.error("获取节点24小时出块率异常", e);
+        }
+        aliveStakingListResp.setDelegatedRewardRatio(new BigDecimal(staking.getRewardPer()).divide(Browser.PERCENTAGE).toString() + "%");
+        if (staking.getProgramVersion() != 0) {
+            aliveStakingListResp.setVersion(ChainVersionUtil.toStringVersion(BigInteger.valueOf(staking.getProgramVersion())));
+        } else {
+            aliveStakingListResp.setVersion(ChainVersionUtil.toStringVersion(BigInteger.valueOf(staking.getBigVersion())));
+        }
+        return aliveStakingListResp;
+    }
+
+    /**
+     * 首页共识节点返回对象
+     */
+    private StakingListResp toStakingListResp(Node node, int ranking) {
+        StakingListResp stakingListResp = new StakingListResp();
+        BeanUtils.copyProperties(node, stakingListResp);
+        stakingListResp.setIsInit(node.getIsInit() == 1);
+        stakingListResp.setStakingIcon(node.getNodeIcon());
+        /* 只有不是内置节点才计算年化率  */
+        if (CustomStaking.YesNoEnum.YES.getCode() != node.getIsInit()) {
+            stakingListResp.setExpectedIncome(node.getAnnualizedRate().toString() + "%");
+        } else {
+            stakingListResp.setExpectedIncome("");
+        }
+        /* 质押总数=有效的质押+委托 */
+        stakingListResp.setTotalValue(node.getStakingHes().add(node.getStakingLocked()).add(node.getStatDelegateValue()));
+        stakingListResp.setRanking(ranking);
+        return stakingListResp;
+    }
+
+    /**
+     * 历史节点返回对象
+     */
+    private HistoryStakingListResp toHistoryResp(Node stakingNode) {
+        HistoryStakingListResp historyStakingListResp = new HistoryStakingListResp();
+        BeanUtils.copyProperties(stakingNode, historyStakingListResp);
+        if (stakingNode.getLeaveTime() != null) {
+            historyStakingListResp.setLeaveTime(stakingNode.getLeaveTime().getTime());
+        }
+        historyStakingListResp.setNodeName(stakingNode.getNodeName());
+        historyStakingListResp.setStakingIcon(stakingNode.getNodeIcon());
+        historyStakingListResp.setSlashLowQty(stakingNode.getStatSlashLowQty());
+        historyStakingListResp.setSlashMultiQty(stakingNode.getStatSlashMultiQty());
+        /**
+         * 带提取的委托等于hes+lock
+         */
+        historyStakingListResp.setStatDelegateReduction(stakingNode.getStatDelegateValue().add(stakingNode.getStatDelegateReleased()));
+        historyStakingListResp.setStatus(StakingStatusEnum.getCodeByStatus(stakingNode.getStatus(), stakingNode.getIsConsensus(), stakingNode.getIsSettle()));
+        historyStakingListResp.setBlockQty(stakingNode.getStatBlockQty());
+        // 退出中节点预估解锁块高
+        historyStakingListResp.setUnlockBlockNum(stakingNode.getUnStakeEndBlock());
+        return historyStakingListResp;
+    }
+
+    /**
+     * 锁定节点返回对象，排行在查询时设置
+     */
+    private LockedStakingListResp toLockedResp(Node node) {
+        LockedStakingListResp lockedStakingListResp = new LockedStakingListResp();
+        BeanUtils.copyProperties(node, lockedStakingListResp);
+        lockedStakingListResp.setBlockQty(node.getStatBlockQty());
+        lockedStakingListResp.setDelegateQty(node.getStatValidAddrs());
+        lockedStakingListResp.setExpectedIncome(node.getAnnualizedRate().toString());
+        /** 委托总金额数=委托交易总金额(犹豫期金额)+委托交易总金额(锁定期金额) */
+        lockedStakingListResp.setDelegateValue(node.getStatDelegateValue().toString());
+        lockedStakingListResp.setIsInit(node.getIsInit() == 1);
+        lockedStakingListResp.setStakingIcon(node.getNodeIcon());
+        if (node.getIsRecommend() != null) {
+            lockedStakingListResp.setIsRecommend(CustomStaking.YesNoEnum.YES.getCode() == node.getIsRecommend());
+        }
+        lockedStakingListResp.setSlashLowQty(node.getStatSlashLowQty());
+        lockedStakingListResp.setSlashMultiQty(node.getStatSlashMultiQty());
+        lockedStakingListResp.setStatus(StakingStatusEnum.LOCKED.getCode());
+        lockedStakingListResp.setLeaveTime(node.getLeaveTime() == null ? null : node.getLeaveTime().getTime());
+        /** 质押总数=有效的质押+委托 */
+        lockedStakingListResp.setTotalValue(node.getTotalValue().toString());
+        lockedStakingListResp.setDeleAnnualizedRate(node.getDeleAnnualizedRate().toString());
+        // 锁定节占预估解锁块高 = （节点锁定时所在结算周期+锁定结算周期数）x 每个结算周期区块数量
+        int epoches = node.getZeroProduceFreezeEpoch() + node.getZeroProduceFreezeDuration();
+        BigInteger unlockBlockNum = blockChainConfig.getSettlePeriodBlockCount().multiply(BigInteger.valueOf(epoches));
+        lockedStakingListResp.setUnlockBlockNum(unlockBlockNum.longValue());
+        return lockedStakingListResp;
+    }
+
+    private static <T> List<T> toResps(List<Item<T>> items) {
+        return items.stream().map(Item::getResp).collect(Collectors.toList());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * 列表快照，生成后不再修改
+     */
+    public static class Snapshot {
+
+        private final long version;
+
+        private final long blockNumber;
+
+        private final String digest;
+
+        private final List<Item<AliveStakingListResp>> alive;
+
+        private final List<Item<HistoryStakingListResp>> history;
+
+        private final List<Item<LockedStakingListResp>> locked;
+
+        private final List<StakingListResp> consensus;
+
+        Snapshot(long version, long blockNumber, String digest, List<Item<AliveStakingListResp>> alive,
+                 List<Item<HistoryStakingListResp>> history, List<Item<LockedStakingListResp>> locked, List<StakingListResp> consensus) {
+            this.version = version;
+            this.blockNumber = blockNumber;
+            this.digest = digest;
+            this.alive = Collections.unmodifiableList(alive);
+            this.history = Collections.unmodifiableList(history);
+            this.locked = Collections.unmodifiableList(locked);
+            this.consensus = Collections.unmodifiableList(consensus);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getBlockNumber() {
+            return blockNumber;
+        }
+
+        /**
+         * 活跃节点，按版本、质押总数倒序
+         */
+        public List<Item<AliveStakingListResp>> getAlive() {
+            return alive;
+        }
+
+        /**
+         * 历史节点，按退出时间倒序
+         */
+        public List<Item<HistoryStakingListResp>> getHistory() {
+            return history;
+        }
+
+        /**
+         * 锁定节点，按退出时间倒序
+         */
+        public List<Item<LockedStakingListResp>> getLocked() {
+            return locked;
+        }
+
+        /**
+         * 首页共识节点，已设置排行
+         */
+        public List<StakingListResp> getConsensus() {
+            return consensus;
+        }
+
+    }
+
+    /**
+     * 快照中的节点及计算好的返回对象，返回对象为共享对象，需要修改时先复制
+     */
+    public static class Item<T> {
+
+        private final Node node;
+
+        private final T resp;
+
+        Item(Node node, T resp) {
+            this.node = node;
+            this.resp = resp;
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        public T getResp() {
+            return resp;
+        }
+
+    }
+
+}
@@ -2,6 +2,8 @@ package com.platon.browser.service;
 
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import com.platon.browser.bean.CustomDelegation.YesNoEnum;
@@ -12,11 +14,11 @@ import com.platon.browser.config.BlockChainConfig;
 import com.platon.browser.constant.Browser;
 import com.platon.browser.dao.custommapper.CustomDelegationMapper;
 import com.platon.browser.dao.custommapper.CustomNodeMapper;
-import com.platon.browser.dao.custommapper.CustomVoteMapper;
 import com.platon.browser.dao.entity.*;
 import com.platon.browser.dao.mapper.AddressMapper;
 import com.platon.browser.dao.mapper.NodeMapper;
 import com.platon.browser.dao.mapper.ProposalMapper;
+import com.platon.browser.dao.mapper.VoteMapper;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
 import com.platon.browser.enums.AddressTypeEnum;
 import com.platon.browser.enums.I18nEnum;
@@ -25,6 +27,7 @@ import com.platon.browser.enums.StakingStatusEnum;
 import com.platon.browser.request.staking.*;
 import com.platon.browser.response.BaseResp;
 import com.platon.browser.response.RespPage;
+import com.platon.browser.response.VersionRespPage;
 import com.platon.browser.response.staking.*;
 import com.platon.browser.service.elasticsearch.EsNodeOptRepository;
 import com.platon.browser.service.elasticsearch.bean.ESResult;
@@ -42,9 +45,17 @@ import javax.annotation.Resource;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * 验证人模块方法
@@ -62,9 +73,6 @@ public class StakingService {
     @Resource
     private StatisticCacheService statisticCacheService;
 
-    @Resource
-    private CustomVoteMapper customVoteMapper;
-
     @Resource
     private CustomDelegationMapper customDelegationMapper;
 
@@ -94,6 +102,20 @@ public class StakingService {
     @Resource
     private ProposalMapper proposalMapper;
 
+    @Resource
+    private VoteMapper voteMapper;
+
+    @Resource
+    private StakingListSnapshotService stakingListSnapshotService;
+
+    /**
+     * 已结束且已同步标题的提案不再变化，短时缓存，key:提案交易hash
+     */
+    private final Cache<String, Proposal> finishedProposalCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
     public StakingStatisticNewResp stakingStatisticNew() {
         /** 获取统计信息 */
         NetworkStat networkStatRedis = statisticCacheService.getNetworkStatCache();
@@ -114,167 +136,57 @@ public class StakingService {
     }
 
     public RespPage<AliveStakingListResp> aliveStakingList(AliveStakingListReq req) {
-        PageHelper.startPage(req.getPageNo(), req.getPageSize());
-        Integer status = null;
-        Integer isSettle = null;
-
-        // 是否需要把退出中状态的节点当做活跃中处理，默认不需要，只有在查询全部或活跃中时需要把退出中状态当作活跃中
-        boolean exitingAsActive = false;
+        StakingListSnapshotService.Snapshot snapshot = stakingListSnapshotService.getSnapshot();
+        Predicate<Node> statusFilter;
         /**
-         *  对前端传的参数进行转换查询条件
+         *  对前端传的参数进行转换查询条件，退出中且在结算周期的节点当作活跃中处理
          */
         switch (StakingStatusEnum.valueOf(req.getQueryStatus().toUpperCase())) {
             case ALL:
                 /** 查询候选人 */
-                status = StakingStatusEnum.CANDIDATE.getCode();
-                exitingAsActive = true;
+                statusFilter = node -> true;
                 break;
             case ACTIVE:
                 /** 活跃中代表即使后续同时也是结算周期验证人 */
-                status = StakingStatusEnum.CANDIDATE.getCode();
-                isSettle = CustomStaking.YesNoEnum.YES.getCode();
-                exitingAsActive = true;
+                statusFilter = node -> node.getIsSettle() == CustomStaking.YesNoEnum.YES.getCode();
                 break;
             case CANDIDATE:
                 /** 查询候选人 */
-                status = StakingStatusEnum.CANDIDATE.getCode();
-                isSettle = CustomStaking.YesNoEnum.NO.getCode();
+                statusFilter = node -> node.getStatus() == StatusEnum.CANDIDATE.getCode() && node.getIsSettle() == CustomStaking.YesNoEnum.NO.getCode();
                 break;
             default:
+                statusFilter = node -> false;
                 break;
         }
-        RespPage<AliveStakingListResp> respPage = new RespPage<>();
-        List<AliveStakingListResp> lists = new LinkedList<>();
-        /** 根据条件和状态进行查询列表 */
-        NodeExample nodeExample = new NodeExample();
-        nodeExample.setOrderByClause(" big_version desc, total_value desc,staking_block_num asc, staking_tx_index asc");
-        NodeExample.Criteria criteria1 = nodeExample.createCriteria();
-        criteria1.andStatusEqualTo(status);
-        if (StringUtils.isNotBlank(req.getKey())) {
-            criteria1.andNodeNameLike("%" + req.getKey() + "%");
-        }
-        if (isSettle != null) {
-            criteria1.andIsSettleEqualTo(isSettle);
-        }
-
-        if (exitingAsActive) {
-            /**
-             * 如果节点状态为退出中且为结算周期则认为在活跃中
-             */
-            NodeExample.Criteria criteria2 = nodeExample.createCriteria();
-            criteria2.andStatusEqualTo(CustomStaking.StatusEnum.EXITING.getCode());
-            if (StringUtils.isNotBlank(req.getKey())) {
-                criteria2.andNodeNameLike("%" + req.getKey() + "%");
-            }
-            criteria2.andIsSettleEqualTo(CustomStaking.YesNoEnum.YES.getCode());
-            nodeExample.or(criteria2);
-        }
-
-        Page<Node> stakingPage = customNodeMapper.selectListByExample(nodeExample);
-        List<Node> stakings = stakingPage.getResult();
+        List<StakingListSnapshotService.Item<AliveStakingListResp>> items = filter(snapshot.getAlive(), statusFilter, req.getKey());
         /** 查询出块节点 */
         NetworkStat networkStatRedis = statisticCacheService.getNetworkStatCache();
+        List<AliveStakingListResp> lists = new LinkedList<>();
         int i = (req.getPageNo() - 1) * req.getPageSize();
-        for (Node staking : stakings) {
+        for (StakingListSnapshotService.Item<AliveStakingListResp> item : slice(items, req.getPageNo(), req.getPageSize())) {
             AliveStakingListResp aliveStakingListResp = new AliveStakingListResp();
-            BeanUtils.copyProperties(staking, aliveStakingListResp);
-            aliveStakingListResp.setBlockQty(staking.getStatBlockQty());
-            aliveStakingListResp.setDelegateQty(staking.getStatValidAddrs());
-            aliveStakingListResp.setExpectedIncome(staking.getAnnualizedRate().toString());
-            /** 委托总金额数=委托交易总金额(犹豫期金额)+委托交易总金额(锁定期金额) */
-            String sumAmount = staking.getStatDelegateValue().toString();
-            aliveStakingListResp.setDelegateValue(sumAmount);
-            aliveStakingListResp.setIsInit(staking.getIsInit() == 1);
-            aliveStakingListResp.setStakingIcon(staking.getNodeIcon());
-            if (staking.getIsRecommend() != null) {
-                aliveStakingListResp.setIsRecommend(CustomStaking.YesNoEnum.YES.getCode() == staking.getIsRecommend());
-            }
+            BeanUtils.copyProperties(item.getResp(), aliveStakingListResp);
             /** 设置排行 */
             aliveStakingListResp.setRanking(i + 1);
-            aliveStakingListResp.setSlashLowQty(staking.getStatSlashLowQty());
-            aliveStakingListResp.setSlashMultiQty(staking.getStatSlashMultiQty());
             /** 如果是对应的出块节点则置为出块中，否则为活跃中或者退出 */
-            if (staking.getNodeId().equals(networkStatRedis.getNodeId())) {
+            if (item.getNode().getNodeId().equals(networkStatRedis.getNodeId())) {
                 aliveStakingListResp.setStatus(StakingStatusEnum.BLOCK.getCode());
-            } else {
-                aliveStakingListResp.setStatus(StakingStatusEnum.getCodeByStatus(staking.getStatus(), staking.getIsConsensus(), staking.getIsSettle()));
-            }
-            /** 质押总数=有效的质押+委托 */
-            aliveStakingListResp.setTotalValue(staking.getTotalValue().toString());
-            aliveStakingListResp.setDeleAnnualizedRate(staking.getDeleAnnualizedRate().toString());
-            try {
-                String nodeSettleStatisInfo = staking.getNodeSettleStatisInfo();
-                NodeSettleStatis nodeSettleStatis = NodeSettleStatis.jsonToBean(nodeSettleStatisInfo);
-                BigInteger settleEpochRound = EpochUtil.getEpoch(BigInteger.valueOf(networkStatRedis.getCurNumber()), blockChainConfig.getSettlePeriodBlockCount());
-                aliveStakingListResp.setGenBlocksRate(nodeSettleStatis.computeGenBlocksRate(settleEpochRound));
-            } catch (Exception e) {
-                logger.error("获取节点24小时出块率异常", e);
-            }
-            aliveStakingListResp.setDelegatedRewardRatio(new BigDecimal(staking.getRewardPer()).divide(Browser.PERCENTAGE).toString() + "%");
-            if (staking.getProgramVersion() != 0) {
-                aliveStakingListResp.setVersion(ChainVersionUtil.toStringVersion(BigInteger.valueOf(staking.getProgramVersion())));
-            } else {
-                aliveStakingListResp.setVersion(ChainVersionUtil.toStringVersion(BigInteger.valueOf(staking.getBigVersion())));
             }
             lists.add(aliveStakingListResp);
             i++;
         }
-        Page<?> page = new Page<>(req.getPageNo(), req.getPageSize());
-        page.setTotal(stakingPage.getTotal());
-        respPage.init(page, lists);
-        return respPage;
+        return toRespPage(req.getPageNo(), req.getPageSize(), items.size(), lists, snapshot.getVersion());
     }
 
     public RespPage<HistoryStakingListResp> historyStakingList(HistoryStakingListReq req) {
-        /** 设置只查询退出中和已退出 */
-        PageHelper.startPage(req.getPageNo(), req.getPageSize());
-        List<Integer> status = new ArrayList<>();
-        status.add(CustomStaking.StatusEnum.EXITING.getCode());
-        status.add(CustomStaking.StatusEnum.EXITED.getCode());
-        RespPage<HistoryStakingListResp> respPage = new RespPage<>();
+        /** 只查询退出中和已退出，不包含直接退出的节点 */
+        StakingListSnapshotService.Snapshot snapshot = stakingListSnapshotService.getSnapshot();
+        List<StakingListSnapshotService.Item<HistoryStakingListResp>> items = filter(snapshot.getHistory(), node -> true, req.getKey());
         List<HistoryStakingListResp> lists = new LinkedList<>();
-        /** 根据条件和状态进行查询列表 */
-        NodeExample nodeExample = new NodeExample();
-        nodeExample.setOrderByClause(" leave_time desc");
-        NodeExample.Criteria criteria = nodeExample.createCriteria();
-        criteria.andStatusIn(status);
-        /**
-         * 防止直接退出的节点出现在历史表中
-         */
-        criteria.andIsSettleEqualTo(CustomStaking.YesNoEnum.NO.getCode());
-
-        if (StringUtils.isNotBlank(req.getKey())) {
-            criteria.andNodeNameLike("%" + req.getKey() + "%");
+        for (StakingListSnapshotService.Item<HistoryStakingListResp> item : slice(items, req.getPageNo(), req.getPageSize())) {
+            lists.add(item.getResp());
         }
-        Page<Node> stakings = customNodeMapper.selectListByExample(nodeExample);
-
-        for (Node stakingNode : stakings.getResult()) {
-            HistoryStakingListResp historyStakingListResp = new HistoryStakingListResp();
-            BeanUtils.copyProperties(stakingNode, historyStakingListResp);
-            if (stakingNode.getLeaveTime() != null) {
-                historyStakingListResp.setLeaveTime(stakingNode.getLeaveTime().getTime());
-            }
-            historyStakingListResp.setNodeName(stakingNode.getNodeName());
-            historyStakingListResp.setStakingIcon(stakingNode.getNodeIcon());
-            historyStakingListResp.setSlashLowQty(stakingNode.getStatSlashLowQty());
-            historyStakingListResp.setSlashMultiQty(stakingNode.getStatSlashMultiQty());
-            /**
-             * 带提取的委托等于hes+lock
-             */
-            historyStakingListResp.setStatDelegateReduction(stakingNode.getStatDelegateValue().add(stakingNode.getStatDelegateReleased()));
-            historyStakingListResp.setStatus(StakingStatusEnum.getCodeByStatus(stakingNode.getStatus(), stakingNode.getIsConsensus(), stakingNode.getIsSettle()));
-            historyStakingListResp.setBlockQty(stakingNode.getStatBlockQty());
-
-            // 退出中节点预估解锁块高
-            Long unlockBlockNum = stakingNode.getUnStakeEndBlock();
-            historyStakingListResp.setUnlockBlockNum(unlockBlockNum);
-
-            lists.add(historyStakingListResp);
-        }
-        Page<?> page = new Page<>(req.getPageNo(), req.getPageSize());
-        page.setTotal(stakings.getTotal());
-        respPage.init(page, lists);
-        return respPage;
+        return toRespPage(req.getPageNo(), req.getPageSize(), items.size(), lists, snapshot.getVersion());
     }
 
     public BaseResp<StakingDetailsResp> stakingDetails(StakingDetailsReq req) {
@@ -295,10 +207,10 @@ public class StakingService {
             resp.setVerifierTime(stakingNode.getStatVerifierTime());
             resp.setJoinTime(stakingNode.getJoinTime().getTime());
             resp.setDenefitAddr(stakingNode.getBenefitAddr());
-            Address denefitAddr = addressMapper.selectByPrimaryKey(stakingNode.getBenefitAddr());
-            resp.setDenefitAddrType(CommonUtil.ofNullable(() -> denefitAddr.getType()).orElse(AddressTypeEnum.ACCOUNT.getCode()));
-            Address stakingAddr = addressMapper.selectByPrimaryKey(stakingNode.getStakingAddr());
-            resp.setStakingAddrType(CommonUtil.ofNullable(() -> stakingAddr.getType()).orElse(AddressTypeEnum.ACCOUNT.getCode()));
+            // 收益地址和质押地址一次查询
+            Map<String, Integer> addressTypes = getAddressTypes(stakingNode.getBenefitAddr(), stakingNode.getStakingAddr());
+            resp.setDenefitAddrType(addressTypes.getOrDefault(stakingNode.getBenefitAddr(), AddressTypeEnum.ACCOUNT.getCode()));
+            resp.setStakingAddrType(addressTypes.getOrDefault(stakingNode.getStakingAddr(), AddressTypeEnum.ACCOUNT.getCode()));
             resp.setStakingIcon(stakingNode.getNodeIcon());
             resp.setDeleAnnualizedRate(stakingNode.getDeleAnnualizedRate().toString());
             resp.setRewardPer(new BigDecimal(stakingNode.getRewardPer()).divide(Browser.PERCENTAGE).toString());
@@ -404,6 +316,8 @@ public class StakingService {
             return respPage;
         }
         List<NodeOpt> nodeOpts = items.getRsData();
+        // 本页提案及投票记录关联的提案批量查询，key:操作记录的交易hash
+        Map<String, Proposal> optProposals = getOptProposals(nodeOpts);
         List<StakingOptRecordListResp> lists = new LinkedList<>();
         for (NodeOpt nodeOpt : nodeOpts) {
             StakingOptRecordListResp stakingOptRecordListResp = new StakingOptRecordListResp();
@@ -426,7 +340,7 @@ public class StakingService {
                         break;
                     /** 提案类型 */
                     case PROPOSALS:
-                        Proposal proposal = proposalMapper.selectByPrimaryKey(nodeOpt.getTxHash());
+                        Proposal proposal = optProposals.get(nodeOpt.getTxHash());
                         if (ObjectUtil.isNotNull(proposal) && StrUtil.isNotBlank(proposal.getTopic())) {
                             String desc = StrUtil.replace(stakingOptRecordListResp.getDesc(), Browser.INQUIRY, proposal.getTopic());
                             nodeOpt.setDesc(desc);
@@ -443,9 +357,9 @@ public class StakingService {
                     /** 投票类型 */
                     case VOTE:
                         // 描述是由定时任务更新的，所以每次查询都要重新查询取最新的值
-                        CustomVoteProposal customVoteProposal = customVoteMapper.selectVotePropal(nodeOpt.getTxHash());
-                        if (ObjectUtil.isNotNull(customVoteProposal) && StrUtil.isNotBlank(customVoteProposal.getTopic())) {
-                            String desc = StrUtil.replace(stakingOptRecordListResp.getDesc(), Browser.INQUIRY, customVoteProposal.getTopic());
+                        Proposal voteProposal = optProposals.get(nodeOpt.getTxHash());
+                        if (ObjectUtil.isNotNull(voteProposal) && StrUtil.isNotBlank(voteProposal.getTopic())) {
+                            String desc = StrUtil.replace(stakingOptRecordListResp.getDesc(), Browser.INQUIRY, voteProposal.getTopic());
                             nodeOpt.setDesc(desc);
                             stakingOptRecordListResp.setDesc(desc);
                             desces = nodeOpt.getDesc().split(Browser.OPT_SPILT);
@@ -505,6 +419,132 @@ public class StakingService {
         return respPage;
     }
 
+    /**
+     * 批量查询地址类型
+     *
+     * @param addresses 地址
+     * @return java.util.Map<java.lang.String, java.lang.Integer> key:地址，value:地址类型，不存在的地址不返回
+     */
+    private Map<String, Integer> getAddressTypes(String... addresses) {
+        Map<String, Integer> addressTypes = new HashMap<>();
+        List<String> addressList = new ArrayList<>();
+        for (String address : addresses) {
+            if (StringUtils.isNotBlank(address) && !addressList.contains(address)) {
+                addressList.add(address);
+            }
+        }
+        if (addressList.isEmpty()) {
+            return addressTypes;
+        }
+        AddressExample addressExample = new AddressExample();
+        addressExample.createCriteria().andAddressIn(addressList);
+        List<Address> addressEntities = addressMapper.selectByExample(addressExample);
+        if (addressEntities != null) {
+            addressEntities.stream()
+                    .filter(address -> address.getType() != null)
+                    .forEach(address -> addressTypes.put(address.getAddress(), address.getType()));
+        }
+        return addressTypes;
+    }
+
+    /**
+     * 查询操作记录关联的提案：
+     * 1、提案记录的交易hash即提案hash
+     * 2、投票记录先批量查询投票得到提案hash
+     * 3、所有提案hash合并后批量查询，已结束的提案走缓存
+     *
+     * @param nodeOpts 操作记录
+     * @return java.util.Map<java.lang.String, com.platon.browser.dao.entity.Proposal> key:操作记录的交易hash
+     */
+    private Map<String, Proposal> getOptProposals(List<NodeOpt> nodeOpts) {
+        Map<String, Proposal> optProposals = new HashMap<>();
+        Set<String> proposalHashes = new LinkedHashSet<>();
+        List<String> voteHashes = new ArrayList<>();
+        for (NodeOpt nodeOpt : nodeOpts) {
+            if (StringUtils.isBlank(nodeOpt.getDesc()) || StringUtils.isBlank(nodeOpt.getTxHash())) {
+                continue;
+            }
+            String type = String.valueOf(nodeOpt.getType());
+            if (NodeOpt.TypeEnum.PROPOSALS.getCode().equals(type)) {
+                proposalHashes.add(nodeOpt.getTxHash());
+            } else if (NodeOpt.TypeEnum.VOTE.getCode().equals(type)) {
+                voteHashes.add(nodeOpt.getTxHash());
+            }
+        }
+        // key:投票hash，value:提案hash
+        Map<String, String> voteProposalHashes = new HashMap<>();
+        if (!voteHashes.isEmpty()) {
+            VoteExample voteExample = new VoteExample();
+            voteExample.createCriteria().andHashIn(voteHashes);
+            List<Vote> votes = voteMapper.selectByExample(voteExample);
+            if (votes != null) {
+                votes.stream().filter(vote -> vote.getProposalHash() != null).forEach(vote -> {
+                    voteProposalHashes.put(vote.getHash(), vote.getProposalHash());
+                    proposalHashes.add(vote.getProposalHash());
+                });
+            }
+        }
+        Map<String, Proposal> proposals = getProposals(proposalHashes);
+        for (String hash : proposalHashes) {
+            if (proposals.containsKey(hash)) {
+                optProposals.put(hash, proposals.get(hash));
+            }
+        }
+        voteProposalHashes.forEach((voteHash, proposalHash) -> {
+            if (proposals.containsKey(proposalHash)) {
+                optProposals.put(voteHash, proposals.get(proposalHash));
+            }
+        });
+        return optProposals;
+    }
+
+    /**
+     * 批量查询提案，已结束且已同步标题的提案缓存
+     *
+     * @param hashes 提案hash
+     * @return java.util.Map<java.lang.String, com.platon.browser.dao.entity.Proposal> key:提案hash，不存在的提案不返回
+     */
+    private Map<String, Proposal> getProposals(Collection<String> hashes) {
+        Map<String, Proposal> proposals = new HashMap<>();
+        List<String> missHashes = new ArrayList<>();
+        for (String hash : hashes) {
+            Proposal proposal = finishedProposalCache.getIfPresent(hash);
+            if (proposal != null) {
+                proposals.put(hash, proposal);
+            } else {
+                missHashes.add(hash);
+            }
+        }
+        if (missHashes.isEmpty()) {
+            return proposals;
+        }
+        ProposalExample proposalExample = new ProposalExample();
+        proposalExample.createCriteria().andHashIn(missHashes);
+        List<Proposal> proposalList = proposalMapper.selectByExample(proposalExample);
+        if (proposalList != null) {
+            for (Proposal proposal : proposalList) {
+                proposals.put(proposal.getHash(), proposal);
+                if (isFinished(proposal) && StrUtil.isNotBlank(proposal.getTopic())) {
+                    finishedProposalCache.put(proposal.getHash(), proposal);
+                }
+            }
+        }
+        return proposals;
+    }
+
+    /**
+     * 提案是否已结束：失败、生效、被取消后状态不再变化
+     */
+    private boolean isFinished(Proposal proposal) {
+        if (proposal.getStatus() == null) {
+            return false;
+        }
+        int status = proposal.getStatus();
+        return status == CustomProposal.StatusEnum.FAIL.getCode()
+                || status == CustomProposal.StatusEnum.FINISH.getCode()
+                || status == CustomProposal.StatusEnum.CANCEL.getCode();
+    }
+
     public RespPage<DelegationListByStakingResp> delegationListByStaking(DelegationListByStakingReq req) {
         Node node = nodeMapper.selectByPrimaryKey(req.getNodeId());
         PageHelper.startPage(req.getPageNo(), req.getPageSize());
@@ -586,58 +626,49 @@ public class StakingService {
     }
 
     public RespPage<LockedStakingListResp> lockedStakingList(LockedStakingListReq req) {
-        PageHelper.startPage(req.getPageNo(), req.getPageSize());
-        RespPage<LockedStakingListResp> respPage = new RespPage<>();
+        StakingListSnapshotService.Snapshot snapshot = stakingListSnapshotService.getSnapshot();
+        List<StakingListSnapshotService.Item<LockedStakingListResp>> items = filter(snapshot.getLocked(), node -> true, req.getKey());
         List<LockedStakingListResp> lists = new LinkedList<>();
-        NodeExample nodeExample = new NodeExample();
-        nodeExample.setOrderByClause(" leave_time desc");
-        NodeExample.Criteria criteria = nodeExample.createCriteria();
-        criteria.andStatusEqualTo(StatusEnum.LOCKED.getCode());
-
-        if (StringUtils.isNotBlank(req.getKey())) {
-            criteria.andNodeNameLike("%" + req.getKey() + "%");
-        }
-        Page<Node> stakingPage = customNodeMapper.selectListByExample(nodeExample);
-
-        /** 查询出块节点 */
-        //NetworkStat networkStatRedis = this.statisticCacheService.getNetworkStatCache();
         int i = (req.getPageNo() - 1) * req.getPageSize();
-        for (Node node : stakingPage) {
+        for (StakingListSnapshotService.Item<LockedStakingListResp> item : slice(items, req.getPageNo(), req.getPageSize())) {
             LockedStakingListResp lockedStakingListResp = new LockedStakingListResp();
-            BeanUtils.copyProperties(node, lockedStakingListResp);
-            lockedStakingListResp.setBlockQty(node.getStatBlockQty());
-            lockedStakingListResp.setDelegateQty(node.getStatValidAddrs());
-            lockedStakingListResp.setExpectedIncome(node.getAnnualizedRate().toString());
-            /** 委托总金额数=委托交易总金额(犹豫期金额)+委托交易总金额(锁定期金额) */
-            String sumAmount = node.getStatDelegateValue().toString();
-            lockedStakingListResp.setDelegateValue(sumAmount);
-            lockedStakingListResp.setIsInit(node.getIsInit() == 1);
-            lockedStakingListResp.setStakingIcon(node.getNodeIcon());
-            if (node.getIsRecommend() != null) {
-                lockedStakingListResp.setIsRecommend(CustomStaking.YesNoEnum.YES.getCode() == node.getIsRecommend());
-            }
+            BeanUtils.copyProperties(item.getResp(), lockedStakingListResp);
             /** 设置排行 */
             lockedStakingListResp.setRanking(i + 1);
-            lockedStakingListResp.setSlashLowQty(node.getStatSlashLowQty());
-            lockedStakingListResp.setSlashMultiQty(node.getStatSlashMultiQty());
-            lockedStakingListResp.setStatus(StakingStatusEnum.LOCKED.getCode());
-            Date leaveTime = node.getLeaveTime();
-            lockedStakingListResp.setLeaveTime(leaveTime == null ? null : leaveTime.getTime());
-            /** 质押总数=有效的质押+委托 */
-            lockedStakingListResp.setTotalValue(node.getTotalValue().toString());
-            lockedStakingListResp.setDeleAnnualizedRate(node.getDeleAnnualizedRate().toString());
-
-            // 锁定节占预估解锁块高 = （节点锁定时所在结算周期+锁定结算周期数）x 每个结算周期区块数量
-            int epoches = node.getZeroProduceFreezeEpoch() + node.getZeroProduceFreezeDuration();
-            BigInteger unlockBlockNum = blockChainConfig.getSettlePeriodBlockCount().multiply(BigInteger.valueOf(epoches));
-            lockedStakingListResp.setUnlockBlockNum(unlockBlockNum.longValue());
-
             lists.add(lockedStakingListResp);
             i++;
         }
-        Page<?> page = new Page<>(req.getPageNo(), req.getPageSize());
-        page.setTotal(stakingPage.getTotal());
+        return toRespPage(req.getPageNo(), req.getPageSize(), items.size(), lists, snapshot.getVersion());
+    }
+
+    /**
+     * 按状态及节点名称过滤快照
+     */
+    private <T> List<StakingListSnapshotService.Item<T>> filter(List<StakingListSnapshotService.Item<T>> items, Predicate<Node> statusFilter, String key) {
+        boolean matchName = StringUtils.isNotBlank(key);
+        return items.stream()
+                .filter(item -> statusFilter.test(item.getNode()))
+                .filter(item -> !matchName || StringUtils.containsIgnoreCase(item.getNode().getNodeName(), key))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 取分页数据
+     */
+    private <T> List<T> slice(List<T> items, int pageNo, int pageSize) {
+        int from = (pageNo - 1) * pageSize;
+        if (from < 0 || from >= items.size()) {
+            return Collections.emptyList();
+        }
+        return items.subList(from, Math.min(from + pageSize, items.size()));
+    }
+
+    private <T> RespPage<T> toRespPage(int pageNo, int pageSize, int total, List<T> lists, long version) {
+        VersionRespPage<T> respPage = new VersionRespPage<>();
+        Page<?> page = new Page<>(pageNo, pageSize);
+        page.setTotal(total);
         respPage.init(page, lists);
+        respPage.setVersion(version);
         return respPage;
     }
 
@@ -139,6 +139,7 @@ public class TransactionService {
         RespPage<TransactionListResp> result = new RespPage<>();
         ESQueryBuilderConstructor constructor = new ESQueryBuilderConstructor();
         constructor.must(new ESQueryBuilders().term("num", req.getBlockNumber()));
+        constructor.blockRange(req.getBlockNumber().longValue(), req.getBlockNumber().longValue());
         ESResult<Transaction> items = new ESResult<>();
         if (req.getTxType() != null && !req.getTxType().isEmpty()) {
             constructor.must(new ESQueryBuilders().terms("type", ReqTransactionTypeEnum.getTxType(req.getTxType())));
@@ -148,7 +149,7 @@ public class TransactionService {
         constructor.setResult(new String[]{"hash", "time", "status", "from", "to", "value", "num", "type", "toType", "cost", "failReason"});
         /** 根据区块号和类型分页查询交易信息 */
         try {
-            items = this.ESTransactionRepository.search(constructor, Transaction.class, req.getPageNo(), req.getPageSize());
+            items = this.ESTransactionRepository.searchWithTotal(constructor, Transaction.class, req.getPageNo(), req.getPageSize());
         } catch (Exception e) {
             this.logger.error(ERROR_TIPS, e);
             return result;
@@ -158,6 +159,7 @@ public class TransactionService {
         Page<?> page = new Page<>(req.getPageNo(), req.getPageSize());
         result.init(page, lists);
         result.setTotalCount(items.getTotal());
+        result.setTotalAccurate(!Boolean.FALSE.equals(items.getTotalAccurate()));
         return result;
     }
 
@@ -175,7 +177,7 @@ public class TransactionService {
         constructor.setUnmappedType("long");
         constructor.setResult(new String[]{"hash", "time", "status", "from", "to", "value", "num", "type", "toType", "cost", "failReason"});
         try {
-            items = this.ESTransactionRepository.search(constructor, Transaction.class, req.getPageNo(), req.getPageSize());
+            items = this.ESTransactionRepository.searchWithTotal(constructor, Transaction.class, req.getPageNo(), req.getPageSize());
         } catch (Exception e) {
             this.logger.error(ERROR_TIPS, e);
             return result;
@@ -184,6 +186,7 @@ public class TransactionService {
         Page<?> page = new Page<>(req.getPageNo(), req.getPageSize());
         result.init(page, lists);
         result.setTotalCount(items.getTotal());
+        result.setTotalAccurate(!Boolean.FALSE.equals(items.getTotalAccurate()));
         return result;
     }
 
@@ -92,6 +92,7 @@ public class RewardExportTask {
             if (blockNumber.longValue() > endNum) {
                 ESQueryBuilderConstructor constructor = new ESQueryBuilderConstructor();
                 constructor.must(new ESQueryBuilders().range("bNum", startNum, endNum));
+                constructor.blockRange(startNum, endNum);
                 List<Object> types = new ArrayList<>();
                 types.add(NodeOpt.TypeEnum.QUIT.getCode());
                 types.add(NodeOpt.TypeEnum.MULTI_SIGN.getCode());
@@ -0,0 +1,36 @@
+package com.platon.browser.task;
+
+import com.platon.browser.service.StakingListSnapshotService;
+import com.platon.browser.utils.AppStatusUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 验证人列表快照刷新任务，出新块后在后台重新生成快照，列表查询不再等待数据库
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Component
+public class StakingListSnapshotTask {
+
+    @Resource
+    private StakingListSnapshotService stakingListSnapshotService;
+
+    @Scheduled(cron = "0/3 * * * * ?")
+    public void refresh() {
+        // 只有程序正常运行才执行任务
+        if (!AppStatusUtil.isRunning()) {
+            return;
+        }
+        try {
+            stakingListSnapshotService.refresh();
+        } catch (Exception e) {
+            log.error("刷新验证人列表快照异常", e);
+        }
+    }
+
+}
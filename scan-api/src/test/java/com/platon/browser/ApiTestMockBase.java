@@ -8,13 +8,17 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.platon.browser.dao.custommapper.CustomNodeMapper;
+import com.platon.browser.service.BlockHeaderService;
 import com.platon.browser.service.CommonService;
 import com.platon.browser.utils.NetworkParams;
 import org.junit.Before;
 import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.platon.browser.dao.entity.Address;
 import com.platon.browser.dao.mapper.AddressMapper;
@@ -24,6 +28,7 @@ import com.platon.browser.service.elasticsearch.EsBlockRepository;
 import com.platon.browser.service.elasticsearch.EsTransactionRepository;
 import com.platon.browser.elasticsearch.dto.Block;
 import com.platon.browser.elasticsearch.dto.Transaction;
+import com.platon.browser.service.StakingListSnapshotService;
 import com.platon.browser.service.StatisticCacheService;
 import com.platon.browser.utils.I18nUtil;
 
@@ -56,6 +61,10 @@ public class ApiTestMockBase extends ApiTestData {
     @Mock
     protected NetworkParams networkParams;
 
+    protected BlockHeaderService blockHeaderService;
+
+    protected StakingListSnapshotService stakingListSnapshotService;
+
     @Before
     public void setUp() throws Exception {
         initNetwork();
@@ -91,13 +100,20 @@ public class ApiTestMockBase extends ApiTestData {
         transEs.setRsData(transactionListTemp);
         transEs.setTotal(2l);
         when(ESTransactionRepository.search(any(), any(), anyInt(), anyInt())).thenReturn(transEs);
+        when(ESTransactionRepository.searchWithTotal(any(), any(), anyInt(), anyInt())).thenReturn(transEs);
 
         when(ESTransactionRepository.get(any(), any())).thenReturn(transactionList.get(0));
     }
 
     private void initNode() {
         when(nodeMapper.selectByExample(any())).thenReturn(nodeList);
+        when(nodeMapper.selectByExampleWithBLOBs(any())).thenReturn(nodeList);
         when(nodeMapper.selectByPrimaryKey(any())).thenReturn(nodeList.get(0));
+        stakingListSnapshotService = new StakingListSnapshotService();
+        ReflectionTestUtils.setField(stakingListSnapshotService, "nodeMapper", nodeMapper);
+        ReflectionTestUtils.setField(stakingListSnapshotService, "customNodeMapper", customNodeMapper);
+        ReflectionTestUtils.setField(stakingListSnapshotService, "statisticCacheService", statisticCacheService);
+        ReflectionTestUtils.setField(stakingListSnapshotService, "blockChainConfig", blockChainConfig);
     }
 
     private void initBlock() throws IOException {
@@ -118,6 +134,14 @@ public class ApiTestMockBase extends ApiTestData {
         blockEs.setRsData(blockList);
         blockEs.setTotal(2l);
         when(ESBlockRepository.search(any(), any(), anyInt(), anyInt())).thenReturn(blockEs);
+        when(ESBlockRepository.searchWithTotal(any(), any(), anyInt(), anyInt(), anyInt())).thenReturn(blockEs);
+        Map<String, Block> blockMap = new HashMap<>();
+        blockMap.put("10", block);
+        blockMap.put("110", block1);
+        when(ESBlockRepository.multiGet(any(), any(), any())).thenReturn(blockMap);
+        blockHeaderService = new BlockHeaderService();
+        ReflectionTestUtils.setField(blockHeaderService, "esBlockRepository", ESBlockRepository);
+        ReflectionTestUtils.setField(blockHeaderService, "statisticCacheService", statisticCacheService);
 
         List<Block> bl = new ArrayList<>();
         bl.add(block);
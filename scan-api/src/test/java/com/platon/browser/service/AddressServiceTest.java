@@ -74,9 +74,15 @@ public class AddressServiceTest extends ApiTestMockBase {
         ReflectionTestUtils.setField(target, "platonClient", platonClient);
         ReflectionTestUtils.setField(target, "i18n", i18n);
         ReflectionTestUtils.setField(target, "blockChainConfig", blockChainConfig);
-        ReflectionTestUtils.setField(target, "esBlockRepository", ESBlockRepository);
+        ReflectionTestUtils.setField(target, "blockHeaderService", blockHeaderService);
         ReflectionTestUtils.setField(target, "specialApi", specialApi);
         ReflectionTestUtils.setField(target, "statisticCacheService", statisticCacheService);
+        ChainReadGateway chainReadGateway = new ChainReadGateway();
+        ReflectionTestUtils.setField(chainReadGateway, "blockChainConfig", blockChainConfig);
+        ReflectionTestUtils.setField(chainReadGateway, "statisticCacheService", statisticCacheService);
+        ReflectionTestUtils.setField(chainReadGateway, "platOnClient", platonClient);
+        chainReadGateway.init();
+        ReflectionTestUtils.setField(target, "chainReadGateway", chainReadGateway);
         RestrictingPlanContract restrictingPlanContract = mock(RestrictingPlanContract.class);
         when(platonClient.getRestrictingPlanContract()).thenReturn(restrictingPlanContract);
         RestrictingItem restrictingItem = new RestrictingItem();
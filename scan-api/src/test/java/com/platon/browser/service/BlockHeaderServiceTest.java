@@ -0,0 +1,49 @@
+package com.platon.browser.service;
+
+import com.platon.browser.ApiTestMockBase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BlockHeaderServiceTest extends ApiTestMockBase {
+
+    @Test
+    public void getBlockTimes() throws Exception {
+        Map<Long, Long> blockTimes = blockHeaderService.getBlockTimes(Arrays.asList(10L, 110L, 10L));
+        assertEquals(2, blockTimes.size());
+        // 已缓存的区块不再查询ES
+        assertEquals(blockTimes.get(10L), blockHeaderService.getBlockTime(10L));
+        assertEquals(blockTimes.get(110L), blockHeaderService.getCurrentBlockTime(110L));
+        verify(ESBlockRepository, times(1)).multiGet(any(), any(), any());
+    }
+
+    @Test
+    public void getCurrentBlockTime() throws Exception {
+        Long time = blockHeaderService.getBlockTime(110L);
+        long avgPackTime = 1000L;
+        statisticCacheService.getNetworkStatCache().setAvgPackTime(avgPackTime);
+        // 与已查询过的最高区块相差不大时按出块间隔推算
+        assertEquals(Long.valueOf(time + avgPackTime * 5), blockHeaderService.getCurrentBlockTime(115L));
+        verify(ESBlockRepository, times(1)).multiGet(any(), any(), any());
+    }
+
+    @Test
+    public void estimateTime() {
+        long avgPackTime = 1000L;
+        statisticCacheService.getNetworkStatCache().setAvgPackTime(avgPackTime);
+        assertEquals(Long.valueOf(1000L + avgPackTime * 10), blockHeaderService.estimateTime(20L, 10L, 1000L));
+        assertEquals(Long.valueOf(1000L), blockHeaderService.estimateTime(5L, 10L, 1000L));
+        assertNull(blockHeaderService.estimateTime(20L, 10L, null));
+    }
+
+}
@@ -125,6 +125,7 @@ public class BlockServiceTest extends ApiTestMockBase {
         blockEs.setRsData(blockList);
         blockEs.setTotal(2l);
         when(ESBlockRepository.search(any(), any(), anyInt(),anyInt())).thenReturn(blockEs);
+        when(ESBlockRepository.searchWithTotal(any(), any(), anyInt(), anyInt(), anyInt())).thenReturn(blockEs);
 		RespPage<BlockListResp> pages = target.blockListByNodeId(req);
 		
 		assertNotNull(pages);
@@ -0,0 +1,92 @@
+package com.platon.browser.service;
+
+import com.platon.browser.ApiTestMockBase;
+import com.platon.browser.client.PlatOnClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ChainReadGatewayTest extends ApiTestMockBase {
+
+    @Mock
+    private PlatOnClient platOnClient;
+
+    private ChainReadGateway target;
+
+    @Before
+    public void setup() {
+        target = new ChainReadGateway();
+        ReflectionTestUtils.setField(target, "blockChainConfig", blockChainConfig);
+        ReflectionTestUtils.setField(target, "statisticCacheService", statisticCacheService);
+        ReflectionTestUtils.setField(target, "platOnClient", platOnClient);
+        target.init();
+        statisticCacheService.getNetworkStatCache().setCurNumber(100L);
+    }
+
+    @After
+    public void destroy() {
+        target.destroy();
+    }
+
+    @Test
+    public void readSameBlock() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        ChainReadGateway.Result<Integer> result = target.read(ChainReadGateway.BALANCE, "lat1", count::incrementAndGet);
+        assertEquals(Integer.valueOf(1), result.getValue());
+        // 出新块前直接返回缓存
+        result = target.read(ChainReadGateway.BALANCE, "lat1", count::incrementAndGet);
+        assertEquals(Integer.valueOf(1), result.getValue());
+        assertFalse(result.isStale());
+        // 出新块后重新查询
+        statisticCacheService.getNetworkStatCache().setCurNumber(101L);
+        result = target.read(ChainReadGateway.BALANCE, "lat1", count::incrementAndGet);
+        assertEquals(Integer.valueOf(2), result.getValue());
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void readStale() throws Exception {
+        target.read(ChainReadGateway.BALANCE, "lat1", () -> 1);
+        statisticCacheService.getNetworkStatCache().setCurNumber(101L);
+        ChainReadGateway.Result<Integer> result = target.read(ChainReadGateway.BALANCE, "lat1", () -> {
+            throw new IOException("timeout");
+        });
+        // 重试仍失败时返回旧数据并标记
+        assertEquals(Integer.valueOf(1), result.getValue());
+        assertTrue(result.isStale());
+        verify(platOnClient, times(1)).updateCurrentWeb3jWrapper();
+    }
+
+    @Test(expected = IOException.class)
+    public void readFailWithoutStale() throws Exception {
+        target.read(ChainReadGateway.BALANCE, "lat2", () -> {
+            throw new IOException("timeout");
+        });
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void readTimeoutWithoutStale() throws Exception {
+        // 没有旧数据时节点响应超时，按查询失败处理，不会一直等待
+        blockChainConfig.setChainReadTimeout(100);
+        target.read(ChainReadGateway.BALANCE, "lat3", () -> {
+            Thread.sleep(1000);
+            return 1;
+        });
+    }
+
+}
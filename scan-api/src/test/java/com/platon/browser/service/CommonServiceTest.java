@@ -0,0 +1,69 @@
+package com.platon.browser.service;
+
+import com.platon.browser.bean.SupplySnapshot;
+import com.platon.browser.dao.custommapper.CustomSupplySnapshotMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CommonServiceTest {
+
+    @Mock
+    private CustomSupplySnapshotMapper customSupplySnapshotMapper;
+
+    @Spy
+    private CommonService target;
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(target, "customSupplySnapshotMapper", customSupplySnapshotMapper);
+    }
+
+    @Test
+    public void getCirculationValueFromSnapshot() {
+        SupplySnapshot floor = snapshot(10, 1001L, "100", "10");
+        SupplySnapshot ceiling = snapshot(11, 2001L, "100", "20");
+        when(customSupplySnapshotMapper.selectAround(1001L)).thenReturn(Arrays.asList(floor, ceiling));
+        // 快照块高：100 - 10 - 10 - 10 - 10
+        assertEquals(new BigDecimal("60"), target.getCirculationValue(1001L));
+        when(customSupplySnapshotMapper.selectAround(1501L)).thenReturn(Arrays.asList(floor, ceiling));
+        // 相邻快照之间插值：100 - 15 - 15 - 15 - 10
+        assertEquals(new BigDecimal("45"), target.getCirculationValue(1501L));
+    }
+
+    @Test
+    public void getCirculationValueLive() {
+        SupplySnapshot floor = snapshot(10, 1001L, "100", "10");
+        when(customSupplySnapshotMapper.selectAround(any())).thenReturn(Collections.singletonList(floor));
+        ReflectionTestUtils.setField(target, "blockChainConfig", null);
+        // 当前结算周期实时计算，获取链龄失败时返回0
+        assertEquals(BigDecimal.ZERO, target.getCirculationValue(1501L));
+    }
+
+    private SupplySnapshot snapshot(int settleEpoch, long blockNumber, String issueValue, String value) {
+        SupplySnapshot snapshot = new SupplySnapshot();
+        snapshot.setSettleEpoch(settleEpoch);
+        snapshot.setBlockNumber(blockNumber);
+        snapshot.setYearNum(1);
+        snapshot.setIssueValue(new BigDecimal(issueValue));
+        snapshot.setRestrictingValue(new BigDecimal(value));
+        snapshot.setInciteValue(new BigDecimal(value));
+        snapshot.setFoundationValue(new BigDecimal(value));
+        snapshot.setFoundationRemainValue(BigDecimal.TEN);
+        return snapshot;
+    }
+
+}
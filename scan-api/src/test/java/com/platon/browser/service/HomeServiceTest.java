@@ -54,6 +54,7 @@ public class HomeServiceTest extends ApiTestMockBase {
         ReflectionTestUtils.setField(target, "customNodeMapper", customNodeMapper);
         ReflectionTestUtils.setField(target, "networkParams", networkParams);
         ReflectionTestUtils.setField(target, "commonService", service);
+        ReflectionTestUtils.setField(target, "stakingListSnapshotService", stakingListSnapshotService);
         NetworkStat networkStatRedis = new NetworkStat();
         networkStatRedis.setCurNumber(1000L);
         networkStatRedis.setCurTps(10);
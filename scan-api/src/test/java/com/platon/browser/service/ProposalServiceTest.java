@@ -38,7 +38,7 @@ public class ProposalServiceTest extends ApiTestMockBase {
         ReflectionTestUtils.setField(target,"proposalMapper",proposalMapper);
         ReflectionTestUtils.setField(target,"statisticCacheService",statisticCacheService);
         ReflectionTestUtils.setField(target,"blockChainConfig",blockChainConfig);
-        ReflectionTestUtils.setField(target,"ESBlockRepository", ESBlockRepository);
+        ReflectionTestUtils.setField(target,"blockHeaderService", blockHeaderService);
         ReflectionTestUtils.setField(target,"networkParams",networkParams);
     }
     
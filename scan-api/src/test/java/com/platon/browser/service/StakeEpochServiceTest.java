@@ -3,6 +3,7 @@ package com.platon.browser.service;
 
 import com.github.pagehelper.Page;
 import com.platon.browser.ApiTestMockBase;
+import com.platon.browser.bean.CustomProposal;
 import com.platon.browser.bean.CustomStaking;
 import com.platon.browser.bean.DelegationAddress;
 import com.platon.browser.bean.DelegationStaking;
@@ -11,11 +12,15 @@ import com.platon.browser.client.PlatOnClient;
 import com.platon.browser.dao.entity.Address;
 import com.platon.browser.dao.entity.NetworkStat;
 import com.platon.browser.dao.entity.Node;
+import com.platon.browser.dao.entity.Proposal;
+import com.platon.browser.dao.entity.Vote;
 import com.platon.browser.dao.custommapper.CustomDelegationMapper;
 import com.platon.browser.dao.custommapper.CustomNodeMapper;
 import com.platon.browser.dao.custommapper.CustomStakingMapper;
 import com.platon.browser.dao.mapper.AddressMapper;
 import com.platon.browser.dao.mapper.NodeMapper;
+import com.platon.browser.dao.mapper.ProposalMapper;
+import com.platon.browser.dao.mapper.VoteMapper;
 import com.platon.browser.service.elasticsearch.EsNodeOptRepository;
 import com.platon.browser.service.elasticsearch.bean.ESResult;
 import com.platon.browser.elasticsearch.dto.NodeOpt;
@@ -23,6 +28,7 @@ import com.platon.browser.request.staking.*;
 import com.platon.browser.response.RespPage;
 import com.platon.browser.response.staking.DelegationListByAddressResp;
 import com.platon.browser.response.staking.DelegationListByStakingResp;
+import com.platon.browser.response.staking.StakingOptRecordListResp;
 import com.platon.browser.response.staking.StakingStatisticNewResp;
 import org.junit.Before;
 import org.junit.Test;
@@ -36,13 +42,17 @@ import javax.annotation.Resource;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -69,6 +79,12 @@ public class StakeEpochServiceTest extends ApiTestMockBase {
     @Mock
     private AddressMapper addressMapper;
 
+    @Mock
+    private ProposalMapper proposalMapper;
+
+    @Mock
+    private VoteMapper voteMapper;
+
     @Before
     public void setup() {
         ReflectionTestUtils.setField(this.target, "statisticCacheService", this.statisticCacheService);
@@ -82,6 +98,10 @@ public class StakeEpochServiceTest extends ApiTestMockBase {
         ReflectionTestUtils.setField(this.target, "customNodeMapper", this.customNodeMapper);
         ReflectionTestUtils.setField(target, "commonService", commonService);
         ReflectionTestUtils.setField(target, "addressMapper", addressMapper);
+        ReflectionTestUtils.setField(target, "proposalMapper", proposalMapper);
+        ReflectionTestUtils.setField(target, "voteMapper", voteMapper);
+        ReflectionTestUtils.setField(stakingListSnapshotService, "customNodeMapper", customNodeMapper);
+        ReflectionTestUtils.setField(target, "stakingListSnapshotService", stakingListSnapshotService);
     }
 
     @Test
@@ -178,6 +198,48 @@ public class StakeEpochServiceTest extends ApiTestMockBase {
         assertTrue(true);
     }
 
+    @Test
+    public void testStakingOptRecordListBatch() throws IOException {
+        StakingOptRecordListReq req = new StakingOptRecordListReq();
+        req.setNodeId("test");
+        ESResult<Object> items = new ESResult<>();
+        List<Object> opts = new ArrayList<>();
+        NodeOpt proposalOpt = new NodeOpt();
+        proposalOpt.setTxHash("0xproposal");
+        proposalOpt.setTime(new Date());
+        proposalOpt.setDesc("1|inquiry|2");
+        proposalOpt.setType(Integer.parseInt(NodeOpt.TypeEnum.PROPOSALS.getCode()));
+        opts.add(proposalOpt);
+        NodeOpt voteOpt = new NodeOpt();
+        voteOpt.setTxHash("0xvote");
+        voteOpt.setTime(new Date());
+        voteOpt.setDesc("1|inquiry|1|2");
+        voteOpt.setType(Integer.parseInt(NodeOpt.TypeEnum.VOTE.getCode()));
+        opts.add(voteOpt);
+        items.setRsData(opts);
+        items.setTotal(2L);
+        when(this.ESNodeOptRepository.search(any(), any(), anyInt(), anyInt())).thenReturn(items);
+        Vote vote = new Vote();
+        vote.setHash("0xvote");
+        vote.setProposalHash("0xproposal");
+        when(voteMapper.selectByExample(any())).thenReturn(Collections.singletonList(vote));
+        Proposal proposal = new Proposal();
+        proposal.setHash("0xproposal");
+        proposal.setTopic("topic");
+        proposal.setStatus(CustomProposal.StatusEnum.FINISH.getCode());
+        when(proposalMapper.selectByExample(any())).thenReturn(Collections.singletonList(proposal));
+
+        RespPage<StakingOptRecordListResp> resp = this.target.stakingOptRecordList(req);
+        assertEquals("topic", resp.getData().get(0).getTitle());
+        assertEquals("topic", resp.getData().get(1).getTitle());
+        // 已结束的提案第二次查询走缓存
+        proposalOpt.setDesc("1|inquiry|2");
+        voteOpt.setDesc("1|inquiry|1|2");
+        this.target.stakingOptRecordList(req);
+        verify(proposalMapper, times(1)).selectByExample(any());
+        verify(voteMapper, times(2)).selectByExample(any());
+    }
+
     @Test
     public void testStakingStatisticNew() {
         StakingBO bo =new StakingBO();
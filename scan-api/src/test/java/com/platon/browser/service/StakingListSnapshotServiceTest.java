@@ -0,0 +1,43 @@
+package com.platon.browser.service;
+
+import com.platon.browser.ApiTestMockBase;
+import com.platon.browser.dao.entity.NetworkStat;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class StakingListSnapshotServiceTest extends ApiTestMockBase {
+
+    @Test
+    public void refresh() {
+        NetworkStat networkStat = statisticCacheService.getNetworkStatCache();
+        StakingListSnapshotService.Snapshot snapshot = stakingListSnapshotService.getSnapshot();
+        assertEquals(nodeList.size(), snapshot.getAlive().size());
+        // 块高不变时不重新查询
+        stakingListSnapshotService.refresh();
+        verify(nodeMapper, times(1)).selectByExampleWithBLOBs(any());
+
+        // 出新块但节点数据不变，版本号不变
+        long version = snapshot.getVersion();
+        networkStat.setCurNumber(networkStat.getCurNumber() + 1);
+        stakingListSnapshotService.refresh();
+        verify(nodeMapper, times(2)).selectByExampleWithBLOBs(any());
+        assertEquals(version, stakingListSnapshotService.getSnapshot().getVersion());
+
+        // 节点数据变化，版本号更新
+        nodeList.get(0).setTotalValue(nodeList.get(0).getTotalValue().add(BigDecimal.ONE));
+        networkStat.setCurNumber(networkStat.getCurNumber() + 1);
+        stakingListSnapshotService.refresh();
+        assertNotEquals(version, stakingListSnapshotService.getSnapshot().getVersion());
+    }
+
+}
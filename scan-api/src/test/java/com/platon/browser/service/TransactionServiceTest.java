@@ -114,6 +114,7 @@ public class TransactionServiceTest extends ApiTestMockBase {
         first.setRsData(transactionList);
         first.setTotal(33L);
         when(this.ESTransactionRepository.search(any(), any(), anyInt(), anyInt())).thenReturn(first);
+        when(this.ESTransactionRepository.searchWithTotal(any(), any(), anyInt(), anyInt())).thenReturn(first);
 
         transaction.setType(Transaction.TypeEnum.STAKE_CREATE.getCode());
         transaction.setInfo("{\"benefitAddress\":\"0x60ceca9c1290ee56b98d4e160ef0453f7c40d219\",\"details\":\"Node of CDM\",\"externalId\":\"5FD68B690010632B\",\"nodeId\":\"0x0aa9805681d8f77c05f317efc141c97d5adb511ffb51f5a251d2d7a4a3a96d9a12adf39f06b702f0ccdff9eddc1790eb272dca31b0c47751d49b5931c58701e7\",\"nodeName\":\"cdm-004\",\"programVersion\":2048,\"website\":\"WWW.CCC.COM\",\"DelegateRewardPer\":3}");
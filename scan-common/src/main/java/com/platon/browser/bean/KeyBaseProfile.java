@@ -0,0 +1,40 @@
+package com.platon.browser.bean;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * KeyBase用户信息缓存
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class KeyBaseProfile {
+
+    /**
+     * 节点的KeyBase id
+     */
+    private String externalId;
+
+    /**
+     * KeyBase用户名
+     */
+    private String userName;
+
+    /**
+     * KeyBase头像
+     */
+    private String icon;
+
+    /**
+     * 是否查到用户信息，未查到的也缓存，避免反复请求
+     */
+    private Boolean found;
+
+    /**
+     * 请求KeyBase的时间
+     */
+    private Date fetchTime;
+
+}
@@ -0,0 +1,28 @@
+package com.platon.browser.bean;
+
+import lombok.Data;
+
+/**
+ * 节点有效委托地址数对账结果
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class NodeValidAddrs {
+
+    /**
+     * 节点id
+     */
+    private String nodeId;
+
+    /**
+     * 节点表中维护的有效委托地址数
+     */
+    private Integer statValidAddrs;
+
+    /**
+     * 按委托表统计的有效委托地址数
+     */
+    private Integer actualValidAddrs;
+
+}
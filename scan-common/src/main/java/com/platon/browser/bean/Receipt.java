@@ -6,7 +6,10 @@ import com.platon.rlp.solidity.RlpList;
 import com.platon.rlp.solidity.RlpString;
 import com.platon.rlp.solidity.RlpType;
 import com.platon.utils.Numeric;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.math.BigInteger;
@@ -31,40 +34,108 @@ public class Receipt {
 
     private String failReason;
 
+    /**
+     * 解码后的回执状态，只解码一次
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Integer statusValue;
+
+    /**
+     * 解码后的gasUsed，只解码一次
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient BigInteger gasUsedValue;
+
+    /**
+     * 日志状态是否已解码，日志状态在首次读取时才解码
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile boolean logsDecoded;
+
+    public void setStatus(String status) {
+        this.status = status;
+        this.statusValue = null;
+    }
+
     public int getStatus() {
-        if (null == this.status)
-            return SUCCESS;
-        BigInteger statusQuantity = Numeric.decodeQuantity(this.status);
-        return BigInteger.ONE.equals(statusQuantity) ? SUCCESS : FAILURE;
+        Integer value = this.statusValue;
+        if (value == null) {
+            if (null == this.status) {
+                value = SUCCESS;
+            } else {
+                BigInteger statusQuantity = Numeric.decodeQuantity(this.status);
+                value = BigInteger.ONE.equals(statusQuantity) ? SUCCESS : FAILURE;
+            }
+            this.statusValue = value;
+        }
+        return value;
+    }
+
+    public void setGasUsed(String gasUsed) {
+        this.gasUsed = gasUsed;
+        this.gasUsedValue = null;
     }
 
     public BigInteger getGasUsed() {
-        return Numeric.decodeQuantity(this.gasUsed);
+        BigInteger value = this.gasUsedValue;
+        if (value == null) {
+            value = Numeric.decodeQuantity(this.gasUsed);
+            this.gasUsedValue = value;
+        }
+        return value;
+    }
+
+    public void setLogs(List<Log> logs) {
+        this.logs = logs;
+        this.logsDecoded = false;
+    }
+
+    public int getLogStatus() {
+        if (!this.logsDecoded) {
+            decodeLogs();
+        }
+        return this.logStatus;
+    }
+
+    public String getFailReason() {
+        if (!this.logsDecoded) {
+            decodeLogs();
+        }
+        return this.failReason;
     }
 
     /**
-     * 解码log
+     * 解码log，非内置合约交易的日志不是RLP格式，解码失败时保留默认的日志状态
      */
     public void decodeLogs() {
-        if (this.logs == null || this.logs.isEmpty()) {
-            this.logStatus = FAILURE;
-            return;
-        }
-        Log log = this.logs.get(0);
-        String data = log.getData();
-        if (StringUtils.isBlank(data)) {
-            this.logStatus = FAILURE;
-            return;
-        }
-        RlpList rlp = RlpDecoder.decode(Numeric.hexStringToByteArray(data));
-        List<RlpType> rlpList = ((RlpList)(rlp.getValues().get(0))).getValues();
-        String decodedStatus = new String(((RlpString)rlpList.get(0)).getBytes());
-        int statusCode = Integer.parseInt(decodedStatus);
-        if (statusCode == 0) {
-            this.logStatus = SUCCESS;
-        } else {
-            this.failReason = decodedStatus;
-            this.logStatus = FAILURE;
+        try {
+            if (this.logs == null || this.logs.isEmpty()) {
+                this.logStatus = FAILURE;
+                return;
+            }
+            Log log = this.logs.get(0);
+            String data = log.getData();
+            if (StringUtils.isBlank(data)) {
+                this.logStatus = FAILURE;
+                return;
+            }
+            RlpList rlp = RlpDecoder.decode(Numeric.hexStringToByteArray(data));
+            List<RlpType> rlpList = ((RlpList)(rlp.getValues().get(0))).getValues();
+            String decodedStatus = new String(((RlpString)rlpList.get(0)).getBytes());
+            int statusCode = Integer.parseInt(decodedStatus);
+            if (statusCode == 0) {
+                this.logStatus = SUCCESS;
+            } else {
+                this.failReason = decodedStatus;
+                this.logStatus = FAILURE;
+            }
+        } catch (RuntimeException e) {
+            // 与原先在解码线程池中失败时的结果一致
+        } finally {
+            this.logsDecoded = true;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.platon.browser.bean;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 结算周期流通量组成快照，金额单位：von
+ * 流通量 = 总发行量 - 总锁仓 - 激励池余额 - 基金会账户余额 - 基金会在锁仓合约中的剩余金额
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class SupplySnapshot {
+
+    /**
+     * 结算周期轮数
+     */
+    private Integer settleEpoch;
+
+    /**
+     * 快照块高，结算周期的第一个块
+     */
+    private Long blockNumber;
+
+    /**
+     * 增发年份
+     */
+    private Integer yearNum;
+
+    /**
+     * 总发行量
+     */
+    private BigDecimal issueValue;
+
+    /**
+     * 锁仓未到期的金额
+     */
+    private BigDecimal restrictingValue;
+
+    /**
+     * 激励池余额
+     */
+    private BigDecimal inciteValue;
+
+    /**
+     * 参与计算的基金会账户余额
+     */
+    private BigDecimal foundationValue;
+
+    /**
+     * 基金会在锁仓合约中的剩余金额
+     */
+    private BigDecimal foundationRemainValue;
+
+}
@@ -0,0 +1,28 @@
+package com.platon.browser.bean;
+
+import lombok.Data;
+
+/**
+ * erc721合约持有者持有的tokenId数量
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class Token721OwnerCount {
+
+    /**
+     * 合约地址
+     */
+    private String tokenAddress;
+
+    /**
+     * 持有者地址
+     */
+    private String owner;
+
+    /**
+     * 持有的tokenId数量，增量更新时为变动量
+     */
+    private Long quantity;
+
+}
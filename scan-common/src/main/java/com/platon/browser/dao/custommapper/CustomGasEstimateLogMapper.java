@@ -7,4 +7,22 @@ import java.util.List;
 
 public interface CustomGasEstimateLogMapper {
     int batchInsertOrUpdateSelective(@Param("list") List<GasEstimateLog> list, @Param("selective") GasEstimateLog.Column... selective);
+
+    /**
+     * 锁定并查询待处理的日志，日志存在即表示该序号未处理
+     *
+     * @param seqs 序号，为空时查询全部
+     * @return java.util.List<com.platon.browser.dao.entity.GasEstimateLog>
+     * @date 2026/10/19
+     */
+    List<GasEstimateLog> selectForUpdate(@Param("seqs") List<Long> seqs);
+
+    /**
+     * 批量删除已处理的日志
+     *
+     * @param seqs 序号
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchDelete(@Param("seqs") List<Long> seqs);
 }
\ No newline at end of file
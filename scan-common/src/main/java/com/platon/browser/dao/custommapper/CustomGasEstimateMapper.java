@@ -7,4 +7,13 @@ import java.util.List;
 
 public interface CustomGasEstimateMapper {
     int batchInsertOrUpdateSelective(@Param("list") List<GasEstimate> list, @Param("selective") GasEstimate.Column... selective);
+
+    /**
+     * 按节点质押批量累加委托未计算周期，epoch为累加的周期数
+     *
+     * @param list 节点质押及累加的周期数
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchIncreaseEpoch(@Param("list") List<GasEstimate> list);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.platon.browser.dao.custommapper;
+
+import com.platon.browser.bean.KeyBaseProfile;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * KeyBase用户信息缓存
+ *
+ * @date 2026/10/19
+ */
+public interface CustomKeyBaseProfileMapper {
+
+    /**
+     * 批量查询缓存
+     *
+     * @param externalIds KeyBase id
+     * @return java.util.List<com.platon.browser.bean.KeyBaseProfile>
+     * @date 2026/10/19
+     */
+    List<KeyBaseProfile> selectByExternalIds(@Param("externalIds") Collection<String> externalIds);
+
+    /**
+     * 批量新增或覆盖缓存
+     *
+     * @param list 缓存
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchInsertOrUpdate(@Param("list") List<KeyBaseProfile> list);
+
+}
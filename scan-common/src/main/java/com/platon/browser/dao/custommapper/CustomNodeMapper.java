@@ -1,6 +1,7 @@
 package com.platon.browser.dao.custommapper;
 
 import com.github.pagehelper.Page;
+import com.platon.browser.bean.NodeValidAddrs;
 import com.platon.browser.dao.entity.Node;
 import com.platon.browser.dao.entity.NodeExample;
 import org.apache.ibatis.annotations.Param;
@@ -51,4 +52,21 @@ public interface CustomNodeMapper {
      */
     int updateNodeSettleStatis(@Param("list") List<Node> nodeList);
 
-}
\ No newline at end of file
+    /**
+     * 查询有效委托地址数与委托表不一致的候选中节点
+     *
+     * @return java.util.List<com.platon.browser.bean.NodeValidAddrs>
+     * @date 2026/10/19
+     */
+    List<NodeValidAddrs> selectValidAddrsMismatch();
+
+    /**
+     * 按委托表重新统计节点的有效委托地址数
+     *
+     * @param nodeIds 节点id
+     * @return int
+     * @date 2026/10/19
+     */
+    int updateValidAddrs(@Param("nodeIds") List<String> nodeIds);
+
+}
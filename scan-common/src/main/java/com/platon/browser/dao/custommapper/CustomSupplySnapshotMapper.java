@@ -0,0 +1,33 @@
+package com.platon.browser.dao.custommapper;
+
+import com.platon.browser.bean.SupplySnapshot;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 结算周期流通量组成快照
+ *
+ * @date 2026/10/19
+ */
+public interface CustomSupplySnapshotMapper {
+
+    /**
+     * 新增或覆盖结算周期的快照，区块重放时幂等
+     *
+     * @param snapshot 快照
+     * @return int
+     * @date 2026/10/19
+     */
+    int insertOrUpdate(SupplySnapshot snapshot);
+
+    /**
+     * 查询块高前后相邻的快照：快照块高不大于该块高的最后一个，以及大于该块高的第一个
+     *
+     * @param blockNumber 块高
+     * @return java.util.List<com.platon.browser.bean.SupplySnapshot> 按块高升序
+     * @date 2026/10/19
+     */
+    List<SupplySnapshot> selectAround(@Param("blockNumber") Long blockNumber);
+
+}
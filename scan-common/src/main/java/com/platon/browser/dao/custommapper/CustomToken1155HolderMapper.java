@@ -92,4 +92,23 @@ public interface CustomToken1155HolderMapper {
      * @return
      */
     int batchChange(List<Token1155Holder> list);
+
+    /**
+     * 按转账事件批量应用余额变动
+     * 仅当记录的账本位置(ledgerBn, ledgerSeq)小于本次位置时才更新，重复解析同一事件不会重复记账
+     *
+     * @param list balance为记账后的余额(为null时不更新余额)，tokenOwnerTxQty为交易总数
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchApplyLedger(@Param("list") List<Token1155Holder> list);
+
+    /**
+     * 以链上余额修正余额账本，账本位置已超过核对块高的记录不修正
+     *
+     * @param list balance为链上余额，ledgerBn为核对块高
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchCorrectBalance(@Param("list") List<Token1155Holder> list);
 }
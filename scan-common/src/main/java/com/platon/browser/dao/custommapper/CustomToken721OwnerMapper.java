@@ -0,0 +1,43 @@
+package com.platon.browser.dao.custommapper;
+
+import com.github.pagehelper.Page;
+import com.platon.browser.bean.Token721OwnerCount;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * erc721合约持有者tokenId数量聚合
+ *
+ * @date 2026/10/19
+ */
+public interface CustomToken721OwnerMapper {
+
+    /**
+     * 批量变更持有者的tokenId数量，数量减为0的记录删除
+     *
+     * @param list quantity为变动量，增加为正数，减少为负数
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchChange(@Param("list") List<Token721OwnerCount> list);
+
+    /**
+     * 按持有数量倒序查询合约的持有者
+     *
+     * @param tokenAddress 合约地址
+     * @return com.github.pagehelper.Page<com.platon.browser.bean.Token721OwnerCount>
+     * @date 2026/10/19
+     */
+    Page<Token721OwnerCount> findOwnerList(@Param("tokenAddress") String tokenAddress);
+
+    /**
+     * 合约的tokenId总数
+     *
+     * @param tokenAddress 合约地址
+     * @return java.lang.Long
+     * @date 2026/10/19
+     */
+    Long sumQuantity(@Param("tokenAddress") String tokenAddress);
+
+}
@@ -4,6 +4,7 @@ import com.github.pagehelper.Page;
 import com.platon.browser.bean.CustomTokenHolder;
 import com.platon.browser.bean.TokenHolderCount;
 import com.platon.browser.dao.entity.TokenHolder;
+import com.platon.browser.dao.entity.TokenHolderKey;
 import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
@@ -79,4 +80,32 @@ public interface CustomTokenHolderMapper {
      * @return
      */
     int batchChange(List<TokenHolder> list);
+
+    /**
+     * 查询持有者余额及账本位置
+     *
+     * @param key
+     * @return com.platon.browser.dao.entity.TokenHolder
+     * @date 2026/10/19
+     */
+    TokenHolder selectLedgerByKey(@Param("key") TokenHolderKey key);
+
+    /**
+     * 按转账事件批量应用余额变动
+     * 仅当记录的账本位置(ledgerBn, ledgerSeq)小于本次位置时才更新，重复解析同一事件不会重复记账
+     *
+     * @param list balance为记账后的余额(为null时不更新余额)，tokenTxQty为交易总数
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchApplyLedger(@Param("list") List<TokenHolder> list);
+
+    /**
+     * 以链上余额修正余额账本，账本位置已超过核对块高的记录不修正
+     *
+     * @param list balance为链上余额，ledgerBn为核对块高
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchCorrectBalance(@Param("list") List<TokenHolder> list);
 }
@@ -51,4 +51,22 @@ public interface CustomTokenMapper {
     List<Token> countTokenHolder();
 
     List<Token> count1155TokenHolder();
+
+    /**
+     * 标记token余额需要轮询链上更新(非标准token，转账事件不能完整反映余额变动)
+     *
+     * @param tokenAddress 合约地址
+     * @param reason 标记原因
+     * @return int
+     * @date 2026/10/19
+     */
+    int insertBalancePolling(@Param("tokenAddress") String tokenAddress, @Param("reason") String reason);
+
+    /**
+     * 查询余额需要轮询链上更新的token
+     *
+     * @return java.util.List<java.lang.String>
+     * @date 2026/10/19
+     */
+    List<String> selectBalancePollingToken();
 }
@@ -1,6 +1,5 @@
 package com.platon.browser.dao.custommapper;
 
-import com.platon.browser.dao.entity.GasEstimate;
 import com.platon.browser.dao.entity.Staking;
 import com.platon.browser.dao.param.BusinessParam;
 import org.apache.ibatis.annotations.Param;
@@ -31,12 +30,6 @@ public interface EpochBusinessMapper {
     @Transactional(rollbackFor = {Exception.class, Error.class})
     void settleForStakingValue(@Param("list") List<Staking> updateStakingList);
 
-    /**
-     * 更新Gas估算周期数
-     */
-    @Transactional(rollbackFor = {Exception.class, Error.class})
-    void updateGasEstimate(@Param("list") List<GasEstimate> estimateList);
-
     /**
      * 新选举周期数据变更（结算&共识周期往前推20个块）
      */
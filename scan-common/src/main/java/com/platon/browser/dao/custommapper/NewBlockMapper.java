@@ -1,8 +1,12 @@
 package com.platon.browser.dao.custommapper;
 
 import com.platon.browser.dao.param.BusinessParam;
+import com.platon.browser.dao.param.epoch.NewBlockDelta;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 /*
  * @Auther: dongqile
  * @Date:  2019/11/2
@@ -14,4 +18,31 @@ public interface NewBlockMapper {
      */
     @Transactional(rollbackFor = {Exception.class, Error.class})
     void newBlock(BusinessParam param);
-}
\ No newline at end of file
+
+    /**
+     * 批量累加多个区块的出块数和奖励
+     *
+     * @param stakings 按节点id+质押块高合并的变化量
+     * @param nodes    按节点id合并的变化量
+     * @return void
+     * @date 2026/10/19
+     */
+    void batchNewBlock(@Param("stakings") List<NewBlockDelta> stakings, @Param("nodes") List<NewBlockDelta> nodes);
+
+    /**
+     * 查询未入库的新区块变化量
+     *
+     * @return java.lang.String
+     * @date 2026/10/19
+     */
+    String selectPendingNewBlock();
+
+    /**
+     * 记录未入库的新区块变化量，与区块号在同一事务中提交
+     *
+     * @param pendingNewBlock 变化量json，为空表示已全部入库
+     * @return void
+     * @date 2026/10/19
+     */
+    void updatePendingNewBlock(@Param("pendingNewBlock") String pendingNewBlock);
+}
@@ -0,0 +1,65 @@
+package com.platon.browser.dao.custommapper;
+
+import com.platon.browser.dao.param.ppos.DelegateCreate;
+import com.platon.browser.dao.param.ppos.NodeDelta;
+import com.platon.browser.dao.param.ppos.ProposalVote;
+import com.platon.browser.dao.param.ppos.ProposalVoteDelta;
+import com.platon.browser.dao.param.ppos.StakingDelta;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * PPOS业务批量入库，按区块合并后的变化量一次性更新
+ *
+ * @date 2026/10/19
+ */
+public interface PPOSBatchBusinessMapper {
+
+    /**
+     * 批量新增或累加委托，同一委托的多笔委托金额已合并
+     *
+     * @param list 委托
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchUpsertDelegation(@Param("list") List<DelegateCreate> list);
+
+    /**
+     * 批量累加质押的变化量
+     *
+     * @param list 质押变化量
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchUpdateStaking(@Param("list") List<StakingDelta> list);
+
+    /**
+     * 批量累加节点的变化量，新增的有效委托累加到有效委托地址数，需在委托入库前执行
+     *
+     * @param list        节点变化量
+     * @param delegations 区块内合并后的委托
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchUpdateNode(@Param("list") List<NodeDelta> list, @Param("delegations") List<DelegateCreate> delegations);
+
+    /**
+     * 批量新增投票
+     *
+     * @param list 投票
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchInsertVote(@Param("list") List<ProposalVote> list);
+
+    /**
+     * 批量累加提案的投票数
+     *
+     * @param list 提案投票数
+     * @return int
+     * @date 2026/10/19
+     */
+    int batchUpdateProposalVote(@Param("list") List<ProposalVoteDelta> list);
+
+}
@@ -10,6 +10,12 @@ public class TokenHolder extends TokenHolderKey {
 
     //increment，为正数，则余额增加；为负数，则余额减少
     private BigDecimal increment;
+
+    //账本已应用的最后一笔转账事件所在区块及序号，用于保证重复解析时余额变动的幂等
+    private Long ledgerBn;
+
+    private Long ledgerSeq;
+
     private Date createTime;
 
     private Date updateTime;
@@ -56,6 +62,22 @@ public class TokenHolder extends TokenHolderKey {
         this.increment = increment;
     }
 
+    public Long getLedgerBn() {
+        return ledgerBn;
+    }
+
+    public void setLedgerBn(Long ledgerBn) {
+        this.ledgerBn = ledgerBn;
+    }
+
+    public Long getLedgerSeq() {
+        return ledgerSeq;
+    }
+
+    public void setLedgerSeq(Long ledgerSeq) {
+        this.ledgerSeq = ledgerSeq;
+    }
+
     /**
      * This enum was generated by MyBatis Generator.
      * This enum corresponds to the database table token_holder
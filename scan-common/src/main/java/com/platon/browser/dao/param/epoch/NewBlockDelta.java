@@ -0,0 +1,34 @@
+package com.platon.browser.dao.param.epoch;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 新区块累计的出块数和奖励变化量
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class NewBlockDelta {
+
+    //节点Id
+    private String nodeId;
+
+    //质押所在区块号
+    private BigInteger stakingBlockNum;
+
+    //出块数
+    private long blockQty;
+
+    //区块奖励（激励池）
+    private BigDecimal blockRewardValue = BigDecimal.ZERO;
+
+    //出块奖励（交易手续费）
+    private BigDecimal feeRewardValue = BigDecimal.ZERO;
+
+    //本结算周期预计可获得的质押奖励，取最后一个区块的值
+    private BigDecimal predictStakingReward;
+
+}
@@ -0,0 +1,27 @@
+package com.platon.browser.dao.param.ppos;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 区块内节点的累计变化量
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class NodeDelta {
+
+    //节点id
+    private String nodeId;
+
+    //有效质押+委托的变化量
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    //有效质押的变化量
+    private BigDecimal stakingHes = BigDecimal.ZERO;
+
+    //委托的变化量
+    private BigDecimal statDelegateValue = BigDecimal.ZERO;
+
+}
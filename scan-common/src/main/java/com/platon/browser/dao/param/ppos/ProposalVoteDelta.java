@@ -0,0 +1,25 @@
+package com.platon.browser.dao.param.ppos;
+
+import lombok.Data;
+
+/**
+ * 区块内提案的投票累计数
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class ProposalVoteDelta {
+
+    //提案hash
+    private String proposalHash;
+
+    //赞成票数
+    private long yeas;
+
+    //反对票数
+    private long nays;
+
+    //弃权票数
+    private long abstentions;
+
+}
@@ -0,0 +1,28 @@
+package com.platon.browser.dao.param.ppos;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 区块内质押的累计变化量
+ *
+ * @date 2026/10/19
+ */
+@Data
+public class StakingDelta {
+
+    //节点id
+    private String nodeId;
+
+    //质押块高
+    private BigInteger stakingBlockNum;
+
+    //犹豫期质押的变化量
+    private BigDecimal stakingHes = BigDecimal.ZERO;
+
+    //犹豫期委托的变化量
+    private BigDecimal statDelegateHes = BigDecimal.ZERO;
+
+}
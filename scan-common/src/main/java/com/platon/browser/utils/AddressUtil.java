@@ -1,6 +1,10 @@
 package com.platon.browser.utils;
 
+import cn.hutool.core.util.StrUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.platon.bech32.Bech32;
+import com.platon.parameters.NetworkParameters;
 
 /**
  * 地址工具类
@@ -14,6 +18,49 @@ public class AddressUtil {
      */
     public static final String TO_ADDR_ZERO = "0x0000000000000000000000000000000000000000";
 
+    /**
+     * 缓存的最大地址数，活跃地址集合较小，常用地址会一直留在缓存中
+     */
+    private static final int CACHE_SIZE = 20000;
+
+    /**
+     * bech32地址到hex地址的转换缓存
+     */
+    private static final Cache<String, String> HEX_CACHE = Caffeine.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    /**
+     * hex地址到bech32地址的转换缓存
+     */
+    private static final Cache<String, String> BECH32_CACHE = Caffeine.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private AddressUtil() {
+    }
+
+    /**
+     * bech32地址转hex地址，转换结果缓存，同一地址返回同一实例
+     *
+     * @param addr bech32地址
+     * @return java.lang.String
+     * @date 2026/10/19
+     */
+    public static String toHex(String addr) {
+        if (StrUtil.isBlank(addr)) {
+            return Bech32.addressDecodeHex(addr);
+        }
+        return HEX_CACHE.get(addr, Bech32::addressDecodeHex);
+    }
+
+    /**
+     * hex地址转当前网络的bech32地址，转换结果缓存，同一地址返回同一实例
+     *
+     * @param hex hex地址
+     * @return java.lang.String
+     * @date 2026/10/19
+     */
+    public static String toBech32(String hex) {
+        return BECH32_CACHE.get(hex, key -> Bech32.addressEncode(NetworkParameters.getHrp(), key));
+    }
+
     /**
      * 判断地址是否是0地址
      *
@@ -25,7 +72,7 @@ public class AddressUtil {
         if (TO_ADDR_ZERO.equalsIgnoreCase(addr)) {
             return true;
         }
-        String address = Bech32.addressDecodeHex(addr);
+        String address = toHex(addr);
         if (TO_ADDR_ZERO.equalsIgnoreCase(address)) {
             return true;
         }
@@ -0,0 +1,148 @@
+package com.platon.browser.utils;
+
+import java.util.Arrays;
+
+/**
+ * long类型的开放寻址哈希集合
+ * 1、用于区块号、交易序号等按批次反复填充和清空的集合，元素不装箱，不为每个元素创建节点
+ * 2、clear只清空数组内容，容量保留给下一批次复用
+ * 3、非线程安全
+ *
+ * @date 2026/10/19
+ */
+public final class LongHashSet {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * 空槽位标记，元素0单独记录
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+
+    private int size;
+
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        this.table = new long[tableSize(expectedSize)];
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     * @return boolean 元素不存在时返回true
+     * @date 2026/10/19
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = index(value, mask);
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        // 装载因子超过0.5时扩容
+        if (size * 2 > table.length) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        int mask = table.length - 1;
+        int i = index(value, mask);
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(table, EMPTY);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * 升序排列的全部元素
+     *
+     * @return long[]
+     * @date 2026/10/19
+     */
+    public long[] toSortedArray() {
+        long[] values = new long[size];
+        int n = 0;
+        if (containsZero) {
+            values[n++] = EMPTY;
+        }
+        for (long value : table) {
+            if (value != EMPTY) {
+                values[n++] = value;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private void rehash(int newLength) {
+        long[] old = table;
+        table = new long[newLength];
+        int mask = newLength - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int i = index(value, mask);
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    private static int index(long value, int mask) {
+        // 区块号、交易序号连续递增，乘以黄金分割常数打散低位
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int n = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+        return Math.max(n, 4);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.platon.browser.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AddressUtilTest {
+
+    private static final String HEX = "0x60ceca9c1290ee56b98d4e160ef0453f7c40d219";
+
+    @Test
+    public void convert() {
+        String bech32 = AddressUtil.toBech32(HEX);
+        assertSame(bech32, AddressUtil.toBech32(HEX));
+        assertEquals(HEX, AddressUtil.toHex(bech32));
+        assertSame(AddressUtil.toHex(bech32), AddressUtil.toHex(bech32));
+    }
+
+    @Test
+    public void isAddrZero() {
+        assertTrue(AddressUtil.isAddrZero(AddressUtil.TO_ADDR_ZERO));
+        assertTrue(AddressUtil.isAddrZero(AddressUtil.toBech32(AddressUtil.TO_ADDR_ZERO)));
+        assertFalse(AddressUtil.isAddrZero(AddressUtil.toBech32(HEX)));
+        assertTrue(AddressUtil.isAddrZero(AddressUtil.toBech32(HEX), AddressUtil.toBech32(AddressUtil.TO_ADDR_ZERO)));
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.platon.browser.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    public void addAndContains() {
+        LongHashSet set = new LongHashSet(2);
+        for (long seq = 100000; seq < 101000; seq++) {
+            assertTrue(set.add(seq));
+        }
+        assertFalse(set.add(100000));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertEquals(1001, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(100999));
+        assertFalse(set.contains(101000));
+        assertArrayEquals(new long[]{0, 100000, 100001}, Arrays.copyOf(set.toSortedArray(), 3));
+    }
+
+    @Test
+    public void clear() {
+        LongHashSet set = new LongHashSet();
+        set.add(0);
+        set.add(5);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(5));
+        assertEquals(0, set.toSortedArray().length);
+    }
+
+}
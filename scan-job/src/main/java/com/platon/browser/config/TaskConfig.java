@@ -22,6 +22,18 @@ import java.util.concurrent.Executors;
 public class TaskConfig implements SchedulingConfigurer {
     private int maxAddressCount;
     private int maxBatchSize;
+    private int nodeOptBatchSize = 1000;
+    private int nodeOptConcurrency = 4;
+    private int nodeOptMaxBatchCount = 100;
+    private double holderBalanceVerifyRate = 0.05;
+    private int keyBaseConcurrency = 4;
+    private int keyBaseTimeout = 5000;
+    private int keyBaseTtl = 3600;
+    private int keyBaseNegativeTtl = 600;
+    private int tokenQtyBatchSize = 500;
+    private int tokenQtyMaxBatchSize = 20000;
+    private int tokenQtyMaxSeconds = 240;
+    private int proposalTallyRefreshBlocks = 250;
     @Override
     public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
         taskRegistrar.setScheduler(Executors.newScheduledThreadPool(3));
@@ -0,0 +1,160 @@
+package com.platon.browser.service;
+
+import com.platon.browser.bean.KeyBaseProfile;
+import com.platon.browser.bean.keybase.KeyBaseUserInfo;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.config.TaskConfig;
+import com.platon.browser.dao.custommapper.CustomKeyBaseProfileMapper;
+import com.platon.browser.dao.custommapper.StakeBusinessMapper;
+import com.platon.browser.dao.entity.Node;
+import com.platon.browser.utils.HttpUtil;
+import com.platon.browser.utils.KeyBaseAnalysis;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 节点信息补充
+ * 1、KeyBase用户信息缓存在数据库中，有效期内不再请求，未查到的用户也缓存
+ * 2、缓存过期或未缓存的用户并发请求，并发数及超时时间可配置
+ * 3、请求失败时沿用旧的缓存
+ * 4、节点更新在单独的短事务中批量执行
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Service
+public class NodeEnrichService {
+
+    @Resource
+    private BlockChainConfig chainConfig;
+
+    @Resource
+    private TaskConfig taskConfig;
+
+    @Resource
+    private CustomKeyBaseProfileMapper customKeyBaseProfileMapper;
+
+    @Resource
+    private StakeBusinessMapper stakeBusinessMapper;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, taskConfig.getKeyBaseConcurrency()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 批量获取KeyBase用户信息
+     *
+     * @param externalIds KeyBase id
+     * @return java.util.Map<java.lang.String, com.platon.browser.bean.KeyBaseProfile> key:KeyBase id，请求失败且没有缓存的不返回
+     * @date 2026/10/19
+     */
+    public Map<String, KeyBaseProfile> getKeyBaseProfiles(Collection<String> externalIds) {
+        Map<String, KeyBaseProfile> profiles = new HashMap<>();
+        Set<String> ids = new LinkedHashSet<>(externalIds);
+        if (ids.isEmpty()) {
+            return profiles;
+        }
+        for (KeyBaseProfile profile : customKeyBaseProfileMapper.selectByExternalIds(ids)) {
+            profiles.put(profile.getExternalId(), profile);
+        }
+        // 缓存过期或未缓存的并发请求KeyBase
+        long now = System.currentTimeMillis();
+        Map<String, CompletableFuture<KeyBaseProfile>> futures = new LinkedHashMap<>();
+        for (String id : ids) {
+            KeyBaseProfile cached = profiles.get(id);
+            if (cached == null || isExpired(cached, now)) {
+                futures.put(id, CompletableFuture.supplyAsync(() -> fetch(id), executor));
+            }
+        }
+        List<KeyBaseProfile> fetched = new ArrayList<>();
+        futures.forEach((id, future) -> {
+            KeyBaseProfile profile = future.join();
+            if (profile != null) {
+                profiles.put(id, profile);
+                fetched.add(profile);
+            } else if (!profiles.containsKey(id)) {
+                // 请求失败且没有缓存，按未查到缓存，避免反复请求
+                KeyBaseProfile notFound = new KeyBaseProfile();
+                notFound.setExternalId(id);
+                notFound.setFound(false);
+                notFound.setFetchTime(new Date());
+                fetched.add(notFound);
+            }
+        });
+        if (!fetched.isEmpty()) {
+            customKeyBaseProfileMapper.batchInsertOrUpdate(fetched);
+        }
+        log.debug("KeyBase用户信息共[{}]个，请求[{}]个", ids.size(), futures.size());
+        return profiles;
+    }
+
+    /**
+     * 批量更新节点
+     *
+     * @param nodeList 节点
+     * @return void
+     * @date 2026/10/19
+     */
+    @Transactional(rollbackFor = {Exception.class, Error.class})
+    public void updateNodes(List<Node> nodeList) {
+        stakeBusinessMapper.updateNodeForTask(nodeList);
+    }
+
+    private boolean isExpired(KeyBaseProfile profile, long now) {
+        int ttl = Boolean.TRUE.equals(profile.getFound()) ? taskConfig.getKeyBaseTtl() : taskConfig.getKeyBaseNegativeTtl();
+        return profile.getFetchTime() == null || now - profile.getFetchTime().getTime() > ttl * 1000L;
+    }
+
+    /**
+     * 请求KeyBase
+     *
+     * @param externalId KeyBase id
+     * @return com.platon.browser.bean.KeyBaseProfile 请求失败时返回null
+     * @date 2026/10/19
+     */
+    private KeyBaseProfile fetch(String externalId) {
+        String url = chainConfig.getKeyBase().concat(chainConfig.getKeyBaseApi()).concat(externalId);
+        KeyBaseProfile profile = new KeyBaseProfile();
+        profile.setExternalId(externalId);
+        profile.setFetchTime(new Date());
+        try {
+            KeyBaseUserInfo keyBaseUser = HttpUtil.get(url, KeyBaseUserInfo.class, taskConfig.getKeyBaseTimeout());
+            String userName = keyBaseUser == null ? null : KeyBaseAnalysis.getKeyBaseUseName(keyBaseUser);
+            String icon = keyBaseUser == null ? null : KeyBaseAnalysis.getKeyBaseIcon(keyBaseUser);
+            profile.setUserName(userName);
+            profile.setIcon(icon);
+            profile.setFound(StringUtils.isNotBlank(userName) || StringUtils.isNotBlank(icon));
+            return profile;
+        } catch (Exception e) {
+            log.error("get keybase error:key={}", externalId, e);
+            return null;
+        }
+    }
+
+}
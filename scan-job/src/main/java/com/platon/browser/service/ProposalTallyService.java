@@ -0,0 +1,234 @@
+package com.platon.browser.service;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjectUtil;
+import com.platon.browser.bean.CustomProposal;
+import com.platon.browser.bean.ProposalParticipantStat;
+import com.platon.browser.config.TaskConfig;
+import com.platon.browser.dao.custommapper.CustomProposalMapper;
+import com.platon.browser.dao.entity.NetworkStat;
+import com.platon.browser.dao.entity.Proposal;
+import com.platon.browser.dao.entity.ProposalExample;
+import com.platon.browser.dao.mapper.NetworkStatMapper;
+import com.platon.browser.dao.mapper.ProposalMapper;
+import com.platon.browser.service.proposal.ProposalService;
+import com.platon.browser.utils.TaskUtil;
+import com.platon.contracts.ppos.dto.resp.TallyResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 提案计票
+ * 记录每个提案上次计票时的投票数和块高，只有以下情况才请求链上：
+ * 1、任务启动后首次出现的提案
+ * 2、有新的投票，agent入库投票时会累加提案的yeas、nays、abstentions
+ * 3、投票中的提案到达投票截止块高，或对应的取消提案已通过
+ * 4、预升级、已通过的提案到达生效块高
+ * 5、投票中的提案距离上次计票超过指定块数，用于刷新累计验证人数
+ *
+ * @date 2026/10/19
+ */
+@Slf4j
+@Service
+public class ProposalTallyService {
+
+    @Resource
+    private TaskConfig taskConfig;
+
+    @Resource
+    private ProposalMapper proposalMapper;
+
+    @Resource
+    private CustomProposalMapper customProposalMapper;
+
+    @Resource
+    private ProposalService proposalService;
+
+    @Resource
+    private NetworkStatMapper networkStatMapper;
+
+    /**
+     * 提案上次计票的状态，key:提案hash
+     */
+    private final Map<String, TallyState> tallyStates = new ConcurrentHashMap<>();
+
+    /**
+     * 对到期的提案计票
+     *
+     * @return java.util.List<com.platon.browser.dao.entity.Proposal> 有变更的提案
+     * @date 2026/10/19
+     */
+    public List<Proposal> tally() {
+        //针对提案信息只需要更新状态为
+        //1.投票中
+        //2.预升级
+        //3.已通过
+        ProposalExample proposalExample = new ProposalExample();
+        proposalExample.createCriteria()
+                       .andStatusIn(Arrays.asList(CustomProposal.StatusEnum.VOTING.getCode(),
+                                                  CustomProposal.StatusEnum.PRE_UPGRADE.getCode(),
+                                                  CustomProposal.StatusEnum.PASS.getCode()));
+        List<Proposal> proposals = proposalMapper.selectByExample(proposalExample);
+        // 已不在上述状态的提案无需再记录
+        Set<String> hashes = proposals.stream().map(Proposal::getHash).collect(Collectors.toSet());
+        tallyStates.keySet().retainAll(hashes);
+        if (proposals.isEmpty()) {
+            return new ArrayList<>();
+        }
+        NetworkStat networkStat = networkStatMapper.selectByExample(null).get(0);
+        long curNumber = networkStat.getCurNumber();
+        Set<String> canceledHashes = getCanceledHashes(proposals);
+        List<Proposal> dueList = proposals.stream().filter(p -> isDue(p, curNumber, canceledHashes)).collect(Collectors.toList());
+        List<Proposal> changedList = new ArrayList<>();
+        for (Proposal proposal : dueList) {
+            try {
+                boolean changed = false;
+                //发送rpc请求查询提案结果
+                ProposalParticipantStat pps = proposalService.getProposalParticipantStat(proposal.getHash(), networkStat.getCurBlockHash());
+                //设置参与人数
+                if (pps.getVoterCount() != null && !pps.getVoterCount().equals(proposal.getAccuVerifiers())) {
+                    TaskUtil.console("当前块高[{}],提案结束块高[{}],提案投票[{}]的验证人总数[{}]->[{}]更新",
+                                     curNumber,
+                                     proposal.getEndVotingBlock(),
+                                     proposal.getHash(),
+                                     proposal.getAccuVerifiers(),
+                                     pps.getVoterCount());
+                    proposal.setAccuVerifiers(pps.getVoterCount());
+                    changed = true;
+                }
+                /**
+                 * 当同步区块号小于结束区块且相应的取消提案未成功时候则跳过更新状态，防止追块时候提案提前结束造成数据错误
+                 */
+                if (curNumber >= proposal.getEndVotingBlock() || canceledHashes.contains(proposal.getHash())) {
+                    TallyResult tallyResult = proposalService.getTallyResult(proposal.getHash());
+                    if (tallyResult != null) {
+                        //设置状态
+                        int status = tallyResult.getStatus();
+                        if (status != proposal.getStatus()) {
+                            TaskUtil.console("提案投票[{}]状态[{}]->[{}]更新", proposal.getHash(), proposal.getStatus(), status);
+                            proposal.setStatus(status);
+                            changed = true;
+                        }
+                    }
+                }
+                if (changed) {
+                    changedList.add(proposal);
+                }
+                tallyStates.put(proposal.getHash(), new TallyState(getVoteCount(proposal), curNumber));
+            } catch (Exception e) {
+                // 计票失败的提案不记录状态，下次重新计票
+                TaskUtil.console("提案投票信息[{}]更新出错:{}", proposal.getHash(), e.getMessage());
+                log.error("提案投票信息更新出错", e);
+            }
+        }
+        TaskUtil.console("当前块高[{}]，待更新提案[{}]个，计票[{}]个，有变更[{}]个", curNumber, proposals.size(), dueList.size(), changedList.size());
+        return changedList;
+    }
+
+    /**
+     * 批量更新提案的累计验证人数和状态
+     *
+     * @param proposals 有变更的提案
+     * @return void
+     * @date 2026/10/19
+     */
+    @Transactional(rollbackFor = {Exception.class, Error.class})
+    public void updateProposals(List<Proposal> proposals) {
+        if (CollUtil.isNotEmpty(proposals)) {
+            customProposalMapper.updateProposalInfoList(proposals);
+        }
+    }
+
+    /**
+     * 清空计票状态，数据库更新失败时调用，下次全部重新计票
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void reset() {
+        tallyStates.clear();
+    }
+
+    /**
+     * 查询已通过的取消提案对应的提案
+     *
+     * @param proposals 提案
+     * @return java.util.Set<java.lang.String> 被取消的提案hash
+     * @date 2026/10/19
+     */
+    private Set<String> getCanceledHashes(List<Proposal> proposals) {
+        List<String> votingHashes = proposals.stream()
+                                             .filter(p -> p.getStatus() == CustomProposal.StatusEnum.VOTING.getCode())
+                                             .map(Proposal::getHash)
+                                             .collect(Collectors.toList());
+        if (votingHashes.isEmpty()) {
+            return new HashSet<>();
+        }
+        ProposalExample proposalExample = new ProposalExample();
+        proposalExample.createCriteria()
+                       .andTypeEqualTo(CustomProposal.TypeEnum.CANCEL.getCode())
+                       .andStatusEqualTo(CustomProposal.StatusEnum.PASS.getCode())
+                       .andCanceledPipIdIn(votingHashes);
+        return proposalMapper.selectByExample(proposalExample).stream().map(Proposal::getCanceledPipId).collect(Collectors.toSet());
+    }
+
+    private boolean isDue(Proposal proposal, long curNumber, Set<String> canceledHashes) {
+        TallyState state = tallyStates.get(proposal.getHash());
+        if (state == null || state.getVoteCount() != getVoteCount(proposal)) {
+            return true;
+        }
+        if (proposal.getStatus() == CustomProposal.StatusEnum.VOTING.getCode()) {
+            // 投票截止后仍为投票中，需计票直到状态变更
+            return curNumber >= proposal.getEndVotingBlock()
+                    || canceledHashes.contains(proposal.getHash())
+                    || curNumber - state.getTallyBlock() >= taskConfig.getProposalTallyRefreshBlocks();
+        }
+        if (proposal.getStatus() == CustomProposal.StatusEnum.PRE_UPGRADE.getCode()) {
+            // 到达生效块高后仍为预升级，需计票直到状态变更
+            return proposal.getActiveBlock() != null && curNumber >= proposal.getActiveBlock();
+        }
+        // 已通过的提案只在跨过生效块高时计票一次
+        return proposal.getActiveBlock() != null && curNumber >= proposal.getActiveBlock() && state.getTallyBlock() < proposal.getActiveBlock();
+    }
+
+    private long getVoteCount(Proposal proposal) {
+        return ObjectUtil.defaultIfNull(proposal.getYeas(), 0L) + ObjectUtil.defaultIfNull(proposal.getNays(), 0L)
+                + ObjectUtil.defaultIfNull(proposal.getAbstentions(), 0L);
+    }
+
+    /**
+     * 提案上次计票的状态
+     */
+    private static class TallyState {
+
+        private final long voteCount;
+
+        private final long tallyBlock;
+
+        TallyState(long voteCount, long tallyBlock) {
+            this.voteCount = voteCount;
+            this.tallyBlock = tallyBlock;
+        }
+
+        long getVoteCount() {
+            return voteCount;
+        }
+
+        long getTallyBlock() {
+            return tallyBlock;
+        }
+
+    }
+
+}
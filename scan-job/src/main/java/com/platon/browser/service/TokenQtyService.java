@@ -0,0 +1,61 @@
+package com.platon.browser.service;
+
+import cn.hutool.core.collection.CollUtil;
+import com.platon.browser.bean.AddressErcQty;
+import com.platon.browser.bean.TokenQty;
+import com.platon.browser.dao.custommapper.CustomAddressMapper;
+import com.platon.browser.dao.custommapper.CustomTokenMapper;
+import com.platon.browser.dao.entity.PointLog;
+import com.platon.browser.dao.mapper.PointLogMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * erc交易数增量更新
+ * 交易数增量和erc20、erc721、erc1155三个断点在同一个短事务中提交，三个断点共同组成合并游标
+ *
+ * @date 2026/10/19
+ */
+@Service
+public class TokenQtyService {
+
+    /**
+     * 单条语句最多关联的行数
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    @Resource
+    private CustomTokenMapper customTokenMapper;
+
+    @Resource
+    private CustomAddressMapper customAddressMapper;
+
+    @Resource
+    private PointLogMapper pointLogMapper;
+
+    /**
+     * 累加交易数并推进断点
+     *
+     * @param tokenList   token交易数增量
+     * @param addressList 地址交易数增量
+     * @param pointLogs   有变化的断点
+     * @return void
+     * @date 2026/10/19
+     */
+    @Transactional(rollbackFor = {Exception.class, Error.class})
+    public void apply(List<TokenQty> tokenList, List<AddressErcQty> addressList, List<PointLog> pointLogs) {
+        for (List<TokenQty> chunk : CollUtil.split(tokenList, CHUNK_SIZE)) {
+            customTokenMapper.batchUpdateTokenQty(chunk);
+        }
+        for (List<AddressErcQty> chunk : CollUtil.split(addressList, CHUNK_SIZE)) {
+            customAddressMapper.batchUpdateAddressErcQty(chunk);
+        }
+        for (PointLog pointLog : pointLogs) {
+            pointLogMapper.updateByPrimaryKeySelective(pointLog);
+        }
+    }
+
+}
@@ -5,17 +5,20 @@ import cn.hutool.core.collection.ConcurrentHashSet;
 import cn.hutool.core.convert.Convert;
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONUtil;
 import com.github.pagehelper.Page;
 import com.platon.browser.bean.*;
 import com.platon.browser.bean.http.CustomHttpClient;
+import com.platon.browser.config.TaskConfig;
 import com.platon.browser.dao.custommapper.*;
 import com.platon.browser.dao.entity.*;
 import com.platon.browser.dao.mapper.*;
 import com.platon.browser.elasticsearch.dto.ErcTx;
 import com.platon.browser.enums.AddressTypeEnum;
 import com.platon.browser.enums.ErcTypeEnum;
+import com.platon.browser.service.erc.ErcBalanceRefreshService;
 import com.platon.browser.service.erc.ErcServiceImpl;
 import com.platon.browser.utils.AddressUtil;
 import com.platon.browser.utils.AppStatusUtil;
@@ -39,6 +42,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -86,9 +90,18 @@ public class ErcTokenUpdateTask {
     @Resource
     private ErcServiceImpl ercServiceImpl;
 
+    @Resource
+    private ErcBalanceRefreshService ercBalanceRefreshService;
+
     @Resource
     private PointLogMapper pointLogMapper;
 
+    @Resource
+    private NetworkStatMapper networkStatMapper;
+
+    @Resource
+    private TaskConfig taskConfig;
+
     @Resource
     private TxErc20BakMapper txErc20BakMapper;
 
@@ -266,6 +279,37 @@ public class ErcTokenUpdateTask {
         XxlJobHelper.log("全量更新token的总供应量成功");
     }
 
+    /**
+     * 拆分待更新余额的持有者
+     * 持有者余额由agent按转账事件记账，只有标记为余额轮询的非标准token需要查询链上余额，其余持有者按比例抽样核对账本
+     *
+     * @param holders 交易涉及的持有者
+     * @param contractOf 取合约地址
+     * @param pollingList 需要轮询链上余额的持有者
+     * @param verifyList 抽样核对账本的持有者
+     * @return void
+     * @date 2026/10/19
+     */
+    private <T> void splitHolders(List<T> holders, Function<T, String> contractOf, List<T> pollingList, List<T> verifyList) {
+        Set<String> pollingTokens = new HashSet<>(customTokenMapper.selectBalancePollingToken());
+        double verifyRate = taskConfig.getHolderBalanceVerifyRate();
+        holders.forEach(holder -> {
+            if (pollingTokens.contains(contractOf.apply(holder))) {
+                pollingList.add(holder);
+            } else if (RandomUtil.randomDouble() < verifyRate) {
+                verifyList.add(holder);
+            }
+        });
+    }
+
+    /**
+     * agent已入库的块高，余额账本以此块高为准核对
+     */
+    private long getLedgerBlockNumber() {
+        List<NetworkStat> networkStats = networkStatMapper.selectByExample(null);
+        return CollUtil.isEmpty(networkStats) ? 0L : networkStats.get(0).getCurNumber();
+    }
+
     /**
      * 更新erc20的token holder的余额
      */
@@ -283,7 +327,6 @@ public class ErcTokenUpdateTask {
             example.setOrderByClause("id asc limit " + pageSize);
             example.createCriteria().andIdGreaterThan(oldPosition);
             List<TxErc20Bak> list = txErc20BakMapper.selectByExample(example);
-            List<TokenHolder> updateParams = new ArrayList<>();
             TaskUtil.console("[erc20]当前页数为[{}]，断点为[{}]", pageSize, oldPosition);
             if (CollUtil.isEmpty(list)) {
                 TaskUtil.console("[erc20]该断点[{}]未找到交易", oldPosition);
@@ -323,12 +366,12 @@ public class ErcTokenUpdateTask {
                         tokenHolderKeyList.add(holder);
                     });
                 });
-                List<TokenHolder> tokenHolderList = ercServiceImpl.batchBalanceOfOwner(tokenHolderKeyList);
-                updateParams.addAll(tokenHolderList.stream().filter(item -> item.getBalance() != null).collect(Collectors.toList()));
-            }
-            if (CollUtil.isNotEmpty(updateParams)) {
-                customTokenHolderMapper.batchUpdate(updateParams);
-                TaskUtil.console("更新[erc20] token holder的余额{}", JSONUtil.toJsonStr(updateParams));
+                List<TokenHolder> pollingList = new ArrayList<>();
+                List<TokenHolder> verifyList = new ArrayList<>();
+                splitHolders(tokenHolderKeyList, TokenHolder::getTokenAddress, pollingList, verifyList);
+                int updated = ercBalanceRefreshService.refreshTokenHolderBalance(pollingList);
+                int mismatch = verifyList.isEmpty() ? 0 : ercBalanceRefreshService.verifyTokenHolderBalance(verifyList, getLedgerBlockNumber());
+                TaskUtil.console("更新[erc20] token holder的余额，轮询[{}]条，更新[{}]条，抽样核对[{}]条，不一致[{}]条", pollingList.size(), updated, verifyList.size(), mismatch);
                 XxlJobHelper.handleSuccess("更新[erc20] token holder的余额成功");
             }
             String newPosition = CollUtil.getLast(list).getId().toString();
@@ -357,7 +400,6 @@ public class ErcTokenUpdateTask {
             example.setOrderByClause("id asc limit " + pageSize);
             example.createCriteria().andIdGreaterThan(oldPosition);
             List<TxErc721Bak> list = txErc721BakMapper.selectByExample(example);
-            List<TokenHolder> updateParams = new ArrayList<>();
             TaskUtil.console("[erc721]当前页数为[{}]，断点为[{}]", pageSize, oldPosition);
             if (CollUtil.isEmpty(list)) {
                 TaskUtil.console("[erc721]该断点[{}]未找到交易", oldPosition);
@@ -397,12 +439,12 @@ public class ErcTokenUpdateTask {
                         tokenHolderKeyList.add(holder);
                     });
                 });
-                List<TokenHolder> tokenHolderList = ercServiceImpl.batchBalanceOfOwner(tokenHolderKeyList);
-                updateParams.addAll(tokenHolderList.stream().filter(item -> item.getBalance() != null).collect(Collectors.toList()));
-            }
-            if (CollUtil.isNotEmpty(updateParams)) {
-                customTokenHolderMapper.batchUpdate(updateParams);
-                TaskUtil.console("更新[erc721] token holder的余额{}", JSONUtil.toJsonStr(updateParams));
+                List<TokenHolder> pollingList = new ArrayList<>();
+                List<TokenHolder> verifyList = new ArrayList<>();
+                splitHolders(tokenHolderKeyList, TokenHolder::getTokenAddress, pollingList, verifyList);
+                int updated = ercBalanceRefreshService.refreshTokenHolderBalance(pollingList);
+                int mismatch = verifyList.isEmpty() ? 0 : ercBalanceRefreshService.verifyTokenHolderBalance(verifyList, getLedgerBlockNumber());
+                TaskUtil.console("更新[erc721] token holder的余额，轮询[{}]条，更新[{}]条，抽样核对[{}]条，不一致[{}]条", pollingList.size(), updated, verifyList.size(), mismatch);
                 XxlJobHelper.handleSuccess("更新[erc721] token holder的余额成功");
             }
             String newPosition = CollUtil.getLast(list).getId().toString();
@@ -431,7 +473,6 @@ public class ErcTokenUpdateTask {
             example.setOrderByClause("id asc limit " + pageSize);
             example.createCriteria().andIdGreaterThan(oldPosition);
             List<TxErc1155Bak> list = txErc1155BakMapper.selectByExample(example);
-            List<Token1155Holder> updateParams = new ArrayList<>();
             TaskUtil.console("[erc1155]当前页数为[{}]，断点为[{}]", pageSize, oldPosition);
             if (CollUtil.isEmpty(list)) {
                 TaskUtil.console("[erc1155]该断点[{}]未找到交易", oldPosition);
@@ -463,12 +504,12 @@ public class ErcTokenUpdateTask {
                         }
                     }
                 }
-                List<Token1155Holder> tokenHolderList = ercServiceImpl.batchBalanceOfOwnerAndId(tokenHolderKeyList);
-                updateParams.addAll(tokenHolderList.stream().filter(item -> item.getBalance() != null).collect(Collectors.toList()));
-            }
-            if (CollUtil.isNotEmpty(updateParams)) {
-                customToken1155HolderMapper.batchUpdate(updateParams);
-                TaskUtil.console("更新[erc1155] token holder的余额{}", JSONUtil.toJsonStr(updateParams));
+                List<Token1155Holder> pollingList = new ArrayList<>();
+                List<Token1155Holder> verifyList = new ArrayList<>();
+                splitHolders(tokenHolderKeyList, Token1155Holder::getTokenAddress, pollingList, verifyList);
+                int updated = ercBalanceRefreshService.refreshToken1155HolderBalance(pollingList);
+                int mismatch = verifyList.isEmpty() ? 0 : ercBalanceRefreshService.verifyToken1155HolderBalance(verifyList, getLedgerBlockNumber());
+                TaskUtil.console("更新[erc1155] token holder的余额，轮询[{}]条，更新[{}]条，抽样核对[{}]条，不一致[{}]条", pollingList.size(), updated, verifyList.size(), mismatch);
                 XxlJobHelper.handleSuccess("更新[erc1155] token holder的余额成功");
             }
             String newPosition = CollUtil.getLast(list).getId().toString();
@@ -2,6 +2,7 @@ package com.platon.browser.task;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.convert.Convert;
+import com.platon.browser.config.TaskConfig;
 import com.platon.browser.dao.entity.NOptBak;
 import com.platon.browser.dao.entity.NOptBakExample;
 import com.platon.browser.dao.entity.PointLog;
@@ -12,12 +13,18 @@ import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -32,33 +39,85 @@ public class NodeOptTask {
     @Resource
     private EsNodeOptService esNodeOptService;
 
+    @Resource
+    private TaskConfig taskConfig;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, taskConfig.getNodeOptConcurrency()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
     /**
      * 节点操作备份表迁移到ES任务
      * 每10分钟执行一次
+     * 按id游标分页预读，多个批次并行写入ES，断点只推进到已连续确认写入的最大id
      *
      * @param :
      * @return: void
      * @date: 2021/12/1
      */
     @XxlJob("nodeOptMoveToESJobHandler")
-    @Transactional(rollbackFor = {Exception.class, Error.class})
     public void nodeOptMoveToES() throws Exception {
         try {
-            int batchSize = Convert.toInt(XxlJobHelper.getJobParam(), 10);
+            int batchSize = Convert.toInt(XxlJobHelper.getJobParam(), taskConfig.getNodeOptBatchSize());
+            int concurrency = Math.max(1, taskConfig.getNodeOptConcurrency());
+            int maxBatchCount = Math.max(1, taskConfig.getNodeOptMaxBatchCount());
             PointLog pointLog = pointLogMapper.selectByPrimaryKey(1);
             long oldPosition = Convert.toLong(pointLog.getPosition());
             XxlJobHelper.log("当前页数为[{}]，断点为[{}]", batchSize, oldPosition);
-            NOptBakExample nOptBakExample = new NOptBakExample();
-            nOptBakExample.setOrderByClause("id asc limit " + batchSize);
-            nOptBakExample.createCriteria().andIdGreaterThan(oldPosition);
-            List<NOptBak> nOptBakList = nOptBakMapper.selectByExample(nOptBakExample);
-            if (CollUtil.isNotEmpty(nOptBakList)) {
-                Set<NOptBak> nodeOpts = new HashSet<>(nOptBakList);
-                esNodeOptService.save(nodeOpts);
-                NOptBak lastNOptBak = CollUtil.getLast(nOptBakList);
-                pointLog.setPosition(lastNOptBak.getId().toString());
-                pointLogMapper.updateByPrimaryKeySelective(pointLog);
-                XxlJobHelper.log("节点操作备份表迁移到ES成功，断点[{}]->[{}]", oldPosition, pointLog.getPosition());
+            // 已读取的最大id
+            long readPosition = oldPosition;
+            // 已连续确认写入ES的最大id
+            long ackPosition = oldPosition;
+            int batchCount = 0;
+            boolean hasMore = true;
+            Deque<MoveBatch> inFlight = new ArrayDeque<>();
+            try {
+                while (hasMore || !inFlight.isEmpty()) {
+                    // 在途批次未满时继续预读下一页
+                    while (hasMore && inFlight.size() < concurrency) {
+                        List<NOptBak> nOptBakList = batchCount < maxBatchCount ? selectBatch(readPosition, batchSize) : null;
+                        if (CollUtil.isEmpty(nOptBakList)) {
+                            hasMore = false;
+                            break;
+                        }
+                        readPosition = CollUtil.getLast(nOptBakList).getId();
+                        inFlight.add(new MoveBatch(readPosition, executor.submit(() -> moveBatch(nOptBakList))));
+                        batchCount++;
+                        if (nOptBakList.size() < batchSize) {
+                            hasMore = false;
+                        }
+                    }
+                    if (inFlight.isEmpty()) {
+                        break;
+                    }
+                    // 按读取顺序确认批次
+                    MoveBatch moveBatch = inFlight.poll();
+                    long ackId = moveBatch.getAckId().get();
+                    if (ackId > ackPosition) {
+                        ackPosition = ackId;
+                        updatePosition(pointLog, ackPosition);
+                    }
+                    if (ackId != moveBatch.getLastId()) {
+                        // 批次中存在写入失败的记录，断点不能越过该记录，剩余批次留待下次任务重新迁移
+                        XxlJobHelper.log("节点操作备份表迁移到ES存在失败记录，断点停留在[{}]", ackPosition);
+                        hasMore = false;
+                        drain(inFlight);
+                    }
+                }
+            } catch (Exception e) {
+                drain(inFlight);
+                throw e;
+            }
+            if (ackPosition > oldPosition) {
+                XxlJobHelper.log("节点操作备份表迁移到ES成功，批次数[{}]，断点[{}]->[{}]", batchCount, oldPosition, ackPosition);
             } else {
                 XxlJobHelper.log("当前断点[{}]未找到节点备份信息", oldPosition);
             }
@@ -69,4 +128,83 @@ public class NodeOptTask {
         }
     }
 
+    /**
+     * 按id游标读取下一批记录
+     *
+     * @param position 游标
+     * @param batchSize 批次大小
+     * @return java.util.List<com.platon.browser.dao.entity.NOptBak>
+     * @date 2026/10/19
+     */
+    private List<NOptBak> selectBatch(long position, int batchSize) {
+        NOptBakExample nOptBakExample = new NOptBakExample();
+        nOptBakExample.setOrderByClause("id asc limit " + batchSize);
+        nOptBakExample.createCriteria().andIdGreaterThan(position);
+        return nOptBakMapper.selectByExample(nOptBakExample);
+    }
+
+    /**
+     * 批量写入ES，写入失败的记录单独重试一次
+     *
+     * @param nOptBakList 按id升序排列的记录
+     * @return long 该批次中连续写入成功的最大id，第一条即失败时返回-1
+     * @date 2026/10/19
+     */
+    private long moveBatch(List<NOptBak> nOptBakList) throws Exception {
+        Set<Long> failedIds = esNodeOptService.bulkSave(nOptBakList);
+        if (!failedIds.isEmpty()) {
+            List<NOptBak> retryList = nOptBakList.stream().filter(n -> failedIds.contains(n.getId())).collect(Collectors.toList());
+            Set<Long> retryFailedIds = esNodeOptService.bulkSave(retryList);
+            failedIds.retainAll(retryFailedIds);
+        }
+        long ackId = -1;
+        for (NOptBak nOptBak : nOptBakList) {
+            if (failedIds.contains(nOptBak.getId())) {
+                log.error("节点操作记录[{}]写入ES失败", nOptBak.getId());
+                break;
+            }
+            ackId = nOptBak.getId();
+        }
+        return ackId;
+    }
+
+    private void updatePosition(PointLog pointLog, long position) {
+        pointLog.setPosition(String.valueOf(position));
+        pointLogMapper.updateByPrimaryKeySelective(pointLog);
+    }
+
+    /**
+     * 等待在途批次结束，结果不再推进断点
+     */
+    private void drain(Deque<MoveBatch> inFlight) {
+        while (!inFlight.isEmpty()) {
+            try {
+                inFlight.poll().getAckId().get();
+            } catch (Exception e) {
+                log.warn("节点操作备份表迁移到ES在途批次异常:{}", e.getMessage());
+            }
+        }
+    }
+
+    private static class MoveBatch {
+
+        private final long lastId;
+
+        private final Future<Long> ackId;
+
+        MoveBatch(long lastId, Future<Long> ackId) {
+            this.lastId = lastId;
+            this.ackId = ackId;
+        }
+
+        long getLastId() {
+            return lastId;
+        }
+
+        Future<Long> getAckId() {
+            return ackId;
+        }
+
+    }
+
 }
@@ -2,40 +2,40 @@ package com.platon.browser.task;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.convert.Convert;
-import cn.hutool.json.JSONUtil;
+import cn.hutool.core.util.StrUtil;
 import com.platon.browser.bean.AddressErcQty;
 import com.platon.browser.bean.TokenQty;
-import com.platon.browser.dao.custommapper.CustomAddressMapper;
-import com.platon.browser.dao.custommapper.CustomTokenMapper;
+import com.platon.browser.config.TaskConfig;
 import com.platon.browser.dao.entity.*;
 import com.platon.browser.dao.mapper.PointLogMapper;
 import com.platon.browser.dao.mapper.TxErc1155BakMapper;
 import com.platon.browser.dao.mapper.TxErc20BakMapper;
 import com.platon.browser.dao.mapper.TxErc721BakMapper;
 import com.platon.browser.elasticsearch.dto.ErcTx;
+import com.platon.browser.enums.ErcTypeEnum;
+import com.platon.browser.service.TokenQtyService;
 import com.platon.browser.utils.AddressUtil;
 import com.platon.browser.utils.TaskUtil;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class UpdateTokenQtyTask {
 
     @Resource
-    private CustomTokenMapper customTokenMapper;
+    private TaskConfig taskConfig;
 
     @Resource
-    private CustomAddressMapper customAddressMapper;
+    private TokenQtyService tokenQtyService;
 
     @Resource
     private PointLogMapper pointLogMapper;
@@ -52,171 +52,190 @@ public class UpdateTokenQtyTask {
     /**
      * 更新erc交易数
      * 每5分钟执行一次
+     * 1、每一轮同时读取erc20、erc721、erc1155三张备份表，交易数增量和三个断点在同一个短事务中提交
+     * 2、有积压时批次大小逐轮翻倍，直到没有积压或达到单次执行的时间上限
+     * 3、执行结束后估算剩余积压及追平时间
      *
      * @param :
      * @return: void
      * @date: 2021/12/6
      */
     @XxlJob("updateTokenQtyJobHandler")
-    @Transactional(rollbackFor = {Exception.class, Error.class})
     public void updateTokenQty() throws Exception {
         try {
-            int pageSize = Convert.toInt(XxlJobHelper.getJobParam(), 500);
-            Map<String, TokenQty> tokenMap = new HashMap<>();
-            Map<String, AddressErcQty> addressMap = new HashMap<>();
+            int batchSize = Convert.toInt(XxlJobHelper.getJobParam(), taskConfig.getTokenQtyBatchSize());
             PointLog erc20PointLog = pointLogMapper.selectByPrimaryKey(3);
-            long oldErc20Position = Convert.toLong(erc20PointLog.getPosition());
-            TaskUtil.console("当前页数为[{}]，erc20断点为[{}]", pageSize, oldErc20Position);
-            TxErc20BakExample txErc20BakExample = new TxErc20BakExample();
-            txErc20BakExample.setOrderByClause("id asc limit " + pageSize);
-            txErc20BakExample.createCriteria().andIdGreaterThan(oldErc20Position);
-            List<TxErc20Bak> erc20List = txErc20BakMapper.selectByExample(txErc20BakExample);
-            if (CollUtil.isNotEmpty(erc20List)) {
-                TaskUtil.console("找到erc20交易[{}]条", erc20List.size());
-                Map<String, List<ErcTx>> erc20Map = erc20List.stream().collect(Collectors.groupingBy(ErcTx::getContract));
-                //累计token的erc20交易数
-                for (Map.Entry<String, List<ErcTx>> entry : erc20Map.entrySet()) {
-                    TokenQty tokenQty = getTokenQty(tokenMap, entry.getKey());
-                    tokenQty.setErc20TxQty(entry.getValue().size());
-                }
-                //累计地址的erc20交易数
-                for (ErcTx ercTx : erc20List) {
-                    AddressErcQty fromAddressErcQty = getAddressErcQty(addressMap, ercTx.getFrom());
-                    AddressErcQty toAddressErcQty = getAddressErcQty(addressMap, ercTx.getTo());
-                    if (ercTx.getFrom().equalsIgnoreCase(ercTx.getTo()) && !AddressUtil.isAddrZero(ercTx.getFrom())) {
-                        fromAddressErcQty.setErc20TxQty(fromAddressErcQty.getErc20TxQty() + 1);
-                        TaskUtil.console("该erc20交易[{}]的from[{}]和to[{}]地址一致，erc交易数只算一次", ercTx.getHash(), ercTx.getFrom(), ercTx.getTo());
-                    } else {
-                        if (!AddressUtil.isAddrZero(fromAddressErcQty.getAddress())) {
-                            fromAddressErcQty.setErc20TxQty(fromAddressErcQty.getErc20TxQty() + 1);
-                        } else {
-                            TaskUtil.console("该erc20交易[{}]下，零地址[{}]不统计交易数", ercTx.getHash(), fromAddressErcQty.getAddress());
-                        }
-                        if (!AddressUtil.isAddrZero(toAddressErcQty.getAddress())) {
-                            toAddressErcQty.setErc20TxQty(toAddressErcQty.getErc20TxQty() + 1);
-                        } else {
-                            TaskUtil.console("该erc20交易[{}]下，零地址[{}]不统计交易数", ercTx.getHash(), toAddressErcQty.getAddress());
-                        }
-                    }
-                }
-                //记录最大的seq
-                erc20PointLog.setPosition(CollUtil.getLast(erc20List).getId().toString());
-            } else {
-                TaskUtil.console("当前erc20断点[{}]未找到erc20交易", oldErc20Position);
-            }
             PointLog erc721PointLog = pointLogMapper.selectByPrimaryKey(4);
-            long oldErc721Position = Convert.toLong(erc721PointLog.getPosition());
-            TaskUtil.console("当前页码为[{}]，erc721断点为[{}]", pageSize, oldErc721Position);
-            TxErc721BakExample txErc721BakExample = new TxErc721BakExample();
-            txErc721BakExample.setOrderByClause("id asc limit " + pageSize);
-            txErc721BakExample.createCriteria().andIdGreaterThan(oldErc721Position);
-            List<TxErc721Bak> erc721List = txErc721BakMapper.selectByExample(txErc721BakExample);
-            if (CollUtil.isNotEmpty(erc721List)) {
-                TaskUtil.console("找到erc721交易[{}]条", erc721List.size());
-                Map<String, List<ErcTx>> erc721Map = erc721List.stream().collect(Collectors.groupingBy(ErcTx::getContract));
-                //累计token的erc721交易数
-                for (Map.Entry<String, List<ErcTx>> entry : erc721Map.entrySet()) {
-                    TokenQty tokenQty = getTokenQty(tokenMap, entry.getKey());
-                    tokenQty.setErc721TxQty(entry.getValue().size());
-                }
-                //累计地址的erc721交易数
-                for (ErcTx ercTx : erc721List) {
-                    AddressErcQty fromAddressErcQty = getAddressErcQty(addressMap, ercTx.getFrom());
-                    AddressErcQty toAddressErcQty = getAddressErcQty(addressMap, ercTx.getTo());
-                    if (ercTx.getFrom().equalsIgnoreCase(ercTx.getTo()) && !AddressUtil.isAddrZero(ercTx.getFrom())) {
-                        fromAddressErcQty.setErc721TxQty(fromAddressErcQty.getErc721TxQty() + 1);
-                        TaskUtil.console("该erc721交易[{}]的from[{}]和to[{}]地址一致，erc交易数只算一次", ercTx.getHash(), ercTx.getFrom(), ercTx.getTo());
-                    } else {
-                        if (!AddressUtil.isAddrZero(fromAddressErcQty.getAddress())) {
-                            fromAddressErcQty.setErc721TxQty(fromAddressErcQty.getErc721TxQty() + 1);
-                        } else {
-                            TaskUtil.console("该erc721交易[{}]下，零地址[{}]不统计交易数", ercTx.getHash(), fromAddressErcQty.getAddress());
-                        }
-                        if (!AddressUtil.isAddrZero(toAddressErcQty.getAddress())) {
-                            toAddressErcQty.setErc721TxQty(toAddressErcQty.getErc721TxQty() + 1);
-                        } else {
-                            TaskUtil.console("该erc721交易[{}]下，零地址[{}]不统计交易数", ercTx.getHash(), toAddressErcQty.getAddress());
-                        }
-                    }
-                }
-                //记录最大的seq
-                erc721PointLog.setPosition(CollUtil.getLast(erc721List).getId().toString());
-            } else {
-                TaskUtil.console("当前erc721断点[{}]未找到erc721交易", oldErc721Position);
-            }
-            // 1155
             PointLog erc1155PointLog = pointLogMapper.selectByPrimaryKey(10);
-            long oldErc1155Position = Convert.toLong(erc1155PointLog.getPosition());
-            TaskUtil.console("当前页码为[{}]，erc1155断点为[{}]", pageSize, oldErc1155Position);
-            TxErc1155BakExample txErc1155BakExample = new TxErc1155BakExample();
-            txErc1155BakExample.setOrderByClause("id");
-            txErc1155BakExample.createCriteria().andIdGreaterThan(oldErc1155Position).andIdLessThanOrEqualTo(oldErc1155Position + pageSize);
-            List<TxErc1155Bak> erc1155List = txErc1155BakMapper.selectByExample(txErc1155BakExample);
-            if (CollUtil.isNotEmpty(erc1155List)) {
-                TaskUtil.console("找到1155交易[{}]条", erc1155List.size());
-                Map<String, List<ErcTx>> erc1155Map = erc1155List.stream().collect(Collectors.groupingBy(ErcTx::getContract));
-                //累计token的erc1155交易数
-                for (Map.Entry<String, List<ErcTx>> entry : erc1155Map.entrySet()) {
-                    TokenQty tokenQty = getTokenQty(tokenMap, entry.getKey());
-                    tokenQty.setErc1155TxQty(entry.getValue().size());
-                }
-                //累计地址的erc1155交易数
-                for (ErcTx ercTx : erc1155List) {
-                    AddressErcQty fromAddressErcQty = getAddressErcQty(addressMap, ercTx.getFrom());
-                    AddressErcQty toAddressErcQty = getAddressErcQty(addressMap, ercTx.getTo());
-                    if (ercTx.getFrom().equalsIgnoreCase(ercTx.getTo()) && !AddressUtil.isAddrZero(ercTx.getFrom())) {
-                        fromAddressErcQty.setErc1155TxQty(fromAddressErcQty.getErc1155TxQty() + 1);
-                        TaskUtil.console("该erc1155交易[{}]的from[{}]和to[{}]地址一致，erc交易数只算一次", ercTx.getHash(), ercTx.getFrom(), ercTx.getTo());
-                    } else {
-                        if (!AddressUtil.isAddrZero(fromAddressErcQty.getAddress())) {
-                            fromAddressErcQty.setErc1155TxQty(fromAddressErcQty.getErc1155TxQty() + 1);
-                        } else {
-                            TaskUtil.console("该erc1155交易[{}]下，零地址[{}]不统计交易数", ercTx.getHash(), fromAddressErcQty.getAddress());
-                        }
-                        if (!AddressUtil.isAddrZero(toAddressErcQty.getAddress())) {
-                            toAddressErcQty.setErc1155TxQty(toAddressErcQty.getErc1155TxQty() + 1);
-                        } else {
-                            TaskUtil.console("该erc1155交易[{}]下，零地址[{}]不统计交易数", ercTx.getHash(), toAddressErcQty.getAddress());
-                        }
-                    }
+            TaskUtil.console("当前批次大小为[{}]，erc20断点为[{}]，erc721断点为[{}]，erc1155断点为[{}]",
+                             batchSize,
+                             erc20PointLog.getPosition(),
+                             erc721PointLog.getPosition(),
+                             erc1155PointLog.getPosition());
+            long startTime = System.currentTimeMillis();
+            long deadline = startTime + taskConfig.getTokenQtyMaxSeconds() * 1000L;
+            long txCount = 0;
+            int round = 0;
+            boolean backlog = true;
+            while (backlog && System.currentTimeMillis() < deadline) {
+                List<TxErc20Bak> erc20List = listErc20(Convert.toLong(erc20PointLog.getPosition()), batchSize);
+                List<TxErc721Bak> erc721List = listErc721(Convert.toLong(erc721PointLog.getPosition()), batchSize);
+                List<TxErc1155Bak> erc1155List = listErc1155(Convert.toLong(erc1155PointLog.getPosition()), batchSize);
+                Map<String, TokenQty> tokenMap = new HashMap<>();
+                Map<String, AddressErcQty> addressMap = new HashMap<>();
+                List<PointLog> pointLogs = new ArrayList<>();
+                accumulate(tokenMap, addressMap, erc20List, ErcTypeEnum.ERC20, erc20PointLog, pointLogs);
+                accumulate(tokenMap, addressMap, erc721List, ErcTypeEnum.ERC721, erc721PointLog, pointLogs);
+                accumulate(tokenMap, addressMap, erc1155List, ErcTypeEnum.ERC1155, erc1155PointLog, pointLogs);
+                if (pointLogs.isEmpty()) {
+                    break;
                 }
-                //记录最大的seq
-                erc1155PointLog.setPosition(CollUtil.getLast(erc1155List).getId().toString());
-            } else {
-                TaskUtil.console("当前erc1155断点[{}]未找到erc1155交易", oldErc1155Position);
-            }
-            if (CollUtil.isNotEmpty(tokenMap.values())) {
-                for (Map.Entry<String, TokenQty> entry : tokenMap.entrySet()) {
-                    entry.getValue().setTokenTxQty(entry.getValue().getErc20TxQty() + entry.getValue().getErc721TxQty() + entry.getValue().getErc1155TxQty());
+                tokenQtyService.apply(CollUtil.newArrayList(tokenMap.values()), CollUtil.newArrayList(addressMap.values()), pointLogs);
+                round++;
+                txCount += erc20List.size() + erc721List.size() + erc1155List.size();
+                TaskUtil.console("第[{}]轮更新erc交易数，批次大小为[{}]，erc20交易[{}]条，erc721交易[{}]条，erc1155交易[{}]条，涉及token[{}]个，地址[{}]个",
+                                 round,
+                                 batchSize,
+                                 erc20List.size(),
+                                 erc721List.size(),
+                                 erc1155List.size(),
+                                 tokenMap.size(),
+                                 addressMap.size());
+                backlog = erc20List.size() >= batchSize || erc721List.size() >= batchSize || erc1155List.size() >= batchSize;
+                if (backlog) {
+                    batchSize = Math.min(batchSize * 2, Math.max(batchSize, taskConfig.getTokenQtyMaxBatchSize()));
                 }
-                List<TokenQty> list = CollUtil.newArrayList(tokenMap.values());
-                customTokenMapper.batchUpdateTokenQty(list);
-                TaskUtil.console("更新token表的erc交易数，涉及的token数为[{}]，修改数据为{}", list.size(), JSONUtil.toJsonStr(list));
-            }
-            if (CollUtil.isNotEmpty(addressMap.values())) {
-                List<AddressErcQty> list = CollUtil.newArrayList(addressMap.values());
-                customAddressMapper.batchUpdateAddressErcQty(list);
-                TaskUtil.console("更新地址表的erc交易数，涉及的address数为[{}]，修改数据为{}", list.size(), JSONUtil.toJsonStr(list));
             }
-            if (CollUtil.isNotEmpty(erc20List)) {
-                pointLogMapper.updateByPrimaryKeySelective(erc20PointLog);
-                TaskUtil.console("更新erc交易数，erc20断点为[{}]->[{}]", oldErc20Position, erc20PointLog.getPosition());
-            }
-            if (CollUtil.isNotEmpty(erc721List)) {
-                pointLogMapper.updateByPrimaryKeySelective(erc721PointLog);
-                TaskUtil.console("更新erc交易数，erc721断点为[{}]->[{}]", oldErc721Position, erc721PointLog.getPosition());
-            }
-            if (CollUtil.isNotEmpty(erc1155List)) {
-                pointLogMapper.updateByPrimaryKeySelective(erc1155PointLog);
-                TaskUtil.console("更新erc交易数，erc1155断点为[{}]->[{}]", oldErc1155Position, erc1155PointLog.getPosition());
-            }
-            XxlJobHelper.handleSuccess("更新erc交易数成功");
+            TxErc20BakExample erc20LastExample = new TxErc20BakExample();
+            erc20LastExample.setOrderByClause("id desc limit 1");
+            TxErc721BakExample erc721LastExample = new TxErc721BakExample();
+            erc721LastExample.setOrderByClause("id desc limit 1");
+            TxErc1155BakExample erc1155LastExample = new TxErc1155BakExample();
+            erc1155LastExample.setOrderByClause("id desc limit 1");
+            long remaining = remaining(txErc20BakMapper.selectByExample(erc20LastExample), erc20PointLog)
+                    + remaining(txErc721BakMapper.selectByExample(erc721LastExample), erc721PointLog)
+                    + remaining(txErc1155BakMapper.selectByExample(erc1155LastExample), erc1155PointLog);
+            long costMillis = Math.max(1, System.currentTimeMillis() - startTime);
+            // 按本次吞吐量估算追平时间，本次没有处理交易时无法估算
+            String eta = remaining == 0 ? "0" : txCount == 0 ? "未知" : String.valueOf(remaining * costMillis / txCount / 1000);
+            String msg = StrUtil.format("更新erc交易数成功，共[{}]轮[{}]条交易，耗时[{}]ms，erc20断点为[{}]，erc721断点为[{}]，erc1155断点为[{}]，剩余约[{}]条，预计[{}]秒追平",
+                                        round,
+                                        txCount,
+                                        costMillis,
+                                        erc20PointLog.getPosition(),
+                                        erc721PointLog.getPosition(),
+                                        erc1155PointLog.getPosition(),
+                                        remaining,
+                                        eta);
+            TaskUtil.console(msg);
+            XxlJobHelper.handleSuccess(msg);
         } catch (Exception e) {
             log.error("更新erc交易数异常", e);
             throw e;
         }
     }
 
+    private List<TxErc20Bak> listErc20(long position, int batchSize) {
+        TxErc20BakExample example = new TxErc20BakExample();
+        example.setOrderByClause("id asc limit " + batchSize);
+        example.createCriteria().andIdGreaterThan(position);
+        return txErc20BakMapper.selectByExample(example);
+    }
+
+    private List<TxErc721Bak> listErc721(long position, int batchSize) {
+        TxErc721BakExample example = new TxErc721BakExample();
+        example.setOrderByClause("id asc limit " + batchSize);
+        example.createCriteria().andIdGreaterThan(position);
+        return txErc721BakMapper.selectByExample(example);
+    }
+
+    /**
+     * erc1155按条数分页，按id区间分页遇到id空洞时会停滞
+     */
+    private List<TxErc1155Bak> listErc1155(long position, int batchSize) {
+        TxErc1155BakExample example = new TxErc1155BakExample();
+        example.setOrderByClause("id asc limit " + batchSize);
+        example.createCriteria().andIdGreaterThan(position);
+        return txErc1155BakMapper.selectByExample(example);
+    }
+
+    /**
+     * 估算断点之后剩余的交易数
+     *
+     * @param lastList 最大id的交易
+     * @param pointLog 断点
+     * @return long
+     * @date 2026/10/19
+     */
+    private long remaining(List<? extends ErcTx> lastList, PointLog pointLog) {
+        if (CollUtil.isEmpty(lastList)) {
+            return 0;
+        }
+        return Math.max(0, lastList.get(0).getId() - Convert.toLong(pointLog.getPosition()));
+    }
+
+    /**
+     * 累计一批交易的交易数增量，并记录新的断点
+     *
+     * @param tokenMap   token交易数增量
+     * @param addressMap 地址交易数增量
+     * @param list       交易
+     * @param type       erc类型
+     * @param pointLog   断点
+     * @param pointLogs  有变化的断点
+     * @return void
+     * @date 2026/10/19
+     */
+    private void accumulate(Map<String, TokenQty> tokenMap, Map<String, AddressErcQty> addressMap, List<? extends ErcTx> list, ErcTypeEnum type, PointLog pointLog,
+                            List<PointLog> pointLogs) {
+        if (CollUtil.isEmpty(list)) {
+            return;
+        }
+        for (ErcTx ercTx : list) {
+            TokenQty tokenQty = getTokenQty(tokenMap, ercTx.getContract());
+            tokenQty.setTokenTxQty(tokenQty.getTokenTxQty() + 1);
+            //from和to地址一致时，erc交易数只算一次
+            if (ercTx.getFrom().equalsIgnoreCase(ercTx.getTo())) {
+                increaseAddressQty(addressMap, ercTx.getFrom(), type);
+            } else {
+                increaseAddressQty(addressMap, ercTx.getFrom(), type);
+                increaseAddressQty(addressMap, ercTx.getTo(), type);
+            }
+        }
+        //记录最大的seq
+        pointLog.setPosition(CollUtil.getLast(list).getId().toString());
+        pointLogs.add(pointLog);
+    }
+
+    /**
+     * 累加地址的erc交易数，零地址不统计
+     *
+     * @param addressMap:
+     * @param address:
+     * @param type:
+     * @return: void
+     * @date: 2026/10/19
+     */
+    private void increaseAddressQty(Map<String, AddressErcQty> addressMap, String address, ErcTypeEnum type) {
+        if (AddressUtil.isAddrZero(address)) {
+            return;
+        }
+        AddressErcQty addressErcQty = getAddressErcQty(addressMap, address);
+        switch (type) {
+            case ERC20:
+                addressErcQty.setErc20TxQty(addressErcQty.getErc20TxQty() + 1);
+                break;
+            case ERC721:
+                addressErcQty.setErc721TxQty(addressErcQty.getErc721TxQty() + 1);
+                break;
+            case ERC1155:
+                addressErcQty.setErc1155TxQty(addressErcQty.getErc1155TxQty() + 1);
+                break;
+            default:
+                break;
+        }
+    }
+
     /**
      * 获取AddressErcQty
      *
@@ -0,0 +1,66 @@
+package com.platon.browser.task;
+
+import cn.hutool.core.util.StrUtil;
+import com.platon.browser.bean.NodeValidAddrs;
+import com.platon.browser.dao.custommapper.CustomNodeMapper;
+import com.platon.browser.utils.AppStatusUtil;
+import com.platon.browser.utils.TaskUtil;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 节点有效委托地址数对账任务
+ * agent在委托和撤销委托时只对节点的有效委托地址数做增减，本任务按委托表核对候选中节点的统计值，不一致时记录并修正
+ *
+ * @date 2026/10/19
+ */
+@Component
+@Slf4j
+public class ValidDelegatorReconcileTask {
+
+    @Resource
+    private CustomNodeMapper customNodeMapper;
+
+    /**
+     * 节点有效委托地址数对账
+     * 每小时执行一次
+     *
+     * @param :
+     * @return: void
+     * @date: 2026/10/19
+     */
+    @XxlJob("validDelegatorReconcileJobHandler")
+    public void validDelegatorReconcile() throws Exception {
+        // 只有程序正常运行才执行任务
+        if (AppStatusUtil.isRunning()) start();
+    }
+
+    protected void start() throws Exception {
+        try {
+            List<NodeValidAddrs> mismatchList = customNodeMapper.selectValidAddrsMismatch();
+            if (mismatchList.isEmpty()) {
+                XxlJobHelper.handleSuccess("节点有效委托地址数对账完成，无差异");
+                return;
+            }
+            for (NodeValidAddrs mismatch : mismatchList) {
+                TaskUtil.console("节点[{}]有效委托地址数[{}]与委托表统计[{}]不一致", mismatch.getNodeId(), mismatch.getStatValidAddrs(), mismatch.getActualValidAddrs());
+            }
+            // 修正时在语句内重新统计，避免覆盖对账期间agent的增减
+            List<String> nodeIds = mismatchList.stream().map(NodeValidAddrs::getNodeId).collect(Collectors.toList());
+            customNodeMapper.updateValidAddrs(nodeIds);
+            String msg = StrUtil.format("节点有效委托地址数对账完成，修正节点[{}]个", nodeIds.size());
+            log.warn(msg);
+            XxlJobHelper.handleSuccess(msg);
+        } catch (Exception e) {
+            log.error("节点有效委托地址数对账异常", e);
+            throw e;
+        }
+    }
+
+}
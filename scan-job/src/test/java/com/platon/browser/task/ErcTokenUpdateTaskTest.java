@@ -0,0 +1,102 @@
+package com.platon.browser.task;
+
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.config.TaskConfig;
+import com.platon.browser.dao.custommapper.CustomTokenHolderMapper;
+import com.platon.browser.dao.custommapper.CustomTokenMapper;
+import com.platon.browser.dao.entity.PointLog;
+import com.platon.browser.dao.entity.TxErc20Bak;
+import com.platon.browser.dao.mapper.PointLogMapper;
+import com.platon.browser.dao.mapper.TxErc20BakMapper;
+import com.platon.browser.enums.AppStatus;
+import com.platon.browser.service.erc.ErcBalanceRefreshService;
+import com.platon.browser.service.erc.ErcServiceImpl;
+import com.platon.browser.utils.AppStatusUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ErcTokenUpdateTaskTest {
+
+    private static final String CONTRACT = "lat1contract";
+
+    @Mock
+    private PointLogMapper pointLogMapper;
+
+    @Mock
+    private TxErc20BakMapper txErc20BakMapper;
+
+    @Mock
+    private CustomTokenMapper customTokenMapper;
+
+    @Mock
+    private CustomTokenHolderMapper customTokenHolderMapper;
+
+    @Mock
+    private ErcServiceImpl ercServiceImpl;
+
+    @Mock
+    private TaskConfig taskConfig;
+
+    @InjectMocks
+    private ErcTokenUpdateTask target;
+
+    private ErcBalanceRefreshService ercBalanceRefreshService;
+
+    private final PointLog pointLog = new PointLog();
+
+    @Before
+    public void setup() {
+        AppStatusUtil.setStatus(AppStatus.RUNNING);
+        ercBalanceRefreshService = new ErcBalanceRefreshService();
+        ReflectionTestUtils.setField(ercBalanceRefreshService, "ercServiceImpl", ercServiceImpl);
+        ReflectionTestUtils.setField(ercBalanceRefreshService, "blockChainConfig", new BlockChainConfig());
+        ReflectionTestUtils.setField(ercBalanceRefreshService, "customTokenHolderMapper", customTokenHolderMapper);
+        ercBalanceRefreshService.init();
+        ReflectionTestUtils.setField(target, "ercBalanceRefreshService", ercBalanceRefreshService);
+        pointLog.setId(5);
+        pointLog.setPosition("10");
+        when(pointLogMapper.selectByPrimaryKey(5)).thenReturn(pointLog);
+        TxErc20Bak tx = new TxErc20Bak();
+        tx.setId(11L);
+        tx.setSeq(1100001L);
+        tx.setContract(CONTRACT);
+        tx.setFrom("lat1z2keqk9gynqx72d287h8we0cn0thcmq9e6efvl");
+        tx.setTo("lat1zqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqzsjx8h7");
+        when(txErc20BakMapper.selectByExample(any())).thenReturn(Collections.singletonList(tx));
+        when(customTokenMapper.selectBalancePollingToken()).thenReturn(Collections.singletonList(CONTRACT));
+    }
+
+    @After
+    public void destroy() {
+        ercBalanceRefreshService.destroy();
+    }
+
+    @Test
+    public void transportErrorKeepsPosition() throws Exception {
+        // 查询余额网络异常时放弃本轮更新，断点不推进，下一轮重新查询这些持有者
+        when(ercServiceImpl.batchBalanceOfOwner(anyList())).thenThrow(new IOException("timeout"));
+        target.incrementUpdateErc20TokenHolderBalance();
+        verify(ercServiceImpl).batchBalanceOfOwner(anyList());
+        assertEquals("10", pointLog.getPosition());
+        verify(pointLogMapper, never()).updateByPrimaryKeySelective(any());
+        verify(customTokenHolderMapper, never()).batchUpdate(any());
+    }
+
+}
@@ -7,31 +7,19 @@ import lombok.Data;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
 
 @Data
 public class ReceiptResult extends Response<List<Receipt>> {
     private Map<String,Receipt> map = new ConcurrentHashMap<>();
 
     /**
-     * 并行解码Logs
+     * 按交易哈希建立索引，回执的状态和日志在首次读取时才解码
      */
-    public void resolve(Long blockNumber, ExecutorService threadPool) throws InterruptedException {
-        if(getResult().isEmpty()) return;
-        CountDownLatch latch = new CountDownLatch(getResult().size());
-        getResult().forEach(receipt->{
-            map.put(HexUtil.prefix(receipt.getTransactionHash()),receipt);
-            threadPool.submit(()->{
-                try {
-                    receipt.setBlockNumber(blockNumber);
-                    receipt.decodeLogs();
-                }finally {
-                    latch.countDown();
-                }
-            });
+    public void resolve(Long blockNumber) {
+        getResult().forEach(receipt -> {
+            receipt.setBlockNumber(blockNumber);
+            map.put(HexUtil.prefix(receipt.getTransactionHash()), receipt);
         });
-        latch.await();
     }
 
 
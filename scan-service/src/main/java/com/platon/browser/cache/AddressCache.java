@@ -15,6 +15,7 @@ import javax.annotation.Resource;
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * 地址统计缓存，谨慎使用
@@ -68,13 +69,107 @@ public class AddressCache {
     }
 
     public Integer getTypeData(String address) {
-        if (InnerContractAddrEnum.getAddresses().contains(address)) return Transaction.ToTypeEnum.INNER_CONTRACT.getCode();
-        if (this.isEvmContractAddress(address)) return Transaction.ToTypeEnum.EVM_CONTRACT.getCode();
-        if (this.isWasmContractAddress(address)) return Transaction.ToTypeEnum.WASM_CONTRACT.getCode();
-        if (isErc20ContractAddress(address)) return Transaction.ToTypeEnum.ERC20_CONTRACT.getCode();
-        if (isErc721ContractAddress(address)) return Transaction.ToTypeEnum.ERC721_CONTRACT.getCode();
-        if (isErc1155ContractAddress(address)) return Transaction.ToTypeEnum.ERC1155_CONTRACT.getCode();
-        return Transaction.ToTypeEnum.ACCOUNT.getCode();
+        Transaction.ToTypeEnum toType = getContractType(address);
+        return toType == null ? Transaction.ToTypeEnum.ACCOUNT.getCode() : toType.getCode();
+    }
+
+    /**
+     * 合约地址分类索引的位数，按地址hashCode定位单个位
+     */
+    private static final int CONTRACT_FILTER_BITS = 1 << 20;
+
+    // 合约地址分类索引<合约地址,接收方类型>，是EVM/WASM合约及token合约地址缓存的合并视图，同一地址按原判断顺序取第一个类型
+    private volatile Map<String, Transaction.ToTypeEnum> contractTypeIndex = new ConcurrentHashMap<>();
+
+    // 合约地址的布隆预过滤器，位为0时一定不是合约地址，只增不减
+    private volatile AtomicLongArray contractFilter = new AtomicLongArray(CONTRACT_FILTER_BITS >>> 6);
+
+    // 索引是否可用，合约地址缓存重新初始化后置为false，在下次查询时重建
+    private volatile boolean contractIndexReady;
+
+    /**
+     * 获取地址的合约类型，普通账户返回null
+     * 大部分交易的地址是普通账户，只经过预过滤器，不查询各个合约地址缓存
+     *
+     * @param address 地址
+     * @return com.platon.browser.elasticsearch.dto.Transaction.ToTypeEnum
+     * @date 2026/10/19
+     */
+    public Transaction.ToTypeEnum getContractType(String address) {
+        if (address == null) return null;
+        if (InnerContractAddrEnum.getAddresses().contains(address)) return Transaction.ToTypeEnum.INNER_CONTRACT;
+        if (!this.contractIndexReady) this.rebuildContractIndex();
+        if (!this.mightBeContract(address)) return null;
+        return this.contractTypeIndex.get(address);
+    }
+
+    /**
+     * 合约地址缓存变化后更新该地址在分类索引中的类型
+     *
+     * @param address 合约地址
+     * @return void
+     * @date 2026/10/19
+     */
+    public synchronized void indexContract(String address) {
+        // 索引未建立时由重建覆盖
+        if (!this.contractIndexReady || address == null) return;
+        Transaction.ToTypeEnum toType = this.resolveContractType(address);
+        if (toType == null) {
+            this.contractTypeIndex.remove(address);
+            return;
+        }
+        this.setContractFilter(this.contractFilter, address);
+        this.contractTypeIndex.put(address, toType);
+    }
+
+    /**
+     * 从各合约地址缓存重建分类索引
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public synchronized void rebuildContractIndex() {
+        Map<String, Transaction.ToTypeEnum> index = new ConcurrentHashMap<>();
+        AtomicLongArray filter = new AtomicLongArray(CONTRACT_FILTER_BITS >>> 6);
+        // 按判断顺序的倒序写入，同一地址保留优先的类型
+        ercCache.getErc1155AddressCache().forEach(address -> index.put(address, Transaction.ToTypeEnum.ERC1155_CONTRACT));
+        ercCache.getErc721AddressCache().forEach(address -> index.put(address, Transaction.ToTypeEnum.ERC721_CONTRACT));
+        ercCache.getErc20AddressCache().forEach(address -> index.put(address, Transaction.ToTypeEnum.ERC20_CONTRACT));
+        this.wasmContractAddressCache.forEach(address -> index.put(address, Transaction.ToTypeEnum.WASM_CONTRACT));
+        this.evmContractAddressCache.forEach(address -> index.put(address, Transaction.ToTypeEnum.EVM_CONTRACT));
+        index.keySet().forEach(address -> this.setContractFilter(filter, address));
+        this.contractFilter = filter;
+        this.contractTypeIndex = index;
+        this.contractIndexReady = true;
+        log.info("合约地址分类索引重建完成,合约地址数[{}]", index.size());
+    }
+
+    private Transaction.ToTypeEnum resolveContractType(String address) {
+        if (this.isEvmContractAddress(address)) return Transaction.ToTypeEnum.EVM_CONTRACT;
+        if (this.isWasmContractAddress(address)) return Transaction.ToTypeEnum.WASM_CONTRACT;
+        if (isErc20ContractAddress(address)) return Transaction.ToTypeEnum.ERC20_CONTRACT;
+        if (isErc721ContractAddress(address)) return Transaction.ToTypeEnum.ERC721_CONTRACT;
+        if (isErc1155ContractAddress(address)) return Transaction.ToTypeEnum.ERC1155_CONTRACT;
+        return null;
+    }
+
+    private boolean mightBeContract(String address) {
+        int bit = this.contractFilterBit(address);
+        return (this.contractFilter.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    private void setContractFilter(AtomicLongArray filter, String address) {
+        int bit = this.contractFilterBit(address);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = filter.get(bit >>> 6);
+        } while ((word & mask) == 0 && !filter.compareAndSet(bit >>> 6, word, word | mask));
+    }
+
+    private int contractFilterBit(String address) {
+        int h = address.hashCode();
+        return (h ^ (h >>> 16)) & (CONTRACT_FILTER_BITS - 1);
     }
 
     public void update(Transaction tx) {
@@ -109,10 +204,12 @@ public class AddressCache {
                 case EVM:
                     address.setType(AddressTypeEnum.EVM_CONTRACT.getCode());
                     this.evmContractAddressCache.add(addr);
+                    this.indexContract(addr);
                     break;
                 case WASM:
                     address.setType(AddressTypeEnum.WASM_CONTRACT.getCode());
                     this.wasmContractAddressCache.add(addr);
+                    this.indexContract(addr);
                     break;
                 case ERC20_EVM:
                     address.setType(AddressTypeEnum.ERC20_EVM_CONTRACT.getCode());
@@ -172,6 +269,7 @@ public class AddressCache {
                 // 覆盖createDefaultAddress()中设置的值
                 address.setType(AddressTypeEnum.EVM_CONTRACT.getCode());
                 this.evmContractAddressCache.add(addr);
+                this.indexContract(addr);
                 address.setContractBin(tx.getBin());
                 break;
             case WASM_CONTRACT_CREATE:
@@ -181,6 +279,7 @@ public class AddressCache {
                 // 覆盖createDefaultAddress()中设置的值
                 address.setType(AddressTypeEnum.WASM_CONTRACT.getCode());
                 this.wasmContractAddressCache.add(addr);
+                this.indexContract(addr);
                 address.setContractBin(tx.getBin());
                 break;
             case ERC20_CONTRACT_CREATE:
@@ -275,6 +374,7 @@ public class AddressCache {
                 this.evmContractAddressCache.add(address.getAddress());
             }
         });
+        this.contractIndexReady = false;
     }
 
     /**
@@ -290,6 +390,7 @@ public class AddressCache {
                 this.wasmContractAddressCache.add(address.getAddress());
             }
         });
+        this.contractIndexReady = false;
     }
 
     /**
@@ -327,6 +428,7 @@ public class AddressCache {
 
     public void changeEvmAddress2TokenAddress(String address, ContractTypeEnum contractTypeEnum) {
         evmContractAddressCache.remove(address);
+        indexContract(address);
         Address addr = addressMap.get("address");
         if(addr != null){
             addr.setType(convertContractTypeEnum2Type(contractTypeEnum));
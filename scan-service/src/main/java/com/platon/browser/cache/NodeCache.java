@@ -8,9 +8,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigInteger;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 节点缓存
@@ -19,7 +21,7 @@ import java.util.Map;
 @Component
 public class NodeCache {
 
-    private static final Map<String, NodeItem> cache = new HashMap<>();
+    private static final Map<String, NodeItem> cache = new ConcurrentHashMap<>();
 
     /**
      * 清除节点缓存
@@ -45,6 +47,22 @@ public class NodeCache {
         return node;
     }
 
+    /**
+     * 根据节点ID批量获取节点名称，缓存中不存在的节点不会出现在返回结果中
+     *
+     * @param nodeIds 节点ID列表
+     * @return java.util.Map<java.lang.String, java.lang.String> 节点ID->节点名称
+     * @date 2026/10/19
+     */
+    public Map<String, String> getNodeNames(Collection<String> nodeIds) {
+        Map<String, String> nodeNames = new HashMap<>();
+        nodeIds.forEach(nodeId -> {
+            NodeItem node = cache.get(nodeId);
+            if (node != null) nodeNames.put(nodeId, node.getNodeName());
+        });
+        return nodeNames;
+    }
+
     /**
      * 添加节点
      *
@@ -10,9 +10,7 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Resource;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -25,18 +23,22 @@ public class TpsCalcCache {
     @Resource
     private NetworkStatMapper networkStatMapper;
 
-    // <出块秒数,交易数>
-    private Map<Long, Integer> cacheMap = new HashMap<>();
+    // 是否已开始统计
+    private boolean started = false;
 
-    private Map<Long, Integer> maxCacheMap = new HashMap<>();
+    // 当前10秒统计窗口的开始秒数及交易数
+    private long startTime = 0L;
 
-    private int tps = 0;
+    private int txQty = 0;
 
-    private int maxTps = 0;
+    // 当前出块秒数及交易数
+    private long maxTime = 0L;
 
-    private static Long startTime = 0l;
+    private int maxTxQty = 0;
 
-    private static Long maxTime = 0l;
+    private int tps = 0;
+
+    private int maxTps = 0;
 
     /**
      * 当前已处理的块高，用来处理重试机制
@@ -65,40 +67,32 @@ public class TpsCalcCache {
 
     public void update(Block block) {
         BigDecimal seconds = BigDecimal.valueOf(block.getTime().getTime()).divide(BigDecimal.valueOf(1000), 0, RoundingMode.CEILING);
-        Long now = seconds.longValue();
-        Integer txQty = cacheMap.get(TpsCalcCache.startTime);
-        if (txQty == null) {
+        long now = seconds.longValue();
+        int blockTxQty = block.getTransactions().size();
+        if (!started) {
+            started = true;
+            startTime = now;
             txQty = 0;
-            TpsCalcCache.startTime = now;
-            cacheMap.putIfAbsent(TpsCalcCache.startTime, 0);
+            maxTime = now;
+            maxTxQty = 0;
         }
         if (now <= startTime + 10) {
-            txQty += block.getTransactions().size();
-            cacheMap.put(startTime, txQty);
+            txQty += blockTxQty;
         } else {
             tps = BigDecimal.valueOf(txQty).divide(BigDecimal.TEN, 0, RoundingMode.CEILING).intValue();
             startTime = startTime + 10;
-            cacheMap.clear();
-            cacheMap.put(startTime, block.getTransactions().size());
+            txQty = blockTxQty;
         }
 
-        Integer maxTxQty = maxCacheMap.get(maxTime);
-        if (maxTxQty == null) {
-            maxTxQty = 0;
-            TpsCalcCache.maxTime = now;
-            maxCacheMap.putIfAbsent(maxTime, 0);
-        }
-        if (TpsCalcCache.maxTime.longValue() == now.longValue()) {
-            maxTxQty += block.getTransactions().size();
-            maxCacheMap.put(maxTime, maxTxQty);
+        if (maxTime == now) {
+            maxTxQty += blockTxQty;
         } else {
-            maxTps = maxTxQty.intValue();
+            maxTps = maxTxQty;
             if (maxTps == 0) {
-                maxTps = block.getTransactions().size();
+                maxTps = blockTxQty;
             }
-            maxCacheMap.clear();
             maxTime = now;
-            maxCacheMap.put(maxTime, block.getTransactions().size());
+            maxTxQty = blockTxQty;
         }
     }
 
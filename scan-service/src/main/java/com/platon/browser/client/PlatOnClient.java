@@ -9,10 +9,7 @@ import com.platon.contracts.ppos.dto.resp.GovernParam;
 import com.platon.contracts.ppos.dto.resp.Node;
 import com.platon.protocol.core.DefaultBlockParameterName;
 import com.platon.protocol.core.methods.response.bean.EconomicConfig;
-import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
@@ -23,8 +20,6 @@ import javax.annotation.Resource;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * User: dongqile
@@ -35,15 +30,6 @@ import java.util.concurrent.Executors;
 @Component
 public class PlatOnClient {
 
-    // 交易输入参数并行解码线程池
-    @Getter
-    @Setter
-    private ExecutorService logDecodeExecutor;
-
-    // 交易输入参数并行解码线程数
-    @Value("${platon.txLogDecodeThreadNum}")
-    private int logDecodeThreadNum;
-
     @Resource
     private RetryableClient retryableClient;
 
@@ -80,7 +66,6 @@ public class PlatOnClient {
 
     @PostConstruct
     private void init() throws ConfigLoadingException {
-        logDecodeExecutor = Executors.newFixedThreadPool(logDecodeThreadNum);
         retryableClient.init();
     }
 
@@ -94,7 +79,7 @@ public class PlatOnClient {
 
     public ReceiptResult getReceiptResult(Long blockNumber) throws IOException, InterruptedException {
         ReceiptResult receiptResult = specialApi.getReceiptResult(retryableClient.getWeb3jWrapper(), BigInteger.valueOf(blockNumber));
-        receiptResult.resolve(blockNumber, logDecodeExecutor);
+        receiptResult.resolve(blockNumber);
         return receiptResult;
     }
 
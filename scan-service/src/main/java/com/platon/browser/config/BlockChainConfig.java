@@ -387,6 +387,41 @@ public class BlockChainConfig {
      */
     private String multiCallContractAddress;
 
+    /**
+     * multiCall单次调用的最大子调用数
+     */
+    private int multiCallBatchSize = 200;
+
+    /**
+     * multiCall单次调用的gas上限
+     */
+    private long multiCallGasLimit = 50000000;
+
+    /**
+     * multiCall单个子调用的预估gas
+     */
+    private long multiCallGasPerCall = 30000;
+
+    /**
+     * multiCall并行调用的批次数
+     */
+    private int multiCallConcurrency = 4;
+
+    /**
+     * 浏览器接口每类链上查询的最大并发数
+     */
+    private int chainReadConcurrency = 8;
+
+    /**
+     * 浏览器接口等待链上查询的超时时间(毫秒)，超时后有旧数据时返回旧数据，没有旧数据时按查询失败处理
+     */
+    private long chainReadTimeout = 3000;
+
+    /**
+     * 浏览器接口链上查询结果作为旧数据保留的时间(秒)
+     */
+    private long chainReadStaleSeconds = 600;
+
     @PostConstruct
     public void init() throws ConfigLoadingException {
 
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @Auther: Chendongming
  * @Date: 2019/10/25 15:12
@@ -22,4 +25,7 @@ public class EsIndexConfig {
     private String erc20TxIndexName; // 主交易内部erc20交易索引名称(new)
     private String erc721TxIndexName; // 主交易内部erc721交易索引名称
     private String erc1155TxIndexName; // 主交易内部erc1155交易索引名称
+    private Map<String, Long> partitionBlockCount = new HashMap<>(); // 按区块范围分区的索引，key:索引模板文件名，value:每个分区的区块数
+    private Map<String, Integer> numberOfShards = new HashMap<>(); // 索引主分片数，key:索引模板文件名，未配置时使用模板设置
+    private int trackTotalHitsUpTo = 10000; // 列表查询随结果统计总数的上限，超过上限时总数为近似值
 }
\ No newline at end of file
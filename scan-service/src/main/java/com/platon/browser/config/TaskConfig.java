@@ -23,6 +23,8 @@ public class TaskConfig implements SchedulingConfigurer {
     private int gapForAdjust; //agent与实际链上区块号相差多少个块号时触发调整操作
     private int esRedisNotCatchupBatchSize; //未追上链,批量入ES和Redis的缓存大小
     private int esRedisCatchupBatchSize; //已追上链,批量入ES和Redis的缓存大小
+    private int newBlockFlushBlocks; //未追上链,新区块出块数和奖励累计多少个区块后入库
+    private int newBlockFlushSeconds; //未追上链,新区块出块数和奖励最多累计多少秒后入库
 
     @Override
     public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
@@ -1,10 +1,6 @@
 package com.platon.browser.decoder;
 
 import com.platon.protocol.core.methods.response.Log;
-import com.platon.rlp.solidity.RlpDecoder;
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.rlp.solidity.RlpType;
 import com.platon.browser.decoder.ppos.*;
 import com.platon.browser.elasticsearch.dto.Transaction;
 import com.platon.browser.param.OthersTxParam;
@@ -33,22 +29,21 @@ public class PPOSTxDecodeUtil {
         PPOSTxDecodeResult result = new PPOSTxDecodeResult();
         try {
             if (StringUtils.isNotEmpty(txInput) && !txInput.equals("0x")) {
-                RlpList rlpList = RlpDecoder.decode(Hex.decode(txInput.replace("0x", "")));
-                List<RlpType> rlpTypes = rlpList.getValues();
-
-                if (rlpTypes.size() == 1 && rlpTypes.get(0).getClass().equals(RlpString.class)) {
+                // 只遍历一次输入，各解码器按参数顺序从游标中直接读取
+                RlpReader inputReader = new RlpReader(Hex.decode(txInput.replace("0x", "")));
+                if (!inputReader.isNextList()) {
+                    String data = inputReader.readRawHex();
+                    if (inputReader.hasNext()) {
+                        throw new IllegalStateException("内置合约交易输入格式错误");
+                    }
                     OthersTxParam txParam = new OthersTxParam();
-                    txParam.setData(((RlpString) rlpTypes.get(0)).asString());
+                    txParam.setData(data);
                     result.setParam(txParam);
                     return result;
                 }
 
-                RlpList rootList = (RlpList) rlpTypes.get(0);
-
-                RlpString rlpString = (RlpString) rootList.getValues().get(0);
-                RlpList rlpList2 = RlpDecoder.decode(rlpString.getBytes());
-                RlpString rl = (RlpString) rlpList2.getValues().get(0);
-                BigInteger txCode = new BigInteger(1, rl.getBytes());
+                RlpReader rootList = inputReader.readList();
+                BigInteger txCode = rootList.readBigInteger();
 
                 Transaction.TypeEnum typeEnum = Transaction.TypeEnum.getEnum(txCode.intValue());
                 if (typeEnum == null) {
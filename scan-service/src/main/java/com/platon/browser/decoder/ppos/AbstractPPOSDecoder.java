@@ -1,18 +1,9 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.bech32.Bech32;
-import com.platon.parameters.NetworkParameters;
-import com.platon.rlp.solidity.RlpDecoder;
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.rlp.solidity.RlpType;
-import com.platon.utils.Numeric;
 import com.platon.browser.param.RestrictingCreateParam;
-import com.platon.browser.param.TxParam;
-import com.platon.browser.utils.NetworkParams;
+import com.platon.browser.utils.AddressUtil;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,38 +14,20 @@ import java.util.List;
  **/
 public abstract class AbstractPPOSDecoder {
 
-    static BigInteger bigIntegerResolver(RlpString rlpString) {
-        RlpList integersList = RlpDecoder.decode(rlpString.getBytes());
-        if(integersList.getValues().isEmpty()) return null;
-        RlpString integersString = (RlpString) integersList.getValues().get(0);
-        return new BigInteger(1, integersString.getBytes());
+    static String addressResolver(RlpReader reader) {
+        String hex = reader.readHex();
+        if (hex == null) return null;
+        return AddressUtil.toBech32(hex);
     }
 
-    static String stringResolver(RlpString rlpString) {
-        RlpList stringsList = RlpDecoder.decode(rlpString.getBytes());
-        if(stringsList.getValues().isEmpty()) return null;
-        RlpString stringsListString = (RlpString) stringsList.getValues().get(0);
-        return Numeric.toHexString(stringsListString.getBytes());
-    }
-    
-    static String addressResolver(RlpString rlpString) {
-        RlpList stringsList = RlpDecoder.decode(rlpString.getBytes());
-        if (stringsList.getValues().isEmpty()) return null;
-        RlpString stringsListString = (RlpString) stringsList.getValues().get(0);
-        return Bech32.addressEncode(NetworkParameters.getHrp(),Numeric.toHexString(stringsListString.getBytes()));
-    }
-
-    static List<RestrictingCreateParam.RestrictingPlan> resolvePlan(RlpString rlpString) {
+    static List<RestrictingCreateParam.RestrictingPlan> resolvePlan(RlpReader reader) {
         List<RestrictingCreateParam.RestrictingPlan> list = new ArrayList<>();
-        RlpList bean = RlpDecoder.decode(rlpString.getBytes());
-        List <RlpType> beanList = ((RlpList) bean.getValues().get(0)).getValues();
-        for (RlpType beanType : beanList) {
-            RlpList beanTypeList = (RlpList) beanType;
-            RlpString parama = (RlpString) beanTypeList.getValues().get(0);
-            RlpString paramb = (RlpString) beanTypeList.getValues().get(1);
+        RlpReader beanList = reader.readNested().readList();
+        while (beanList.hasNext()) {
+            RlpReader beanType = beanList.readList();
             RestrictingCreateParam.RestrictingPlan planParam = RestrictingCreateParam.RestrictingPlan.builder()
-                    .epoch(parama.asPositiveBigInteger())
-                    .amount(new BigDecimal(paramb.asPositiveBigInteger()))
+                    .epoch(beanType.readRawBigInteger())
+                    .amount(new BigDecimal(beanType.readRawBigInteger()))
                     .build();
             list.add(planParam);
         }
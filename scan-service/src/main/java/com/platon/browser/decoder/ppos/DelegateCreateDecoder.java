@@ -1,7 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
 import com.platon.browser.param.DelegateCreateParam;
 import com.platon.browser.param.TxParam;
 
@@ -15,14 +13,14 @@ import java.math.BigInteger;
  **/
 public class DelegateCreateDecoder extends AbstractPPOSDecoder{
     private DelegateCreateDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 发起委托
         //typ  表示使用账户自由金额还是账户的锁仓金额做质押 0: 自由金额； 1: 锁仓金额
-        BigInteger type =  bigIntegerResolver((RlpString) rootList.getValues().get(1));
+        BigInteger type =  reader.readBigInteger();
         //被质押的节点的NodeId
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(2));
+        String nodeId = reader.readHex();
         //委托的金额
-        BigInteger amount = bigIntegerResolver((RlpString) rootList.getValues().get(3));
+        BigInteger amount = reader.readBigInteger();
 
         return DelegateCreateParam.builder()
                 .type(type.intValue())
@@ -26,16 +26,16 @@ public class DelegateExitDecoder extends AbstractPPOSDecoder {
     private DelegateExitDecoder() {
     }
 
-    public static TxParam decode(RlpList rootList, List<Log> logs) {
+    public static TxParam decode(RlpReader reader, List<Log> logs) {
         DelegateExitParam delegateExitParam = new DelegateExitParam();
         // 减持/撤销委托
         //代表着某个node的某次质押的唯一标示
-        String blockNumber = stringResolver((RlpString) rootList.getValues().get(1));
+        String blockNumber = reader.readHex();
         blockNumber = blockNumber.replace("0x", "");
         //被质押的节点的NodeId
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(2));
+        String nodeId = reader.readHex();
         //减持委托的金额(按照最小单位算，1LAT = 10**18 von)
-        BigInteger amount = bigIntegerResolver((RlpString) rootList.getValues().get(3));
+        BigInteger amount = reader.readBigInteger();
         BigInteger bl = BigInteger.ZERO;
         if (StringUtils.isNotBlank(blockNumber)) {
             bl = new BigInteger(blockNumber, 16);
@@ -23,7 +23,7 @@ import java.util.List;
  **/
 public class DelegateRewardClaimDecoder extends AbstractPPOSDecoder {
     private DelegateRewardClaimDecoder(){}
-    public static TxParam decode(RlpList rootList,List<Log> logs) {
+    public static TxParam decode(RlpReader reader, List<Log> logs) {
 
         String logData = logs.get(0).getData();
         RlpList rlp = RlpDecoder.decode(Numeric.hexStringToByteArray(logData));
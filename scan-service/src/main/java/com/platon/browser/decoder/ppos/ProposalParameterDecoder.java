@@ -1,8 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.utils.Numeric;
 import com.platon.browser.param.ProposalParameterParam;
 import com.platon.browser.param.TxParam;
 
@@ -13,22 +10,18 @@ import com.platon.browser.param.TxParam;
  **/
 public class ProposalParameterDecoder extends AbstractPPOSDecoder {
     private ProposalParameterDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 提交升级提案
         //提交提案的验证人
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         //pIDID
-        String pIdID = stringResolver((RlpString) rootList.getValues().get(2));
-        pIdID =  new String(Numeric.hexStringToByteArray(pIdID));
+        String pIdID = reader.readUtf8();
         //参数模块
-        String module = stringResolver((RlpString) rootList.getValues().get(3));
-        module =  new String(Numeric.hexStringToByteArray(module));
+        String module = reader.readUtf8();
         //参数名称
-        String name = stringResolver((RlpString) rootList.getValues().get(4));
-        name =  new String(Numeric.hexStringToByteArray(name));
+        String name = reader.readUtf8();
         //参数值
-        String newValue = stringResolver((RlpString) rootList.getValues().get(5));
-        newValue =  new String(Numeric.hexStringToByteArray(newValue));
+        String newValue = reader.readUtf8();
         return ProposalParameterParam.builder()
                 .verifier(nodeId)
                 .pIDID(pIdID)
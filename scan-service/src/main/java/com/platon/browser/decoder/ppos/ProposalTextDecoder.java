@@ -1,8 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.utils.Numeric;
 import com.platon.browser.param.ProposalTextParam;
 import com.platon.browser.param.TxParam;
 
@@ -13,13 +10,12 @@ import com.platon.browser.param.TxParam;
  **/
 public class ProposalTextDecoder extends AbstractPPOSDecoder {
     private ProposalTextDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 提交文本提案
         //提交提案的验证人
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         //pIDID
-        String pIdID = stringResolver((RlpString) rootList.getValues().get(2));
-        pIdID =  new String(Numeric.hexStringToByteArray(pIdID));
+        String pIdID = reader.readUtf8();
 
         return ProposalTextParam.builder()
                 .verifier(nodeId)
@@ -1,8 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.utils.Numeric;
 import com.platon.browser.param.ProposalUpgradeParam;
 import com.platon.browser.param.TxParam;
 
@@ -16,17 +13,16 @@ import java.math.BigInteger;
  **/
 public class ProposalUpgradeDecoder extends AbstractPPOSDecoder {
     private ProposalUpgradeDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 提交升级提案
         //提交提案的验证人
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         //pIDID
-        String pIdID = stringResolver((RlpString) rootList.getValues().get(2));
-        pIdID =  new String(Numeric.hexStringToByteArray(pIdID));
+        String pIdID = reader.readUtf8();
         //升级版本
-        BigInteger version =  bigIntegerResolver((RlpString) rootList.getValues().get(3));
+        BigInteger version =  reader.readBigInteger();
         //投票截止区块高度
-        BigInteger round =  bigIntegerResolver((RlpString) rootList.getValues().get(4));
+        BigInteger round =  reader.readBigInteger();
         //结束轮转换结束区块高度
 
         return ProposalUpgradeParam.builder()
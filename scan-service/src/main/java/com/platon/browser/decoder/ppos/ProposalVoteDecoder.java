@@ -1,7 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
 import com.platon.browser.param.ProposalVoteParam;
 import com.platon.browser.param.TxParam;
 
@@ -14,18 +12,18 @@ import java.math.BigInteger;
  **/
 public class ProposalVoteDecoder extends AbstractPPOSDecoder {
     private ProposalVoteDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 给提案投票
         //投票验证人
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         //提案ID
-        String proposalID = stringResolver((RlpString) rootList.getValues().get(2));
+        String proposalID = reader.readHex();
         //投票选项
-        BigInteger option =  bigIntegerResolver((RlpString) rootList.getValues().get(3));
+        BigInteger option =  reader.readBigInteger();
         //节点代码版本，有rpc的getProgramVersion接口获取
-        BigInteger programVersion =  bigIntegerResolver((RlpString) rootList.getValues().get(4));
+        BigInteger programVersion =  reader.readBigInteger();
         //代码版本签名，有rpc的getProgramVersion接口获取
-        String versionSign = stringResolver((RlpString) rootList.getValues().get(5));
+        String versionSign = reader.readHex();
 
         return ProposalVoteParam.builder()
                 .verifier(nodeId)
@@ -24,7 +24,7 @@ public class RedeemDelegationDecoder extends AbstractPPOSDecoder {
     public RedeemDelegationDecoder() {
     }
 
-    public static TxParam decode(RlpList rootList, List<Log> logs) {
+    public static TxParam decode(RlpReader reader, List<Log> logs) {
         RedeemDelegationParm redeemDelegationParm = new RedeemDelegationParm();
         if (CollUtil.isNotEmpty(logs)) {
             String logData = logs.get(0).getData();
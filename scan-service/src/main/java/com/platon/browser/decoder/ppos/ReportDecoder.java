@@ -2,9 +2,6 @@ package com.platon.browser.decoder.ppos;
 
 import com.platon.browser.param.ReportParam;
 import com.platon.browser.param.TxParam;
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.utils.Numeric;
 
 import java.math.BigInteger;
 
@@ -15,13 +12,12 @@ import java.math.BigInteger;
  **/
 public class ReportDecoder extends AbstractPPOSDecoder {
     private ReportDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 举报双签
         //type
-        BigInteger type = bigIntegerResolver((RlpString) rootList.getValues().get(1));
+        BigInteger type = reader.readBigInteger();
         //data
-        String evidence = stringResolver((RlpString) rootList.getValues().get(2));
-        evidence = new String(Numeric.hexStringToByteArray(evidence));
+        String evidence = reader.readUtf8();
 
         evidence= normalization(evidence);
 
@@ -1,7 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
 import com.platon.browser.param.RestrictingCreateParam;
 import com.platon.browser.param.TxParam;
 
@@ -14,12 +12,12 @@ import java.util.List;
  **/
 public class RestrictingCreateDecoder extends AbstractPPOSDecoder {
     private RestrictingCreateDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         //创建锁仓计划
         //锁仓释放到账账户
-        String account = addressResolver((RlpString) rootList.getValues().get(1));
+        String account = addressResolver(reader);
         // RestrictingPlan 类型的列表（数组）
-        List<RestrictingCreateParam.RestrictingPlan> plans = resolvePlan((RlpString) rootList.getValues().get(2));
+        List<RestrictingCreateParam.RestrictingPlan> plans = resolvePlan(reader);
 
         return RestrictingCreateParam.builder()
                 .account(account)
@@ -0,0 +1,253 @@
+package com.platon.browser.decoder.ppos;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 内置合约交易输入的RLP游标
+ * 1、在原始字节数组上按顺序读取，不构造RlpList/RlpString，也不复制字段字节
+ * 2、内置合约交易的每个参数是一个RLP字符串，其内容是参数值再次RLP编码的结果，read*方法直接读取内层的值
+ * 3、readRaw*方法读取未再次编码的字符串，用于交易类型之外的原始数据及锁仓计划等列表元素
+ * 4、非线程安全，每笔交易单独创建
+ *
+ * @date 2026/10/19
+ */
+public final class RlpReader {
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private final byte[] data;
+
+    /**
+     * 读取范围的结束位置(不含)
+     */
+    private final int limit;
+
+    /**
+     * 下一项的开始位置
+     */
+    private int position;
+
+    /**
+     * 当前项内容的开始位置
+     */
+    private int offset;
+
+    /**
+     * 当前项内容的长度
+     */
+    private int length;
+
+    /**
+     * 当前项是否为列表
+     */
+    private boolean list;
+
+    public RlpReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    private RlpReader(byte[] data, int from, int to) {
+        this.data = data;
+        this.position = from;
+        this.limit = to;
+    }
+
+    public boolean hasNext() {
+        return position < limit;
+    }
+
+    /**
+     * 下一项是否为列表，不移动游标
+     *
+     * @return boolean
+     * @date 2026/10/19
+     */
+    public boolean isNextList() {
+        return hasNext() && (data[position] & 0xff) >= 0xc0;
+    }
+
+    /**
+     * 跳过下一项
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void skip() {
+        next();
+    }
+
+    /**
+     * 读取下一项列表，返回列表内容的游标
+     *
+     * @return com.platon.browser.decoder.ppos.RlpReader
+     * @date 2026/10/19
+     */
+    public RlpReader readList() {
+        next();
+        if (!list) {
+            throw new IllegalStateException("RLP项不是列表:" + offset);
+        }
+        return new RlpReader(data, offset, offset + length);
+    }
+
+    /**
+     * 读取下一项参数，返回参数值的游标，用于参数值本身是列表的情况
+     *
+     * @return com.platon.browser.decoder.ppos.RlpReader
+     * @date 2026/10/19
+     */
+    public RlpReader readNested() {
+        nextString();
+        return new RlpReader(data, offset, offset + length);
+    }
+
+    /**
+     * 读取下一项参数的无符号整数值，参数为空时返回null
+     *
+     * @return java.math.BigInteger
+     * @date 2026/10/19
+     */
+    public BigInteger readBigInteger() {
+        return nextField() ? toBigInteger() : null;
+    }
+
+    /**
+     * 读取下一项参数的0x开头的十六进制值，参数为空时返回null
+     *
+     * @return java.lang.String
+     * @date 2026/10/19
+     */
+    public String readHex() {
+        return nextField() ? toHex() : null;
+    }
+
+    /**
+     * 读取下一项参数的UTF-8字符串值，参数为空时返回null
+     *
+     * @return java.lang.String
+     * @date 2026/10/19
+     */
+    public String readUtf8() {
+        return nextField() ? new String(data, offset, length, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * 读取下一项未再次编码的字符串的无符号整数值
+     *
+     * @return java.math.BigInteger
+     * @date 2026/10/19
+     */
+    public BigInteger readRawBigInteger() {
+        nextString();
+        return toBigInteger();
+    }
+
+    /**
+     * 读取下一项未再次编码的字符串的0x开头的十六进制值
+     *
+     * @return java.lang.String
+     * @date 2026/10/19
+     */
+    public String readRawHex() {
+        nextString();
+        return toHex();
+    }
+
+    /**
+     * 定位下一项参数内层的值
+     *
+     * @return boolean 参数为空时返回false
+     */
+    private boolean nextField() {
+        nextString();
+        if (length == 0) {
+            return false;
+        }
+        int end = offset + length;
+        position = offset;
+        next();
+        if (list) {
+            throw new IllegalStateException("RLP参数值不是字符串:" + offset);
+        }
+        // 内层只有一项，游标回到外层参数之后
+        position = end;
+        return true;
+    }
+
+    private void nextString() {
+        next();
+        if (list) {
+            throw new IllegalStateException("RLP项不是字符串:" + offset);
+        }
+    }
+
+    /**
+     * 解析下一项的头部，定位其内容并把游标移动到下一项
+     */
+    private void next() {
+        if (position >= limit) {
+            throw new IllegalStateException("RLP数据已读完:" + position);
+        }
+        int prefix = data[position] & 0xff;
+        if (prefix < 0x80) {
+            // 单字节字符串，内容即前缀本身
+            list = false;
+            offset = position;
+            length = 1;
+        } else if (prefix <= 0xb7) {
+            list = false;
+            offset = position + 1;
+            length = prefix - 0x80;
+        } else if (prefix < 0xc0) {
+            list = false;
+            readLongLength(prefix - 0xb7);
+        } else if (prefix <= 0xf7) {
+            list = true;
+            offset = position + 1;
+            length = prefix - 0xc0;
+        } else {
+            list = true;
+            readLongLength(prefix - 0xf7);
+        }
+        if (length < 0 || offset + length > limit) {
+            throw new IllegalStateException("RLP项长度越界:" + position);
+        }
+        position = offset + length;
+    }
+
+    private void readLongLength(int lengthOfLength) {
+        int len = 0;
+        for (int i = 1; i <= lengthOfLength; i++) {
+            len = (len << 8) | (data[position + i] & 0xff);
+        }
+        offset = position + 1 + lengthOfLength;
+        length = len;
+    }
+
+    private BigInteger toBigInteger() {
+        if (length < 8) {
+            // 大部分参数(类型、版本、块高等)不超过7字节，直接按long计算，避免复制字节
+            long value = 0;
+            for (int i = offset; i < offset + length; i++) {
+                value = (value << 8) | (data[i] & 0xff);
+            }
+            return BigInteger.valueOf(value);
+        }
+        return new BigInteger(1, Arrays.copyOfRange(data, offset, offset + length));
+    }
+
+    private String toHex() {
+        char[] chars = new char[2 + length * 2];
+        chars[0] = '0';
+        chars[1] = 'x';
+        for (int i = 0; i < length; i++) {
+            int b = data[offset + i] & 0xff;
+            chars[2 + i * 2] = HEX_CHARS[b >>> 4];
+            chars[3 + i * 2] = HEX_CHARS[b & 0x0f];
+        }
+        return new String(chars);
+    }
+
+}
@@ -1,8 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.utils.Numeric;
 import com.platon.browser.param.StakeCreateParam;
 import com.platon.browser.param.TxParam;
 
@@ -30,32 +27,28 @@ import java.math.BigInteger;
  **/
 public class StakeCreateDecoder extends AbstractPPOSDecoder {
     private StakeCreateDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 发起质押
         //typ  表示使用账户自由金额还是账户的锁仓金额做质押 0: 自由金额； 1: 锁仓金额
-        BigInteger type =  bigIntegerResolver((RlpString) rootList.getValues().get(1));
+        BigInteger type =  reader.readBigInteger();
         //用于接受出块奖励和质押奖励的收益账户benefitAddress
-        String address = addressResolver((RlpString) rootList.getValues().get(2));
+        String address = addressResolver(reader);
         //被质押的节点的NodeId
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(3));
+        String nodeId = reader.readHex();
         //外部Id externalId
-        String externalId = stringResolver((RlpString) rootList.getValues().get(4));
-        externalId = new String(Numeric.hexStringToByteArray(externalId));
+        String externalId = reader.readUtf8();
         //被质押节点的名称 nodeName
-        String nodeName = stringResolver((RlpString) rootList.getValues().get(5));
-        nodeName = new String(Numeric.hexStringToByteArray(nodeName));
+        String nodeName = reader.readUtf8();
         //节点的第三方主页 website
-        String website = stringResolver((RlpString) rootList.getValues().get(6));
-        website = new String(Numeric.hexStringToByteArray(website));
+        String website = reader.readUtf8();
         //节点的描述 details
-        String details = stringResolver((RlpString) rootList.getValues().get(7));
-        details = new String(Numeric.hexStringToByteArray(details));
+        String details = reader.readUtf8();
         //质押的von amount programVersion
-        BigInteger amount =  bigIntegerResolver((RlpString) rootList.getValues().get(8));
+        BigInteger amount =  reader.readBigInteger();
         //程序的真实版本，治理rpc获取
-        BigInteger rewardPer =  bigIntegerResolver((RlpString) rootList.getValues().get(9));
+        BigInteger rewardPer =  reader.readBigInteger();
         //程序的真实版本，治理rpc获取
-        BigInteger version =  bigIntegerResolver((RlpString) rootList.getValues().get(10));
+        BigInteger version =  reader.readBigInteger();
 
         return StakeCreateParam.builder()
                 .type(type.intValue())
@@ -1,7 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
 import com.platon.browser.param.StakeExitParam;
 import com.platon.browser.param.TxParam;
 
@@ -12,9 +10,9 @@ import com.platon.browser.param.TxParam;
  **/
 public class StakeExitDecoder extends AbstractPPOSDecoder {
     private StakeExitDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         //被质押的节点的NodeId
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         return StakeExitParam.builder()
                 .nodeId(nodeId)
                 .nodeName("")
@@ -1,7 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
 import com.platon.browser.param.StakeIncreaseParam;
 import com.platon.browser.param.TxParam;
 
@@ -15,14 +13,14 @@ import java.math.BigInteger;
  **/
 public class StakeIncreaseDecoder extends AbstractPPOSDecoder {
     private StakeIncreaseDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 增持质押
         //被质押的节点的NodeId
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         //typ  表示使用账户自由金额还是账户的锁仓金额做质押 0: 自由金额； 1: 锁仓金额
-        BigInteger type =  bigIntegerResolver((RlpString) rootList.getValues().get(2));
+        BigInteger type =  reader.readBigInteger();
         //质押的von
-        BigInteger amount =  bigIntegerResolver((RlpString) rootList.getValues().get(3));
+        BigInteger amount =  reader.readBigInteger();
 
         return StakeIncreaseParam.builder()
                 .nodeId(nodeId)
@@ -1,8 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
-import com.platon.utils.Numeric;
 import com.platon.browser.param.StakeModifyParam;
 import com.platon.browser.param.TxParam;
 import org.apache.commons.lang3.StringUtils;
@@ -18,26 +15,22 @@ import static com.platon.browser.decoder.ppos.AbstractPPOSDecoder.*;
  */
 public class StakeModifyDecoder extends AbstractPPOSDecoder {
     private StakeModifyDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 修改质押信息
         //用于接受出块奖励和质押奖励的收益账户
-        String benefitAddress = addressResolver((RlpString) rootList.getValues().get(1));
+        String benefitAddress = addressResolver(reader);
         //被质押的节点的NodeId
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(2));
+        String nodeId = reader.readHex();
         //外部Id
-        BigInteger rewardPer = bigIntegerResolver((RlpString) rootList.getValues().get(3));
+        BigInteger rewardPer = reader.readBigInteger();
         //外部Id externalId
-        String externalId = stringResolver((RlpString) rootList.getValues().get(4));
-        externalId = externalId==null?null:new String(Numeric.hexStringToByteArray(externalId));
+        String externalId = reader.readUtf8();
         //被质押节点的名称
-        String nodeName = stringResolver((RlpString) rootList.getValues().get(5));
-        nodeName = nodeName==null?null:new String(Numeric.hexStringToByteArray(nodeName));
+        String nodeName = reader.readUtf8();
         //节点的第三方主页
-        String website = stringResolver((RlpString) rootList.getValues().get(6));
-        website = website==null?null:new String(Numeric.hexStringToByteArray(website));
+        String website = reader.readUtf8();
         //节点的描述
-        String detail = stringResolver((RlpString) rootList.getValues().get(7));
-        detail = detail==null?null:new String(Numeric.hexStringToByteArray(detail));
+        String detail = reader.readUtf8();
 
         String externalId2 = externalId;
         if(StringUtils.isBlank(externalId)) externalId2 = null;
@@ -1,7 +1,5 @@
 package com.platon.browser.decoder.ppos;
 
-import com.platon.rlp.solidity.RlpList;
-import com.platon.rlp.solidity.RlpString;
 import com.platon.browser.param.TxParam;
 import com.platon.browser.param.VersionDeclareParam;
 
@@ -14,14 +12,14 @@ import java.math.BigInteger;
  **/
 public class VersionDeclareDecoder extends AbstractPPOSDecoder {
     private VersionDeclareDecoder(){}
-    public static TxParam decode(RlpList rootList) {
+    public static TxParam decode(RlpReader reader) {
         // 版本声明
         //声明的节点，只能是验证人/候选人
-        String nodeId = stringResolver((RlpString) rootList.getValues().get(1));
+        String nodeId = reader.readHex();
         //声明的版本，有rpc的getProgramVersion接口获取
-        BigInteger version =  bigIntegerResolver((RlpString) rootList.getValues().get(2));
+        BigInteger version =  reader.readBigInteger();
         //声明的版本签名，有rpc的getProgramVersion接口获取
-        String versionSign = stringResolver((RlpString) rootList.getValues().get(3));
+        String versionSign = reader.readHex();
         return VersionDeclareParam.builder()
                 .activeNode(nodeId)
                 .version(version.intValue())
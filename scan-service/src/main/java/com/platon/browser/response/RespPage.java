@@ -34,6 +34,10 @@ public class RespPage<T> {
      * 总页数
      */
     private long totalPages;
+    /**
+     * 总数是否精确，总数超过统计上限时为false，前端展示为"总数+"
+     */
+    private boolean totalAccurate = true;
     /**
      * 响应数据
      */
@@ -99,6 +103,14 @@ public class RespPage<T> {
         this.totalPages = totalPages;
     }
 
+    public boolean isTotalAccurate() {
+        return totalAccurate;
+    }
+
+    public void setTotalAccurate(boolean totalAccurate) {
+        this.totalAccurate = totalAccurate;
+    }
+
     public List<T> getData() {
         return data;
     }
@@ -0,0 +1,23 @@
+package com.platon.browser.response;
+
+/**
+ * 带数据版本的分页对象，版本不变时列表数据不变
+ *
+ * @date 2026/10/19
+ */
+public class VersionRespPage<T> extends RespPage<T> {
+
+    /**
+     * 数据版本
+     */
+    private Long version;
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+}
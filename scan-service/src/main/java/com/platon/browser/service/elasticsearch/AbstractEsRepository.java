@@ -8,17 +8,23 @@ import com.platon.browser.service.elasticsearch.query.ESQueryBuilderConstructor;
 import com.platon.browser.utils.SpringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.action.admin.indices.alias.Alias;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
@@ -29,6 +35,8 @@ import org.elasticsearch.client.core.CountResponse;
 import org.elasticsearch.client.indices.*;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.DeleteByQueryRequest;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
@@ -55,6 +63,21 @@ public abstract class AbstractEsRepository {
 
     private static final String CONSUME_TIME_TIPS = "处理耗时:{} ms";
 
+    /**
+     * 分区索引名称分隔符，分区索引名称为：<索引名称>_p<分区序号>，索引名称同时作为所有分区的别名
+     */
+    private static final String PARTITION_SEPARATOR = "_p";
+
+    /**
+     * 按区块范围路由查询时最多指定的分区数，超过则直接查询别名
+     */
+    private static final int MAX_ROUTING_PARTITION_COUNT = 16;
+
+    /**
+     * 默认主分片数
+     */
+    private static final int DEFAULT_NUMBER_OF_SHARDS = 5;
+
     @Resource(name = "restHighLevelClient")
     protected RestHighLevelClient client;
 
@@ -68,27 +91,155 @@ public abstract class AbstractEsRepository {
 
     public abstract String getTemplateFileName();
 
-    private String getTplJson() {
+    /**
+     * 获取文档所属分区的区块号，仅分区索引需要实现
+     *
+     * @param doc 文档
+     * @return java.lang.Long 区块号，返回null时写入第一个分区
+     */
+    protected Long getPartitionBlockNumber(Object doc) {
+        return null;
+    }
+
+    private Map<String, Object> getTpl() {
         String tplName = getTemplateFileName() + TPL_FILE_SUFFIX;
         log.debug("template file:{}", tplName);
         try {
             Yaml yaml = new Yaml();
-            Object result = yaml.load(AbstractEsRepository.class.getResourceAsStream(CLASSPATH_ES_TPL_DIR + tplName));
-            String json = JSON.toJSONString(result);
-            log.debug("template json:{}", json);
-            return json;
+            Map<String, Object> result = yaml.load(AbstractEsRepository.class.getResourceAsStream(CLASSPATH_ES_TPL_DIR + tplName));
+            if (result != null) {
+                overrideNumberOfShards(result);
+            }
+            return result;
         } catch (Exception e) {
             log.warn("解析文件{}出错：{}", tplName, e.getMessage());
+            return null;
+        }
+    }
+
+    private String toTplJson(Map<String, Object> tpl) {
+        if (tpl == null) {
             return "";
         }
+        String json = JSON.toJSONString(tpl);
+        log.debug("template json:{}", json);
+        return json;
+    }
+
+    /**
+     * 使用配置的主分片数覆盖模板中的设置
+     */
+    @SuppressWarnings("unchecked")
+    private void overrideNumberOfShards(Map<String, Object> tpl) {
+        Integer numberOfShards = getConfiguredNumberOfShards();
+        if (numberOfShards == null) {
+            return;
+        }
+        Object settings = tpl.get("settings");
+        if (settings instanceof Map) {
+            Object index = ((Map<String, Object>) settings).get("index");
+            if (index instanceof Map) {
+                ((Map<String, Object>) index).put("number_of_shards", String.valueOf(numberOfShards));
+            }
+        }
+    }
+
+    private Integer getConfiguredNumberOfShards() {
+        if (config == null || config.getNumberOfShards() == null) {
+            return null;
+        }
+        return config.getNumberOfShards().get(getTemplateFileName());
+    }
+
+    /**
+     * 每个分区包含的区块数，0表示不分区
+     */
+    private long getPartitionBlockCount() {
+        if (config == null || config.getPartitionBlockCount() == null) {
+            return 0;
+        }
+        Long partitionBlockCount = config.getPartitionBlockCount().get(getTemplateFileName());
+        return partitionBlockCount == null || partitionBlockCount < 0 ? 0 : partitionBlockCount;
+    }
+
+    /**
+     * 是否按区块范围分区
+     *
+     * @return boolean
+     */
+    public boolean isPartitioned() {
+        return getPartitionBlockCount() > 0;
+    }
+
+    /**
+     * 获取区块所属的分区索引名称
+     *
+     * @param blockNumber 区块号
+     * @return java.lang.String
+     */
+    public String getPartitionIndexName(long blockNumber) {
+        return String.format("%s%s%06d", getIndexName(), PARTITION_SEPARATOR, Math.max(blockNumber, 0) / getPartitionBlockCount());
+    }
+
+    /**
+     * 获取区块范围涉及的索引名称，未分区或范围未知时返回索引名称(别名)
+     *
+     * @param fromBlock 起始区块号
+     * @param toBlock   结束区块号
+     * @return java.lang.String[]
+     */
+    public String[] getSearchIndexNames(Long fromBlock, Long toBlock) {
+        if (!isPartitioned() || fromBlock == null || toBlock == null || fromBlock > toBlock) {
+            return new String[]{getIndexName()};
+        }
+        long partitionBlockCount = getPartitionBlockCount();
+        long fromPartition = Math.max(fromBlock, 0) / partitionBlockCount;
+        long toPartition = Math.max(toBlock, 0) / partitionBlockCount;
+        if (toPartition - fromPartition >= MAX_ROUTING_PARTITION_COUNT) {
+            return new String[]{getIndexName()};
+        }
+        List<String> indexNames = new ArrayList<>();
+        for (long partition = fromPartition; partition <= toPartition; partition++) {
+            indexNames.add(getPartitionIndexName(partition * partitionBlockCount));
+        }
+        return indexNames.toArray(new String[0]);
+    }
+
+    private <T> String getWriteIndexName(T doc) {
+        if (!isPartitioned()) {
+            return getIndexName();
+        }
+        Long blockNumber = getPartitionBlockNumber(doc);
+        if (blockNumber == null) {
+            log.warn("索引[{}]文档缺少分区区块号，写入第一个分区", getIndexName());
+            blockNumber = 0L;
+        }
+        return getPartitionIndexName(blockNumber);
+    }
+
+    private SearchRequest newSearchRequest(ESQueryBuilderConstructor constructor) {
+        String[] indexNames = getSearchIndexNames(constructor.getFromBlock(), constructor.getToBlock());
+        SearchRequest searchRequest = new SearchRequest(indexNames);
+        if (indexNames.length > 1 || !getIndexName().equals(indexNames[0])) {
+            // 路由到具体分区时忽略尚未创建的分区
+            searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        }
+        return searchRequest;
     }
 
     @PostConstruct
     public void init() {
         try {
             String templateName = getIndexName() + "_tpl";
-            String templateJson = getTplJson();
-            putIndexTemplate(templateName, templateJson);
+            Map<String, Object> tpl = getTpl();
+            putIndexTemplate(templateName, toTplJson(tpl));
+            if (tpl != null && isPartitioned()) {
+                // 分区索引模板：匹配<索引名称>_p*，并为每个分区挂载以索引名称命名的别名
+                Map<String, Object> partitionTpl = new LinkedHashMap<>(tpl);
+                partitionTpl.put("index_patterns", Collections.singletonList(getIndexName() + PARTITION_SEPARATOR + "*"));
+                partitionTpl.put("aliases", Collections.singletonMap(getIndexName(), Collections.emptyMap()));
+                putIndexTemplate(getIndexName() + "_partition_tpl", toTplJson(partitionTpl));
+            }
         } catch (IOException e) {
             log.error("Automatic detection of internal transaction index template failed.", e);
             throw new RuntimeException(e);
@@ -213,9 +364,20 @@ public abstract class AbstractEsRepository {
         // 查询的返回数量，默认是10000
         setting.put("max_result_window", 2000000000);
         // 主碎片的数量
-        setting.put("number_of_shards", 5);
+        Integer numberOfShards = getConfiguredNumberOfShards();
+        setting.put("number_of_shards", numberOfShards == null ? DEFAULT_NUMBER_OF_SHARDS : numberOfShards);
         // 副本每个主碎片的数量
         setting.put("number_of_replicas", 1);
+        if (isPartitioned()) {
+            // 分区索引创建第一个分区，索引名称作为别名，后续分区写入时按分区模板自动创建
+            String partitionIndexName = getPartitionIndexName(0);
+            CreateIndexRequest request = new CreateIndexRequest(partitionIndexName);
+            request.settings(setting);
+            request.alias(new Alias(getIndexName()));
+            client.indices().create(request, RequestOptions.DEFAULT);
+            log.info("分区索引[{}]创建完成，别名[{}]", partitionIndexName, getIndexName());
+            return true;
+        }
         this.createIndex(setting, null);
         log.info("索引[{}]创建完成", getIndexName());
         return true;
@@ -229,7 +391,7 @@ public abstract class AbstractEsRepository {
     public <T> void add(String id, T doc) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        IndexRequest request = new IndexRequest(getIndexName());
+        IndexRequest request = new IndexRequest(getWriteIndexName(doc));
         request.id(id).source(JSON.toJSONString(doc), XContentType.JSON);
         IndexResponse response = client.index(request, RequestOptions.DEFAULT);
 
@@ -245,6 +407,9 @@ public abstract class AbstractEsRepository {
      * @throws IOException
      */
     public boolean exists(String id) throws IOException {
+        if (isPartitioned()) {
+            return getHitById(id, false) != null;
+        }
         long startTime = System.currentTimeMillis();
 
         GetRequest request = new GetRequest(getIndexName(), id);
@@ -264,6 +429,11 @@ public abstract class AbstractEsRepository {
      * @throws IOException
      */
     public <T> T get(String id, Class<T> clazz) throws IOException {
+        if (isPartitioned()) {
+            // 别名指向多个分区时不支持按id获取，改为按id查询
+            SearchHit hit = getHitById(id, true);
+            return hit == null ? null : JSON.parseObject(hit.getSourceAsString(), clazz);
+        }
         long startTime = System.currentTimeMillis();
 
         GetRequest request = new GetRequest(getIndexName(), id);
@@ -276,6 +446,49 @@ public abstract class AbstractEsRepository {
         return JSON.parseObject(res, clazz);
     }
 
+    /**
+     * 一次请求批量获取记录信息
+     *
+     * @param ids   文档id
+     * @param clazz 文档类型
+     * @param fields 只返回的字段，为空时返回全部字段
+     * @return java.util.Map<java.lang.String, T> key:文档id，不存在的文档不返回
+     * @throws IOException
+     */
+    public <T> Map<String, T> multiGet(Collection<String> ids, Class<T> clazz, String... fields) throws IOException {
+        Map<String, T> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        long startTime = System.currentTimeMillis();
+
+        FetchSourceContext fetchSourceContext = new FetchSourceContext(true, fields.length == 0 ? null : fields, null);
+        if (isPartitioned()) {
+            // 别名指向多个分区时不支持按id获取，改为按id查询
+            SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+            searchSourceBuilder.query(QueryBuilders.idsQuery().addIds(ids.toArray(new String[0]))).size(ids.size()).fetchSource(fetchSourceContext);
+            SearchRequest searchRequest = new SearchRequest(getIndexName());
+            searchRequest.source(searchSourceBuilder);
+            for (SearchHit hit : client.search(searchRequest, RequestOptions.DEFAULT).getHits().getHits()) {
+                result.put(hit.getId(), JSON.parseObject(hit.getSourceAsString(), clazz));
+            }
+        } else {
+            MultiGetRequest request = new MultiGetRequest();
+            ids.forEach(id -> request.add(new MultiGetRequest.Item(getIndexName(), id).fetchSourceContext(fetchSourceContext)));
+            for (MultiGetItemResponse item : client.mget(request, RequestOptions.DEFAULT).getResponses()) {
+                if (item.isFailed()) {
+                    log.warn("索引[{}]获取文档[{}]失败:{}", getIndexName(), item.getId(), item.getFailure().getMessage());
+                } else if (item.getResponse().isExists()) {
+                    result.put(item.getId(), JSON.parseObject(item.getResponse().getSourceAsString(), clazz));
+                }
+            }
+        }
+
+        log.debug(CONSUME_TIME_TIPS, System.currentTimeMillis() - startTime);
+
+        return result;
+    }
+
     /**
      * 更新记录信息
      *
@@ -284,7 +497,19 @@ public abstract class AbstractEsRepository {
     public <T> void update(String id, T block) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        UpdateRequest request = new UpdateRequest(getIndexName(), id);
+        String indexName;
+        if (isPartitioned() && getPartitionBlockNumber(block) == null) {
+            // 部分更新的文档没有分区区块号，按id查询文档所在分区
+            SearchHit hit = getHitById(id, false);
+            if (hit == null) {
+                log.warn("索引[{}]不存在文档[{}]，忽略更新", getIndexName(), id);
+                return;
+            }
+            indexName = hit.getIndex();
+        } else {
+            indexName = getWriteIndexName(block);
+        }
+        UpdateRequest request = new UpdateRequest(indexName, id);
         request.doc(JSON.toJSONString(block), XContentType.JSON);
         UpdateResponse response = client.update(request, RequestOptions.DEFAULT);
 
@@ -302,7 +527,15 @@ public abstract class AbstractEsRepository {
     public void delete(String id) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        DeleteRequest request = new DeleteRequest(getIndexName(), id);
+        String indexName = getIndexName();
+        if (isPartitioned()) {
+            SearchHit hit = getHitById(id, false);
+            if (hit == null) {
+                return;
+            }
+            indexName = hit.getIndex();
+        }
+        DeleteRequest request = new DeleteRequest(indexName, id);
         DeleteResponse response = client.delete(request, RequestOptions.DEFAULT);
 
         log.debug(CONSUME_TIME_TIPS, System.currentTimeMillis() - startTime);
@@ -351,12 +584,36 @@ public abstract class AbstractEsRepository {
      * @throws IOException
      */
     public <T> ESResult<T> search(ESQueryBuilderConstructor constructor, Class<T> clazz, int pageNo, int pageSize) throws IOException {
+        return search(constructor, clazz, pageNo, pageSize, null);
+    }
+
+    /**
+     * 搜索并在同一次请求中统计总数，替代search + Count两次请求
+     * 总数统计到配置的上限为止，超过上限时总数为近似值
+     *
+     * @throws IOException
+     */
+    public <T> ESResult<T> searchWithTotal(ESQueryBuilderConstructor constructor, Class<T> clazz, int pageNo, int pageSize) throws IOException {
+        return search(constructor, clazz, pageNo, pageSize, config.getTrackTotalHitsUpTo());
+    }
+
+    /**
+     * 搜索并在同一次请求中统计总数，只需判断是否超过某个数量时使用较小的上限，统计代价更低
+     *
+     * @param trackTotalHitsUpTo 总数统计上限
+     * @throws IOException
+     */
+    public <T> ESResult<T> searchWithTotal(ESQueryBuilderConstructor constructor, Class<T> clazz, int pageNo, int pageSize, int trackTotalHitsUpTo) throws IOException {
+        return search(constructor, clazz, pageNo, pageSize, trackTotalHitsUpTo);
+    }
+
+    private <T> ESResult<T> search(ESQueryBuilderConstructor constructor, Class<T> clazz, int pageNo, int pageSize, Integer trackTotalHitsUpTo) throws IOException {
         long startTime = System.currentTimeMillis();
 
         if (pageNo <= 0) {
             pageNo = 1;
         }
-        SearchRequest searchRequest = new SearchRequest(getIndexName());
+        SearchRequest searchRequest = newSearchRequest(constructor);
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         //排序
         if (StringUtils.isNotEmpty(constructor.getAsc())) {
@@ -381,6 +638,9 @@ public abstract class AbstractEsRepository {
         if (constructor.getResult() != null) {
             searchSourceBuilder.fetchSource(constructor.getResult(), null);
         }
+        if (trackTotalHitsUpTo != null) {
+            searchSourceBuilder.trackTotalHitsUpTo(trackTotalHitsUpTo);
+        }
         // 设置SearchSourceBuilder查询属性
         searchRequest.source(searchSourceBuilder);
         log.debug("get rs" + searchSourceBuilder.toString());
@@ -388,6 +648,7 @@ public abstract class AbstractEsRepository {
         ESResult<T> esResult = new ESResult<>();
         SearchHits hits = response.getHits();
         esResult.setTotal(hits.getTotalHits().value);
+        esResult.setTotalAccurate(hits.getTotalHits().relation == TotalHits.Relation.EQUAL_TO);
         List<T> list = new ArrayList<>();
         Arrays.asList(hits.getHits()).forEach(hit -> list.add(JSON.parseObject(hit.getSourceAsString(), clazz)));
         esResult.setRsData(list);
@@ -405,7 +666,11 @@ public abstract class AbstractEsRepository {
     public ESResult<?> Count(ESQueryBuilderConstructor constructor) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        CountRequest searchRequest = new CountRequest(getIndexName());
+        String[] indexNames = getSearchIndexNames(constructor.getFromBlock(), constructor.getToBlock());
+        CountRequest searchRequest = new CountRequest(indexNames);
+        if (indexNames.length > 1 || !getIndexName().equals(indexNames[0])) {
+            searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        }
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         //设置查询体
         searchSourceBuilder.query(constructor.listBuilders());
@@ -429,13 +694,7 @@ public abstract class AbstractEsRepository {
     public <T> void bulkAddOrUpdate(Map<String, T> docs) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        BulkRequest br = new BulkRequest();
-        for (Map.Entry<String, T> doc : docs.entrySet()) {
-            IndexRequest ir = new IndexRequest(getIndexName());
-            ir.id(doc.getKey());
-            ir.source(JSON.toJSONString(doc.getValue()), XContentType.JSON);
-            br.add(ir);
-        }
+        BulkRequest br = buildBulkIndexRequest(docs);
         try {
             BulkResponse response = client.bulk(br, RequestOptions.DEFAULT);
             log.debug(CONSUME_TIME_TIPS, System.currentTimeMillis() - startTime);
@@ -453,6 +712,43 @@ public abstract class AbstractEsRepository {
 
     }
 
+    /**
+     * 批量增加或更新，返回写入失败的文档id
+     * 单个文档失败不会抛出异常，由调用方决定是否重试
+     *
+     * @throws IOException
+     */
+    public <T> Set<String> bulkAddOrUpdateForFailures(Map<String, T> docs) throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        BulkRequest br = buildBulkIndexRequest(docs);
+        BulkResponse response = client.bulk(br, RequestOptions.DEFAULT);
+        Set<String> failedIds = new HashSet<>();
+        if (response.hasFailures()) {
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed()) {
+                    failedIds.add(item.getId());
+                    log.warn("文档[{}]写入索引[{}]失败:{}", item.getId(), getIndexName(), item.getFailureMessage());
+                }
+            }
+        }
+
+        log.debug(CONSUME_TIME_TIPS, System.currentTimeMillis() - startTime);
+
+        return failedIds;
+    }
+
+    private <T> BulkRequest buildBulkIndexRequest(Map<String, T> docs) {
+        BulkRequest br = new BulkRequest();
+        for (Map.Entry<String, T> doc : docs.entrySet()) {
+            IndexRequest ir = new IndexRequest(getWriteIndexName(doc.getValue()));
+            ir.id(doc.getKey());
+            ir.source(JSON.toJSONString(doc.getValue()), XContentType.JSON);
+            br.add(ir);
+        }
+        return br;
+    }
+
     /**
      * 批量删除
      *
@@ -461,6 +757,15 @@ public abstract class AbstractEsRepository {
     public void bulkDelete(List<String> ids) throws IOException {
         long startTime = System.currentTimeMillis();
 
+        if (isPartitioned()) {
+            // 文档所在分区未知，按id删除
+            DeleteByQueryRequest request = new DeleteByQueryRequest(getIndexName());
+            request.setQuery(QueryBuilders.idsQuery().addIds(ids.toArray(new String[0])));
+            client.deleteByQuery(request, RequestOptions.DEFAULT);
+            log.debug(CONSUME_TIME_TIPS, System.currentTimeMillis() - startTime);
+            return;
+        }
+
         BulkRequest br = new BulkRequest();
         for (String id : ids) {
             DeleteRequest dr = new DeleteRequest(getIndexName(), id);
@@ -473,4 +778,26 @@ public abstract class AbstractEsRepository {
         log.debug("bulkDelete:{}", JSON.toJSONString(response));
     }
 
+    /**
+     * 按id查询文档，用于分区索引
+     *
+     * @param id        文档id
+     * @param withSource 是否返回文档内容
+     * @return org.elasticsearch.search.SearchHit 不存在时返回null
+     * @throws IOException
+     */
+    private SearchHit getHitById(String id, boolean withSource) throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+        searchSourceBuilder.query(QueryBuilders.idsQuery().addIds(id)).size(1).fetchSource(withSource);
+        SearchRequest searchRequest = new SearchRequest(getIndexName());
+        searchRequest.source(searchSourceBuilder);
+        SearchHit[] hits = client.search(searchRequest, RequestOptions.DEFAULT).getHits().getHits();
+
+        log.debug(CONSUME_TIME_TIPS, System.currentTimeMillis() - startTime);
+
+        return hits.length == 0 ? null : hits[0];
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.platon.browser.service.elasticsearch;
 
+import com.platon.browser.elasticsearch.dto.DelegationReward;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +19,8 @@ public class EsDelegationRewardRepository extends AbstractEsRepository {
     public String getTemplateFileName() {
         return "delegate-reward";
     }
+    @Override
+    protected Long getPartitionBlockNumber(Object doc) {
+        return doc instanceof DelegationReward ? ((DelegationReward) doc).getBn() : null;
+    }
 }
@@ -1,5 +1,6 @@
 package com.platon.browser.service.elasticsearch;
 
+import com.platon.browser.elasticsearch.dto.ErcTx;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
@@ -15,4 +16,8 @@ public class EsErc20TxRepository extends AbstractEsRepository {
     }
     @Override
     public String getTemplateFileName(){return "erc20-tx";}
+    @Override
+    protected Long getPartitionBlockNumber(Object doc) {
+        return doc instanceof ErcTx ? ((ErcTx) doc).getBn() : null;
+    }
 }
@@ -1,5 +1,6 @@
 package com.platon.browser.service.elasticsearch;
 
+import com.platon.browser.elasticsearch.dto.ErcTx;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
@@ -17,4 +18,8 @@ public class EsErc721TxRepository extends AbstractEsRepository {
     public String getTemplateFileName() {
         return "erc721-tx";
     }
+    @Override
+    protected Long getPartitionBlockNumber(Object doc) {
+        return doc instanceof ErcTx ? ((ErcTx) doc).getBn() : null;
+    }
 }
@@ -1,5 +1,6 @@
 package com.platon.browser.service.elasticsearch;
 
+import com.platon.browser.dao.entity.NOptBak;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -17,4 +18,8 @@ public class EsNodeOptRepository extends AbstractEsRepository {
     public String getTemplateFileName() {
         return "nodeopt";
     }
+    @Override
+    protected Long getPartitionBlockNumber(Object doc) {
+        return doc instanceof NOptBak ? ((NOptBak) doc).getbNum() : null;
+    }
 }
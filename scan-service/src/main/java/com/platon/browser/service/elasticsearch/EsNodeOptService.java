@@ -9,8 +9,11 @@ import org.springframework.stereotype.Service;
 import javax.annotation.Resource;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @Auther: Chendongming
@@ -41,4 +44,18 @@ public class EsNodeOptService implements EsService<NOptBak> {
         }
     }
 
+    /**
+     * 批量写入，返回写入失败的记录id
+     *
+     * @param nodeOpts 节点操作记录
+     * @return java.util.Set<java.lang.Long> 写入失败的记录id
+     * @date 2026/10/19
+     */
+    public Set<Long> bulkSave(List<NOptBak> nodeOpts) throws IOException {
+        Map<String, NOptBak> nodeOptMap = new LinkedHashMap<>();
+        // 使用(<id>)作ES的docId
+        nodeOpts.forEach(n -> nodeOptMap.put(n.getId().toString(), n));
+        return ESNodeOptRepository.bulkAddOrUpdateForFailures(nodeOptMap).stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.platon.browser.service.elasticsearch;
 
+import com.platon.browser.elasticsearch.dto.Transaction;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -17,4 +18,8 @@ public class EsTransactionRepository extends AbstractEsRepository {
     public String getTemplateFileName() {
         return "transaction";
     }
+    @Override
+    protected Long getPartitionBlockNumber(Object doc) {
+        return doc instanceof Transaction ? ((Transaction) doc).getNum() : null;
+    }
 }
@@ -1,5 +1,6 @@
 package com.platon.browser.service.elasticsearch;
 
+import com.platon.browser.dao.entity.TxTransferBak;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
@@ -17,4 +18,8 @@ public class EsTransferTxRepository extends AbstractEsRepository {
     public String getTemplateFileName() {
         return "transfer-tx";
     }
+    @Override
+    protected Long getPartitionBlockNumber(Object doc) {
+        return doc instanceof TxTransferBak ? ((TxTransferBak) doc).getBn() : null;
+    }
 }
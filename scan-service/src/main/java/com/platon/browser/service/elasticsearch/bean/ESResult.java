@@ -8,6 +8,11 @@ public class ESResult<T> {
 	
 	private List<T> rsData;
 
+	/**
+	 * 总数是否精确，总数超过统计上限时为false
+	 */
+	private Boolean totalAccurate;
+
 	public Long getTotal() {
 		return total;
 	}
@@ -23,5 +28,13 @@ public class ESResult<T> {
 	public void setRsData(List<T> rsData) {
 		this.rsData = rsData;
 	}
+
+	public Boolean getTotalAccurate() {
+		return totalAccurate;
+	}
+
+	public void setTotalAccurate(Boolean totalAccurate) {
+		this.totalAccurate = totalAccurate;
+	}
 	
 }
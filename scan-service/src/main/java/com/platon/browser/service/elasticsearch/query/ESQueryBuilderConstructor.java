@@ -50,6 +50,13 @@ public class ESQueryBuilderConstructor {
 
     private String[] result;
 
+    /**
+     * 查询涉及的区块范围，仅用于分区索引路由，不作为查询条件
+     */
+    private Long fromBlock;
+
+    private Long toBlock;
+
     //构造builder
     public QueryBuilder listBuilders() {
         int count = mustCriterions.size() + shouldCriterions.size() + mustNotCriterions.size() + queryMustBuilders.size() + queryShouldBuilders.size();
@@ -150,6 +157,23 @@ public class ESQueryBuilderConstructor {
         return this;
     }
 
+    /**
+     * 指定查询涉及的区块范围，分区索引只查询该范围所在的分区
+     */
+    public ESQueryBuilderConstructor blockRange(Long fromBlock, Long toBlock) {
+        this.fromBlock = fromBlock;
+        this.toBlock = toBlock;
+        return this;
+    }
+
+    public Long getFromBlock() {
+        return fromBlock;
+    }
+
+    public Long getToBlock() {
+        return toBlock;
+    }
+
     public int getSize() {
         return size;
     }
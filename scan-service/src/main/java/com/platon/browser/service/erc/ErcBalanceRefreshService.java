@@ -0,0 +1,281 @@
+package com.platon.browser.service.erc;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.dao.custommapper.CustomToken1155HolderMapper;
+import com.platon.browser.dao.custommapper.CustomTokenHolderMapper;
+import com.platon.browser.dao.custommapper.CustomTokenMapper;
+import com.platon.browser.dao.entity.Token1155Holder;
+import com.platon.browser.dao.entity.Token1155HolderKey;
+import com.platon.browser.dao.entity.TokenHolder;
+import com.platon.protocol.core.DefaultBlockParameter;
+import com.platon.tx.exceptions.ContractCallException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * token持有者余额批量刷新
+ * 1、持有者按合约排序分片，按子调用数及gas上限切分multiCall批次
+ * 2、多个批次并行调用，在途批次数受限
+ * 3、批次内调用失败的子调用单独重试，整批合约调用失败时对半拆分重试，网络异常直接抛出，由任务放弃本轮更新且不推进断点
+ * 4、查询结果按批次流式落库
+ * 5、抽样核对agent按转账事件维护的余额账本
+ *
+ * @date: 2026/10/19
+ */
+@Slf4j
+@Component
+public class ErcBalanceRefreshService {
+
+    /**
+     * 每次落库的最大记录数
+     */
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    @Resource
+    private ErcServiceImpl ercServiceImpl;
+
+    @Resource
+    private BlockChainConfig blockChainConfig;
+
+    @Resource
+    private CustomTokenHolderMapper customTokenHolderMapper;
+
+    @Resource
+    private CustomToken1155HolderMapper customToken1155HolderMapper;
+
+    @Resource
+    private CustomTokenMapper customTokenMapper;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(getConcurrency());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 刷新erc20/erc721持有者余额
+     *
+     * @param holders tokenAddress 和 address 必须传
+     * @return int 更新的记录数
+     */
+    public int refreshTokenHolderBalance(List<TokenHolder> holders) throws Exception {
+        return refresh(holders, TokenHolder::getTokenAddress, ercServiceImpl::batchBalanceOfOwner, customTokenHolderMapper::batchUpdate);
+    }
+
+    /**
+     * 刷新erc1155持有者余额
+     *
+     * @param holders tokenAddress 和 address 和 tokenId 必须传
+     * @return int 更新的记录数
+     */
+    public int refreshToken1155HolderBalance(List<Token1155Holder> holders) throws Exception {
+        return refresh(holders, Token1155Holder::getTokenAddress, ercServiceImpl::batchBalanceOfOwnerAndId, customToken1155HolderMapper::batchUpdate);
+    }
+
+    /**
+     * 抽样核对erc20/erc721持有者余额账本
+     * 按agent已入库的块高查询链上余额，账本位置不超过该块高且余额不一致时，以链上余额修正，并标记该token改由定时任务轮询余额
+     *
+     * @param holders 抽样的持有者，tokenAddress 和 address 必须传
+     * @param blockNumber agent已入库的块高
+     * @return int 余额不一致的记录数
+     */
+    public int verifyTokenHolderBalance(List<TokenHolder> holders, long blockNumber) throws Exception {
+        DefaultBlockParameter block = DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber));
+        List<TokenHolder> mismatchList = new ArrayList<>();
+        refresh(holders, TokenHolder::getTokenAddress, keys -> ercServiceImpl.batchBalanceOfOwner(keys, block), chainList -> chainList.forEach(chain -> {
+            // 链上余额查询完成后再读取账本，账本位置超过核对块高的记录不参与比较
+            TokenHolder ledger = customTokenHolderMapper.selectLedgerByKey(chain);
+            if (ledger != null && isMismatch(ledger.getBalance(), ledger.getLedgerBn(), chain.getBalance(), blockNumber)) {
+                log.warn("token[{}]持有者[{}]在块高[{}]的余额账本[{}]与链上余额[{}]不一致", chain.getTokenAddress(), chain.getAddress(), blockNumber, ledger.getBalance(), chain.getBalance());
+                chain.setLedgerBn(blockNumber);
+                mismatchList.add(chain);
+            }
+        }));
+        if (!mismatchList.isEmpty()) {
+            customTokenHolderMapper.batchCorrectBalance(mismatchList);
+            markBalancePolling(mismatchList.stream().map(TokenHolder::getTokenAddress).collect(Collectors.toSet()), blockNumber);
+        }
+        return mismatchList.size();
+    }
+
+    /**
+     * 抽样核对erc1155持有者余额账本
+     *
+     * @param holders 抽样的持有者，tokenAddress 和 address 和 tokenId 必须传
+     * @param blockNumber agent已入库的块高
+     * @return int 余额不一致的记录数
+     */
+    public int verifyToken1155HolderBalance(List<Token1155Holder> holders, long blockNumber) throws Exception {
+        DefaultBlockParameter block = DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber));
+        List<Token1155Holder> mismatchList = new ArrayList<>();
+        refresh(holders, Token1155Holder::getTokenAddress, keys -> ercServiceImpl.batchBalanceOfOwnerAndId(keys, block), chainList -> chainList.forEach(chain -> {
+            Token1155HolderKey key = new Token1155HolderKey();
+            key.setTokenAddress(chain.getTokenAddress());
+            key.setTokenId(chain.getTokenId());
+            key.setAddress(chain.getAddress());
+            Token1155Holder ledger = customToken1155HolderMapper.selectByUK(key);
+            if (ledger != null && isMismatch(ledger.getBalance(), ledger.getLedgerBn(), chain.getBalance(), blockNumber)) {
+                log.warn("token[{}]的tokenId[{}]持有者[{}]在块高[{}]的余额账本[{}]与链上余额[{}]不一致", chain.getTokenAddress(), chain.getTokenId(), chain.getAddress(), blockNumber, ledger.getBalance(), chain.getBalance());
+                chain.setLedgerBn(blockNumber);
+                mismatchList.add(chain);
+            }
+        }));
+        if (!mismatchList.isEmpty()) {
+            customToken1155HolderMapper.batchCorrectBalance(mismatchList);
+            markBalancePolling(mismatchList.stream().map(Token1155Holder::getTokenAddress).collect(Collectors.toSet()), blockNumber);
+        }
+        return mismatchList.size();
+    }
+
+    private boolean isMismatch(String ledgerBalance, Long ledgerBn, String chainBalance, long blockNumber) {
+        if (ledgerBn != null && ledgerBn > blockNumber) {
+            return false;
+        }
+        return new BigDecimal(StrUtil.blankToDefault(ledgerBalance, "0")).compareTo(new BigDecimal(chainBalance)) != 0;
+    }
+
+    private void markBalancePolling(Set<String> tokenAddressSet, long blockNumber) {
+        tokenAddressSet.forEach(tokenAddress -> {
+            customTokenMapper.insertBalancePolling(tokenAddress, StrUtil.format("块高[{}]抽样核对余额不一致", blockNumber));
+            log.warn("token[{}]标记为余额轮询更新", tokenAddress);
+        });
+    }
+
+    private <T> int refresh(List<T> holders, Function<T, String> contractOf, BalanceCaller<T> caller, Consumer<List<T>> writer) throws Exception {
+        if (CollUtil.isEmpty(holders)) {
+            return 0;
+        }
+        // 按合约分片，同一合约的持有者落在相邻批次
+        List<T> sorted = new ArrayList<>(holders);
+        sorted.sort(Comparator.comparing(contractOf));
+        List<List<T>> batches = CollUtil.split(sorted, getBatchSize());
+        int concurrency = getConcurrency();
+        Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+        List<T> pending = new ArrayList<>();
+        int updated = 0;
+        try {
+            for (List<T> batch : batches) {
+                if (inFlight.size() >= concurrency) {
+                    updated += collect(inFlight.poll().get(), pending, writer);
+                }
+                inFlight.add(executor.submit(() -> call(batch, caller)));
+            }
+            while (!inFlight.isEmpty()) {
+                updated += collect(inFlight.poll().get(), pending, writer);
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        if (!pending.isEmpty()) {
+            writer.accept(pending);
+            updated += pending.size();
+        }
+        return updated;
+    }
+
+    /**
+     * 收集批次结果，达到落库批次大小时落库
+     */
+    private <T> int collect(List<T> result, List<T> pending, Consumer<List<T>> writer) {
+        pending.addAll(result);
+        if (pending.size() < WRITE_BATCH_SIZE) {
+            return 0;
+        }
+        List<T> toWrite = new ArrayList<>(pending);
+        pending.clear();
+        writer.accept(toWrite);
+        return toWrite.size();
+    }
+
+    /**
+     * 执行一个批次，返回查询成功的记录
+     *
+     * @throws IOException 网络异常，不拆分重试
+     */
+    private <T> List<T> call(List<T> batch, BalanceCaller<T> caller) throws IOException {
+        List<T> result;
+        try {
+            result = caller.call(batch);
+        } catch (ContractCallException e) {
+            if (batch.size() == 1) {
+                log.warn("查询token余额失败:{}", e.getMessage());
+                return new ArrayList<>();
+            }
+            // 整批调用失败(如单个合约耗尽gas)，对半拆分重试以隔离失败的子调用
+            log.warn("multiCall批次[{}]调用失败，拆分重试:{}", batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            List<T> success = new ArrayList<>(call(new ArrayList<>(batch.subList(0, middle)), caller));
+            success.addAll(call(new ArrayList<>(batch.subList(middle, batch.size())), caller));
+            return success;
+        }
+        List<T> success = result.stream().filter(holder -> !isBalanceMissing(holder)).collect(Collectors.toList());
+        if (success.size() < result.size() && result.size() > 1) {
+            // 只重试失败的子调用
+            List<T> retryList = result.stream().filter(this::isBalanceMissing).collect(Collectors.toList());
+            try {
+                caller.call(retryList).stream().filter(holder -> !isBalanceMissing(holder)).forEach(success::add);
+            } catch (ContractCallException e) {
+                log.warn("重试失败的子调用[{}]异常:{}", retryList.size(), e.getMessage());
+            }
+        }
+        return success;
+    }
+
+    private boolean isBalanceMissing(Object holder) {
+        if (holder instanceof TokenHolder) {
+            return ((TokenHolder) holder).getBalance() == null;
+        }
+        return ((Token1155Holder) holder).getBalance() == null;
+    }
+
+    /**
+     * 单批次子调用数，取配置的子调用数与gas上限允许的子调用数中的较小值
+     */
+    private int getBatchSize() {
+        long gasLimited = blockChainConfig.getMultiCallGasLimit() / Math.max(1, blockChainConfig.getMultiCallGasPerCall());
+        return (int) Math.max(1, Math.min(blockChainConfig.getMultiCallBatchSize(), gasLimited));
+    }
+
+    private int getConcurrency() {
+        return Math.max(1, blockChainConfig.getMultiCallConcurrency());
+    }
+
+    @FunctionalInterface
+    private interface BalanceCaller<T> {
+
+        List<T> call(List<T> keys) throws IOException;
+
+    }
+
+}
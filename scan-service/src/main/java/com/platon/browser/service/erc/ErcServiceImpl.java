@@ -2,7 +2,6 @@ package com.platon.browser.service.erc;
 
 import cn.hutool.core.text.StrFormatter;
 import cn.hutool.core.util.ObjectUtil;
-import com.platon.bech32.Bech32;
 import com.platon.browser.client.PlatOnClient;
 import com.platon.browser.config.BlockChainConfig;
 import com.platon.browser.dao.entity.Token1155Holder;
@@ -10,12 +9,14 @@ import com.platon.browser.dao.entity.TokenHolder;
 import com.platon.browser.dao.entity.TokenHolderKey;
 import com.platon.browser.enums.ErcTypeEnum;
 import com.platon.browser.exception.BusinessException;
+import com.platon.browser.utils.AddressUtil;
 import com.platon.browser.v0152.bean.ErcContractId;
 import com.platon.browser.v0152.contract.Erc1155Contract;
 import com.platon.browser.v0152.contract.Erc20Contract;
 import com.platon.browser.v0152.contract.Erc721Contract;
 import com.platon.browser.v0152.contract.ErcContract;
 import com.platon.browser.v0152.service.ErcDetectService;
+import com.platon.protocol.core.DefaultBlockParameter;
 import com.platon.protocol.core.DefaultBlockParameterName;
 import com.platon.protocol.core.methods.request.Transaction;
 import com.platon.protocol.core.methods.response.PlatonCall;
@@ -63,6 +64,19 @@ public class ErcServiceImpl {
      * @throws IOException 网络异常，可重试
      */
     public List<TokenHolder> batchBalanceOfOwner(List<TokenHolder> tokenHolderKeyList) throws IOException {
+        return batchBalanceOfOwner(tokenHolderKeyList, DefaultBlockParameterName.LATEST);
+    }
+
+    /**
+     * 批量查询指定块高的合约方法 balanceOf(owner)，适用于prc20 & prc721
+     *
+     * @param tokenHolderKeyList  tokenAddress 和 address 必须传
+     * @param block 块高
+     * @return 返回增加 balance 字段
+     * @throws IOException 网络异常，可重试
+     * @throws ContractCallException multiCall合约调用失败(如耗尽gas)
+     */
+    public List<TokenHolder> batchBalanceOfOwner(List<TokenHolder> tokenHolderKeyList, DefaultBlockParameter block) throws IOException {
         List<TokenHolder> tokenHolderList = new ArrayList<>();
         List<Call3> call3List = tokenHolderKeyList.stream()
                 .map(this::toCall3)
@@ -73,10 +87,10 @@ public class ErcServiceImpl {
                 }));
 
         PlatonCall ethCall = platOnClient.getWeb3jWrapper().getWeb3j().platonCall(Transaction.createEthCallTransaction(Address.DEFAULT.getValue(), blockChainConfig.getMultiCallContractAddress(),  FunctionEncoder.encode(function)),
-                        DefaultBlockParameterName.LATEST)
+                        block)
                         .send();
         if(ethCall.hasError()){
-            throw new RuntimeException("查询合约失败(MultiCall3)  msg = " + ethCall.getError().getMessage() + " code = " + ethCall.getError().getCode() );
+            throw new ContractCallException("查询合约失败(MultiCall3)  msg = " + ethCall.getError().getMessage() + " code = " + ethCall.getError().getCode() );
         }
         List resultList = executeCallSingleValueReturn(FunctionReturnDecoder.decode(ethCall.getValue(), function.getOutputParameters()), List.class);
         for (int i = 0; i < tokenHolderKeyList.size(); i++) {
@@ -106,6 +120,19 @@ public class ErcServiceImpl {
      * @throws IOException 网络异常，可重试
      */
     public List<Token1155Holder> batchBalanceOfOwnerAndId(List<Token1155Holder> tokenHolderKeyList) throws IOException {
+        return batchBalanceOfOwnerAndId(tokenHolderKeyList, DefaultBlockParameterName.LATEST);
+    }
+
+    /**
+     * 批量查询指定块高的合约方法 balanceOf(owner, id)，适用于prc1155
+     *
+     * @param tokenHolderKeyList  tokenAddress 和 address 和 tokenId 必须传
+     * @param block 块高
+     * @return 返回增加 balance 字段
+     * @throws IOException 网络异常，可重试
+     * @throws ContractCallException multiCall合约调用失败(如耗尽gas)
+     */
+    public List<Token1155Holder> batchBalanceOfOwnerAndId(List<Token1155Holder> tokenHolderKeyList, DefaultBlockParameter block) throws IOException {
         List<Token1155Holder> tokenHolderList = new ArrayList<>();
         List<Call3> call3List = tokenHolderKeyList.stream()
                 .map(this::toCall3)
@@ -116,10 +143,10 @@ public class ErcServiceImpl {
                 }));
 
         PlatonCall ethCall = platOnClient.getWeb3jWrapper().getWeb3j().platonCall(Transaction.createEthCallTransaction(Address.DEFAULT.getValue(), blockChainConfig.getMultiCallContractAddress(),  FunctionEncoder.encode(function)),
-                        DefaultBlockParameterName.LATEST)
+                        block)
                 .send();
         if(ethCall.hasError()){
-            throw new RuntimeException("查询合约失败(MultiCall3)  msg = " + ethCall.getError().getMessage() + " code = " + ethCall.getError().getCode() );
+            throw new ContractCallException("查询合约失败(MultiCall3)  msg = " + ethCall.getError().getMessage() + " code = " + ethCall.getError().getCode() );
         }
         List resultList = executeCallSingleValueReturn(FunctionReturnDecoder.decode(ethCall.getValue(), function.getOutputParameters()), List.class);
         for (int i = 0; i < tokenHolderKeyList.size(); i++) {
@@ -457,17 +484,17 @@ public class ErcServiceImpl {
 
     private Call3 toCall3(TokenHolderKey tokenHolderKey){
         Function balanceOfFunction = new org.web3j.abi.datatypes.Function("balanceOf",
-                Collections.singletonList(new Address(160, Bech32.addressDecodeHex(tokenHolderKey.getAddress()))),
+                Collections.singletonList(new Address(160, AddressUtil.toHex(tokenHolderKey.getAddress()))),
                 Collections.singletonList(new TypeReference<Uint256>() {
                 }));
-        return new Call3(Bech32.addressDecodeHex(tokenHolderKey.getTokenAddress()), true, Numeric.hexStringToByteArray(FunctionEncoder.encode(balanceOfFunction)));
+        return new Call3(AddressUtil.toHex(tokenHolderKey.getTokenAddress()), true, Numeric.hexStringToByteArray(FunctionEncoder.encode(balanceOfFunction)));
     }
 
     private Call3 toCall3(Token1155Holder tokenHolderKey){
         Function balanceOfFunction = new org.web3j.abi.datatypes.Function("balanceOf",
-                Arrays.asList(new Address(160,  Bech32.addressDecodeHex(tokenHolderKey.getAddress())), new Uint256(new BigInteger(tokenHolderKey.getTokenId()))),
+                Arrays.asList(new Address(160,  AddressUtil.toHex(tokenHolderKey.getAddress())), new Uint256(new BigInteger(tokenHolderKey.getTokenId()))),
                 Collections.singletonList(new TypeReference<Uint256>() {
                 }));
-        return new Call3(Bech32.addressDecodeHex(tokenHolderKey.getTokenAddress()), true, Numeric.hexStringToByteArray(FunctionEncoder.encode(balanceOfFunction)));
+        return new Call3(AddressUtil.toHex(tokenHolderKey.getTokenAddress()), true, Numeric.hexStringToByteArray(FunctionEncoder.encode(balanceOfFunction)));
     }
 }
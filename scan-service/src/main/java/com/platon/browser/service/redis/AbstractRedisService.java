@@ -3,6 +3,7 @@ package com.platon.browser.service.redis;
 import com.alibaba.fastjson.JSON;
 import com.platon.browser.config.RedisKeyConfig;
 import com.platon.browser.dao.entity.NetworkStat;
+import com.platon.browser.utils.LongHashSet;
 import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -28,8 +29,8 @@ public abstract class AbstractRedisService<T> {
     MinMaxScore minMax= MinMaxScore.builder().build();
     // 待入库元组列表
     Set<ZSetOperations.TypedTuple<String>> stageSet = new HashSet<>();
-    // 本次操作的参数列表中已经在redis中存在的记录score
-    Set<Long> existScore = new HashSet<>();
+    // 本次操作的参数列表中已经在redis中存在的记录score，批次间复用
+    LongHashSet existScore = new LongHashSet(1024);
 
     @Data
     @Builder
@@ -42,6 +42,27 @@ public class CalculateUtils {
         return networkStat.getIssueValue().subtract(incentivePoolAccountBalance);
     }
 
+    /**
+     * 按链龄获取基金会锁仓在锁仓合约中的剩余基金（单位：von）
+     * 基金会在创世块，会把一笔lat锁在锁仓合约中（注意，并非锁仓计划中），按年释放一部分，进入激励池
+     *
+     * @param chainConfig 链配置
+     * @param chainAge    链龄(增发年份)
+     * @return java.math.BigDecimal
+     */
+    public static BigDecimal getRemainingOfFoundationInRestricting(BlockChainConfig chainConfig, int chainAge) {
+        BigDecimal remain = BigDecimal.ZERO;
+        for (Integer key : chainConfig.getFoundationSubsidies().keySet()) {
+            if (key.compareTo(chainAge) > 0) {
+                remain = remain.add(chainConfig.getFoundationSubsidies().get(key));
+            }
+        }
+        if (remain.compareTo(BigDecimal.ZERO) > 0) {
+            remain = Convert.toVon(remain, Convert.Unit.KPVON);
+        }
+        return remain;
+    }
+
     /**
      * 轮换利润
      *
@@ -83,6 +83,24 @@ public class HttpUtil {
         return resolve(request,url,clazz);
     }
 
+    /**
+     * 发送GET请求，使用指定的连接及读取超时时间
+     * @param url
+     * @param clazz
+     * @param timeoutMillis 超时时间(毫秒)
+     * @param <T>
+     * @return
+     * @throws HttpRequestException
+     */
+    public static <T> T get(String url,Class<T> clazz,long timeoutMillis) throws HttpRequestException {
+        OkHttpClient client = CLIENT.newBuilder()
+                .connectTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+        Request request = new Request.Builder().url(url).build();
+        return resolve(client,request,url,clazz);
+    }
+
     /**
      * 解析结果
      * @param request
@@ -92,11 +110,15 @@ public class HttpUtil {
      * @return
      * @throws HttpRequestException
      */
-    @SuppressWarnings("unchecked")
 	private static <T> T resolve(Request request,String url,Class<T> clazz) throws HttpRequestException {
+        return resolve(CLIENT,request,url,clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T resolve(OkHttpClient client,Request request,String url,Class<T> clazz) throws HttpRequestException {
         Response response=null;
         try {
-            response = CLIENT.newCall(request).execute();
+            response = client.newCall(request).execute();
             if(response.isSuccessful()){
                 String res = Objects.requireNonNull(response.body()).string();
                 res = res.replace("\n","");
@@ -2,6 +2,7 @@ package com.platon.browser.v0152.analyzer;
 
 import cn.hutool.core.collection.ConcurrentHashSet;
 import com.platon.browser.bean.ErcToken;
+import com.platon.browser.dao.custommapper.CustomTokenMapper;
 import com.platon.browser.dao.entity.Token;
 import com.platon.browser.dao.mapper.TokenMapper;
 import com.platon.browser.enums.ErcTypeEnum;
@@ -25,9 +26,17 @@ public class ErcCache {
 
     Set<String> erc1155AddressCache = new ConcurrentHashSet<>();
 
+    /**
+     * 余额需要轮询链上更新的非标准token
+     */
+    Set<String> balancePollingCache = new ConcurrentHashSet<>();
+
     @Resource
     private TokenMapper tokenMapper;
 
+    @Resource
+    private CustomTokenMapper customTokenMapper;
+
     /**
      * 初始化token地址到缓存
      *
@@ -56,6 +65,48 @@ public class ErcCache {
                     break;
             }
         });
+        balancePollingCache.addAll(customTokenMapper.selectBalancePollingToken());
+        log.info("余额需要轮询更新的token数量为[{}]", balancePollingCache.size());
+    }
+
+    /**
+     * token余额是否需要轮询链上更新
+     *
+     * @param tokenAddress 合约地址
+     * @return boolean
+     * @date 2026/10/19
+     */
+    public boolean isBalancePolling(String tokenAddress) {
+        return balancePollingCache.contains(tokenAddress);
+    }
+
+    /**
+     * 标记token余额需要轮询链上更新，此后不再按转账事件记账
+     *
+     * @param tokenAddress 合约地址
+     * @param reason 标记原因
+     * @return void
+     * @date 2026/10/19
+     */
+    public void markBalancePolling(String tokenAddress, String reason) {
+        if (balancePollingCache.add(tokenAddress)) {
+            customTokenMapper.insertBalancePolling(tokenAddress, reason);
+            log.warn("token[{}]标记为余额轮询更新:{}", tokenAddress, reason);
+        }
+    }
+
+    /**
+     * 同步其他服务(job抽样核对余额不一致时)标记的余额轮询token，同步后不再按转账事件记账
+     *
+     * @return void
+     * @date 2026/10/19
+     */
+    public void refreshBalancePolling() {
+        customTokenMapper.selectBalancePollingToken().forEach(tokenAddress -> {
+            if (balancePollingCache.add(tokenAddress)) {
+                log.warn("token[{}]已被标记为余额轮询更新，停止按转账事件记账", tokenAddress);
+            }
+        });
     }
 
     public Map<String, ErcToken> getTokenCache() {
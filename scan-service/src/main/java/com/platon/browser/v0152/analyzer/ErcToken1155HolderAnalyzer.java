@@ -1,10 +1,10 @@
 package com.platon.browser.v0152.analyzer;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
 import com.platon.browser.dao.custommapper.CustomToken1155HolderMapper;
 import com.platon.browser.dao.entity.Token1155Holder;
 import com.platon.browser.dao.entity.Token1155HolderKey;
-import com.platon.browser.dao.entity.TokenHolder;
 import com.platon.browser.elasticsearch.dto.ErcTx;
 import com.platon.browser.utils.AddressUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -13,23 +13,35 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Erc721 token 持有者服务
+ * Erc1155 token 持有者服务
  */
 @Slf4j
 @Service
 public class ErcToken1155HolderAnalyzer {
 
+    /**
+     * 余额的最大位数
+     */
+    private static final int UINT256_BIT_LENGTH = 256;
+
     @Resource
     private CustomToken1155HolderMapper customToken1155HolderMapper;
 
+    @Resource
+    private ErcCache ercCache;
+
     /**
      * 解析Token Holder
+     * 按转账事件实时维护持有者余额(余额账本)，事件位置(区块号, seq)不大于记录的账本位置时说明已记账，直接跳过
+     * 非标准合约会使持有者余额变为负数，此时标记该token改由定时任务轮询余额
      */
     @Transactional(rollbackFor = {Exception.class, Error.class})
     public void analyze(List<ErcTx> txList) {
@@ -38,30 +50,52 @@ public class ErcToken1155HolderAnalyzer {
         Map<String, Token1155Holder> context = new HashMap<>();
         txList.forEach(tx -> {
             if(StringUtils.equals(tx.getFrom(), tx.getTo())){
-                resolveTokenHolder(tx.getFrom(), tx, context, insert, update);
+                resolveTokenHolder(tx.getFrom(), tx, BigDecimal.ZERO, context, insert, update);
             }else {
-                resolveTokenHolder(tx.getFrom(), tx, context, insert, update);
-                resolveTokenHolder(tx.getTo(), tx, context, insert, update);
+                BigDecimal value = new BigDecimal(tx.getValue());
+                resolveTokenHolder(tx.getFrom(), tx, value.negate(), context, insert, update);
+                resolveTokenHolder(tx.getTo(), tx, value, context, insert, update);
             }
         });
 
         if (CollUtil.isNotEmpty(insert)) {
+            insert.forEach(holder -> holder.setBalance(holder.getIncrement().toPlainString()));
             customToken1155HolderMapper.batchInsert(insert);
         }
         if (CollUtil.isNotEmpty(update)) {
-            customToken1155HolderMapper.batchUpdateTokenOwnerTxQty(update);
+            update.forEach(holder -> holder.setBalance(resolveLedgerBalance(holder, holder.getIncrement())));
+            customToken1155HolderMapper.batchApplyLedger(update);
         }
     }
 
+    /**
+     * 计算记账后的余额，按整数精确相加后写回，数据库DECIMAL(65,0)容纳不了uint256余额
+     * 余额超出uint256范围时说明转账事件不能反映真实余额，标记该token改由定时任务轮询余额
+     *
+     * @return java.lang.String 记账后的余额，token改由定时任务轮询余额时返回null，不更新余额
+     */
+    private String resolveLedgerBalance(Token1155Holder holder, BigDecimal increment) {
+        if (ercCache.isBalancePolling(holder.getTokenAddress())) {
+            return null;
+        }
+        BigInteger newBalance = new BigDecimal(StringUtils.defaultIfBlank(holder.getBalance(), "0")).toBigInteger().add(increment.toBigInteger());
+        if (newBalance.bitLength() > UINT256_BIT_LENGTH) {
+            ercCache.markBalancePolling(holder.getTokenAddress(), StrUtil.format("持有者[{}]的tokenId[{}]余额[{}]超出uint256范围", holder.getAddress(), holder.getTokenId(), newBalance));
+            return null;
+        }
+        return newBalance.toString();
+    }
+
     /**
      * 解析
      *
      * @param ownerAddress:   地址
      * @param ercTx:          erc交易
+     * @param increment:      余额变动量
      * @return: void
      * @date: 2022/8/1
      */
-    private void resolveTokenHolder(String ownerAddress, ErcTx ercTx, Map<String, Token1155Holder> context, List<Token1155Holder> insert, List<Token1155Holder> update) {
+    private void resolveTokenHolder(String ownerAddress, ErcTx ercTx, BigDecimal increment, Map<String, Token1155Holder> context, List<Token1155Holder> insert, List<Token1155Holder> update) {
         // 零地址不需要創建holder
         if (AddressUtil.isAddrZero(ownerAddress)) {
             log.warn("该地址[{}]为0地址，不创建token holder", ownerAddress);
@@ -69,11 +103,8 @@ public class ErcToken1155HolderAnalyzer {
         }
         // 是否在缓存
         String objectKey = StringUtils.join(ercTx.getContract(), ercTx.getTokenId(), ownerAddress);
-        Token1155Holder tokenHolder = null;
-        if(context.containsKey(objectKey)){
-            tokenHolder = context.get(objectKey);
-            tokenHolder.setTokenOwnerTxQty(tokenHolder.getTokenOwnerTxQty() + 1);
-        } else {
+        Token1155Holder tokenHolder = context.get(objectKey);
+        if (tokenHolder == null) {
             Token1155HolderKey key = new Token1155HolderKey();
             key.setTokenAddress(ercTx.getContract());
             key.setAddress(ownerAddress);
@@ -83,112 +114,44 @@ public class ErcToken1155HolderAnalyzer {
                 tokenHolder = new Token1155Holder();
                 tokenHolder.setTokenAddress(key.getTokenAddress());
                 tokenHolder.setAddress(key.getAddress());
-                // 余额由定时任务更新，设置成默认值
                 tokenHolder.setBalance("0");
                 tokenHolder.setTokenId(ercTx.getTokenId());
-                tokenHolder.setTokenOwnerTxQty(1);
+                tokenHolder.setTokenOwnerTxQty(0);
                 insert.add(tokenHolder);
             } else {
-                int tokenOwnerTxQty = tokenHolder.getTokenOwnerTxQty() == null ? 0 : tokenHolder.getTokenOwnerTxQty();
-                tokenHolder.setTokenOwnerTxQty(tokenOwnerTxQty + 1);
+                if (tokenHolder.getTokenOwnerTxQty() == null) {
+                    tokenHolder.setTokenOwnerTxQty(0);
+                }
                 update.add(tokenHolder);
             }
+            tokenHolder.setIncrement(BigDecimal.ZERO);
             context.put(objectKey, tokenHolder);
         }
+        if (isApplied(tokenHolder, ercTx)) {
+            log.warn("该1155合约地址[{}][{}],持有者地址[{}]已记账到区块[{}]序号[{}]，跳过重复事件", tokenHolder.getTokenAddress(), tokenHolder.getTokenId(), tokenHolder.getAddress(), tokenHolder.getLedgerBn(), tokenHolder.getLedgerSeq());
+            return;
+        }
+        tokenHolder.setTokenOwnerTxQty(tokenHolder.getTokenOwnerTxQty() + 1);
+        tokenHolder.setLedgerBn(ercTx.getBn());
+        tokenHolder.setLedgerSeq(ercTx.getSeq());
+        if (!ercCache.isBalancePolling(ercTx.getContract())) {
+            BigDecimal newIncrement = tokenHolder.getIncrement().add(increment);
+            if (new BigDecimal(StringUtils.defaultIfBlank(tokenHolder.getBalance(), "0")).add(newIncrement).signum() < 0) {
+                ercCache.markBalancePolling(ercTx.getContract(), StrUtil.format("持有者[{}]的tokenId[{}]在区块[{}]余额为负", ownerAddress, ercTx.getTokenId(), ercTx.getBn()));
+            } else {
+                tokenHolder.setIncrement(newIncrement);
+            }
+        }
         log.info("该1155合约地址[{}][{}],持有者地址[{}],持有者对该合约的交易数为[{}]", tokenHolder.getTokenAddress(), tokenHolder.getTokenId(), tokenHolder.getAddress(), tokenHolder.getTokenOwnerTxQty());
     }
 
-//    /**
-//     * 解析Token Holder
-//     */
-//    @Transactional(rollbackFor = {Exception.class, Error.class})
-//    public void analyze(List<ErcTx> txList) {
-//        /*List<Token1155Holder> insertOrUpdate = new ArrayList<>();
-//        txList.forEach(tx -> {
-//            resolveTokenHolder(tx.getFrom(), tx, insertOrUpdate);
-//            resolveTokenHolder(tx.getTo(), tx, insertOrUpdate);
-//        });
-//        if (CollUtil.isNotEmpty(insertOrUpdate)) {
-//            customToken1155HolderMapper.batchInsertOrUpdateSelective1155(insertOrUpdate, Token1155Holder.Column.values());
-//        }*/
-//        List<Token1155Holder> changeBalanceList = new ArrayList<>();
-//        txList.forEach(tx -> {
-//            //resolveTokenHolder(tx.getFrom(), tx, insertOrUpdate);
-//            //resolveTokenHolder(tx.getTo(), tx, insertOrUpdate);
-//            if (StringUtils.isBlank(tx.getFrom()) || AddressUtil.isAddrZero(tx.getFrom())){ //铸币
-//                Token1155Holder toHolder = new Token1155Holder();
-//                toHolder.setTokenAddress(tx.getContract());
-//                toHolder.setAddress(tx.getTo());
-//                toHolder.setTokenId(tx.getTokenId());
-//                toHolder.setIncrement(new BigDecimal(tx.getValue())); //变动量
-//                changeBalanceList.add(toHolder);
-//            }else if (StringUtils.isBlank(tx.getTo()) || AddressUtil.isAddrZero(tx.getTo())) { //销毁
-//                Token1155Holder fromHolder = new Token1155Holder();
-//                fromHolder.setTokenAddress(tx.getContract());
-//                fromHolder.setAddress(tx.getFrom());
-//                fromHolder.setTokenId(tx.getTokenId());
-//                fromHolder.setIncrement(new BigDecimal(tx.getValue()).negate()); //变动量
-//                changeBalanceList.add(fromHolder);
-//            }else{ //正常token转账
-//                //from减少
-//                Token1155Holder fromHolder = new Token1155Holder();
-//                fromHolder.setTokenAddress(tx.getContract());
-//                fromHolder.setAddress(tx.getFrom());
-//                fromHolder.setTokenId(tx.getTokenId());
-//                fromHolder.setIncrement(new BigDecimal(tx.getValue()).negate()); //变动量
-//                changeBalanceList.add(fromHolder);
-//
-//                //to增加
-//                Token1155Holder toHolder = new Token1155Holder();
-//                toHolder.setTokenAddress(tx.getContract());
-//                toHolder.setAddress(tx.getTo());
-//                toHolder.setTokenId(tx.getTokenId());
-//                toHolder.setIncrement(new BigDecimal(tx.getValue())); //变动量
-//                changeBalanceList.add(toHolder);
-//            }
-//
-//        });
-//        if (CollUtil.isNotEmpty(changeBalanceList)) {
-//            //customTokenHolderMapper.batchInsertOrUpdateSelective(insertOrUpdate, TokenHolder.Column.values());
-//            log.debug("区块中ERC1155交易数量：{}，需要更新的token持有者记录数量为：{}", txList.size(), changeBalanceList.size());
-//            customToken1155HolderMapper.batchChange(changeBalanceList);
-//        }
-//    }
-
     /**
-     * 解析
-     *
-     * @param ownerAddress:   地址
-     * @param ercTx:          erc交易
-     * @param insertOrUpdate: 更新列表
-     * @return: void
-     * @date: 2022/8/1
+     * 事件是否已记账
      */
-    /*private void resolveTokenHolder(String ownerAddress, ErcTx ercTx, List<Token1155Holder> insertOrUpdate) {
-        // 零地址不需要創建holder
-        if (AddressUtil.isAddrZero(ownerAddress)) {
-            log.warn("该地址[{}]为0地址，不创建token holder", ownerAddress);
-            return;
-        }
-        Token1155HolderKey key = new Token1155HolderKey();
-        key.setTokenAddress(ercTx.getContract());
-        key.setAddress(ownerAddress);
-        key.setTokenId(ercTx.getTokenId());
-        Token1155Holder tokenHolder = customToken1155HolderMapper.selectByUK(key);
-        if (tokenHolder == null) {
-            tokenHolder = new Token1155Holder();
-            tokenHolder.setTokenAddress(key.getTokenAddress());
-            tokenHolder.setAddress(key.getAddress());
-            // 余额由定时任务更新，设置成默认值
-            tokenHolder.setBalance("0");
-            tokenHolder.setTokenId(ercTx.getTokenId());
-            tokenHolder.setTokenOwnerTxQty(1);
-        } else {
-            int tokenOwnerTxQty = tokenHolder.getTokenOwnerTxQty() == null ? 0 : tokenHolder.getTokenOwnerTxQty();
-            tokenHolder.setTokenOwnerTxQty(tokenOwnerTxQty + 1);
-        }
-        log.info("该1155合约地址[{}][{}],持有者地址[{}],持有者对该合约的交易数为[{}]", tokenHolder.getTokenAddress(), tokenHolder.getTokenId(), tokenHolder.getAddress(), tokenHolder.getTokenOwnerTxQty());
-        insertOrUpdate.add(tokenHolder);
-    }*/
+    private boolean isApplied(Token1155Holder tokenHolder, ErcTx ercTx) {
+        long ledgerBn = tokenHolder.getLedgerBn() == null ? 0 : tokenHolder.getLedgerBn();
+        long ledgerSeq = tokenHolder.getLedgerSeq() == null ? 0 : tokenHolder.getLedgerSeq();
+        return ercTx.getBn() < ledgerBn || (ercTx.getBn() == ledgerBn && ercTx.getSeq() <= ledgerSeq);
+    }
 
 }
@@ -109,6 +109,7 @@ public class ErcTokenAnalyzer {
                     break;
                 default:
             }
+            addressCache.indexContract(contractAddress);
             if (token.getTypeEnum() != ErcTypeEnum.UNKNOWN) {
                 // 入库ERC721、ERC20或ERC1155 Token记录
                 token.setTokenTxQty(0);
@@ -1,10 +1,10 @@
 package com.platon.browser.v0152.analyzer;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
 import com.platon.browser.dao.custommapper.CustomTokenHolderMapper;
 import com.platon.browser.dao.entity.TokenHolder;
 import com.platon.browser.dao.entity.TokenHolderKey;
-import com.platon.browser.dao.mapper.TokenHolderMapper;
 import com.platon.browser.elasticsearch.dto.ErcTx;
 import com.platon.browser.utils.AddressUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -14,21 +14,27 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
 
 /**
- * Erc721 token 持有者服务
+ * Erc20/Erc721 token 持有者服务
  */
 @Slf4j
 @Service
 public class ErcTokenHolderAnalyzer {
 
-    @Resource
-    private TokenHolderMapper tokenHolderMapper;
+    /**
+     * 余额的最大位数
+     */
+    private static final int UINT256_BIT_LENGTH = 256;
 
     @Resource
     private CustomTokenHolderMapper customTokenHolderMapper;
 
+    @Resource
+    private ErcCache ercCache;
+
     private TokenHolderKey getTokenHolderKey(String ownerAddress, ErcTx ercTx) {
         TokenHolderKey key = new TokenHolderKey();
         key.setTokenAddress(ercTx.getContract());
@@ -38,6 +44,8 @@ public class ErcTokenHolderAnalyzer {
 
     /**
      * 解析Token Holder
+     * 按转账事件实时维护持有者余额(余额账本)，事件位置(区块号, seq)不大于记录的账本位置时说明已记账，直接跳过
+     * 非标准合约(如铸币时没有Transfer事件)会使持有者余额变为负数，此时标记该token改由定时任务轮询余额
      */
     @Transactional(rollbackFor = {Exception.class, Error.class})
     public void analyze(List<ErcTx> txList) {
@@ -46,22 +54,43 @@ public class ErcTokenHolderAnalyzer {
         Map<String, TokenHolder> context = new HashMap<>();
         txList.forEach(tx -> {
             if(StringUtils.equals(tx.getFrom(), tx.getTo())){
-                resolveTokenHolder(tx.getFrom(), tx, context, insert, update);
+                resolveTokenHolder(tx.getFrom(), tx, BigDecimal.ZERO, context, insert, update);
             }else{
-                resolveTokenHolder(tx.getFrom(), tx, context, insert, update);
-                resolveTokenHolder(tx.getTo(), tx, context, insert, update);
+                BigDecimal value = new BigDecimal(tx.getValue());
+                resolveTokenHolder(tx.getFrom(), tx, value.negate(), context, insert, update);
+                resolveTokenHolder(tx.getTo(), tx, value, context, insert, update);
             }
         });
         if (CollUtil.isNotEmpty(insert)) {
+            insert.forEach(holder -> holder.setBalance(holder.getIncrement().toPlainString()));
             customTokenHolderMapper.batchInsert(insert);
         }
         if (CollUtil.isNotEmpty(update)) {
-            customTokenHolderMapper.batchUpdateTokenTxQty(update);
+            update.forEach(holder -> holder.setBalance(resolveLedgerBalance(holder, holder.getIncrement())));
+            customTokenHolderMapper.batchApplyLedger(update);
         }
     }
 
+    /**
+     * 计算记账后的余额，按整数精确相加后写回，数据库DECIMAL(65,0)容纳不了uint256余额
+     * 余额超出uint256范围时说明转账事件不能反映真实余额，标记该token改由定时任务轮询余额
+     *
+     * @return java.lang.String 记账后的余额，token改由定时任务轮询余额时返回null，不更新余额
+     */
+    private String resolveLedgerBalance(TokenHolder holder, BigDecimal increment) {
+        if (ercCache.isBalancePolling(holder.getTokenAddress())) {
+            return null;
+        }
+        BigInteger newBalance = new BigDecimal(StringUtils.defaultIfBlank(holder.getBalance(), "0")).toBigInteger().add(increment.toBigInteger());
+        if (newBalance.bitLength() > UINT256_BIT_LENGTH) {
+            ercCache.markBalancePolling(holder.getTokenAddress(), StrUtil.format("持有者[{}]余额[{}]超出uint256范围", holder.getAddress(), newBalance));
+            return null;
+        }
+        return newBalance.toString();
+    }
 
-    private void resolveTokenHolder(String ownerAddress, ErcTx ercTx, Map<String, TokenHolder> context,  List<TokenHolder> insert, List<TokenHolder> update) {
+
+    private void resolveTokenHolder(String ownerAddress, ErcTx ercTx, BigDecimal increment, Map<String, TokenHolder> context, List<TokenHolder> insert, List<TokenHolder> update) {
         // 零地址不需要創建holder
         if (AddressUtil.isAddrZero(ownerAddress)) {
             log.warn("该地址[{}]为0地址，不创建token holder", ownerAddress);
@@ -69,100 +98,49 @@ public class ErcTokenHolderAnalyzer {
         }
         // 是否在缓存
         String objectKey = StringUtils.join(ercTx.getContract(), ownerAddress);
-        TokenHolder tokenHolder = null;
-        if(context.containsKey(objectKey)){
-            tokenHolder = context.get(objectKey);
-            tokenHolder.setTokenTxQty(tokenHolder.getTokenTxQty() + 1);
-        } else {
+        TokenHolder tokenHolder = context.get(objectKey);
+        if (tokenHolder == null) {
             TokenHolderKey key = getTokenHolderKey(ownerAddress, ercTx);
-            tokenHolder = tokenHolderMapper.selectByPrimaryKey(key);
+            tokenHolder = customTokenHolderMapper.selectLedgerByKey(key);
             if (tokenHolder == null) {
                 tokenHolder = new TokenHolder();
                 tokenHolder.setTokenAddress(key.getTokenAddress());
                 tokenHolder.setAddress(key.getAddress());
-                tokenHolder.setTokenTxQty(1);
+                tokenHolder.setTokenTxQty(0);
                 tokenHolder.setBalance("0");
                 insert.add(tokenHolder);
             } else {
-                tokenHolder.setTokenTxQty(tokenHolder.getTokenTxQty() + 1);
                 update.add(tokenHolder);
             }
+            tokenHolder.setIncrement(BigDecimal.ZERO);
             context.put(objectKey, tokenHolder);
         }
-        //TokenTxQty： 用户对该erc20的交易总数，或者是用户对该erc721, erc1155所有tokenId的交易总数
-        log.info("该合约地址[{}],持有者地址[{}],持有者对该合约的交易数为[{}]", tokenHolder.getTokenAddress(), tokenHolder.getAddress(), tokenHolder.getTokenTxQty());
-    }
-
-
-//    /**
-//     * 解析Token Holder
-//     * lvxiaoyi, 2023/3/29
-//     * 这里实时维护账户持有token的数量，不用在ErcTOkenUpdateTask中去靠job更新
-//     * todo:如果合约的创建时铸币时没有transfer事件，将会使mint出来的数量没有被记录到minter账户上。
-//     * 然后这个minter转账后给其它人后，这个minter的balance会变成负数
-//     * 这个是因为这样的合约不是标准合约。所以如果实时维护就不能支持这样的非标准合约了。
-//     */
-//    @Transactional(rollbackFor = {Exception.class, Error.class})
-//    public void analyze(List<ErcTx> txList) {
-//        List<TokenHolder> changeBalanceList = new ArrayList<>();
-//        txList.forEach(tx -> {
-//            //resolveTokenHolder(tx.getFrom(), tx, insertOrUpdate);
-//            //resolveTokenHolder(tx.getTo(), tx, insertOrUpdate);
-//            if (StringUtils.isBlank(tx.getFrom()) || AddressUtil.isAddrZero(tx.getFrom())){ //铸币
-//                TokenHolder toHolder = new TokenHolder();
-//                toHolder.setTokenAddress(tx.getContract());
-//                toHolder.setAddress(tx.getTo());
-//                toHolder.setIncrement(new BigDecimal(tx.getValue())); //变动量
-//                changeBalanceList.add(toHolder);
-//            }else if (StringUtils.isBlank(tx.getTo()) || AddressUtil.isAddrZero(tx.getTo())) { //销毁币（不是销毁合约）
-//                TokenHolder fromHolder = new TokenHolder();
-//                fromHolder.setTokenAddress(tx.getContract());
-//                fromHolder.setAddress(tx.getFrom());
-//                fromHolder.setIncrement(new BigDecimal(tx.getValue()).negate()); //变动量
-//                changeBalanceList.add(fromHolder);
-//            }else{ //正常token转账
-//                //from减少
-//                TokenHolder fromHolder = new TokenHolder();
-//                fromHolder.setTokenAddress(tx.getContract());
-//                fromHolder.setAddress(tx.getFrom());
-//                fromHolder.setIncrement(new BigDecimal(tx.getValue()).negate()); //变动量
-//                changeBalanceList.add(fromHolder);
-//
-//                //to增加
-//                TokenHolder toHolder = new TokenHolder();
-//                toHolder.setTokenAddress(tx.getContract());
-//                toHolder.setAddress(tx.getTo());
-//                toHolder.setIncrement(new BigDecimal(tx.getValue())); //变动量
-//                changeBalanceList.add(toHolder);
-//            }
-//        });
-//        if (CollUtil.isNotEmpty(changeBalanceList)) {
-//            //customTokenHolderMapper.batchInsertOrUpdateSelective(insertOrUpdate, TokenHolder.Column.values());
-//            log.debug("区块中ERC20/ERC721交易数量：{}，需要更新的token持有者记录数量为：{}", txList.size(), changeBalanceList.size());
-//            customTokenHolderMapper.batchChange(changeBalanceList);
-//        }
-//    }
-
-    /*private void resolveTokenHolder(String ownerAddress, ErcTx ercTx, List<TokenHolder> insertOrUpdate) {
-        // 零地址不需要創建holder
-        if (AddressUtil.isAddrZero(ownerAddress)) {
-            log.warn("该地址[{}]为0地址，不创建token holder", ownerAddress);
+        if (isApplied(tokenHolder, ercTx)) {
+            log.warn("该合约地址[{}],持有者地址[{}]已记账到区块[{}]序号[{}]，跳过重复事件", tokenHolder.getTokenAddress(), tokenHolder.getAddress(), tokenHolder.getLedgerBn(), tokenHolder.getLedgerSeq());
             return;
         }
-        TokenHolderKey key = getTokenHolderKey(ownerAddress, ercTx);
-        TokenHolder tokenHolder = tokenHolderMapper.selectByPrimaryKey(key);
-        if (tokenHolder == null) {
-            tokenHolder = new TokenHolder();
-            tokenHolder.setTokenAddress(key.getTokenAddress());
-            tokenHolder.setAddress(key.getAddress());
-            tokenHolder.setTokenTxQty(1);
-            tokenHolder.setBalance("0");
-        } else {
-            tokenHolder.setTokenTxQty(tokenHolder.getTokenTxQty() + 1);
+        tokenHolder.setTokenTxQty(tokenHolder.getTokenTxQty() + 1);
+        tokenHolder.setLedgerBn(ercTx.getBn());
+        tokenHolder.setLedgerSeq(ercTx.getSeq());
+        if (!ercCache.isBalancePolling(ercTx.getContract())) {
+            BigDecimal newIncrement = tokenHolder.getIncrement().add(increment);
+            if (new BigDecimal(StringUtils.defaultIfBlank(tokenHolder.getBalance(), "0")).add(newIncrement).signum() < 0) {
+                ercCache.markBalancePolling(ercTx.getContract(), StrUtil.format("持有者[{}]在区块[{}]余额为负", ownerAddress, ercTx.getBn()));
+            } else {
+                tokenHolder.setIncrement(newIncrement);
+            }
         }
         //TokenTxQty： 用户对该erc20的交易总数，或者是用户对该erc721, erc1155所有tokenId的交易总数
         log.info("该合约地址[{}],持有者地址[{}],持有者对该合约的交易数为[{}]", tokenHolder.getTokenAddress(), tokenHolder.getAddress(), tokenHolder.getTokenTxQty());
-        insertOrUpdate.add(tokenHolder);
-    }*/
+    }
+
+    /**
+     * 事件是否已记账
+     */
+    private boolean isApplied(TokenHolder tokenHolder, ErcTx ercTx) {
+        long ledgerBn = tokenHolder.getLedgerBn() == null ? 0 : tokenHolder.getLedgerBn();
+        long ledgerSeq = tokenHolder.getLedgerSeq() == null ? 0 : tokenHolder.getLedgerSeq();
+        return ercTx.getBn() < ledgerBn || (ercTx.getBn() == ledgerBn && ercTx.getSeq() <= ledgerSeq);
+    }
 
 }
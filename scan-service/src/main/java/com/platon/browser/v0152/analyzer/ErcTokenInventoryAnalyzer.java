@@ -2,6 +2,8 @@ package com.platon.browser.v0152.analyzer;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
+import com.platon.browser.bean.Token721OwnerCount;
+import com.platon.browser.dao.custommapper.CustomToken721OwnerMapper;
 import com.platon.browser.dao.custommapper.CustomTokenInventoryMapper;
 import com.platon.browser.dao.entity.TokenInventory;
 import com.platon.browser.dao.entity.TokenInventoryExample;
@@ -19,8 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.annotation.Resource;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Erc721 token 库存服务
@@ -38,6 +42,9 @@ public class ErcTokenInventoryAnalyzer {
     @Resource
     private ErcServiceImpl ercServiceImpl;
 
+    @Resource
+    private CustomToken721OwnerMapper customToken721OwnerMapper;
+
     /**
      * 解析Token库存
      */
@@ -45,6 +52,7 @@ public class ErcTokenInventoryAnalyzer {
     public void analyze(String txHash, List<ErcTx> txList, BigInteger blockNumber) {
         List<TokenInventoryWithBLOBs> insertOrUpdate = new ArrayList<>();
         List<TokenInventoryKey> delTokenInventory = new ArrayList<>();
+        Map<String, Token721OwnerCount> ownerCountChange = new LinkedHashMap<>();
         if (CollUtil.isNotEmpty(txList)) {
             txList.forEach(tx -> {
                 String tokenAddress = tx.getContract();
@@ -76,6 +84,11 @@ public class ErcTokenInventoryAnalyzer {
                             log.warn("当前块高[{}]获取合约[{}]tokenId[{}]的tokenUrl为空，请联系管理员处理", blockNumber, tokenAddress, tokenId);
                         }
                     }
+                    // 持有者数量聚合：原持有者减1，新持有者加1，销毁时不计入0地址
+                    changeOwnerCount(ownerCountChange, tokenAddress, tokenInventory.getOwner(), -1);
+                    if (!AddressUtil.isAddrZero(tx.getTo())) {
+                        changeOwnerCount(ownerCountChange, tokenAddress, tx.getTo(), 1);
+                    }
                     if (tx.getTo().equalsIgnoreCase(tokenInventory.getOwner())) {
                         int tokenOwnerTxQty = tokenInventory.getTokenOwnerTxQty() == null ? 0 : tokenInventory.getTokenOwnerTxQty();
                         tokenInventory.setTokenOwnerTxQty(tokenOwnerTxQty + 1);
@@ -101,7 +114,35 @@ public class ErcTokenInventoryAnalyzer {
                 customTokenInventoryMapper.burnAndDelTokenInventory(delTokenInventory);
                 log.info("当前交易[{}]删除erc721库存[{}]笔成功", txHash, delTokenInventory.size());
             }
+            List<Token721OwnerCount> ownerCountList = ownerCountChange.values().stream().filter(v -> v.getQuantity() != 0).collect(Collectors.toList());
+            if (CollUtil.isNotEmpty(ownerCountList)) {
+                customToken721OwnerMapper.batchChange(ownerCountList);
+            }
+        }
+    }
+
+    /**
+     * 累计持有者的tokenId数量变动
+     *
+     * @param ownerCountChange 本次变动
+     * @param tokenAddress 合约地址
+     * @param owner 持有者，为空时忽略
+     * @param quantity 变动量
+     * @return void
+     * @date 2026/10/19
+     */
+    private void changeOwnerCount(Map<String, Token721OwnerCount> ownerCountChange, String tokenAddress, String owner, long quantity) {
+        if (StrUtil.isBlank(owner)) {
+            return;
         }
+        Token721OwnerCount ownerCount = ownerCountChange.computeIfAbsent(tokenAddress + owner, key -> {
+            Token721OwnerCount count = new Token721OwnerCount();
+            count.setTokenAddress(tokenAddress);
+            count.setOwner(owner);
+            count.setQuantity(0L);
+            return count;
+        });
+        ownerCount.setQuantity(ownerCount.getQuantity() + quantity);
     }
 
 }
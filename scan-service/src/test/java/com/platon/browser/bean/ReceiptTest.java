@@ -2,15 +2,23 @@ package com.platon.browser.bean;
 
 import com.platon.browser.bean.Receipt;
 import com.platon.browser.bean.ReceiptResult;
+import com.platon.rlp.solidity.RlpEncoder;
+import com.platon.rlp.solidity.RlpList;
+import com.platon.rlp.solidity.RlpString;
+import com.platon.utils.Numeric;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class ReceiptTest {
@@ -58,4 +66,30 @@ public class ReceiptTest {
 
         assertTrue(true);
     }
+
+    @Test
+    public void lazyDecode() {
+        Receipt receipt = new Receipt();
+        receipt.setStatus("0x1");
+        receipt.setGasUsed("0x5208");
+        assertEquals(Receipt.SUCCESS, receipt.getStatus());
+        assertEquals(BigInteger.valueOf(21000), receipt.getGasUsed());
+        assertSame(receipt.getGasUsed(), receipt.getGasUsed());
+        receipt.setStatus("0x0");
+        assertEquals(Receipt.FAILURE, receipt.getStatus());
+
+        com.platon.protocol.core.methods.response.Log log = new com.platon.protocol.core.methods.response.Log();
+        log.setData(Numeric.toHexString(RlpEncoder.encode(new RlpList(RlpString.create("301111")))));
+        receipt.setLogs(Collections.singletonList(log));
+        assertEquals("301111", receipt.getFailReason());
+        assertEquals(Receipt.FAILURE, receipt.getLogStatus());
+
+        // 非RLP格式的日志保留默认状态
+        log = new com.platon.protocol.core.methods.response.Log();
+        log.setData("0x0000000000000000000000000000000000000000000000000000000000000001");
+        Receipt transfer = new Receipt();
+        transfer.setLogs(Collections.singletonList(log));
+        assertEquals(0, transfer.getLogStatus());
+        assertNull(transfer.getFailReason());
+    }
 }
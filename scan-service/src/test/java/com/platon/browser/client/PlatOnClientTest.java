@@ -14,7 +14,6 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
 
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,8 +23,6 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class PlatOnClientTest {
 
-	@Mock
-	private ExecutorService logDecodeExecutor;
 	@Mock
 	private RetryableClient retryableClient;
 	@Mock
@@ -36,10 +33,8 @@ public class PlatOnClientTest {
 
 	@Test
 	public void testInit() throws IOException, InterruptedException {
-		ReflectionTestUtils.setField(target,"logDecodeExecutor",logDecodeExecutor);
 		ReflectionTestUtils.setField(target,"retryableClient",retryableClient);
 		ReflectionTestUtils.setField(target,"specialApi",specialApi);
-		ReflectionTestUtils.setField(target,"logDecodeThreadNum",6);
 
 		ReflectionTestUtils.invokeMethod(target,"init");
 
@@ -0,0 +1,67 @@
+package com.platon.browser.decoder.ppos;
+
+import com.platon.rlp.solidity.RlpEncoder;
+import com.platon.rlp.solidity.RlpList;
+import com.platon.rlp.solidity.RlpString;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RlpReaderTest {
+
+    private static final String STAKE_CREATE = "f901a1838203e88180959460ceca9c1290ee56b98d4e160ef0453f7c40d219b842b840bfc9d6578bab4e510755575e47b7d137fcf0ad0bcf10ed4d023640dfb41b197b9f0d8014e47ecbe4d51f15db514009cbda109ebcf0b7afe06600d6d423bb7fbf9190354644363842363930303130363332428a897a726a2d6e6f6465318e8d7777772e62616964752e636f6d96956368656e6461692d6e6f6465312d64657461696c738c8b108b2a2c2802909400000083820703b843b841db3b6fc83e683dd3ce915e691f6095ebfef951c0828250ca2c7a5eebc6eed92a6531123b17f8d987460890a470a009aab522ac7ceb311f2367dae9aec6466baf00b862b860b4713797d296c9fe1749d22eb59b03d9694ab896b71449b0e6daf2d1ecb3a9d3d6e9c258b37acb2d07fa82bcb55ced144fb4b056d6cd192a509859615b090128d6e5686e84df47951e1781625627907054975f76e427da8d32d3f30b9a53e60fb842b8409b40eb38ee734640d38e433fde9c075ae123d6238e450c0b8437ef3ece9e4e6378c0f54db1105ee0045baecf4a9cad4e8c1d4d5e8c91c42c4bbd61fd87ec4d52";
+
+    @Test
+    public void readStakeCreate() {
+        RlpReader input = new RlpReader(Hex.decode(STAKE_CREATE));
+        assertTrue(input.isNextList());
+        RlpReader reader = input.readList();
+        assertFalse(input.hasNext());
+        assertEquals(BigInteger.valueOf(1000), reader.readBigInteger());
+        assertEquals(BigInteger.ZERO, reader.readBigInteger());
+        assertEquals("0x60ceca9c1290ee56b98d4e160ef0453f7c40d219", reader.readHex());
+        assertEquals("0xbfc9d6578bab4e510755575e47b7d137fcf0ad0bcf10ed4d023640dfb41b197b9f0d8014e47ecbe4d51f15db514009cbda109ebcf0b7afe06600d6d423bb7fbf", reader.readHex());
+        assertEquals("5FD68B690010632B", reader.readUtf8());
+        assertEquals("zrj-node1", reader.readUtf8());
+        assertEquals("www.baidu.com", reader.readUtf8());
+        assertEquals("chendai-node1-details", reader.readUtf8());
+        assertEquals(new BigInteger("20000000000000000000000000"), reader.readBigInteger());
+        assertEquals(BigInteger.valueOf(0x0703), reader.readBigInteger());
+        reader.skip();
+        reader.skip();
+        reader.skip();
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void readEmptyAndNested() {
+        byte[] plans = RlpEncoder.encode(new RlpList(new RlpList(RlpString.create(1000), RlpString.create(BigInteger.TEN.pow(18))),
+                                                     new RlpList(RlpString.create(2000), RlpString.create(1))));
+        byte[] data = RlpEncoder.encode(new RlpList(RlpString.create(new byte[0]), RlpString.create(plans)));
+        RlpReader reader = new RlpReader(data).readList();
+        assertNull(reader.readHex());
+        RlpReader planList = reader.readNested().readList();
+        RlpReader plan = planList.readList();
+        assertEquals(BigInteger.valueOf(1000), plan.readRawBigInteger());
+        assertEquals(BigInteger.TEN.pow(18), plan.readRawBigInteger());
+        plan = planList.readList();
+        assertEquals(BigInteger.valueOf(2000), plan.readRawBigInteger());
+        assertEquals(BigInteger.ONE, plan.readRawBigInteger());
+        assertFalse(planList.hasNext());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readPastEnd() {
+        RlpReader reader = new RlpReader(RlpEncoder.encode(new RlpList())).readList();
+        reader.readBigInteger();
+    }
+
+}
@@ -19,6 +19,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -105,4 +109,19 @@ public class EsTransactionRepositoryTest {
         target.bulkAddOrUpdate(map);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void partitionTest() throws Exception {
+        String indexName = "alaya_browser_hrpatp201018v10000_transaction";
+        assertFalse(target.isPartitioned());
+        assertArrayEquals(new String[]{indexName}, target.getSearchIndexNames(1L, 100L));
+        target.config.getPartitionBlockCount().put("transaction", 1000L);
+        assertTrue(target.isPartitioned());
+        assertEquals(indexName + "_p000000", target.getPartitionIndexName(999));
+        assertEquals(indexName + "_p000001", target.getPartitionIndexName(1000));
+        assertArrayEquals(new String[]{indexName + "_p000001", indexName + "_p000002"}, target.getSearchIndexNames(1500L, 2000L));
+        // 范围未知或跨越过多分区时查询别名
+        assertArrayEquals(new String[]{indexName}, target.getSearchIndexNames(null, 2000L));
+        assertArrayEquals(new String[]{indexName}, target.getSearchIndexNames(0L, 100000L));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.platon.browser.service.erc;
+
+import com.platon.browser.config.BlockChainConfig;
+import com.platon.browser.dao.custommapper.CustomToken1155HolderMapper;
+import com.platon.browser.dao.custommapper.CustomTokenHolderMapper;
+import com.platon.browser.dao.custommapper.CustomTokenMapper;
+import com.platon.browser.dao.entity.TokenHolder;
+import com.platon.tx.exceptions.ContractCallException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ErcBalanceRefreshServiceTest {
+
+    @Mock
+    private ErcServiceImpl ercServiceImpl;
+
+    @Mock
+    private CustomTokenHolderMapper customTokenHolderMapper;
+
+    @Mock
+    private CustomToken1155HolderMapper customToken1155HolderMapper;
+
+    @Mock
+    private CustomTokenMapper customTokenMapper;
+
+    @InjectMocks
+    private ErcBalanceRefreshService target;
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(target, "blockChainConfig", new BlockChainConfig());
+        target.init();
+    }
+
+    @After
+    public void destroy() {
+        target.destroy();
+    }
+
+    private TokenHolder holder(String address) {
+        TokenHolder holder = new TokenHolder();
+        holder.setTokenAddress("lat1contract");
+        holder.setAddress(address);
+        return holder;
+    }
+
+    @Test
+    public void transportError() throws Exception {
+        // 网络异常不拆分重试，直接抛出
+        when(ercServiceImpl.batchBalanceOfOwner(anyList())).thenThrow(new IOException("timeout"));
+        try {
+            target.refreshTokenHolderBalance(Arrays.asList(holder("lat1a"), holder("lat1b"), holder("lat1c")));
+            fail();
+        } catch (IOException e) {
+            assertEquals("timeout", e.getMessage());
+        }
+        verify(ercServiceImpl, times(1)).batchBalanceOfOwner(anyList());
+        verify(customTokenHolderMapper, never()).batchUpdate(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void contractCallError() throws Exception {
+        // 整批合约调用失败时对半拆分重试
+        when(ercServiceImpl.batchBalanceOfOwner(anyList())).thenAnswer(invocation -> {
+            List<TokenHolder> keys = invocation.getArgument(0);
+            if (keys.size() > 1) {
+                throw new ContractCallException("out of gas");
+            }
+            return keys.stream().map(key -> {
+                TokenHolder holder = holder(key.getAddress());
+                holder.setBalance("1");
+                return holder;
+            }).collect(Collectors.toList());
+        });
+        int updated = target.refreshTokenHolderBalance(Arrays.asList(holder("lat1a"), holder("lat1b")));
+        assertEquals(2, updated);
+        verify(ercServiceImpl, times(3)).batchBalanceOfOwner(anyList());
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.platon.browser.v0152.analyzer;
+
+import com.platon.browser.dao.custommapper.CustomTokenHolderMapper;
+import com.platon.browser.dao.custommapper.CustomTokenMapper;
+import com.platon.browser.dao.entity.TokenHolder;
+import com.platon.browser.dao.entity.TokenHolderKey;
+import com.platon.browser.elasticsearch.dto.ErcTx;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ErcTokenHolderAnalyzerTest {
+
+    private static final String CONTRACT = "lat1contract";
+
+    private static final String FROM = "lat1from";
+
+    private static final String TO = "lat1to";
+
+    @Mock
+    private CustomTokenHolderMapper customTokenHolderMapper;
+
+    @Mock
+    private ErcCache ercCache;
+
+    @InjectMocks
+    private ErcTokenHolderAnalyzer target;
+
+    private ErcTx tx(long bn, long seq, String value) {
+        return ErcTx.builder().bn(bn).seq(seq).contract(CONTRACT).from(FROM).to(TO).value(value).tokenId("0").build();
+    }
+
+    private TokenHolder holder(String address, String balance, long ledgerBn, long ledgerSeq) {
+        TokenHolder holder = new TokenHolder();
+        holder.setTokenAddress(CONTRACT);
+        holder.setAddress(address);
+        holder.setBalance(balance);
+        holder.setTokenTxQty(1);
+        holder.setLedgerBn(ledgerBn);
+        holder.setLedgerSeq(ledgerSeq);
+        return holder;
+    }
+
+    private void mockHolder(TokenHolder holder) {
+        when(customTokenHolderMapper.selectLedgerByKey(argThat((TokenHolderKey key) -> key != null && holder.getAddress().equals(key.getAddress())))).thenReturn(holder);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void applyTransfer() {
+        mockHolder(holder(FROM, "100", 10, 1000001));
+        target.analyze(Collections.singletonList(tx(20, 2000001, "30")));
+        ArgumentCaptor<List<TokenHolder>> update = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<TokenHolder>> insert = ArgumentCaptor.forClass(List.class);
+        verify(customTokenHolderMapper).batchApplyLedger(update.capture());
+        verify(customTokenHolderMapper).batchInsert(insert.capture());
+        TokenHolder from = update.getValue().get(0);
+        assertEquals(0, new BigDecimal("-30").compareTo(from.getIncrement()));
+        assertEquals("70", from.getBalance());
+        assertEquals(2, from.getTokenTxQty().intValue());
+        assertEquals(20L, from.getLedgerBn().longValue());
+        assertEquals(2000001L, from.getLedgerSeq().longValue());
+        TokenHolder to = insert.getValue().get(0);
+        assertEquals("30", to.getBalance());
+        assertEquals(1, to.getTokenTxQty().intValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void skipAppliedEvent() {
+        mockHolder(holder(FROM, "70", 20, 2000001));
+        mockHolder(holder(TO, "30", 20, 2000001));
+        target.analyze(Collections.singletonList(tx(20, 2000001, "30")));
+        ArgumentCaptor<List<TokenHolder>> update = ArgumentCaptor.forClass(List.class);
+        verify(customTokenHolderMapper).batchApplyLedger(update.capture());
+        update.getValue().forEach(holder -> {
+            assertEquals(0, BigDecimal.ZERO.compareTo(holder.getIncrement()));
+            assertEquals(1, holder.getTokenTxQty().intValue());
+        });
+        verify(customTokenHolderMapper, never()).batchInsert(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void markNonStandardToken() {
+        mockHolder(holder(FROM, "10", 10, 1000001));
+        target.analyze(Collections.singletonList(tx(20, 2000001, "30")));
+        verify(ercCache).markBalancePolling(eq(CONTRACT), anyString());
+        ArgumentCaptor<List<TokenHolder>> update = ArgumentCaptor.forClass(List.class);
+        verify(customTokenHolderMapper).batchApplyLedger(update.capture());
+        assertEquals(0, BigDecimal.ZERO.compareTo(update.getValue().get(0).getIncrement()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void stopLedgerAfterJobFlag() {
+        CustomTokenMapper customTokenMapper = mock(CustomTokenMapper.class);
+        ErcCache cache = new ErcCache();
+        ReflectionTestUtils.setField(cache, "customTokenMapper", customTokenMapper);
+        ReflectionTestUtils.setField(target, "ercCache", cache);
+        mockHolder(holder(FROM, "100", 10, 1000001));
+        mockHolder(holder(TO, "0", 10, 1000001));
+        target.analyze(Collections.singletonList(tx(20, 2000001, "30")));
+        ArgumentCaptor<List<TokenHolder>> update = ArgumentCaptor.forClass(List.class);
+        verify(customTokenHolderMapper).batchApplyLedger(update.capture());
+        assertEquals("70", update.getValue().get(0).getBalance());
+        // job抽样核对余额不一致时标记该token，agent不重启，定时同步后不再按转账事件记账
+        when(customTokenMapper.selectBalancePollingToken()).thenReturn(Collections.singletonList(CONTRACT));
+        cache.refreshBalancePolling();
+        target.analyze(Collections.singletonList(tx(21, 2100001, "30")));
+        verify(customTokenHolderMapper, times(2)).batchApplyLedger(update.capture());
+        update.getValue().forEach(holder -> {
+            assertEquals(0, BigDecimal.ZERO.compareTo(holder.getIncrement()));
+            assertNull(holder.getBalance());
+            assertEquals(21L, holder.getLedgerBn().longValue());
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void applyUint256Balance() {
+        // 超出DECIMAL(65,0)的余额按整数精确相加
+        BigInteger max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        mockHolder(holder(FROM, max.subtract(BigInteger.ONE).toString(), 10, 1000001));
+        mockHolder(holder(TO, "1", 10, 1000001));
+        target.analyze(Arrays.asList(tx(20, 2000001, "1"), ErcTx.builder().bn(20L).seq(2000002L).contract(CONTRACT).from(TO).to(FROM).value("2").tokenId("0").build()));
+        ArgumentCaptor<List<TokenHolder>> update = ArgumentCaptor.forClass(List.class);
+        verify(customTokenHolderMapper).batchApplyLedger(update.capture());
+        TokenHolder from = update.getValue().get(0);
+        assertEquals(max.toString(), from.getBalance());
+        assertEquals("0", update.getValue().get(1).getBalance());
+        verify(ercCache, never()).markBalancePolling(anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void markUint256Overflow() {
+        // 余额超出uint256范围时标记该token改由定时任务轮询余额，不更新余额
+        BigInteger max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        mockHolder(holder(FROM, "10", 10, 1000001));
+        mockHolder(holder(TO, max.toString(), 10, 1000001));
+        target.analyze(Collections.singletonList(tx(20, 2000001, "1")));
+        verify(ercCache).markBalancePolling(eq(CONTRACT), anyString());
+        ArgumentCaptor<List<TokenHolder>> update = ArgumentCaptor.forClass(List.class);
+        verify(customTokenHolderMapper).batchApplyLedger(update.capture());
+        assertNull(update.getValue().get(1).getBalance());
+    }
+
+}